@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+# Runs a cluster of engine nodes on localhost, spreads matches over it, then scales up by one node and down by one
+# while every match keeps playing through randomly picked nodes. Membership comes from a file that every node
+# re-reads each second, and all nodes share a random cluster secret. Prints how many matches each node holds after every step and fails on any turn that
+# does not come back 200 or 202.
+# usage: loadtest/cluster.sh [nodes=3] [matches=300]
+set -euo pipefail
+
+nodes=${1:-3}
+matches=${2:-300}
+first_port=18181
+root=$(cd "$(dirname "$0")/.." && pwd)
+work=$(mktemp -d)
+members="$work/members"
+secret=$(head -c 16 /dev/urandom | od -An -tx1 | tr -d ' \n')
+pids=()
+
+(cd "$root" && ./mvnw -q -DskipTests package)
+jar=$(ls "$root"/target/BattleEngine-*.jar | head -n 1)
+
+cleanup() {
+    kill "${pids[@]}" 2> /dev/null || true
+    wait 2> /dev/null || true
+    rm -rf "$work"
+}
+trap cleanup EXIT
+
+start() {
+    local port=$1 log="$root/target/cluster-$port.log" pid
+    java -Xms256m -Xmx256m -XX:TieredStopAtLevel=1 -jar "$jar" --server.port="$port" \
+        --engine.cluster.enabled=true --engine.cluster.members-file="$members" \
+        --engine.cluster.secret="$secret" --engine.cluster.refresh-interval-ms=1000 > "$log" 2>&1 &
+    pid=$!
+    pids+=("$pid")
+    until curl -s -o /dev/null "http://localhost:$port/engine/moves"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "node on port $port exited before it came up:" >&2
+            tail -n 20 "$log" >&2
+            exit 1
+        fi
+        sleep 0.5
+    done
+}
+
+ports=()
+for ((i = 0; i < nodes; i++)); do
+    ports+=($((first_port + i)))
+    echo "http://localhost:$((first_port + i))" >> "$members"
+done
+for port in "${ports[@]}"; do start "$port"; done
+
+stats='{"Health":1000000,"Energy":150,"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Agility":80}'
+setup="{\"player1\":{\"playerId\":\"p1\",\"stats\":$stats,\"moveIds\":[0,1]},\"player2\":{\"playerId\":\"p2\",\"stats\":$stats,\"moveIds\":[0,1]}}"
+ids=()
+for ((i = 0; i < matches; i++)); do
+    port=${ports[$((i % ${#ports[@]}))]}
+    ids+=("$(curl -s -H 'Content-Type: application/json' -d "$setup" "http://localhost:$port/engine/matches" | jq -r .matchId)")
+done
+
+play() {
+    local failed=0 port status
+    for id in "${ids[@]}"; do
+        for player in p1 p2; do
+            port=${ports[$((RANDOM % ${#ports[@]}))]}
+            status=$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+                -d "{\"player\":\"$player\",\"moveId\":1}" "http://localhost:$port/engine/matches/$id/turn")
+            if [[ $status != 200 && $status != 202 ]]; then
+                failed=$((failed + 1))
+            fi
+        done
+    done
+    printf '%-24s failed turns %d, matches per node:' "$1" "$failed"
+    for port in "${ports[@]}"; do
+        printf ' %d=%s' "$port" "$(curl -s "http://localhost:$port/internal/cluster" | jq .matches)"
+    done
+    echo
+    [[ $failed == 0 ]]
+}
+
+play "initial ($nodes nodes)"
+
+new_port=$((first_port + nodes))
+start "$new_port"
+ports+=("$new_port")
+echo "http://localhost:$new_port" >> "$members"
+sleep 3
+play "scaled up"
+
+leaving=${ports[0]}
+grep -v ":$leaving\$" "$members" > "$members.next" && mv "$members.next" "$members"
+sleep 3
+ports=("${ports[@]:1}")
+play "scaled down"
@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Compares the servlet (Tomcat) and reactive (Netty) modes of /engine/turn at a fixed connection count.
+# Needs wrk on the PATH and a file-descriptor limit above the connection count.
+# usage: loadtest/compare-modes.sh [connections=10000] [duration=60s] [threads=8]
+set -euo pipefail
+
+connections=${1:-10000}
+duration=${2:-60s}
+threads=${3:-8}
+port=18180
+root=$(cd "$(dirname "$0")/.." && pwd)
+
+ulimit -n $((connections + 1024))
+(cd "$root" && ./mvnw -q -DskipTests package)
+jar=$(ls "$root"/target/BattleEngine-*.jar | head -n 1)
+
+run_mode() {
+    local mode=$1
+    java -Xms1g -Xmx1g -jar "$jar" --server.port=$port \
+        --spring.main.web-application-type="$mode" \
+        --server.tomcat.max-connections=$((connections + 1000)) \
+        --server.tomcat.threads.max=400 > "$root/target/loadtest-$mode.log" 2>&1 &
+    local pid=$!
+    until curl -s -o /dev/null "http://localhost:$port/engine/moves"; do sleep 0.5; done
+
+    wrk -t"$threads" -c1000 -d15s -s "$root/loadtest/turn.lua" "http://localhost:$port/engine/turn" > /dev/null # warm-up
+    printf '%-8s ' "$mode"
+    wrk -t"$threads" -c"$connections" -d"$duration" --timeout 10s -s "$root/loadtest/turn.lua" \
+        "http://localhost:$port/engine/turn" | tail -n 1
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+echo "connections=$connections duration=$duration threads=$threads"
+run_mode servlet
+run_mode reactive
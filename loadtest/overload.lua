@@ -0,0 +1,35 @@
+-- wrk script: the turn from turn.lua, sent by one game server per wrk thread (X-Client-Id), counting 429s
+local counter = 0
+local threads = {}
+
+function setup(thread)
+   counter = counter + 1
+   thread:set("id", counter)
+   table.insert(threads, thread)
+end
+
+function init(args)
+   rejected = 0
+   wrk.method = "POST"
+   wrk.headers["Content-Type"] = "application/json"
+   wrk.headers["X-Client-Id"] = "game-server-" .. id
+   wrk.body = [[{"player1State":{"playerId":"p1","moveId":0,"stats":{"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Health":9000,"Energy":150,"Agility":90}},"player2State":{"playerId":"p2","moveId":1,"stats":{"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Health":9000,"Energy":150,"Agility":75}}}]]
+end
+
+function response(status, headers, body)
+   if status == 429 then
+      rejected = rejected + 1
+   end
+end
+
+done = function(summary, latency, requests)
+   local shed = 0
+   for _, thread in ipairs(threads) do
+      shed = shed + thread:get("rejected")
+   end
+   io.write(string.format("rps=%.0f p50_ms=%.2f p99_ms=%.2f rejected_429=%d other_errors=%d\n",
+      summary.requests / (summary.duration / 1e6),
+      latency:percentile(50) / 1000, latency:percentile(99) / 1000, shed,
+      summary.errors.connect + summary.errors.read + summary.errors.write + summary.errors.timeout
+         + summary.errors.status - shed))
+end
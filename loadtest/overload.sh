@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Drives /engine/turn at its saturation point and at 5x that load, with admission control off and on.
+# With it off, excess requests queue in Tomcat and p99 grows with the overload; with it on, the excess is answered
+# with 429 right away and admitted requests keep roughly the p99 of the saturation run.
+# Needs wrk on the PATH. Latencies in the output include the fast 429s.
+# RATE (per client and second, default 100000) keeps the token buckets out of the way of the concurrency limit.
+# usage: loadtest/overload.sh [base-connections=64] [duration=60s] [threads=8]
+set -euo pipefail
+
+base=${1:-64}
+duration=${2:-60s}
+threads=${3:-8}
+overload=$((base * 5))
+port=18180
+root=$(cd "$(dirname "$0")/.." && pwd)
+
+ulimit -n $((overload + 1024))
+(cd "$root" && ./mvnw -q -DskipTests package)
+jar=$(ls "$root"/target/BattleEngine-*.jar | head -n 1)
+
+run() {
+    local admission=$1
+    java -Xms1g -Xmx1g -jar "$jar" --server.port=$port \
+        --engine.admission.enabled="$admission" --engine.admission.rate="${RATE:-100000}" \
+        --server.tomcat.threads.max=200 > "$root/target/loadtest-admission-$admission.log" 2>&1 &
+    local pid=$!
+    until curl -s -o /dev/null "http://localhost:$port/engine/moves"; do sleep 0.5; done
+
+    wrk -t"$threads" -c"$base" -d15s -s "$root/loadtest/overload.lua" "http://localhost:$port/engine/turn" > /dev/null # warm-up
+    for connections in $base $overload; do
+        printf 'admission=%-5s connections=%-5d ' "$admission" "$connections"
+        wrk -t"$threads" -c"$connections" -d"$duration" --timeout 10s -s "$root/loadtest/overload.lua" \
+            "http://localhost:$port/engine/turn" | tail -n 1
+    done
+    curl -s "http://localhost:$port/actuator/prometheus" | grep '^engine_admission' || true
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+echo "base=$base overload=$overload duration=$duration threads=$threads"
+run false
+run true
@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Measures cold start of one engine node: Spring's own startup time, wall time from launching the JVM to the first
+# 200 from POST /engine/turn, and the process RSS at that moment. Compares the fat jar, the same jar unpacked onto a
+# plain classpath, the lean profile with startup JVM flags, and the lean build on top of an AppCDS archive dumped
+# from a training run that served one turn.
+# usage: loadtest/startup.sh [runs=3]
+set -euo pipefail
+
+runs=${1:-3}
+port=18190
+root=$(cd "$(dirname "$0")/.." && pwd)
+work=$(mktemp -d)
+pid=
+
+(cd "$root" && ./mvnw -q -DskipTests package)
+jar=$(ls "$root"/target/BattleEngine-*.jar | head -n 1)
+
+cleanup() {
+    [[ -n $pid ]] && kill "$pid" 2> /dev/null || true
+    rm -rf "$work"
+}
+trap cleanup EXIT
+
+# CDS only archives classes from jars, so the application classes are jarred again next to the libraries
+(cd "$work" && jar xf "$jar")
+jar cf "$work/app.jar" -C "$work/BOOT-INF/classes" .
+classpath="$work/app.jar$(printf ':%s' "$work"/BOOT-INF/lib/*.jar)"
+main=tech.quangson.battleengine.BattleEngineApplication
+flags="-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xss512k -Dspring.backgroundpreinitializer.ignore=true"
+lean="--spring.profiles.active=lean"
+
+stats='{"Health":9000,"Energy":150,"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Agility":80}'
+turn="{\"player1State\":{\"playerId\":\"p1\",\"stats\":$stats,\"moveId\":0},\"player2State\":{\"playerId\":\"p2\",\"stats\":$stats,\"moveId\":1}}"
+
+# starts java with the given arguments and waits for the first turn; sets elapsed (ms) and rss (MB)
+launch() {
+    local log="$work/node.log" start end
+    start=$(date +%s%N)
+    java "$@" --server.port="$port" > "$log" 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null -f -H 'Content-Type: application/json' -d "$turn" "http://localhost:$port/engine/turn"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "node exited before its first turn:" >&2
+            tail -n 20 "$log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    elapsed=$(((end - start) / 1000000))
+    rss=$(($(awk '/VmRSS/ {print $2}' "/proc/$pid/status") / 1024))
+    started=$(grep -o 'Started BattleEngineApplication in [0-9.]* seconds' "$log" | grep -o '[0-9.]*' || echo '?')
+}
+
+stop() {
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    pid=
+}
+
+measure() {
+    local name=$1
+    shift
+    for ((i = 1; i <= runs; i++)); do
+        launch "$@"
+        stop
+        printf '%-12s run %d: started in %5s s, first turn after %6d ms, rss %4d MB\n' "$name" "$i" "$started" "$elapsed" "$rss"
+    done
+}
+
+# the archive is written when the training JVM exits
+launch -XX:ArchiveClassesAtExit="$work/app.jsa" $flags -cp "$classpath" $main $lean
+stop
+
+measure "fat jar" -jar "$jar"
+measure "exploded" -cp "$classpath" $main
+measure "lean" $flags -cp "$classpath" $main $lean
+measure "lean + cds" -XX:SharedArchiveFile="$work/app.jsa" $flags -cp "$classpath" $main $lean
@@ -0,0 +1,11 @@
+-- wrk script: POST one catalog-backed turn per request
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+wrk.body = [[{"player1State":{"playerId":"p1","moveId":0,"stats":{"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Health":9000,"Energy":150,"Agility":90}},"player2State":{"playerId":"p2","moveId":1,"stats":{"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Health":9000,"Energy":150,"Agility":75}}}]]
+
+done = function(summary, latency, requests)
+   io.write(string.format("rps=%.0f p50_ms=%.2f p99_ms=%.2f errors=%d\n",
+      summary.requests / (summary.duration / 1e6),
+      latency:percentile(50) / 1000, latency:percentile(99) / 1000,
+      summary.errors.connect + summary.errors.read + summary.errors.write + summary.errors.status + summary.errors.timeout))
+end
@@ -0,0 +1,95 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnBatch;
+import tech.quangson.battleengine.mechanics.TurnBatchEvaluator;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// turns per microsecond: one kernel call per turn vs the struct-of-arrays batch on the scalar and vector paths;
+// vectorBatch only takes the vector path with -P benchmark,vector
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchBenchmark {
+
+    private static final int Turns = 4096;
+
+    private final TurnResult result = new TurnResult();
+    private final TurnBatch batch = new TurnBatch(Turns);
+    private final TurnBatchEvaluator scalar = TurnBatchEvaluator.scalar();
+    private final TurnBatchEvaluator vector = TurnBatchEvaluator.create();
+    private TurnKernel kernel;
+    private CompiledMove[][] moves;
+    private int[][][] stats;
+
+    @Setup
+    public void setup() throws IOException {
+        MoveCatalog catalog;
+        try (var in = BatchBenchmark.class.getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, new ObjectMapper());
+        }
+        kernel = new TurnKernel(catalog);
+        var rng = new SplittableRandom(5);
+        moves = new CompiledMove[Turns][2];
+        stats = new int[Turns][2][];
+        for (int i = 0; i < Turns; i++) {
+            for (int player = 0; player < 2; player++) {
+                moves[i][player] = catalog.get(rng.nextInt(catalog.size()));
+                var playerStats = new int[Stat.COUNT];
+                for (int stat = 0; stat < Stat.COUNT; stat++) {
+                    playerStats[stat] = rng.nextInt(50, 120);
+                }
+                playerStats[Stat.HEALTH.ordinal()] = 9000;
+                playerStats[Stat.ENERGY.ordinal()] = rng.nextInt(50, 200);
+                stats[i][player] = playerStats;
+            }
+            batch.add(moves[i][0], stats[i][0], moves[i][1], stats[i][1]);
+        }
+        System.out.println("\nvector path: " + vector.name());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public TurnResult kernelPerTurn() {
+        for (int i = 0; i < Turns; i++) {
+            kernel.evaluate(moves[i][0], stats[i][0], moves[i][1], stats[i][1], result);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public TurnBatch scalarBatch() {
+        scalar.evaluate(batch);
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public TurnBatch vectorBatch() {
+        vector.evaluate(batch);
+        return batch;
+    }
+}
@@ -0,0 +1,85 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.BattleKernel;
+import tech.quangson.battleengine.mechanics.BattleState;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+    One battle turn by number of combatants (two teams, single targets, moves.json by id), evaluated in order and
+    with every wave of independent actions handed to a fork-join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BattleBenchmark {
+
+    @Param({"2", "8", "64"})
+    public int combatants;
+
+    private ForkJoinPool pool;
+    private BattleKernel serial;
+    private BattleKernel parallel;
+    private BattleState battle;
+
+    @Setup
+    public void setup() throws IOException {
+        MoveCatalog catalog;
+        try (var in = BattleBenchmark.class.getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, new ObjectMapper());
+        }
+        var rng = new SplittableRandom(3);
+        var members = new BattleState.Combatant[combatants];
+        for (int i = 0; i < combatants; i++) {
+            var stats = new int[Stat.COUNT];
+            for (int s = 0; s < Stat.COUNT; s++) {
+                stats[s] = rng.nextInt(50, 150);
+            }
+            stats[Stat.HEALTH.ordinal()] = 10_000;
+            var target = "c" + ((i + 1 + 2 * rng.nextInt(combatants / 2)) % combatants);
+            members[i] = new BattleState.Combatant("c" + i, i % 2, null, rng.nextInt(catalog.size()),
+                    StatBlock.copyOf(stats), null, target);
+        }
+        battle = new BattleState(members);
+        pool = new ForkJoinPool();
+        serial = new BattleKernel(catalog, null, Integer.MAX_VALUE);
+        parallel = new BattleKernel(catalog, pool, 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BattleState serial() {
+        return serial.evaluate(battle);
+    }
+
+    @Benchmark
+    public BattleState parallel() {
+        return parallel.evaluate(battle);
+    }
+}
@@ -0,0 +1,60 @@
+package tech.quangson.battleengine.benchmark;
+
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static tech.quangson.battleengine.mechanics.TurnServiceImpl.*;
+
+// shared fixtures so every benchmark measures the same move mix
+public final class BenchmarkTurns {
+
+    public static final String CombatDamage = "CombatDamage";
+    public static final String MagicDamage = "MagicDamage";
+    public static final String SpecialDamage = "SpecialDamage";
+    public static final String Buff = "Buff";
+    public static final String Debuff = "Debuff";
+    public static final String Block = "Block";
+
+    private BenchmarkTurns(){}
+
+    public static TurnState turn(String mix){
+        var attack = move(CategoryCombat, TypeDamage, 60);
+        return switch (mix) {
+            case CombatDamage -> turn(attack, attack);
+            case MagicDamage -> turn(move(CategoryMagic, TypeDamage, 70), attack);
+            case SpecialDamage -> turn(move(CategorySpecial, TypeDamage, 50), move(CategoryMagic, TypeDamage, 70));
+            case Buff -> turn(new GameMove("Focus Up", CategoryMagic, TypeBuff, 0, 30, 5, 1,
+                    Map.of(StatFocus, 20, StatSpirit, 10), null), attack);
+            case Debuff -> turn(new GameMove("Armor Break", CategoryCombat, TypeDebuff, 0, 30, 5, 1,
+                    null, Map.of(StatReflex, 25, StatAgility, 10)), attack);
+            case Block -> turn(move("Cover", TypeBlock, 75), move(CategoryMagic, TypeDamage, 120));
+            default -> throw new IllegalArgumentException("Unknown move mix: " + mix);
+        };
+    }
+
+    private static TurnState turn(GameMove p1Move, GameMove p2Move){
+        var p1 = new TurnState.PlayerState("p1", p1Move, stats(75, 80));
+        var p2 = new TurnState.PlayerState("p2", p2Move, stats(90, 70));
+        return new TurnState(p1, p2);
+    }
+
+    private static GameMove move(String category, String type, int basePower){
+        return new GameMove(category + " " + type, category, type, basePower, 50, 10, 1, null, null);
+    }
+
+    // a plain HashMap, the same as Jackson hands the controller
+    private static Map<String, Integer> stats(int agility, int force){
+        var stats = new HashMap<String, Integer>();
+        stats.put(StatForce, force);
+        stats.put(StatFocus, 75);
+        stats.put(StatReflex, 75);
+        stats.put(StatSpirit, 75);
+        stats.put(StatHealth, 9000);
+        stats.put(StatEnergy, 150);
+        stats.put(StatAgility, agility);
+        return stats;
+    }
+}
@@ -0,0 +1,99 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.bot.MoveSearch;
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Bot decisions with four candidate moves per side from moves.json, searched to a fixed depth on one thread
+    and across the pool. The nodes counter is the headline number: turns evaluated per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BotBenchmark {
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Param({"3", "4"})
+    public int depth;
+
+    private ForkJoinPool pool;
+    private MoveSearch serial;
+    private MoveSearch parallel;
+    private CompiledMove[] moves;
+    private int[] bot;
+    private int[] opponent;
+
+    @Setup
+    public void setup() throws IOException {
+        MoveCatalog catalog;
+        try (var in = BotBenchmark.class.getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, new ObjectMapper());
+        }
+        moves = new CompiledMove[4];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = catalog.get(i * catalog.size() / moves.length);
+        }
+        bot = new int[Stat.COUNT];
+        Arrays.fill(bot, 100);
+        bot[Stat.HEALTH.ordinal()] = 1_000_000;
+        bot[Stat.ENERGY.ordinal()] = 1_000;
+        opponent = bot.clone();
+        pool = new ForkJoinPool();
+        serial = new MoveSearch(null, 20, depth);
+        parallel = new MoveSearch(pool, 20, depth);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public MoveSearch.Decision serial(Nodes counter) {
+        var decision = serial.decide(moves, bot, moves, opponent, 0, MoveSearch.Opponent.UNIFORM, Long.MAX_VALUE / 2);
+        counter.nodes += decision.nodes();
+        return decision;
+    }
+
+    @Benchmark
+    public MoveSearch.Decision parallel(Nodes counter) {
+        var decision = parallel.decide(moves, bot, moves, opponent, 0, MoveSearch.Opponent.UNIFORM, Long.MAX_VALUE / 2);
+        counter.nodes += decision.nodes();
+        return decision;
+    }
+}
@@ -0,0 +1,115 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TinyLfuTurnCache;
+import tech.quangson.battleengine.mechanics.TurnCache;
+import tech.quangson.battleengine.mechanics.TurnJournal;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static tech.quangson.battleengine.mechanics.TurnServiceImpl.*;
+
+/*
+    evaluateTurn latency with and without the outcome cache. Turns reference moves.json by id and are drawn from
+    `openings` distinct (moves, stats) combinations with a skewed popularity, so a small opening book hits almost
+    always and a large one overflows the 4096 entry cache and mostly pays for key building and admission. Hit rates are printed at tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+
+    private static final int Draws = 1 << 16;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    @Param({"64", "10000", "1000000"})
+    public int openings;
+
+    private TinyLfuTurnCache cache;
+    private TurnServiceImpl turnService;
+    private TurnState[] turns;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        MoveCatalog catalog;
+        try (var in = CacheBenchmark.class.getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, new ObjectMapper());
+        }
+        cache = cached ? new TinyLfuTurnCache(catalog, 4096, 16) : null;
+        turnService = new TurnServiceImpl(catalog, TurnMetrics.NONE, TurnJournal.NONE, cached ? cache : TurnCache.NONE);
+
+        var rng = new SplittableRandom(42);
+        turns = new TurnState[Draws];
+        for (int i = 0; i < Draws; i++) {
+            // squaring a uniform draw favours low opening numbers
+            double u = rng.nextDouble();
+            int opening = (int) (u * u * openings);
+            turns[i] = opening(opening, catalog.size());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (cache != null) {
+            long lookups = cache.hits() + cache.misses();
+            System.out.printf("%nhit rate %.3f, %d entries, %d evictions%n",
+                    (double) cache.hits() / lookups, cache.size(), cache.evictions());
+        }
+    }
+
+    @Benchmark
+    public TurnState[] evaluateTurn(Cursor cursor) {
+        return turnService.evaluateTurn(turns[cursor.next++ & (Draws - 1)]);
+    }
+
+    private static TurnState opening(int opening, int moves) {
+        var rng = new SplittableRandom(opening);
+        var p1 = new TurnState.PlayerState("p1", null, stats(rng), rng.nextInt(moves));
+        var p2 = new TurnState.PlayerState("p2", null, stats(rng), rng.nextInt(moves));
+        return new TurnState(p1, p2);
+    }
+
+    private static HashMap<String, Integer> stats(SplittableRandom rng) {
+        var stats = new HashMap<String, Integer>();
+        stats.put(StatForce, 60 + rng.nextInt(40));
+        stats.put(StatFocus, 60 + rng.nextInt(40));
+        stats.put(StatReflex, 60 + rng.nextInt(40));
+        stats.put(StatSpirit, 60 + rng.nextInt(40));
+        stats.put(StatHealth, 9000);
+        stats.put(StatEnergy, 150);
+        stats.put(StatAgility, 60 + rng.nextInt(40));
+        return stats;
+    }
+}
@@ -0,0 +1,108 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.DamageFormula;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Whole turns through TurnKernel with the hand-written damage formula and with the bundled damage.formulas
+    compiled by DamageFormula, for damage moves of moves.json against stats in [50, 150). reloaded swaps in a
+    freshly parsed copy of the formulas every 64 turns, so the call site sees more than one formula.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DamageFormulaBenchmark {
+
+    private static final int Turns = 1024;
+
+    private MoveCatalog catalog;
+    private DamageFormula[] versions;
+    private DamageFormulas formulas;
+    private TurnKernel builtIn;
+    private TurnKernel compiled;
+    private int[][] moves;
+    private int[][][] stats;
+    private final TurnResult out = new TurnResult();
+
+    @Setup
+    public void setup() throws IOException {
+        try (var in = DamageFormulaBenchmark.class.getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, new ObjectMapper());
+        }
+        String text;
+        try (var in = DamageFormulaBenchmark.class.getResourceAsStream("/damage.formulas")) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        versions = new DamageFormula[]{DamageFormula.parse(text), DamageFormula.parse(text)};
+        formulas = new DamageFormulas(versions[0], null);
+        builtIn = new TurnKernel(catalog);
+        compiled = new TurnKernel(catalog, DamageTable.NONE, formulas);
+        var rng = new SplittableRandom(9);
+        // the first four catalog moves are the damage moves
+        moves = new int[Turns][];
+        stats = new int[Turns][2][Stat.COUNT];
+        for (int i = 0; i < Turns; i++) {
+            moves[i] = new int[]{rng.nextInt(4), rng.nextInt(4)};
+            for (int player = 0; player < 2; player++) {
+                for (int s = 0; s < Stat.COUNT; s++) {
+                    stats[i][player][s] = rng.nextInt(50, 150);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public int builtIn() {
+        return run(builtIn, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public int compiled() {
+        return run(compiled, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public int reloaded() {
+        return run(compiled, true);
+    }
+
+    private int run(TurnKernel kernel, boolean reload) {
+        int health = 0;
+        for (int i = 0; i < Turns; i++) {
+            if (reload && (i & 63) == 0) {
+                formulas.swap(versions[(i >> 6) & 1]);
+            }
+            kernel.evaluate(catalog.get(moves[i][0]), stats[i][0], catalog.get(moves[i][1]), stats[i][1], out);
+            health += out.stat(1, TurnResult.Player2, Stat.HEALTH);
+        }
+        return health;
+    }
+}
@@ -0,0 +1,100 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Whole turns through TurnKernel with exact damage and with DamageTable, for damage moves of moves.json against
+    stats in [50, 150). The table's accuracy over the same band and its footprint are printed at tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DamageTableBenchmark {
+
+    private static final int Turns = 1024;
+
+    @Param({"64", "512"})
+    public int buckets;
+
+    private MoveCatalog catalog;
+    private DamageTable table;
+    private TurnKernel exact;
+    private TurnKernel tabled;
+    private int[][] moves;
+    private int[][][] stats;
+    private final TurnResult out = new TurnResult();
+
+    @Setup
+    public void setup() throws IOException {
+        try (var in = DamageTableBenchmark.class.getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, new ObjectMapper());
+        }
+        table = new DamageTable(catalog, buckets, 4.0, 32 << 20);
+        exact = new TurnKernel(catalog);
+        tabled = new TurnKernel(catalog, table);
+        var rng = new SplittableRandom(9);
+        // the first four catalog moves are the damage moves
+        moves = new int[Turns][];
+        stats = new int[Turns][2][Stat.COUNT];
+        for (int i = 0; i < Turns; i++) {
+            moves[i] = new int[]{rng.nextInt(4), rng.nextInt(4)};
+            for (int player = 0; player < 2; player++) {
+                for (int s = 0; s < Stat.COUNT; s++) {
+                    stats[i][player][s] = rng.nextInt(50, 150);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("buckets=" + buckets + ": " + table.accuracy(catalog, 50, 150, 1_000_000, 1));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public int exact() {
+        return run(exact);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Turns)
+    public int table() {
+        return run(tabled);
+    }
+
+    private int run(TurnKernel kernel) {
+        int health = 0;
+        for (int i = 0; i < Turns; i++) {
+            kernel.evaluate(catalog.get(moves[i][0]), stats[i][0], catalog.get(moves[i][1]), stats[i][1], out);
+            health += out.stat(1, TurnResult.Player2, Stat.HEALTH);
+        }
+        return health;
+    }
+}
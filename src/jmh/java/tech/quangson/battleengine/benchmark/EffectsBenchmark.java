@@ -0,0 +1,62 @@
+package tech.quangson.battleengine.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatusEffects;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    One turn of timed effects on a combatant with `active` effects. Durations are staggered so one effect expires
+    each turn and one is cast, which keeps the list the same size the way it would in a long match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EffectsBenchmark {
+
+    private static final int Health = Stat.HEALTH.ordinal();
+
+    @Param({"10", "100", "1000"})
+    public int active;
+
+    private final StatusEffects effects = new StatusEffects();
+    private final int[] stats = new int[Stat.COUNT];
+    private int next;
+
+    @Setup
+    public void setup() {
+        stats[Health] = Integer.MAX_VALUE / 2;
+        for (next = 0; next < active; next++) {
+            cast(1 + next);
+        }
+    }
+
+    @Benchmark
+    public int turn() {
+        int changed = effects.tick(stats);
+        while (effects.count() < active) {
+            cast(active);
+        }
+        return changed;
+    }
+
+    private void cast(int turns) {
+        int stat = next % Stat.COUNT;
+        stats[stat] += 3;
+        effects.add(next++, stat, stat == Health ? 0 : 5, 3, turns, Integer.MAX_VALUE);
+    }
+}
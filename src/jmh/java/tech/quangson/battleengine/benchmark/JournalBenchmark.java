@@ -0,0 +1,64 @@
+package tech.quangson.battleengine.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.journal.MappedJournal;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnJournal;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// evaluateTurn latency with and without the journal; the difference is what a request pays for auditing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JournalBenchmark {
+
+    @Param({"false", "true"})
+    public boolean journaled;
+
+    private TurnJournal journal;
+    private TurnServiceImpl turnService;
+    private TurnState turn;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        journal = journaled
+                ? new MappedJournal(Files.createTempDirectory("journal-bench"), 256 << 20, 1 << 16, new TurnCodec(MoveCatalog.empty()))
+                : TurnJournal.NONE;
+        turnService = new TurnServiceImpl(MoveCatalog.empty(), TurnMetrics.NONE, journal);
+        turn = BenchmarkTurns.turn(BenchmarkTurns.CombatDamage);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        journal.close();
+    }
+
+    @Benchmark
+    public TurnState[] evaluateTurn() {
+        return turnService.evaluateTurn(turn);
+    }
+}
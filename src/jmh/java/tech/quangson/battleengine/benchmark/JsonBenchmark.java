@@ -0,0 +1,64 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Mirrors TurnController.processTurn: parse the request body, evaluate, write the TurnState[] response.
+    The mapper comes from the same builder Spring MVC uses so the feature set matches production.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JsonBenchmark {
+
+    @Param({BenchmarkTurns.CombatDamage, BenchmarkTurns.Buff})
+    public String mix;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TurnServiceImpl turnService = new TurnServiceImpl();
+    private byte[] requestBody;
+    private TurnState[] response;
+
+    @Setup
+    public void setup() throws IOException {
+        var turn = BenchmarkTurns.turn(mix);
+        requestBody = mapper.writeValueAsBytes(turn);
+        response = turnService.evaluateTurn(turn);
+    }
+
+    @Benchmark
+    public TurnState readRequest() throws IOException {
+        return mapper.readValue(requestBody, TurnState.class);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] processTurn() throws IOException {
+        var turn = mapper.readValue(requestBody, TurnState.class);
+        return mapper.writeValueAsBytes(turnService.evaluateTurn(turn));
+    }
+}
@@ -0,0 +1,51 @@
+package tech.quangson.battleengine.benchmark;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+import tech.quangson.battleengine.metrics.MicrometerTurnMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+// cost of production metrics on evaluateTurn: compare plain against prometheus, and the B/op of each under -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MetricsBenchmark {
+
+    private final TurnServiceImpl plain = new TurnServiceImpl(MoveCatalog.empty(), TurnMetrics.NONE);
+    private final TurnServiceImpl prometheus = new TurnServiceImpl(MoveCatalog.empty(),
+            new MicrometerTurnMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)));
+    private TurnState turn;
+
+    @Setup
+    public void setup(){
+        turn = BenchmarkTurns.turn(BenchmarkTurns.MagicDamage);
+    }
+
+    @Benchmark
+    public TurnState[] plain(){
+        return plain.evaluateTurn(turn);
+    }
+
+    @Benchmark
+    public TurnState[] prometheus(){
+        return prometheus.evaluateTurn(turn);
+    }
+}
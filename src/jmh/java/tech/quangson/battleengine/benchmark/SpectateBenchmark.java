@@ -0,0 +1,128 @@
+package tech.quangson.battleengine.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.session.TurnDelta;
+import tech.quangson.battleengine.spectate.Frame;
+import tech.quangson.battleengine.spectate.Spectator;
+import tech.quangson.battleengine.spectate.SpectatorFeeds;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Cost of pushing one turn to every spectator of a match: SpectatorFeeds encoding the delta once and handing
+    the same frame to each stream, against serializing it once per spectator as a per-subscriber emitter would.
+    Writers run inline and spectators discard what they get, so this is the engine's side of the fan-out only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpectateBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int spectators;
+
+    private SpectatorFeeds feeds;
+    private ObjectWriter writer;
+    private int turn;
+    private long written;
+
+    @Setup
+    public void setup() {
+        var mapper = new ObjectMapper();
+        writer = mapper.writerFor(TurnDelta.class);
+        feeds = new SpectatorFeeds(mapper, new Inline(), 64, Integer.MAX_VALUE);
+        var snapshot = new Frame(0, new byte[64]);
+        for (int i = 0; i < spectators; i++) {
+            feeds.subscribe("match", new Spectator(() -> snapshot) {
+                @Override
+                protected boolean ready() {
+                    return true;
+                }
+
+                @Override
+                protected void write(byte[] frame) {
+                    written += frame.length;
+                }
+
+                @Override
+                protected void flush() {}
+
+                @Override
+                protected void finish() {}
+
+                @Override
+                protected void abort(Exception e) {}
+            });
+        }
+    }
+
+    private TurnDelta delta() {
+        return new TurnDelta(++turn, new String[]{"knight", "mage"},
+                List.of(Map.of("knight", Map.of("Energy", 100), "mage", Map.of("Health", 8450)),
+                        Map.of("mage", Map.of("Force", 90, "Energy", 130))), Map.of(), false);
+    }
+
+    @Benchmark
+    public long sharedFrames() {
+        feeds.turnPlayed("match", delta());
+        return written;
+    }
+
+    @Benchmark
+    public long encodePerSpectator() throws IOException {
+        var delta = delta();
+        for (int i = 0; i < spectators; i++) {
+            written += writer.writeValueAsBytes(delta).length;
+        }
+        return written;
+    }
+
+    private static final class Inline extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {}
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
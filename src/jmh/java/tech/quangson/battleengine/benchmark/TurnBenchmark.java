@@ -0,0 +1,58 @@
+package tech.quangson.battleengine.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TurnBenchmark {
+
+    @Param({BenchmarkTurns.CombatDamage, BenchmarkTurns.MagicDamage, BenchmarkTurns.SpecialDamage,
+            BenchmarkTurns.Buff, BenchmarkTurns.Debuff, BenchmarkTurns.Block})
+    public String mix;
+
+    private final TurnServiceImpl turnService = new TurnServiceImpl();
+    private final TurnKernel kernel = new TurnKernel();
+    private final TurnResult result = new TurnResult();
+    private TurnState turn;
+
+    @Setup
+    public void setup(){
+        turn = BenchmarkTurns.turn(mix);
+    }
+
+    @Benchmark
+    public TurnState[] evaluateTurn(){
+        return turnService.evaluateTurn(turn);
+    }
+
+    @Benchmark
+    public String[] determineSequence(){
+        return turnService.determineSequence(turn);
+    }
+
+    @Benchmark
+    public TurnResult kernel(){
+        kernel.evaluate(turn.getPlayer1State(), turn.getPlayer2State(), result);
+        return result;
+    }
+}
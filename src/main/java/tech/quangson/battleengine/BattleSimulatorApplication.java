@@ -0,0 +1,67 @@
+package tech.quangson.battleengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.simulation.BattleSimulator;
+import tech.quangson.battleengine.simulation.SimulationSpec;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+    Offline balance simulator; runs without Spring or a network. From the packaged jar:
+    java -cp BattleEngine.jar -Dloader.main=tech.quangson.battleengine.BattleSimulatorApplication \
+        org.springframework.boot.loader.PropertiesLauncher --spec builds.json --out results.csv [--threads 8] [--moves moves.json]
+ */
+public class BattleSimulatorApplication {
+
+    public static void main(String[] args) throws IOException {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                usage("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("spec") || !options.containsKey("out")) {
+            usage("--spec and --out are required");
+        }
+
+        var mapper = new ObjectMapper();
+        var spec = mapper.readValue(Path.of(options.get("spec")).toFile(), SimulationSpec.class);
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        MoveCatalog catalog;
+        try (InputStream in = options.containsKey("moves")
+                ? Files.newInputStream(Path.of(options.get("moves")))
+                : BattleSimulatorApplication.class.getResourceAsStream("/moves.json")) {
+            catalog = in != null ? MoveCatalog.load(in, mapper) : MoveCatalog.empty();
+        }
+
+        var pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long matches;
+        try (BufferedWriter csv = Files.newBufferedWriter(Path.of(options.get("out")), StandardCharsets.UTF_8)) {
+            matches = new BattleSimulator(pool, catalog).run(spec, csv);
+        }
+        finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d matches in %.2f s (%.0f matches/s) on %d threads%n",
+                matches, seconds, matches / seconds, threads);
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("usage: --spec <spec.json> --out <results.csv> [--threads <n>] [--moves <moves.json>]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,79 @@
+package tech.quangson.battleengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tech.quangson.battleengine.journal.JournalReader;
+import tech.quangson.battleengine.journal.ReplayVerifier;
+import tech.quangson.battleengine.journal.StatTolerances;
+import tech.quangson.battleengine.mechanics.DamageFormula;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+    Replays a turn journal against the current engine and writes every diverging stat as a CSV row. Use the moves
+    file the journal was written with. From the packaged jar:
+    java -cp BattleEngine.jar -Dloader.main=tech.quangson.battleengine.ReplayVerifierApplication \
+        org.springframework.boot.loader.PropertiesLauncher --journal journal/ --out divergences.csv \
+        [--tolerance Health=5,Energy=1] [--threads 8] [--moves moves.json] [--damage-formula damage.formulas]
+    Without --damage-formula only segments written in exact damage mode are replayed; with it, only those written in
+    formula mode. The others are reported as skipped.
+ */
+public class ReplayVerifierApplication {
+
+    public static void main(String[] args) throws IOException {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                usage("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("journal") || !options.containsKey("out")) {
+            usage("--journal and --out are required");
+        }
+
+        var tolerances = StatTolerances.parse(options.get("tolerance"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        MoveCatalog catalog;
+        try (InputStream in = options.containsKey("moves")
+                ? Files.newInputStream(Path.of(options.get("moves")))
+                : ReplayVerifierApplication.class.getResourceAsStream("/moves.json")) {
+            catalog = in != null ? MoveCatalog.load(in, new ObjectMapper()) : MoveCatalog.empty();
+        }
+
+        var formula = options.containsKey("damage-formula")
+                ? DamageFormula.parse(Files.readString(Path.of(options.get("damage-formula"))))
+                : null;
+
+        var segments = JournalReader.segments(Path.of(options.get("journal")));
+        var pool = new ForkJoinPool(threads);
+        ReplayVerifier.Report report;
+        try (BufferedWriter csv = Files.newBufferedWriter(Path.of(options.get("out")), StandardCharsets.UTF_8)) {
+            var verifier = formula == null
+                    ? new ReplayVerifier(pool, catalog, tolerances)
+                    : new ReplayVerifier(pool, catalog, tolerances, formula);
+            report = verifier.verify(segments, csv);
+        }
+        finally {
+            pool.shutdown();
+        }
+        System.out.printf("%d turns in %d segments, %d diverged, %d skipped in another damage mode, %.2f s (%.0f turns/s) on %d threads%n",
+                report.turns(), segments.size(), report.diverged(), report.skipped(), report.nanos() / 1e9,
+                report.turnsPerSecond(), threads);
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("usage: --journal <dir> --out <divergences.csv> [--tolerance <Stat=n,...>] [--threads <n>] [--moves <moves.json>] [--damage-formula <file>]");
+        System.exit(2);
+    }
+}
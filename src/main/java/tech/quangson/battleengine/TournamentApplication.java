@@ -0,0 +1,97 @@
+package tech.quangson.battleengine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.simulation.Tournament;
+import tech.quangson.battleengine.simulation.TournamentSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+    Offline bot tournament; runs without Spring or a network. With --checkpoint every finished match is written
+    to that file, and running the same command again after a crash or Ctrl-C resumes the bracket. From the
+    packaged jar:
+    java -cp BattleEngine.jar -Dloader.main=tech.quangson.battleengine.TournamentApplication \
+        org.springframework.boot.loader.PropertiesLauncher --spec tournament.json [--checkpoint bracket.csv] \
+        [--threads 8] [--moves moves.json]
+ */
+public class TournamentApplication {
+
+    public static void main(String[] args) throws IOException {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                usage("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("spec")) {
+            usage("--spec is required");
+        }
+
+        var mapper = new ObjectMapper();
+        var spec = mapper.readValue(Path.of(options.get("spec")).toFile(), TournamentSpec.class);
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        var checkpoint = options.containsKey("checkpoint") ? Path.of(options.get("checkpoint")) : null;
+
+        MoveCatalog catalog;
+        try (InputStream in = options.containsKey("moves")
+                ? Files.newInputStream(Path.of(options.get("moves")))
+                : TournamentApplication.class.getResourceAsStream("/moves.json")) {
+            catalog = in != null ? MoveCatalog.load(in, mapper) : MoveCatalog.empty();
+        }
+
+        var pool = new ForkJoinPool(threads);
+        var tournament = new Tournament(pool, catalog);
+        // on Ctrl-C, stop the matches and let run() flush the checkpoint before the JVM exits
+        var stopped = new CountDownLatch(1);
+        var hook = new Thread(() -> {
+            tournament.cancel();
+            try {
+                stopped.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(hook);
+        Tournament.Result result;
+        try {
+            result = tournament.run(spec, checkpoint);
+        }
+        catch (CancellationException e) {
+            System.err.println("Cancelled" + (checkpoint != null ? "; run again to resume from " + checkpoint : ""));
+            return;
+        }
+        finally {
+            pool.shutdown();
+            stopped.countDown();
+        }
+        Runtime.getRuntime().removeShutdownHook(hook);
+
+        for (var round : result.rounds()) {
+            System.out.printf("round %2d: %6d matches (%d played, %d restored, %d byes, %d timed out), "
+                            + "%.0f matches/s over %.1f ms, p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                    round.round() + 1, round.matches(), round.played(), round.restored(), round.byes(),
+                    round.timedOut(), round.matchesPerSecond(), round.nanos() / 1e6, round.p50Nanos() / 1e3,
+                    round.p99Nanos() / 1e3, round.p999Nanos() / 1e3, round.maxNanos() / 1e3);
+        }
+        System.out.printf("champion %s; %d matches played, %d restored in %.2f s (%.0f matches/s) on %d threads%n",
+                result.championName(), result.played(), result.restored(), result.nanos() / 1e9,
+                result.matchesPerSecond(), threads);
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("usage: --spec <tournament.json> [--checkpoint <bracket.csv>] [--threads <n>] [--moves <moves.json>]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,140 @@
+package tech.quangson.battleengine.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/*
+    Concurrency limit that follows observed latency (AIMD): every request that completes within the target
+    latency raises the limit by 1/limit, so about one per limit's worth of requests, and a slower one cuts it by
+    a tenth, at most once per target latency so that a burst of slow completions counts as one signal.
+
+    A request over the limit waits in a bounded queue for at most queueTimeout and is rejected when the queue is
+    full or the wait runs out, so a saturated server answers quickly instead of piling up threads.
+ */
+public final class AdaptiveLimiter {
+
+    private static final double Backoff = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long targetNanos;
+    private final long queueTimeoutNanos;
+    private final LongSupplier clock;
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long targetNanos, int queueSize, long queueTimeoutNanos) {
+        this(initialLimit, minLimit, maxLimit, targetNanos, queueSize, queueTimeoutNanos, System::nanoTime);
+    }
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long targetNanos, int queueSize, long queueTimeoutNanos,
+                    LongSupplier clock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits need 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.targetNanos = targetNanos;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+        this.clock = clock;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+        this.lastDecrease = new AtomicLong(clock.getAsLong() - targetNanos);
+    }
+
+    // false when the request should be rejected; every true must be followed by exactly one release()
+    public boolean acquire() throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            long remaining = queueTimeoutNanos;
+            lock.lock();
+            try {
+                while (!tryAcquire()) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                return true;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inflight.decrementAndGet();
+        adjust(latencyNanos);
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                released.signal();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    public int queued() {
+        return Math.max(queued.get(), 0);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void adjust(long latencyNanos) {
+        if (latencyNanos > targetNanos) {
+            long now = clock.getAsLong();
+            long last = lastDecrease.get();
+            if (now - last < targetNanos || !lastDecrease.compareAndSet(last, now)) {
+                return;
+            }
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = latencyNanos > targetNanos
+                    ? Math.max(minLimit, limit * Backoff)
+                    : Math.min(maxLimit, limit + 1 / limit);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package tech.quangson.battleengine.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/*
+    Admission control in front of every POST under /engine. A request first takes a token from its client's
+    bucket, then a slot from the adaptive concurrency limit. Either failing answers 429 with Retry-After right
+    away, before the request body is read.
+
+    The client is the remote address. The client id header is only believed from the configured trusted proxies,
+    which set it for the clients behind them; anyone else could pick a fresh id per request. Idle buckets are
+    dropped by the scheduler, not on the request path.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "engine.admission.enabled", havingValue = "true")
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final TokenBuckets buckets;
+    private final AdaptiveLimiter limiter;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    @Autowired
+    public AdmissionFilter(@Value("${engine.admission.client-header:X-Client-Id}") String clientHeader,
+                           @Value("${engine.admission.trusted-proxies:}") String trustedProxies,
+                           @Value("${engine.admission.rate:500}") double rate,
+                           @Value("${engine.admission.burst:1000}") int burst,
+                           @Value("${engine.admission.max-clients:100000}") int maxClients,
+                           @Value("${engine.admission.initial-limit:64}") int initialLimit,
+                           @Value("${engine.admission.min-limit:8}") int minLimit,
+                           @Value("${engine.admission.max-limit:1024}") int maxLimit,
+                           @Value("${engine.admission.target-latency:PT0.02S}") Duration targetLatency,
+                           @Value("${engine.admission.queue-size:256}") int queueSize,
+                           @Value("${engine.admission.queue-timeout:PT0.01S}") Duration queueTimeout) {
+        this(clientHeader, addresses(trustedProxies), new TokenBuckets(rate, burst, maxClients),
+                new AdaptiveLimiter(initialLimit, minLimit, maxLimit, targetLatency.toNanos(), queueSize, queueTimeout.toNanos()));
+    }
+
+    AdmissionFilter(String clientHeader, Set<String> trustedProxies, TokenBuckets buckets, AdaptiveLimiter limiter) {
+        this.clientHeader = clientHeader;
+        this.trustedProxies = trustedProxies;
+        this.buckets = buckets;
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith("/engine");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = buckets.tryAcquire(client(request));
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, wait, "Rate limit exceeded");
+            return;
+        }
+        boolean admitted;
+        try {
+            admitted = limiter.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            shed.increment();
+            reject(response, 0, "Server is at capacity");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        }
+        finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        var address = request.getRemoteAddr();
+        if (!trustedProxies.contains(address)) {
+            return address;
+        }
+        var client = request.getHeader(clientHeader);
+        return client != null ? client : address;
+    }
+
+    @Scheduled(fixedDelayString = "${engine.admission.evict-interval-ms:1000}")
+    public void evictIdle() {
+        buckets.evictIdle();
+    }
+
+    // "10.0.0.1, 10.0.0.2"
+    static Set<String> addresses(String list) {
+        return Arrays.stream(list.split(","))
+                .map(String::strip)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Retry-After is in whole seconds, so anything under a second rounds up to 1
+    private static void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType("text/plain");
+        response.getWriter().write(message);
+    }
+
+    public TokenBuckets buckets() {
+        return buckets;
+    }
+
+    public AdaptiveLimiter limiter() {
+        return limiter;
+    }
+
+    public long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long shed() {
+        return shed.sum();
+    }
+}
@@ -0,0 +1,83 @@
+package tech.quangson.battleengine.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+    Per-client token buckets in the GCRA form: each bucket is a single AtomicLong holding the time at which the
+    client's next request would be on schedule, updated with one CAS and no locks. A client may run up to burst
+    requests ahead of that schedule and otherwise gets rate requests per second.
+
+    Buckets that have filled up again (clients idle for burst / rate seconds) are dropped by evictIdle(), which
+    scans every bucket and so is left to a scheduler. Once maxClients buckets exist, new clients share one
+    overflow bucket until an eviction makes room.
+ */
+public final class TokenBuckets {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+    private final long interval;
+    private final long tolerance;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    public TokenBuckets(double rate, int burst, int maxClients) {
+        this(rate, burst, maxClients, System::nanoTime);
+    }
+
+    TokenBuckets(double rate, int burst, int maxClients, LongSupplier clock) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token buckets need a positive rate and a burst of at least 1");
+        }
+        this.interval = (long) (1e9 / rate);
+        this.tolerance = interval * (burst - 1);
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new AtomicLong(clock.getAsLong());
+    }
+
+    // 0 when the request is admitted, otherwise how many nanoseconds the client should wait before retrying
+    public long tryAcquire(String client) {
+        long now = clock.getAsLong();
+        var bucket = bucket(client, now);
+        while (true) {
+            long due = bucket.get();
+            long start = due - now < 0 ? now : due;
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(due, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public int clients() {
+        return buckets.size();
+    }
+
+    // drops buckets that are full again; a dropped client starts over with a full bucket
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (var entry : buckets.entrySet()) {
+            if (entry.getValue().get() - now <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private AtomicLong bucket(String client, long now) {
+        var bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+}
@@ -0,0 +1,3 @@
+package tech.quangson.battleengine.bot;
+
+public record BotMove(int moveId, double value, int depth, long nodes, long micros) {}
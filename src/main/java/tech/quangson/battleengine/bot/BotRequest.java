@@ -0,0 +1,10 @@
+package tech.quangson.battleengine.bot;
+
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.List;
+
+// moves are catalog ids; the bot's own move in turn is ignored, budgetMs falls back to engine.bot.budget-ms and is
+// capped at engine.bot.max-budget-ms
+public record BotRequest(TurnState turn, String botPlayerId, List<Integer> botMoves, List<Integer> opponentMoves,
+                         Integer budgetMs, MoveSearch.Opponent opponent) {}
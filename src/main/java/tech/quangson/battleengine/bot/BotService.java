@@ -0,0 +1,89 @@
+package tech.quangson.battleengine.bot;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.StatBlock;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+    Bot moves for single-player matches (/engine/bot/move). Root moves are searched on the batch endpoint's pool,
+    so bots compete with batches for cores; a decision never takes much longer than its budget. A request may ask
+    for a smaller or larger budget, up to max-budget-ms, and name at most max-candidates moves per side, since
+    every ply costs candidates squared kernel calls. The search computes damage like the node's turns do, from
+    the damage table or formulas when either is enabled.
+ */
+@Service
+public class BotService {
+
+    private final MoveCatalog catalog;
+    private final MoveSearch search;
+    private final int budgetMs;
+    private final int maxBudgetMs;
+    private final int maxCandidates;
+
+    public BotService(MoveCatalog catalog, @Qualifier("turnPool") ForkJoinPool pool,
+                      @Value("${engine.bot.budget-ms:20}") int budgetMs,
+                      @Value("${engine.bot.max-budget-ms:200}") int maxBudgetMs,
+                      @Value("${engine.bot.max-candidates:32}") int maxCandidates,
+                      @Value("${engine.bot.max-depth:6}") int maxDepth,
+                      @Value("${engine.bot.table-bits:20}") int tableBits,
+                      DamageTable damageTable, DamageFormulas damageFormulas) {
+        this.catalog = catalog;
+        this.search = new MoveSearch(pool, tableBits, maxDepth, new TurnKernel(catalog, damageTable, damageFormulas));
+        this.budgetMs = Math.min(budgetMs, maxBudgetMs);
+        this.maxBudgetMs = maxBudgetMs;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public BotMove decide(BotRequest request) {
+        var turn = Objects.requireNonNull(request.turn(), "Missing turn");
+        var player1 = Objects.requireNonNull(turn.getPlayer1State(), "Missing player1State");
+        var player2 = Objects.requireNonNull(turn.getPlayer2State(), "Missing player2State");
+        int side;
+        if (Objects.equals(request.botPlayerId(), player1.playerId())) {
+            side = 0;
+        }
+        else if (Objects.equals(request.botPlayerId(), player2.playerId())) {
+            side = 1;
+        }
+        else {
+            throw new IllegalArgumentException("Bot is not in this turn: " + request.botPlayerId());
+        }
+        var bot = side == 0 ? player1 : player2;
+        var opponent = side == 0 ? player2 : player1;
+        var botMoves = moves(request.botMoves());
+        if (request.budgetMs() != null && request.budgetMs() < 0) {
+            throw new IllegalArgumentException("Negative budgetMs");
+        }
+        int budget = request.budgetMs() != null ? Math.min(request.budgetMs(), maxBudgetMs) : budgetMs;
+        var decision = search.decide(botMoves, StatBlock.of(bot.stats()).toArray(),
+                moves(request.opponentMoves()), StatBlock.of(opponent.stats()).toArray(), side,
+                request.opponent() != null ? request.opponent() : MoveSearch.Opponent.UNIFORM,
+                budget * 1_000_000L);
+        return new BotMove(botMoves[decision.move()].id(), decision.value(), decision.depth(), decision.nodes(),
+                decision.nanos() / 1_000);
+    }
+
+    private CompiledMove[] moves(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Missing candidate moves");
+        }
+        if (ids.size() > maxCandidates) {
+            throw new IllegalArgumentException("At most " + maxCandidates + " candidate moves");
+        }
+        var moves = new CompiledMove[ids.size()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = catalog.get(ids.get(i));
+        }
+        return moves;
+    }
+}
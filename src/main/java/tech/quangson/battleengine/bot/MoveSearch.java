@@ -0,0 +1,292 @@
+package tech.quangson.battleengine.bot;
+
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Picks a bot's move by searching the game tree with TurnKernel as the forward model. Both players move at
+    once, so a ply is the bot's choice followed by a chance node over the opponent's replies: their average
+    (expectimax, UNIFORM) or the worst of them for the bot (minimax, WORST_CASE). Players only pick moves they
+    can pay for, unless none are affordable. Leaves are scored by the share of starting Health each side has left;
+    a knockout is worth +1 or -1.
+
+    Positions live in per-ply int[] frames that a child overwrites in place, so a node costs one kernel call and
+    no allocation. The search deepens one ply at a time until the budget runs out and answers with the deepest
+    finished iteration. Depth 1 keeps the deadline too: if it runs out, the answer is the best root move searched
+    to the end, or the first candidate, with depth 0. Each root move of an iteration is searched on the pool, all
+    workers sharing one transposition table keyed by a Zobrist hash of both stat blocks.
+ */
+public final class MoveSearch {
+
+    public enum Opponent { UNIFORM, WORST_CASE }
+
+    // value is the expected score of move in [-1, 1]; depth is the deepest finished iteration
+    public record Decision(int move, double value, int depth, long nodes, long nanos) {
+
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    private static final int Health = Stat.HEALTH.ordinal();
+    private static final int Energy = Stat.ENERGY.ordinal();
+    // nodes between two looks at the clock
+    private static final int CheckMask = 1023;
+    // keeps start + budget within half the long range, where comparing nanoTime differences is still correct
+    private static final long MaxBudgetNanos = Long.MAX_VALUE >> 1;
+
+    private final TurnKernel kernel;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final int maxDepth;
+
+    // pool may be null to search every root move on the calling thread
+    public MoveSearch(ForkJoinPool pool, int tableBits, int maxDepth) {
+        this(pool, tableBits, maxDepth, new TurnKernel());
+    }
+
+    // kernel decides how damage is computed, so the bot plays by the same rules as the node's turns
+    public MoveSearch(ForkJoinPool pool, int tableBits, int maxDepth, TurnKernel kernel) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        }
+        this.kernel = kernel;
+        this.pool = pool;
+        this.table = new TranspositionTable(tableBits);
+        this.maxDepth = maxDepth;
+    }
+
+    public Decision decide(CompiledMove[] botMoves, int[] botStats, CompiledMove[] opponentMoves, int[] opponentStats,
+                           int botSide, Opponent opponent, long budgetNanos) {
+        if (botMoves.length == 0 || opponentMoves.length == 0) {
+            throw new IllegalArgumentException("Both players need at least one move");
+        }
+        if (budgetNanos < 0) {
+            throw new IllegalArgumentException("Negative search budget");
+        }
+        long start = System.nanoTime();
+        long deadline = start + Math.min(budgetNanos, MaxBudgetNanos);
+        var game = new Game(botMoves, opponentMoves, botSide, opponent, botStats, opponentStats,
+                ThreadLocalRandom.current().nextLong());
+        var roots = new ArrayList<Integer>();
+        boolean anyAffordable = game.anyAffordable(botMoves, botStats[Energy]);
+        for (int move = 0; move < botMoves.length; move++) {
+            if (!anyAffordable || botMoves[move].cost() <= botStats[Energy]) {
+                roots.add(move);
+            }
+        }
+
+        int bestMove = roots.get(0);
+        double bestValue = 0;
+        int depth = 0;
+        long nodes = 0;
+        for (int d = 1; d <= maxDepth; d++) {
+            var searchers = search(game, roots, d, deadline);
+            boolean finished = true;
+            int iterationMove = -1;
+            double iterationValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < searchers.size(); i++) {
+                var searcher = searchers.get(i);
+                nodes += searcher.nodes;
+                if (searcher.aborted) {
+                    finished = false;
+                }
+                else if (searcher.result > iterationValue) {
+                    iterationValue = searcher.result;
+                    iterationMove = roots.get(i);
+                }
+            }
+            if (!finished) {
+                if (d == 1 && iterationMove >= 0) {
+                    bestMove = iterationMove;
+                    bestValue = iterationValue;
+                }
+                break;
+            }
+            bestMove = iterationMove;
+            bestValue = iterationValue;
+            depth = d;
+            // a forced win or loss will not change with more depth
+            if (Math.abs(bestValue) == 1 || System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        return new Decision(bestMove, bestValue, depth, nodes, System.nanoTime() - start);
+    }
+
+    private ArrayList<Searcher> search(Game game, ArrayList<Integer> roots, int depth, long deadline) {
+        var searchers = new ArrayList<Searcher>(roots.size());
+        var tasks = new ArrayList<Callable<Searcher>>(roots.size());
+        for (int move : roots) {
+            var searcher = new Searcher(game, deadline);
+            searchers.add(searcher);
+            tasks.add(() -> {
+                searcher.result = searcher.root(move, depth);
+                return searcher;
+            });
+        }
+        if (pool == null || tasks.size() == 1) {
+            for (var task : tasks) {
+                call(task);
+            }
+            return searchers;
+        }
+        for (var future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while searching", e);
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException("Search failed", e.getCause());
+            }
+        }
+        return searchers;
+    }
+
+    private static void call(Callable<Searcher> task) {
+        try {
+            task.call();
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Search failed", e);
+        }
+    }
+
+    // what stays fixed for one decision
+    private record Game(CompiledMove[] botMoves, CompiledMove[] opponentMoves, int botSide, Opponent opponent,
+                        int[] botStart, int[] opponentStart, long salt) {
+
+        boolean anyAffordable(CompiledMove[] moves, int energy) {
+            for (var move : moves) {
+                if (move.cost() <= energy) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // one worker's view of the tree; frames[ply][player] holds the stats at each ply along the current path
+    private final class Searcher {
+        final Game game;
+        final long deadline;
+        final int bot;
+        final int[][][] frames = new int[maxDepth + 1][2][Stat.COUNT];
+        final TurnResult out = new TurnResult();
+        long nodes;
+        boolean aborted;
+        double result;
+
+        Searcher(Game game, long deadline) {
+            this.game = game;
+            this.deadline = deadline;
+            this.bot = game.botSide();
+            System.arraycopy(game.botStart(), 0, frames[0][bot], 0, Stat.COUNT);
+            System.arraycopy(game.opponentStart(), 0, frames[0][1 - bot], 0, Stat.COUNT);
+        }
+
+        double root(int move, int depth) {
+            // a root move may start late on a busy pool
+            if (System.nanoTime() - deadline > 0) {
+                aborted = true;
+                return 0;
+            }
+            long hash = Zobrist.hash(frames[0][0], frames[0][1]) ^ game.salt();
+            return replies(0, move, depth, hash);
+        }
+
+        // best bot move at this ply
+        double value(int ply, int depth, long hash) {
+            var stats = frames[ply];
+            int botHealth = stats[bot][Health];
+            int opponentHealth = stats[1 - bot][Health];
+            if (botHealth == 0 || opponentHealth == 0) {
+                return botHealth == opponentHealth ? 0 : botHealth == 0 ? -1 : 1;
+            }
+            if (depth == 0) {
+                return score(stats);
+            }
+            double cached = table.probe(hash, depth);
+            if (!Double.isNaN(cached)) {
+                return cached;
+            }
+            var moves = game.botMoves();
+            int energy = stats[bot][Energy];
+            boolean anyAffordable = game.anyAffordable(moves, energy);
+            double best = Double.NEGATIVE_INFINITY;
+            for (int move = 0; move < moves.length; move++) {
+                if (anyAffordable && moves[move].cost() > energy) {
+                    continue;
+                }
+                best = Math.max(best, replies(ply, move, depth, hash));
+                if (aborted) {
+                    return 0;
+                }
+            }
+            table.store(hash, depth, best);
+            return best;
+        }
+
+        // chance (or min) node over the opponent's replies to the bot's move
+        double replies(int ply, int botMove, int depth, long hash) {
+            var stats = frames[ply];
+            var moves = game.opponentMoves();
+            int energy = stats[1 - bot][Energy];
+            boolean anyAffordable = game.anyAffordable(moves, energy);
+            boolean uniform = game.opponent() == Opponent.UNIFORM;
+            double total = uniform ? 0 : Double.POSITIVE_INFINITY;
+            int replies = 0;
+            for (int move = 0; move < moves.length; move++) {
+                if (anyAffordable && moves[move].cost() > energy) {
+                    continue;
+                }
+                double value = child(ply, botMove, move, depth, hash);
+                if (aborted) {
+                    return 0;
+                }
+                total = uniform ? total + value : Math.min(total, value);
+                replies++;
+            }
+            return uniform ? total / replies : total;
+        }
+
+        double child(int ply, int botMove, int opponentMove, int depth, long hash) {
+            var stats = frames[ply];
+            var next = frames[ply + 1];
+            var bots = game.botMoves()[botMove];
+            var opponents = game.opponentMoves()[opponentMove];
+            if (bot == TurnResult.Player1) {
+                kernel.evaluate(bots, stats[0], opponents, stats[1], out);
+            }
+            else {
+                kernel.evaluate(opponents, stats[0], bots, stats[1], out);
+            }
+            System.arraycopy(out.finalStats(TurnResult.Player1), 0, next[0], 0, Stat.COUNT);
+            System.arraycopy(out.finalStats(TurnResult.Player2), 0, next[1], 0, Stat.COUNT);
+            if ((++nodes & CheckMask) == 0 && System.nanoTime() - deadline > 0) {
+                aborted = true;
+                return 0;
+            }
+            long childHash = Zobrist.update(Zobrist.update(hash, 0, stats[0], next[0]), 1, stats[1], next[1]);
+            return value(ply + 1, depth - 1, childHash);
+        }
+
+        // half the difference in Health kept, so any leaf stays strictly between a loss and a win
+        double score(int[][] stats) {
+            double botShare = (double) stats[bot][Health] / Math.max(game.botStart()[Health], 1);
+            double opponentShare = (double) stats[1 - bot][Health] / Math.max(game.opponentStart()[Health], 1);
+            return Math.max(-0.99, Math.min(0.99, (botShare - opponentShare) / 2));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package tech.quangson.battleengine.bot;
+
+/*
+    Lock-free table of searched positions shared by all root workers. An entry is two longs, the packed data and
+    the position hash XORed with it, so a torn write from two racing workers fails the check on read instead of
+    returning another position's value. Always-replace; the search is correct without any entry.
+    Each decision salts its hashes, so entries left over from earlier decisions never match and the table is
+    never cleared. A probe only matches the exact depth, which keeps the result independent of the order the
+    workers happen to visit positions in.
+ */
+final class TranspositionTable {
+
+    static final double Miss = Double.NaN;
+
+    private final long[] checks;
+    private final long[] data;
+    private final int mask;
+
+    TranspositionTable(int bits) {
+        checks = new long[1 << bits];
+        data = new long[1 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    // the stored value when it was searched exactly depth plies deep, otherwise Miss
+    double probe(long hash, int depth) {
+        int slot = (int) hash & mask;
+        long entry = data[slot];
+        if ((checks[slot] ^ entry) != hash || (int) (entry >>> 32) != depth) {
+            return Miss;
+        }
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    void store(long hash, int depth, double value) {
+        int slot = (int) hash & mask;
+        long entry = (long) depth << 32 | (Float.floatToRawIntBits((float) value) & 0xFFFF_FFFFL);
+        data[slot] = entry;
+        checks[slot] = hash ^ entry;
+    }
+}
@@ -0,0 +1,53 @@
+package tech.quangson.battleengine.bot;
+
+import tech.quangson.battleengine.mechanics.Stat;
+
+import java.util.SplittableRandom;
+
+/*
+    Zobrist-style hash of both players' stat blocks. Stats are not small enums, so every stat contributes one
+    random key per byte of its value; a turn that changes a few stats updates the hash with just those.
+ */
+final class Zobrist {
+
+    private static final long[][][][] keys = new long[2][Stat.COUNT][4][256];
+
+    static {
+        var rng = new SplittableRandom(0x5EED_B07L);
+        for (var player : keys) {
+            for (var stat : player) {
+                for (var bytes : stat) {
+                    for (int value = 0; value < bytes.length; value++) {
+                        bytes[value] = rng.nextLong();
+                    }
+                }
+            }
+        }
+    }
+
+    private Zobrist() {}
+
+    static long hash(int[] player1, int[] player2) {
+        long hash = 0;
+        for (int stat = 0; stat < Stat.COUNT; stat++) {
+            hash ^= key(0, stat, player1[stat]) ^ key(1, stat, player2[stat]);
+        }
+        return hash;
+    }
+
+    // the hash of after, given the hash of before
+    static long update(long hash, int player, int[] before, int[] after) {
+        for (int stat = 0; stat < Stat.COUNT; stat++) {
+            if (before[stat] != after[stat]) {
+                hash ^= key(player, stat, before[stat]) ^ key(player, stat, after[stat]);
+            }
+        }
+        return hash;
+    }
+
+    private static long key(int player, int stat, int value) {
+        var bytes = keys[player][stat];
+        return bytes[0][value & 0xFF] ^ bytes[1][(value >>> 8) & 0xFF]
+                ^ bytes[2][(value >>> 16) & 0xFF] ^ bytes[3][value >>> 24];
+    }
+}
@@ -0,0 +1,217 @@
+package tech.quangson.battleengine.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tech.quangson.battleengine.session.MatchService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Cluster mode for server-side matches (engine.cluster.enabled). Members are engine base URLs, from a static
+    list or a file that is re-read every refresh interval; each match lives on the member the HashRing assigns
+    its id to, and other members forward its requests there (see PeerClient).
+
+    When the membership changes, this node pushes every match it no longer owns to the new owner. A request
+    that reaches the new owner before its match does is forwarded once more to the owner under the previous
+    ring, which still serves it; one forwarded there that has left the old owner and not yet arrived is answered
+    503 with Retry-After for handOffWindow after the change. A failed push leaves the match here and is retried on
+    the next refresh. A push the new owner refuses because it holds a newer copy drops the copy here. Pushes are
+    authenticated with engine.cluster.secret, which cluster mode requires. With the mode off every match is local.
+ */
+@Component
+public class ClusterRouter {
+
+    private final boolean enabled;
+    private final String self;
+    private final String staticMembers;
+    private final Path membersFile;
+    private final int virtualNodes;
+    private final long handOffWindowNanos;
+    private final MatchService matches;
+    private final PeerClient peers;
+    private final AtomicLong handedOff = new AtomicLong();
+    private volatile HashRing ring = HashRing.EMPTY;
+    private volatile HashRing previous = HashRing.EMPTY;
+    private volatile long changedNanos;
+    private boolean pending;
+
+    @Autowired
+    public ClusterRouter(MatchService matches, ObjectMapper mapper,
+                         @Value("${engine.cluster.enabled:false}") boolean enabled,
+                         @Value("${engine.cluster.self:http://localhost:${server.port:8080}}") String self,
+                         @Value("${engine.cluster.members:}") String members,
+                         @Value("${engine.cluster.members-file:}") String membersFile,
+                         @Value("${engine.cluster.virtual-nodes:128}") int virtualNodes,
+                         @Value("${engine.cluster.forward-timeout:PT2S}") Duration forwardTimeout,
+                         @Value("${engine.cluster.hand-off-window:PT30S}") Duration handOffWindow,
+                         @Value("${engine.cluster.secret:}") String secret) {
+        this(matches, new PeerClient(mapper, forwardTimeout, secret), enabled, self, members,
+                membersFile.isBlank() ? null : Path.of(membersFile), virtualNodes, handOffWindow);
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("engine.cluster.secret must be set in cluster mode");
+        }
+    }
+
+    ClusterRouter(MatchService matches, PeerClient peers, boolean enabled, String self, String members,
+                  Path membersFile, int virtualNodes, Duration handOffWindow) {
+        this.handOffWindowNanos = handOffWindow.toNanos();
+        this.enabled = enabled;
+        this.self = self;
+        this.staticMembers = members;
+        this.membersFile = membersFile;
+        this.virtualNodes = virtualNodes;
+        this.matches = matches;
+        this.peers = peers;
+        if (enabled) {
+            ring = new HashRing(readMembers(), virtualNodes);
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public PeerClient peers() {
+        return peers;
+    }
+
+    public HashRing ring() {
+        return ring;
+    }
+
+    public long handedOff() {
+        return handedOff.get();
+    }
+
+    // the member that owns matchId when that is not this node, otherwise null
+    public String remoteOwner(String matchId) {
+        return remote(ring, matchId);
+    }
+
+    // where matchId lived before the last membership change, if that was another node
+    public String previousOwner(String matchId) {
+        return remote(previous, matchId);
+    }
+
+    // true for a match this node now owns that may still be on its way from its previous owner
+    public boolean inTransit(String matchId) {
+        return remote(ring, matchId) == null && previousOwner(matchId) != null
+                && System.nanoTime() - changedNanos < handOffWindowNanos;
+    }
+
+    // false unless secret is the cluster's shared secret
+    public boolean trusted(String secret) {
+        return peers.trusted(secret);
+    }
+
+    // a fresh id owned by this node, so creating a match takes no hop; null when this node is not a member
+    public String newMatchId() {
+        var current = ring;
+        if (enabled && !current.contains(self)) {
+            return null;
+        }
+        while (true) {
+            var matchId = UUID.randomUUID().toString();
+            if (!enabled || self.equals(current.owner(matchId))) {
+                return matchId;
+            }
+        }
+    }
+
+    // any member that can create a match when this node cannot
+    public String anyMember() {
+        return ring.owner(UUID.randomUUID().toString());
+    }
+
+    // may block for a forward-timeout per match pushed, so it needs its own scheduler thread (spring.task.scheduling)
+    @Scheduled(fixedDelayString = "${engine.cluster.refresh-interval-ms:5000}")
+    public synchronized int refresh() {
+        if (!enabled) {
+            return 0;
+        }
+        var members = readMembers();
+        if (!members.equals(ring.members())) {
+            update(members);
+        }
+        else if (!pending) {
+            return 0;
+        }
+        return handOff();
+    }
+
+    synchronized void update(List<String> members) {
+        previous = ring;
+        ring = new HashRing(members, virtualNodes);
+        changedNanos = System.nanoTime();
+    }
+
+    // pushes every local match owned by another member to it; returns how many moved
+    synchronized int handOff() {
+        int moved = 0;
+        pending = false;
+        for (var matchId : matches.matchIds()) {
+            var owner = remoteOwner(matchId);
+            if (owner == null) {
+                continue;
+            }
+            var snapshot = matches.release(matchId);
+            if (snapshot.isEmpty()) {
+                continue;
+            }
+            try {
+                // refused: the owner already has a newer copy, so the one released here is stale
+                if (peers.push(owner, snapshot.get())) {
+                    moved++;
+                }
+            }
+            catch (IOException e) {
+                matches.restore(snapshot.get());
+                pending = true;
+            }
+        }
+        handedOff.addAndGet(moved);
+        return moved;
+    }
+
+    private String remote(HashRing ring, String matchId) {
+        if (!enabled) {
+            return null;
+        }
+        var owner = ring.owner(matchId);
+        return owner == null || owner.equals(self) ? null : owner;
+    }
+
+    private List<String> readMembers() {
+        String members;
+        try {
+            members = membersFile != null ? Files.readString(membersFile) : staticMembers;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cluster members from " + membersFile, e);
+        }
+        // one or more members per line, separated by commas or spaces; # starts a comment
+        return members.lines()
+                .map(line -> line.replaceFirst("#.*", ""))
+                .flatMap(line -> Arrays.stream(line.split("[,\\s]+")))
+                .filter(member -> !member.isEmpty())
+                .map(member -> member.endsWith("/") ? member.substring(0, member.length() - 1) : member)
+                .sorted()
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,75 @@
+package tech.quangson.battleengine.cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/*
+    Consistent hashing of match ids onto engine nodes. Every member is placed on a 64-bit ring at virtualNodes
+    points and a key belongs to the first point at or after its own hash, wrapping around. Adding or removing a
+    member only moves the keys next to its points, about 1/members of them, and the virtual nodes keep each
+    member's share close to even. Immutable; a membership change builds a new ring.
+ */
+public final class HashRing {
+
+    public static final HashRing EMPTY = new HashRing(List.of(), 1);
+
+    private final List<String> members;
+    private final long[] points;
+    private final int[] owners;
+
+    public HashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Every member needs at least one virtual node");
+        }
+        this.members = List.copyOf(new TreeSet<>(members));
+        var placed = new ArrayList<long[]>(this.members.size() * virtualNodes);
+        for (int member = 0; member < this.members.size(); member++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                placed.add(new long[]{hash(this.members.get(member) + "#" + i), member});
+            }
+        }
+        placed.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        points = new long[placed.size()];
+        owners = new int[placed.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = placed.get(i)[0];
+            owners[i] = (int) placed.get(i)[1];
+        }
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    public boolean contains(String member) {
+        return members.contains(member);
+    }
+
+    // null on an empty ring
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return members.get(owners[i == points.length ? 0 : i]);
+    }
+
+    // FNV-1a over the chars, then the MurmurHash3 finalizer so similar ids land far apart
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
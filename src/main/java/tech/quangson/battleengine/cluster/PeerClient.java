@@ -0,0 +1,91 @@
+package tech.quangson.battleengine.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tech.quangson.battleengine.session.MatchSnapshot;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/*
+    The internal hop between engine nodes: plain JSON over one shared, keep-alive HTTP client. Forwarded requests
+    carry HopHeader, and a node never forwards a request that already has it, so a request takes at most one hop
+    (two while a match is being handed off) even when nodes briefly disagree about the ring. Every call carries
+    the cluster's shared secret in SecretHeader; a node only takes over matches from callers that know it.
+ */
+public class PeerClient {
+
+    public static final String HopHeader = "X-Engine-Hop";
+    public static final String SecretHeader = "X-Engine-Secret";
+    public static final String HandOffPath = "/internal/cluster/matches";
+
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final Duration timeout;
+    private final byte[] secret;
+
+    public PeerClient(ObjectMapper mapper, Duration timeout, String secret) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.mapper = mapper;
+        this.timeout = timeout;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // constant time, so the secret cannot be guessed byte by byte from response times
+    public boolean trusted(String secret) {
+        return secret != null && this.secret.length > 0
+                && MessageDigest.isEqual(this.secret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // replays a request on member and hands back its answer as is; body may be null
+    public ResponseEntity<byte[]> forward(String member, String method, String path, Object body) throws IOException {
+        var publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        var response = send(HttpRequest.newBuilder(URI.create(member + path))
+                .timeout(timeout)
+                .header(HopHeader, "1")
+                .header(SecretHeader, new String(secret, StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .method(method, publisher)
+                .build());
+        var headers = new HttpHeaders();
+        response.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(type -> headers.set(HttpHeaders.CONTENT_TYPE, type));
+        return new ResponseEntity<>(response.body(), headers, response.statusCode());
+    }
+
+    // false when member already holds a newer copy of the match, which makes this one stale
+    public boolean push(String member, MatchSnapshot snapshot) throws IOException {
+        var response = forward(member, "POST", HandOffPath, snapshot);
+        if (response.getStatusCode() == HttpStatus.CONFLICT) {
+            return false;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IOException("Hand-off of " + snapshot.matchId() + " to " + member + " failed with "
+                    + response.getStatusCodeValue());
+        }
+        return true;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + request.uri(), e);
+        }
+    }
+}
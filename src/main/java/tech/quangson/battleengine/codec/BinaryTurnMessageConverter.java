@@ -0,0 +1,124 @@
+package tech.quangson.battleengine.codec;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import tech.quangson.battleengine.mechanics.TurnState;
+
+/*
+    Reads a TurnState and writes a TurnState or TurnState[] when the client asks for application/x-battle-turn.
+    A body is read whole, so one larger than maxBytes is refused with PayloadTooLargeException.
+ */
+public class BinaryTurnMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String MediaTypeValue = "application/x-battle-turn";
+    public static final MediaType Binary = MediaType.parseMediaType(MediaTypeValue);
+
+    private final TurnCodec codec;
+    private final ByteBufferPool pool;
+    private final int maxBytes;
+
+    public BinaryTurnMessageConverter(TurnCodec codec, ByteBufferPool pool, int maxBytes) {
+        super(Binary);
+        this.codec = codec;
+        this.pool = pool;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return clazz == TurnState.class || clazz == TurnState[].class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return mediaType != null && super.canRead(mediaType);
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage input) throws IOException {
+        if (input.getHeaders().getContentLength() > maxBytes) {
+            throw new PayloadTooLargeException(maxBytes, input);
+        }
+        var buffer = fill(input, pool.acquire());
+        try {
+            return clazz == TurnState.class ? codec.readTurn(buffer) : codec.readTurns(buffer);
+        }
+        catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, input);
+        }
+        finally {
+            pool.release(buffer);
+        }
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object body, @NonNull HttpOutputMessage output) throws IOException {
+        var buffer = pool.acquire();
+        try {
+            buffer = encode(body, buffer);
+            output.getHeaders().setContentLength(buffer.position());
+            output.getBody().write(buffer.array(), 0, buffer.position());
+        }
+        finally {
+            pool.release(buffer);
+        }
+    }
+
+    // a payload larger than the pooled buffer is retried once with a buffer of twice the size, and so on
+    private ByteBuffer encode(Object body, ByteBuffer buffer) {
+        while (true) {
+            try {
+                if (body instanceof TurnState[] turns) {
+                    codec.writeTurns(turns, buffer);
+                }
+                else {
+                    codec.writeTurn((TurnState) body, buffer);
+                }
+                return buffer;
+            }
+            catch (BufferOverflowException e) {
+                pool.release(buffer);
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    /*
+        Reads the whole body and flips the buffer for decoding. A buffer that is outgrown goes back to the pool
+        right away, and on failure the buffer in hand is released here, so the caller only releases the result.
+        Growth stops one byte past maxBytes, which is enough to tell that the body is too large.
+     */
+    private ByteBuffer fill(HttpInputMessage input, ByteBuffer buffer) throws IOException {
+        try {
+            var in = input.getBody();
+            int read;
+            while ((read = in.read(buffer.array(), buffer.position(), buffer.remaining())) != -1) {
+                buffer.position(buffer.position() + read);
+                if (buffer.position() > maxBytes) {
+                    throw new PayloadTooLargeException(maxBytes, input);
+                }
+                if (!buffer.hasRemaining()) {
+                    var grown = ByteBuffer.allocate((int) Math.min(buffer.capacity() * 2L, maxBytes + 1L));
+                    grown.put(buffer.flip());
+                    pool.release(buffer);
+                    buffer = grown;
+                }
+            }
+            return buffer.flip();
+        }
+        catch (IOException | RuntimeException e) {
+            pool.release(buffer);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package tech.quangson.battleengine.codec;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// bounded pool of equally sized heap buffers; callers must release what they acquire
+public final class ByteBufferPool {
+
+    private final ArrayBlockingQueue<ByteBuffer> free;
+    private final int bufferSize;
+
+    public ByteBufferPool(int buffers, int bufferSize) {
+        this.free = new ArrayBlockingQueue<>(buffers);
+        this.bufferSize = bufferSize;
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    // a fresh buffer when the pool is empty, so a burst never blocks
+    public ByteBuffer acquire() {
+        var buffer = free.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocate(bufferSize);
+    }
+
+    // buffers of another size (e.g. grown for one large payload) are left to the GC
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize) {
+            free.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package tech.quangson.battleengine.codec;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+// a binary body over engine.codec.max-bytes; answered with 413 rather than the 400 of other unreadable bodies
+public class PayloadTooLargeException extends HttpMessageNotReadableException {
+
+    public PayloadTooLargeException(long maxBytes, HttpInputMessage input) {
+        super("Binary turn payload exceeds the limit of " + maxBytes + " bytes", input);
+    }
+}
@@ -0,0 +1,248 @@
+package tech.quangson.battleengine.codec;
+
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Fixed-layout binary form of TurnState, big-endian:
+
+    turn     := magic 'B' 'T', version u8, flags u8 (bit 0: has sequence), player, player, [sequence]
+    player   := playerId string, move, stats as 7 x i32 in Stat order
+    move     := u8 0 (none) | u8 1, catalog id i32 | u8 2, name, category, type strings,
+                basePower, cost, limit, priority i32, buffs, debuffs
+    buffs    := u8 count, count x (stat index u8, amount i32)
+    sequence := u8 count, count x string
+    string   := u16 byte length, UTF-8 bytes
+    turns    := u16 count, count x turn  (the TurnState[] response)
+
+    A full move that matches a catalog entry is written as its id. readTurn and readTurns take a whole payload
+    and reject bytes left over after it; readNextTurn reads one turn out of a longer record.
+ */
+public final class TurnCodec {
+
+    static final byte Version = 1;
+    private static final byte MoveNone = 0;
+    private static final byte MoveById = 1;
+    private static final byte MoveInline = 2;
+
+    private final MoveCatalog catalog;
+
+    public TurnCodec(MoveCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public void writeTurns(TurnState[] turns, ByteBuffer out) {
+        out.putShort((short) turns.length);
+        for (var turn : turns) {
+            writeTurn(turn, out);
+        }
+    }
+
+    public void writeTurn(TurnState turn, ByteBuffer out) {
+        out.put((byte) 'B').put((byte) 'T').put(Version);
+        var sequence = turn.getSequence();
+        out.put((byte) (sequence != null ? 1 : 0));
+        writePlayer(turn.getPlayer1State(), out);
+        writePlayer(turn.getPlayer2State(), out);
+        if (sequence != null) {
+            out.put((byte) sequence.length);
+            for (var id : sequence) {
+                writeString(id, out);
+            }
+        }
+    }
+
+    public TurnState[] readTurns(ByteBuffer in) {
+        try {
+            var turns = new TurnState[Short.toUnsignedInt(in.getShort())];
+            for (int i = 0; i < turns.length; i++) {
+                turns[i] = readNextTurn(in);
+            }
+            requireEnd(in);
+            return turns;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated turn payload");
+        }
+    }
+
+    public TurnState readTurn(ByteBuffer in) {
+        var turn = readNextTurn(in);
+        requireEnd(in);
+        return turn;
+    }
+
+    // leaves in positioned just after the turn
+    public TurnState readNextTurn(ByteBuffer in) {
+        try {
+            if (in.get() != 'B' || in.get() != 'T') {
+                throw new IllegalArgumentException("Not a binary turn payload");
+            }
+            var version = in.get();
+            if (version != Version) {
+                throw new IllegalArgumentException("Unsupported binary turn version " + version);
+            }
+            boolean hasSequence = (in.get() & 1) != 0;
+            var player1 = readPlayer(in);
+            var player2 = readPlayer(in);
+            String[] sequence = null;
+            if (hasSequence) {
+                sequence = new String[Byte.toUnsignedInt(in.get())];
+                for (int i = 0; i < sequence.length; i++) {
+                    sequence[i] = readString(in);
+                }
+            }
+            return new TurnState(player1, player2, sequence);
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated turn payload");
+        }
+    }
+
+    private static void requireEnd(ByteBuffer in) {
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException(in.remaining() + " bytes left over after the turn payload");
+        }
+    }
+
+    private void writePlayer(TurnState.PlayerState player, ByteBuffer out) {
+        writeString(player.playerId(), out);
+        var move = player.move();
+        var known = move != null ? catalog.byName(move.moveName()) : null;
+        if (known != null && known.source().equals(move)) {
+            out.put(MoveById).putInt(known.id());
+        }
+        else if (move != null) {
+            out.put(MoveInline);
+            writeMove(move, out);
+        }
+        else if (player.moveId() != null) {
+            out.put(MoveById).putInt(player.moveId());
+        }
+        else {
+            out.put(MoveNone);
+        }
+        var stats = player.stats();
+        if (stats instanceof StatBlock block) {
+            for (int i = 0; i < Stat.COUNT; i++) {
+                out.putInt(block.get(i));
+            }
+        }
+        else {
+            for (int i = 0; i < Stat.COUNT; i++) {
+                var value = stats.get(Stat.byIndex(i).key());
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing stat: " + Stat.byIndex(i).key());
+                }
+                out.putInt(value);
+            }
+        }
+    }
+
+    private TurnState.PlayerState readPlayer(ByteBuffer in) {
+        var playerId = readString(in);
+        GameMove move = null;
+        Integer moveId = null;
+        switch (in.get()) {
+            case MoveNone -> {}
+            case MoveById -> moveId = in.getInt();
+            case MoveInline -> move = readMove(in);
+            default -> throw new IllegalArgumentException("Unknown move tag");
+        }
+        var stats = new int[Stat.COUNT];
+        for (int i = 0; i < Stat.COUNT; i++) {
+            stats[i] = in.getInt();
+        }
+        return new TurnState.PlayerState(playerId, move, StatBlock.copyOf(stats), moveId);
+    }
+
+    private static void writeMove(GameMove move, ByteBuffer out) {
+        writeString(move.moveName(), out);
+        writeString(move.category(), out);
+        writeString(move.type(), out);
+        out.putInt(move.basePower()).putInt(move.cost()).putInt(move.limit()).putInt(move.priority());
+        writeModifiers(move.buffs(), out);
+        writeModifiers(move.debuffs(), out);
+    }
+
+    private static GameMove readMove(ByteBuffer in) {
+        var name = readString(in);
+        var category = readString(in);
+        var type = readString(in);
+        int basePower = in.getInt();
+        int cost = in.getInt();
+        int limit = in.getInt();
+        int priority = in.getInt();
+        var buffs = readModifiers(in);
+        var debuffs = readModifiers(in);
+        return new GameMove(name, category, type, basePower, cost, limit, priority, buffs, debuffs);
+    }
+
+    // 0xFF marks a missing map so null and empty survive the round trip
+    private static void writeModifiers(Map<String, Integer> modifiers, ByteBuffer out) {
+        if (modifiers == null) {
+            out.put((byte) 0xFF);
+            return;
+        }
+        out.put((byte) modifiers.size());
+        for (var modifier : modifiers.entrySet()) {
+            out.put((byte) Stat.require(modifier.getKey()).ordinal()).putInt(modifier.getValue());
+        }
+    }
+
+    private static Map<String, Integer> readModifiers(ByteBuffer in) {
+        int count = Byte.toUnsignedInt(in.get());
+        if (count == 0xFF) {
+            return null;
+        }
+        var modifiers = new LinkedHashMap<String, Integer>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int stat = Byte.toUnsignedInt(in.get());
+            if (stat >= Stat.COUNT) {
+                throw new IllegalArgumentException("Unknown stat index " + stat);
+            }
+            modifiers.put(Stat.byIndex(stat).key(), in.getInt());
+        }
+        return modifiers;
+    }
+
+    // a null string is written as length 0xFFFF
+    private static void writeString(String value, ByteBuffer out) {
+        if (value == null) {
+            out.putShort((short) 0xFFFF);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= 0xFFFF) {
+            throw new IllegalArgumentException("String too long for binary turn payload");
+        }
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == 0xFFFF) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (!in.hasArray()) {
+            var bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        var value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
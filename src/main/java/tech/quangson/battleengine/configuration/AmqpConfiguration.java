@@ -0,0 +1,57 @@
+package tech.quangson.battleengine.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.messaging.TurnMessageProcessor;
+import tech.quangson.battleengine.messaging.TurnPipeline;
+import tech.quangson.battleengine.messaging.TurnShards;
+
+import java.util.ArrayList;
+
+// the AMQP turn pipeline only exists with engine.amqp.enabled=true, so the engine still runs without a broker
+@Configuration
+@ConditionalOnProperty(name = "engine.amqp.enabled", havingValue = "true")
+public class AmqpConfiguration {
+
+    @Value("${engine.amqp.shards:4}")
+    private int shards;
+
+    @Bean
+    public Declarables turnTopology() {
+        var turns = new DirectExchange(TurnShards.TurnExchange);
+        var declarables = new ArrayList<Declarable>();
+        declarables.add(turns);
+        declarables.add(new TopicExchange(TurnShards.ResultExchange));
+        for (int shard = 0; shard < shards; shard++) {
+            var queue = new Queue(TurnShards.queueName(shard));
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(turns).with(TurnShards.routingKey(shard)));
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public TurnMessageProcessor turnMessageProcessor(BatchTurnService batch, ObjectMapper mapper, RabbitTemplate rabbit) {
+        return new TurnMessageProcessor(batch, mapper, rabbit::send);
+    }
+
+    @Bean
+    public TurnPipeline turnPipeline(ConnectionFactory connectionFactory, TurnMessageProcessor processor,
+                                     @Value("${engine.amqp.consumers-per-shard:1}") int consumersPerShard,
+                                     @Value("${engine.amqp.prefetch:250}") int prefetch,
+                                     @Value("${engine.amqp.batch-size:50}") int batchSize) {
+        return new TurnPipeline(connectionFactory, processor, shards, consumersPerShard, prefetch, batchSize);
+    }
+}
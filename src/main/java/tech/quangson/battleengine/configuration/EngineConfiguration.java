@@ -0,0 +1,124 @@
+package tech.quangson.battleengine.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.journal.DamageMode;
+import tech.quangson.battleengine.journal.MappedJournal;
+import tech.quangson.battleengine.mechanics.DamageFormula;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TinyLfuTurnCache;
+import tech.quangson.battleengine.mechanics.TurnCache;
+import tech.quangson.battleengine.mechanics.TurnJournal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableScheduling
+public class EngineConfiguration {
+
+    // a missing catalog file just means every turn has to carry its full moves
+    @Bean
+    public MoveCatalog moveCatalog(ResourceLoader resources, ObjectMapper mapper,
+                                   @Value("${engine.moves.location:classpath:moves.json}") String location) throws IOException {
+        var resource = resources.getResource(location);
+        if (!resource.exists()) {
+            return MoveCatalog.empty();
+        }
+        try (var in = resource.getInputStream()) {
+            return MoveCatalog.load(in, mapper);
+        }
+    }
+
+    // 0 means one worker per available core
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool turnPool(@Value("${engine.batch.parallelism:0}") int parallelism) {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(workers);
+    }
+
+    // pushes turn frames to spectators; writes never block, so a few threads serve any number of streams
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService spectatorWriters(@Value("${engine.spectate.writers:2}") int writers) {
+        var ids = new AtomicInteger();
+        return Executors.newFixedThreadPool(writers, task -> {
+            var thread = new Thread(task, "spectator-writer-" + ids.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // segments record the damage mode, so the replay verifier only compares turns computed the same way
+    @Bean
+    public TurnJournal turnJournal(MoveCatalog catalog, DamageTable damageTable, DamageFormulas damageFormulas,
+                                   @Value("${engine.journal.enabled:false}") boolean enabled,
+                                   @Value("${engine.journal.directory:journal}") Path directory,
+                                   @Value("${engine.journal.segment-size:67108864}") int segmentSize,
+                                   @Value("${engine.journal.ring-size:65536}") int ringSize) throws IOException {
+        if (!enabled) {
+            return TurnJournal.NONE;
+        }
+        return new MappedJournal(directory, segmentSize, ringSize, new TurnCodec(catalog),
+                DamageMode.of(damageTable, damageFormulas));
+    }
+
+    // cached outcomes do not know which formula produced them, so the cache and formula mode exclude each other
+    @Bean
+    public TurnCache turnCache(MoveCatalog catalog, DamageFormulas damageFormulas,
+                               @Value("${engine.cache.enabled:false}") boolean enabled,
+                               @Value("${engine.cache.max-entries:100000}") int maxEntries,
+                               @Value("${engine.cache.stripes:16}") int stripes) {
+        if (!enabled) {
+            return TurnCache.NONE;
+        }
+        if (damageFormulas.enabled()) {
+            throw new IllegalStateException("engine.cache.enabled cannot be combined with engine.damage-formula.enabled");
+        }
+        return new TinyLfuTurnCache(catalog, maxEntries, stripes);
+    }
+
+    @Bean
+    public DamageTable damageTable(MoveCatalog catalog,
+                                   @Value("${engine.damage-table.enabled:false}") boolean enabled,
+                                   @Value("${engine.damage-table.buckets:512}") int buckets,
+                                   @Value("${engine.damage-table.max-ratio:4.0}") double maxRatio,
+                                   @Value("${engine.damage-table.max-bytes:33554432}") long maxBytes) {
+        if (!enabled) {
+            return DamageTable.NONE;
+        }
+        return new DamageTable(catalog, buckets, maxRatio, maxBytes);
+    }
+
+    /*
+        Starts from the bundled formulas and picks up the file once it exists. Formulas are compiled to hidden
+        classes at runtime, which a native image cannot load, so formula mode refuses to start there.
+     */
+    @Bean
+    public DamageFormulas damageFormulas(ResourceLoader resources,
+                                         @Value("${engine.damage-formula.enabled:false}") boolean enabled,
+                                         @Value("${engine.damage-formula.file:damage.formulas}") Path file) throws IOException {
+        if (!enabled) {
+            return DamageFormulas.NONE;
+        }
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") != null) {
+            throw new IllegalStateException("engine.damage-formula.enabled is not supported in a native image");
+        }
+        try (var in = resources.getResource("classpath:damage.formulas").getInputStream()) {
+            var formulas = new DamageFormulas(DamageFormula.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8)), file);
+            formulas.reload();
+            return formulas;
+        }
+    }
+}
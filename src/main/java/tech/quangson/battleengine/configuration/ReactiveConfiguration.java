@@ -0,0 +1,84 @@
+package tech.quangson.battleengine.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import tech.quangson.battleengine.cluster.ClusterRouter;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnService;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.spectate.SpectatorFeeds;
+import tech.quangson.battleengine.web.ReactiveSpectatorHandler;
+import tech.quangson.battleengine.web.ReactiveTurnHandler;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// active only with spring.main.web-application-type=reactive, which swaps Tomcat for Netty
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration {
+
+    // Boot would otherwise prefer Tomcat's reactive adapter because the servlet stack is on the classpath too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveTurnHandler reactiveTurnHandler(TurnService ts, BatchTurnService batch, MoveCatalog catalog,
+                                                   TurnMetrics metrics, ObjectMapper mapper,
+                                                   @Qualifier("turnPool") ForkJoinPool turnPool,
+                                                   @Value("${engine.batch.max-size:10000}") int maxBatchSize,
+                                                   @Value("${engine.batch.stream-chunk-size:1024}") int streamChunkSize) {
+        return new ReactiveTurnHandler(ts, batch, catalog, metrics, mapper, turnPool, maxBatchSize, streamChunkSize);
+    }
+
+    @Bean
+    public ReactiveSpectatorHandler reactiveSpectatorHandler(SpectatorFeeds feeds, MatchService matches,
+                                                             ClusterRouter cluster) {
+        return new ReactiveSpectatorHandler(feeds, matches, cluster);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> spectatorRoutes(ReactiveSpectatorHandler handler) {
+        return route(GET("/engine/spectate/{matchId}"), handler::spectate);
+    }
+
+    // MatchController and BattleController are plain annotated controllers and are served by WebFlux as is
+    @Bean
+    public RouterFunction<ServerResponse> turnRoutes(ReactiveTurnHandler handler) {
+        return route(POST("/engine/turn"), handler::processTurn)
+                .andRoute(GET("/engine/moves"), handler::listMoves)
+                .andRoute(POST("/engine/turns").and(contentType(MediaType.APPLICATION_NDJSON)), handler::processTurnStream)
+                .andRoute(POST("/engine/turns").and(contentType(MediaType.APPLICATION_JSON)), handler::processTurns);
+    }
+
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        var cors = new CorsConfiguration();
+        cors.addAllowedOrigin("http://localhost:4200");
+        cors.addAllowedMethod("GET");
+        cors.addAllowedMethod("HEAD");
+        cors.addAllowedMethod("POST");
+        var source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", cors);
+        return new CorsWebFilter(source);
+    }
+}
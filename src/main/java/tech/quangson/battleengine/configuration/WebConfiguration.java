@@ -1,15 +1,63 @@
 package tech.quangson.battleengine.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tech.quangson.battleengine.codec.BinaryTurnMessageConverter;
+import tech.quangson.battleengine.codec.ByteBufferPool;
+import tech.quangson.battleengine.cluster.ClusterRouter;
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.spectate.SpectatorFeeds;
+import tech.quangson.battleengine.web.SpectatorServlet;
+
+import java.util.List;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
 
+    private final MoveCatalog catalog;
+    private final int codecBuffers;
+    private final int codecBufferSize;
+    private final int codecMaxBytes;
+
+    public WebConfiguration(MoveCatalog catalog,
+                            @Value("${engine.codec.buffers:64}") int codecBuffers,
+                            @Value("${engine.codec.buffer-size:4096}") int codecBufferSize,
+                            @Value("${engine.codec.max-bytes:1048576}") int codecMaxBytes) {
+        this.catalog = catalog;
+        this.codecBuffers = codecBuffers;
+        this.codecBufferSize = codecBufferSize;
+        this.codecMaxBytes = codecMaxBytes;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:4200");
     }
+
+    // appended after the defaults so JSON stays the default representation
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BinaryTurnMessageConverter(new TurnCodec(catalog),
+                new ByteBufferPool(codecBuffers, codecBufferSize), codecMaxBytes));
+    }
+
+    // next to the DispatcherServlet, which cannot do non-blocking writes
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ServletRegistrationBean<SpectatorServlet> spectatorServlet(SpectatorFeeds feeds, MatchService matches,
+                                                                      ClusterRouter cluster) {
+        var registration = new ServletRegistrationBean<>(new SpectatorServlet(feeds, matches, cluster),
+                "/engine/spectate/*");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
 }
@@ -0,0 +1,23 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+
+// how the engine that wrote a segment computed damage; the ordinal is stored in segment headers, so only append
+public enum DamageMode {
+    EXACT, TABLE, FORMULA;
+
+    public static DamageMode of(DamageTable table, DamageFormulas formulas) {
+        if (formulas.enabled()) {
+            return FORMULA;
+        }
+        return table.enabled() ? TABLE : EXACT;
+    }
+
+    static DamageMode of(int code) {
+        if (code < 0 || code >= values().length) {
+            throw new IllegalArgumentException("Unknown damage mode " + code);
+        }
+        return values()[code];
+    }
+}
@@ -0,0 +1,36 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.Arrays;
+
+// one journaled turn: what the engine was asked and the two rounds it answered with
+public record JournalEntry(TurnState turn, TurnState[] result) {
+
+    // true when a re-evaluation gives the same sequence and the same stats in both rounds
+    public boolean matches(TurnState[] replayed) {
+        if (replayed.length != result.length) {
+            return false;
+        }
+        for (int round = 0; round < result.length; round++) {
+            var recorded = result[round];
+            var actual = replayed[round];
+            if (!Arrays.equals(recorded.getSequence(), actual.getSequence())
+                    || !sameStats(recorded.getPlayer1State(), actual.getPlayer1State())
+                    || !sameStats(recorded.getPlayer2State(), actual.getPlayer2State())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameStats(TurnState.PlayerState recorded, TurnState.PlayerState actual) {
+        for (int i = 0; i < Stat.COUNT; i++) {
+            if (recorded.getStat(Stat.byIndex(i)) != actual.getStat(Stat.byIndex(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
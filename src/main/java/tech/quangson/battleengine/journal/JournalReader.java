@@ -0,0 +1,87 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.TurnService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+// sequential reader over the segments a MappedJournal wrote; needs the move catalog the journal was written with
+public final class JournalReader {
+
+    public record ReplayReport(long turns, long diverged) {}
+
+    private final TurnCodec codec;
+
+    public JournalReader(TurnCodec codec) {
+        this.codec = codec;
+    }
+
+    public static List<Path> segments(Path directory) throws IOException {
+        return MappedJournal.segments(directory);
+    }
+
+    // every record of every segment in the directory, in write order
+    public long read(Path directory, Consumer<JournalEntry> consumer) throws IOException {
+        long count = 0;
+        for (var segment : segments(directory)) {
+            count += readSegment(segment, consumer);
+        }
+        return count;
+    }
+
+    public long readSegment(Path segment, Consumer<JournalEntry> consumer) throws IOException {
+        var buffer = map(segment);
+        long count = 0;
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length <= 0) {
+                break; // zeroed tail: the writer stopped here
+            }
+            var record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            consumer.accept(JournalRecord.read(codec, record));
+            count++;
+        }
+        return count;
+    }
+
+    // re-evaluates every recorded turn of a segment and counts the ones whose outcome changed
+    public ReplayReport replay(Path segment, TurnService ts) throws IOException {
+        long[] diverged = {0};
+        long turns = readSegment(segment, entry -> {
+            if (!entry.matches(ts.evaluateTurn(entry.turn()))) {
+                diverged[0]++;
+            }
+        });
+        return new ReplayReport(turns, diverged[0]);
+    }
+
+    public static DamageMode damageMode(Path segment) throws IOException {
+        return damageMode(map(segment));
+    }
+
+    // positioned after the header
+    static MappedByteBuffer map(Path segment) throws IOException {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int version = buffer.remaining() >= 2 * Integer.BYTES && buffer.getInt() == MappedJournal.Magic ? buffer.getInt() : 0;
+            int header = version == 1 ? 2 * Integer.BYTES : MappedJournal.HeaderSize;
+            if ((version != 1 && version != MappedJournal.Version) || buffer.limit() < header) {
+                throw new IllegalArgumentException("Not a journal segment: " + segment);
+            }
+            return buffer.position(header);
+        }
+    }
+
+    // version 1 segments predate the header field and were written with exact damage
+    static DamageMode damageMode(ByteBuffer segment) {
+        return segment.getInt(Integer.BYTES) == 1 ? DamageMode.EXACT : DamageMode.of(segment.getInt(2 * Integer.BYTES));
+    }
+}
@@ -0,0 +1,57 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.nio.ByteBuffer;
+
+/*
+    record := turn (TurnCodec layout), player1First u8, then round 0 and round 1 as player 1 stats, player 2 stats,
+    7 x i32 each. Moves and player ids are not repeated for the results, they are the input's.
+ */
+final class JournalRecord {
+
+    private JournalRecord() {}
+
+    static void write(TurnCodec codec, TurnState turn, TurnState[] result, ByteBuffer out) {
+        codec.writeTurn(turn, out);
+        var sequence = result[0].getSequence();
+        out.put((byte) (sequence[0].equals(turn.getPlayer1State().playerId()) ? 1 : 0));
+        for (var round : result) {
+            writeStats(round.getPlayer1State(), out);
+            writeStats(round.getPlayer2State(), out);
+        }
+    }
+
+    static JournalEntry read(TurnCodec codec, ByteBuffer in) {
+        var turn = codec.readNextTurn(in);
+        var player1 = turn.getPlayer1State();
+        var player2 = turn.getPlayer2State();
+        var sequence = in.get() == 1
+                ? new String[]{player1.playerId(), player2.playerId()}
+                : new String[]{player2.playerId(), player1.playerId()};
+        var result = new TurnState[2];
+        for (int round = 0; round < result.length; round++) {
+            var p1 = new TurnState.PlayerState(player1.playerId(), player1.move(), readStats(in), player1.moveId());
+            var p2 = new TurnState.PlayerState(player2.playerId(), player2.move(), readStats(in), player2.moveId());
+            result[round] = new TurnState(p1, p2, sequence);
+        }
+        return new JournalEntry(turn, result);
+    }
+
+    private static void writeStats(TurnState.PlayerState player, ByteBuffer out) {
+        for (int i = 0; i < Stat.COUNT; i++) {
+            out.putInt(player.getStat(Stat.byIndex(i)));
+        }
+    }
+
+    private static StatBlock readStats(ByteBuffer in) {
+        var stats = new int[Stat.COUNT];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = in.getInt();
+        }
+        return StatBlock.copyOf(stats);
+    }
+}
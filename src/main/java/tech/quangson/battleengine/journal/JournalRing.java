@@ -0,0 +1,206 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.StatBlock;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+    Bounded multi-producer, single-consumer ring. Producers claim a sequence number, copy the turn into the slot
+    and publish the sequence into it; the single writer drains published slots in order. The copy is taken on the
+    producer's thread, so the caller may reuse or change its TurnState and stat maps as soon as publish returns;
+    StatBlocks are immutable and are kept as they are, other stat maps are copied into one.
+    A full ring makes producers wait rather than lose turns from the audit trail, unless the writer has gone.
+ */
+final class JournalRing {
+
+    interface Handler {
+        void accept(TurnState turn, TurnState[] result);
+    }
+
+    // stat blocks per slot: the two inputs, then player 1 and player 2 after each round
+    private static final int Blocks = 6;
+
+    private final String[] playerIds;
+    private final GameMove[] moves;
+    private final Integer[] moveIds;
+    private final StatBlock[] stats;
+    private final boolean[] player1First;
+    // false for a slot whose turn could not be copied; it is published so the writer moves past it
+    private final boolean[] filled;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean abandoned;
+
+    JournalRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Journal ring size must be a power of two");
+        }
+        playerIds = new String[capacity * 2];
+        moves = new GameMove[capacity * 2];
+        moveIds = new Integer[capacity * 2];
+        stats = new StatBlock[capacity * Blocks];
+        player1First = new boolean[capacity];
+        filled = new boolean[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        mask = capacity - 1;
+    }
+
+    // false when the turn was not taken: the writer has gone, or the turn could not be copied
+    boolean publish(TurnState turn, TurnState[] result) {
+        if (abandoned) {
+            return false;
+        }
+        long sequence = claimed.getAndIncrement();
+        for (int spins = 0; sequence - consumed > mask; spins++) {
+            if (abandoned) {
+                return false;
+            }
+            if (spins < 100) {
+                Thread.onSpinWait();
+            }
+            else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        int slot = (int) sequence & mask;
+        boolean copied;
+        try {
+            copy(slot, turn, result);
+            copied = true;
+        }
+        catch (RuntimeException e) {
+            copied = false;
+        }
+        filled[slot] = copied;
+        published.setRelease(slot, sequence);
+        return copied;
+    }
+
+    // the writer stopped for good; producers stop waiting for space and publish returns false
+    void abandon() {
+        abandoned = true;
+    }
+
+    // called only from the writer thread; returns how many slots were consumed, copied or not
+    int drain(Handler handler, int max) {
+        long cursor = consumed;
+        int drained = 0;
+        try {
+            while (drained < max) {
+                int slot = (int) cursor & mask;
+                if (published.getAcquire(slot) != cursor) {
+                    break;
+                }
+                if (filled[slot]) {
+                    var turn = turn(slot);
+                    var result = result(slot, turn);
+                    moves[2 * slot] = null;
+                    moves[2 * slot + 1] = null;
+                    Arrays.fill(stats, slot * Blocks, (slot + 1) * Blocks, null);
+                    handler.accept(turn, result);
+                }
+                cursor++;
+                drained++;
+            }
+        }
+        finally {
+            consumed = cursor;
+        }
+        return drained;
+    }
+
+    // after abandon(): skips what is published and not yet drained, returning how many turns that was
+    long discard() {
+        long discarded = 0;
+        long cursor = consumed;
+        for (int slot = (int) cursor & mask; published.getAcquire(slot) == cursor; slot = (int) cursor & mask) {
+            discarded += filled[slot] ? 1 : 0;
+            cursor++;
+        }
+        consumed = cursor;
+        return discarded;
+    }
+
+    long claimed() {
+        return claimed.get();
+    }
+
+    long consumed() {
+        return consumed;
+    }
+
+    private void copy(int slot, TurnState turn, TurnState[] result) {
+        var sequence = result[0].getSequence();
+        copyPlayer(slot, 0, turn.getPlayer1State());
+        copyPlayer(slot, 1, turn.getPlayer2State());
+        player1First[slot] = sequence[0].equals(turn.getPlayer1State().playerId());
+        for (int round = 0; round < 2; round++) {
+            copyStats(slot, 2 + 2 * round, result[round].getPlayer1State());
+            copyStats(slot, 3 + 2 * round, result[round].getPlayer2State());
+        }
+    }
+
+    private void copyPlayer(int slot, int player, TurnState.PlayerState state) {
+        playerIds[2 * slot + player] = state.playerId();
+        moves[2 * slot + player] = copyOf(state.move());
+        moveIds[2 * slot + player] = state.moveId();
+        copyStats(slot, player, state);
+    }
+
+    private void copyStats(int slot, int block, TurnState.PlayerState state) {
+        stats[slot * Blocks + block] = state.statBlock();
+    }
+
+    // moves are records, but their modifier maps may still be the caller's; Map.copyOf keeps immutable ones as is
+    private static GameMove copyOf(GameMove move) {
+        if (move == null || (move.buffs() == null && move.debuffs() == null)) {
+            return move;
+        }
+        return new GameMove(move.moveName(), move.category(), move.type(), move.basePower(), move.cost(),
+                move.limit(), move.priority(), copyOf(move.buffs()), copyOf(move.debuffs()));
+    }
+
+    private static Map<String, Integer> copyOf(Map<String, Integer> modifiers) {
+        return modifiers == null ? null : Map.copyOf(modifiers);
+    }
+
+    private TurnState turn(int slot) {
+        return new TurnState(player(slot, 0, 0), player(slot, 1, 1));
+    }
+
+    private TurnState[] result(int slot, TurnState turn) {
+        var player1 = turn.getPlayer1State();
+        var player2 = turn.getPlayer2State();
+        var sequence = player1First[slot]
+                ? new String[]{player1.playerId(), player2.playerId()}
+                : new String[]{player2.playerId(), player1.playerId()};
+        var result = new TurnState[2];
+        for (int round = 0; round < 2; round++) {
+            result[round] = new TurnState(
+                    new TurnState.PlayerState(player1.playerId(), player1.move(), block(slot, 2 + 2 * round), player1.moveId()),
+                    new TurnState.PlayerState(player2.playerId(), player2.move(), block(slot, 3 + 2 * round), player2.moveId()),
+                    sequence);
+        }
+        return result;
+    }
+
+    private TurnState.PlayerState player(int slot, int player, int block) {
+        return new TurnState.PlayerState(playerIds[2 * slot + player], moves[2 * slot + player],
+                block(slot, block), moveIds[2 * slot + player]);
+    }
+
+    private StatBlock block(int slot, int block) {
+        return stats[slot * Blocks + block];
+    }
+}
@@ -0,0 +1,205 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.TurnJournal;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/*
+    Append-only turn journal in fixed-size memory-mapped segments (journal-000000.seg, ...).
+
+    segment := magic i32, version i32, damage mode i32, record*, zero padding
+    record  := length i32 (> 0), JournalRecord bytes
+
+    Request threads only copy the turn's stats into a JournalRing slot; one writer thread encodes the records into
+    the mapped segment, so a turn costs the caller a slot claim and a few dozen stores. A restarted journal starts
+    a new segment after the last one on disk. Segments are forced to disk when they fill up and on close.
+    The damage mode is the DamageMode ordinal of the engine writing the journal; version 1 segments have none and
+    were all written in exact mode.
+
+    A turn that fails to encode is dropped and counted. If the writer itself fails, the failure is kept and the
+    ring is abandoned: from then on turns are dropped and counted instead of blocking request threads.
+ */
+public final class MappedJournal implements TurnJournal {
+
+    static final int Magic = 0x424A4E4C; // "BJNL"
+    static final int Version = 2;
+    static final int HeaderSize = 12;
+    private static final int DrainBatch = 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final TurnCodec codec;
+    private final DamageMode mode;
+    private final JournalRing ring;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+    private volatile Throwable failure;
+
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+
+    public MappedJournal(Path directory, int segmentSize, int ringSize, TurnCodec codec) throws IOException {
+        this(directory, segmentSize, ringSize, codec, DamageMode.EXACT);
+    }
+
+    public MappedJournal(Path directory, int segmentSize, int ringSize, TurnCodec codec, DamageMode mode) throws IOException {
+        if (segmentSize <= HeaderSize) {
+            throw new IllegalArgumentException("Journal segment size must be larger than " + HeaderSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.codec = codec;
+        this.mode = mode;
+        this.ring = new JournalRing(ringSize);
+        var existing = segments(directory);
+        segmentIndex = existing.isEmpty() ? 0 : index(existing.get(existing.size() - 1)) + 1;
+        segment = map(segmentIndex);
+        writer = new Thread(this::run, "battle-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void append(TurnState turn, TurnState[] result) {
+        if (!ring.publish(turn, result)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // waits until every turn appended before this call is in the mapped segment
+    public void flush() {
+        long target = ring.claimed();
+        while (ring.consumed() < target && writer.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+    }
+
+    // turns that could not be written: larger than a segment, failed to copy or encode, or sent after a failure
+    public long dropped() {
+        return dropped.get();
+    }
+
+    // what stopped the writer, or null while it runs
+    public Throwable failure() {
+        return failure;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.force();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                if (ring.drain(this::write, DrainBatch) == 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+            }
+            while (ring.drain(this::write, DrainBatch) > 0) {
+                // whatever was published while stopping
+            }
+        }
+        catch (Throwable e) {
+            failure = e;
+            ring.abandon();
+            // turns already published will never be written; producers still waiting count their own
+            dropped.addAndGet(ring.discard());
+        }
+    }
+
+    private void write(TurnState turn, TurnState[] result) {
+        try {
+            int length = encode(turn, result);
+            if (Integer.BYTES + length > segmentSize - HeaderSize) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (segment.remaining() < Integer.BYTES + length) {
+                roll();
+            }
+            segment.putInt(length).put(scratch.array(), 0, length);
+        }
+        catch (RuntimeException | IOException e) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private int encode(TurnState turn, TurnState[] result) {
+        while (true) {
+            try {
+                scratch.clear();
+                JournalRecord.write(codec, turn, result, scratch);
+                return scratch.position();
+            }
+            catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        segment.force();
+        segment = map(++segmentIndex);
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        try (var channel = FileChannel.open(directory.resolve(segmentName(index)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            mapped.putInt(Magic).putInt(Version).putInt(mode.ordinal());
+            return mapped;
+        }
+    }
+
+    static String segmentName(int index) {
+        return String.format("journal-%06d.seg", index);
+    }
+
+    static int index(Path segment) {
+        var name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring("journal-".length(), name.length() - ".seg".length()));
+    }
+
+    // segment files in write order
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("journal-\\d{6}\\.seg"))
+                    .sorted()
+                    .toList();
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.DamageFormula;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/*
+    Re-evaluates journaled turns with the current engine and reports every stat that moved past its tolerance.
+
+    Segments stay memory-mapped; the main thread only walks record lengths to cut each segment into chunks of
+    ChunkSize records, which are evaluated on the pool. At most a few chunks per worker are in flight and their
+    divergences are written in journal order as they complete, so memory does not grow with the corpus.
+
+    Only segments written in the verifier's damage mode are replayed: exact segments against the built-in formulas,
+    or formula segments against the formula passed in. The others are counted as skipped. Table segments are always
+    skipped, their recorded stats are bucket approximations that would diverge from any formula. A formula segment
+    may span a hot reload, so its turns from before the reload diverge from the new formula as they should.
+ */
+public final class ReplayVerifier {
+
+    public record Report(long turns, long diverged, long skipped, long nanos) {
+        public double turnsPerSecond() {
+            return nanos == 0 ? 0 : turns / (nanos / 1e9);
+        }
+    }
+
+    static final int ChunkSize = 8192;
+    static final String Header = "segment,record,round,player,stat,recorded,replayed";
+    static final String Sequence = "Sequence";
+    static final String Error = "Error";
+
+    private final ForkJoinPool pool;
+    private final TurnCodec codec;
+    private final TurnKernel kernel;
+    private final DamageMode mode;
+    private final StatTolerances tolerances;
+
+    public ReplayVerifier(ForkJoinPool pool, MoveCatalog catalog, StatTolerances tolerances) {
+        this.pool = pool;
+        this.codec = new TurnCodec(catalog);
+        this.kernel = new TurnKernel(catalog);
+        this.mode = DamageMode.EXACT;
+        this.tolerances = tolerances;
+    }
+
+    // replays formula segments only, with this formula
+    public ReplayVerifier(ForkJoinPool pool, MoveCatalog catalog, StatTolerances tolerances, DamageFormula formula) {
+        this.pool = pool;
+        this.codec = new TurnCodec(catalog);
+        this.kernel = new TurnKernel(catalog, DamageTable.NONE, new DamageFormulas(formula, null));
+        this.mode = DamageMode.FORMULA;
+        this.tolerances = tolerances;
+    }
+
+    public Report verify(List<Path> segments, Writer csv) throws IOException {
+        long start = System.nanoTime();
+        csv.write(Header);
+        csv.write('\n');
+        var inFlight = new ArrayDeque<ForkJoinTask<ChunkResult>>();
+        int window = pool.getParallelism() * 4;
+        long[] totals = new long[2];
+        long skipped = 0;
+
+        for (var segment : segments) {
+            var name = segment.getFileName().toString();
+            var buffer = JournalReader.map(segment);
+            if (JournalReader.damageMode(buffer) != mode) {
+                skipped += count(buffer);
+                continue;
+            }
+            int chunkStart = buffer.position();
+            int end = chunkStart;
+            int count = 0;
+            long firstRecord = 0;
+            while (true) {
+                int length = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : 0;
+                if (length > 0) {
+                    buffer.position(buffer.position() + length);
+                    end = buffer.position();
+                    count++;
+                }
+                if (count == ChunkSize || (length <= 0 && count > 0)) {
+                    var chunk = new Chunk(name, buffer.slice(chunkStart, end - chunkStart), firstRecord);
+                    inFlight.add(pool.submit(chunk));
+                    if (inFlight.size() >= window) {
+                        drain(inFlight.poll(), csv, totals);
+                    }
+                    firstRecord += count;
+                    count = 0;
+                    chunkStart = end;
+                }
+                if (length <= 0) {
+                    break;
+                }
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            drain(inFlight.poll(), csv, totals);
+        }
+        csv.flush();
+        return new Report(totals[0], totals[1], skipped, System.nanoTime() - start);
+    }
+
+    private static long count(ByteBuffer segment) {
+        long count = 0;
+        for (int length; segment.remaining() >= Integer.BYTES && (length = segment.getInt()) > 0; count++) {
+            segment.position(segment.position() + length);
+        }
+        return count;
+    }
+
+    private static void drain(ForkJoinTask<ChunkResult> task, Writer csv, long[] totals) throws IOException {
+        var result = task.join();
+        totals[0] += result.turns;
+        totals[1] += result.diverged;
+        for (var row : result.rows) {
+            csv.write(row);
+        }
+    }
+
+    private static final class ChunkResult {
+        long turns;
+        long diverged;
+        final List<String> rows = new ArrayList<>();
+    }
+
+    private static final ThreadLocal<TurnResult> scratch = ThreadLocal.withInitial(TurnResult::new);
+
+    private final class Chunk extends RecursiveTask<ChunkResult> {
+        private final String segment;
+        private final ByteBuffer records;
+        private final long firstRecord;
+
+        Chunk(String segment, ByteBuffer records, long firstRecord) {
+            this.segment = segment;
+            this.records = records;
+            this.firstRecord = firstRecord;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            var result = new ChunkResult();
+            var out = scratch.get();
+            long record = firstRecord;
+            while (records.hasRemaining()) {
+                int length = records.getInt();
+                var in = records.slice(records.position(), length);
+                records.position(records.position() + length);
+                if (!verify(in, out, record, result.rows)) {
+                    result.diverged++;
+                }
+                result.turns++;
+                record++;
+            }
+            return result;
+        }
+
+        // record layout as written by JournalRecord: turn, player1First, then 2 rounds x 2 players x 7 stats
+        private boolean verify(ByteBuffer in, TurnResult out, long record, List<String> rows) {
+            try {
+                var turn = codec.readNextTurn(in);
+                kernel.evaluate(turn.getPlayer1State(), turn.getPlayer2State(), out);
+            }
+            catch (IllegalArgumentException e) {
+                rows.add(row(record, 0, 0, Error, 0, 0));
+                return false;
+            }
+            boolean same = true;
+            boolean recordedFirst = in.get() == 1;
+            if (recordedFirst != out.player1First()) {
+                rows.add(row(record, 0, 0, Sequence, recordedFirst ? 1 : 0, out.player1First() ? 1 : 0));
+                same = false;
+            }
+            for (int round = 0; round < 2; round++) {
+                for (int player = TurnResult.Player1; player <= TurnResult.Player2; player++) {
+                    var replayed = out.stats(round, player);
+                    for (int stat = 0; stat < Stat.COUNT; stat++) {
+                        int recorded = in.getInt();
+                        if (!tolerances.within(stat, recorded, replayed[stat])) {
+                            rows.add(row(record, round, player + 1, Stat.byIndex(stat).key(), recorded, replayed[stat]));
+                            same = false;
+                        }
+                    }
+                }
+            }
+            return same;
+        }
+
+        private String row(long record, int round, int player, String stat, int recorded, int replayed) {
+            return segment + ',' + record + ',' + round + ',' + player + ',' + stat + ',' + recorded + ',' + replayed + '\n';
+        }
+    }
+}
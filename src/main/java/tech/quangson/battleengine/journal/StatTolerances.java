@@ -0,0 +1,45 @@
+package tech.quangson.battleengine.journal;
+
+import tech.quangson.battleengine.mechanics.Stat;
+
+// how far a replayed stat may drift from the recorded one before the turn counts as diverged
+public final class StatTolerances {
+
+    private final int[] tolerance;
+
+    private StatTolerances(int[] tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public static StatTolerances exact() {
+        return new StatTolerances(new int[Stat.COUNT]);
+    }
+
+    // "Health=5,Energy=1"; stats that are not listed must match exactly
+    public static StatTolerances parse(String spec) {
+        var tolerance = new int[Stat.COUNT];
+        if (spec == null || spec.isBlank()) {
+            return new StatTolerances(tolerance);
+        }
+        for (var part : spec.split(",")) {
+            var pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Malformed tolerance: " + part);
+            }
+            int value = Integer.parseInt(pair[1].trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative tolerance: " + part);
+            }
+            tolerance[Stat.require(pair[0].trim()).ordinal()] = value;
+        }
+        return new StatTolerances(tolerance);
+    }
+
+    public int of(Stat stat) {
+        return tolerance[stat.ordinal()];
+    }
+
+    boolean within(int stat, int recorded, int replayed) {
+        return Math.abs((long) recorded - replayed) <= tolerance[stat];
+    }
+}
@@ -0,0 +1,112 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/*
+    Evaluates independent turns in parallel on a dedicated fork-join pool. Results keep the input order and a
+    failing turn only fails its own slot.
+
+    Each turn goes through TurnService rather than a TurnBatchEvaluator: the batch path skips the cache, journal,
+    metrics, damage table and formulas, and saves about 20 ns of the kernel's 70 ns per turn, which is small next
+    to decoding the request.
+ */
+@Service
+public class BatchTurnService {
+
+    // below this many turns a task evaluates serially rather than splitting further
+    private static final int SplitThreshold = 64;
+
+    private final TurnService ts;
+    private final ForkJoinPool pool;
+    private final TurnMetrics metrics;
+
+    public BatchTurnService(TurnService ts, ForkJoinPool pool) {
+        this(ts, pool, TurnMetrics.NONE);
+    }
+
+    @Autowired
+    public BatchTurnService(TurnService ts, @Qualifier("turnPool") ForkJoinPool pool, TurnMetrics metrics) {
+        this.ts = ts;
+        this.pool = pool;
+        this.metrics = metrics;
+    }
+
+    public List<TurnOutcome> evaluateAll(List<TurnState> turns){
+        return evaluateAll(turns, Function.identity());
+    }
+
+    // decoding happens on the pool as well, so a malformed item is reported like any other bad turn
+    public <T> List<TurnOutcome> evaluateAll(List<T> items, Function<T, TurnState> decoder){
+        var outcomes = new TurnOutcome[items.size()];
+        if(outcomes.length <= SplitThreshold){
+            evaluateRange(items, decoder, outcomes, 0, outcomes.length);
+        }
+        else {
+            pool.invoke(new BatchTask<>(items, decoder, outcomes, 0, outcomes.length));
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    public TurnOutcome evaluate(TurnState turn){
+        try {
+            if(turn == null){
+                throw new IllegalArgumentException("Missing turn");
+            }
+            return TurnOutcome.of(ts.evaluateTurn(turn));
+        }
+        catch(Exception e){
+            metrics.turnRejected(e);
+            return TurnOutcome.failed(e);
+        }
+    }
+
+    private <T> void evaluateRange(List<T> items, Function<T, TurnState> decoder, TurnOutcome[] outcomes, int from, int to){
+        for(int i = from; i < to; i++){
+            TurnState turn;
+            try {
+                turn = decoder.apply(items.get(i));
+            }
+            catch(Exception e){
+                metrics.turnRejected(e);
+                outcomes[i] = TurnOutcome.failed(e);
+                continue;
+            }
+            outcomes[i] = evaluate(turn);
+        }
+    }
+
+    private class BatchTask<T> extends RecursiveAction {
+        private final List<T> items;
+        private final Function<T, TurnState> decoder;
+        private final TurnOutcome[] outcomes;
+        private final int from;
+        private final int to;
+
+        BatchTask(List<T> items, Function<T, TurnState> decoder, TurnOutcome[] outcomes, int from, int to) {
+            this.items = items;
+            this.decoder = decoder;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= SplitThreshold){
+                evaluateRange(items, decoder, outcomes, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask<>(items, decoder, outcomes, from, mid),
+                    new BatchTask<>(items, decoder, outcomes, mid, to));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+    Evaluates one turn of an N-party battle. Every combatant acts once, in order of move priority, then blockers,
+    then agility, ties going to the later combatant; the ordering is a merge sort, so O(n log n). Each action
+    works like TurnKernel's: damage is reduced by the target's block, buffs and debuffs scale stats and the cost is
+    charged against the energy the turn started with. Damage comes from TurnKernel in the same mode, built-in,
+    table or formula, with one formula for the whole turn. With two teamless combatants the result is exactly
+    TurnKernel's second round.
+
+    Combatants are bits of a long, which caps a battle at 64. Consecutive actions whose actor and target sets do
+    not overlap form a wave; a wave of at least parallelThreshold actions runs on the pool, which gives the same
+    result as running it in order because no two of its actions touch the same combatant.
+ */
+public final class BattleKernel {
+
+    public static final int MaxCombatants = 64;
+
+    private static final int Health = Stat.HEALTH.ordinal();
+    private static final int Energy = Stat.ENERGY.ordinal();
+    private static final int Agility = Stat.AGILITY.ordinal();
+
+    // below this many actions a wave task runs them itself rather than splitting further
+    private static final int SplitThreshold = 8;
+
+    private final MoveCatalog catalog;
+    private final TurnKernel damage;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public BattleKernel() {
+        this(MoveCatalog.empty(), null, Integer.MAX_VALUE);
+    }
+
+    public BattleKernel(MoveCatalog catalog, ForkJoinPool pool, int parallelThreshold) {
+        this(catalog, pool, parallelThreshold, DamageTable.NONE, DamageFormulas.NONE);
+    }
+
+    public BattleKernel(MoveCatalog catalog, ForkJoinPool pool, int parallelThreshold, DamageTable table,
+                        DamageFormulas formulas) {
+        this.catalog = catalog;
+        this.damage = new TurnKernel(catalog, table, formulas);
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public BattleState evaluate(BattleState state) {
+        var battle = load(state);
+        battle.formula = damage.formula();
+        int n = battle.size;
+        var order = battle.order;
+
+        long wave = 0;
+        int start = 0;
+        for (int k = 0; k < n; k++) {
+            int actor = order[k];
+            long touched = battle.targets[actor] | 1L << actor;
+            if ((wave & touched) != 0) {
+                run(battle, start, k);
+                wave = 0;
+                start = k;
+            }
+            wave |= touched;
+        }
+        run(battle, start, n);
+
+        var combatants = state.combatants();
+        var result = new BattleState.Combatant[n];
+        var sequence = new String[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = combatants[i].withStats(StatBlock.copyOf(battle.stats[i]));
+            sequence[i] = combatants[order[i]].combatantId();
+        }
+        return new BattleState(result, sequence);
+    }
+
+    // the combatant ids in the order they act, without evaluating the turn
+    public String[] sequence(BattleState state) {
+        var battle = load(state);
+        var sequence = new String[battle.size];
+        for (int i = 0; i < battle.size; i++) {
+            sequence[i] = state.combatants()[battle.order[i]].combatantId();
+        }
+        return sequence;
+    }
+
+    private void run(Battle battle, int from, int to) {
+        if (pool != null && to - from >= parallelThreshold) {
+            pool.invoke(new WaveTask(battle, from, to));
+            return;
+        }
+        for (int k = from; k < to; k++) {
+            battle.act(battle.order[k]);
+        }
+    }
+
+    private Battle load(BattleState state) {
+        var combatants = state.combatants();
+        if (combatants == null || combatants.length < 2 || combatants.length > MaxCombatants) {
+            throw new IllegalArgumentException("A battle needs 2 to " + MaxCombatants + " combatants");
+        }
+        var battle = new Battle(combatants.length, damage);
+        var index = new HashMap<String, Integer>();
+        for (int i = 0; i < battle.size; i++) {
+            var combatant = combatants[i];
+            if (combatant == null) {
+                throw new IllegalArgumentException("Missing combatant");
+            }
+            if (index.put(combatant.combatantId(), i) != null) {
+                throw new IllegalArgumentException("Duplicate combatant " + combatant.combatantId());
+            }
+            if (combatant.team() != null && combatant.team() < 0) {
+                throw new IllegalArgumentException("Negative team of combatant " + combatant.combatantId());
+            }
+            // teamless combatants get a team of their own below zero
+            battle.teams[i] = combatant.team() != null ? combatant.team() : -1 - i;
+            battle.moves[i] = resolve(combatant);
+            StatBlock.read(combatant.stats(), battle.stats[i]);
+            battle.startEnergy[i] = battle.stats[i][Energy];
+        }
+        for (int i = 0; i < battle.size; i++) {
+            battle.targets[i] = targets(battle, i, combatants[i], index);
+            battle.order[i] = i;
+        }
+        sort(battle, battle.order, new int[battle.size], 0, battle.size);
+        return battle;
+    }
+
+    private CompiledMove resolve(BattleState.Combatant combatant) {
+        if (combatant.move() == null && combatant.moveId() != null) {
+            return catalog.get(combatant.moveId());
+        }
+        var move = new CompiledMove();
+        move.load(combatant.move());
+        return move;
+    }
+
+    private static long targets(Battle battle, int actor, BattleState.Combatant combatant, HashMap<String, Integer> index) {
+        var type = battle.moves[actor].type();
+        if (type != MoveType.DAMAGE && type != MoveType.DEBUFF && type != MoveType.BUFF) {
+            return 0;
+        }
+        int aim;
+        if (combatant.target() != null) {
+            var target = index.get(combatant.target());
+            if (target == null) {
+                throw new IllegalArgumentException("Unknown target " + combatant.target() + " of combatant " + combatant.combatantId());
+            }
+            aim = target;
+        }
+        else if (type == MoveType.BUFF) {
+            aim = actor;
+        }
+        else {
+            long opponents = battle.all() & ~battle.team(battle.teams[actor]);
+            if (opponents == 0) {
+                throw new IllegalArgumentException("Combatant " + combatant.combatantId() + " has no opponent");
+            }
+            aim = Long.numberOfTrailingZeros(opponents);
+        }
+        return switch (Targeting.of(combatant.targeting())) {
+            case SINGLE -> 1L << aim;
+            case TEAM -> battle.team(battle.teams[aim]);
+            case ALL -> type == MoveType.BUFF ? battle.all() : battle.all() & ~(1L << actor);
+        };
+    }
+
+    // true when combatant a acts before combatant b; see TurnKernel.player1GoesFirst for the two-player case
+    private static boolean before(Battle battle, int a, int b) {
+        var aMove = battle.moves[a];
+        var bMove = battle.moves[b];
+        if (aMove.priority() != bMove.priority()) {
+            return aMove.priority() > bMove.priority();
+        }
+        boolean aBlock = aMove.type() == MoveType.BLOCK;
+        boolean bBlock = bMove.type() == MoveType.BLOCK;
+        if (aBlock != bBlock) {
+            return aBlock;
+        }
+        int aAgility = battle.stats[a][Agility];
+        int bAgility = battle.stats[b][Agility];
+        if (aAgility != bAgility) {
+            return aAgility > bAgility;
+        }
+        return a > b;
+    }
+
+    private static void sort(Battle battle, int[] order, int[] scratch, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(battle, order, scratch, from, mid);
+        sort(battle, order, scratch, mid, to);
+        int left = from, right = mid;
+        for (int k = from; k < to; k++) {
+            if (right == to || left < mid && !before(battle, order[right], order[left])) {
+                scratch[k] = order[left++];
+            }
+            else {
+                scratch[k] = order[right++];
+            }
+        }
+        System.arraycopy(scratch, from, order, from, to - from);
+    }
+
+    private static final class Battle {
+        final int size;
+        final int[][] stats;
+        final int[] startEnergy;
+        final int[] teams;
+        final CompiledMove[] moves;
+        final long[] targets;
+        final int[] order;
+        final TurnKernel damage;
+        DamageFormula formula;
+
+        Battle(int size, TurnKernel damage) {
+            this.size = size;
+            this.damage = damage;
+            stats = new int[size][Stat.COUNT];
+            startEnergy = new int[size];
+            teams = new int[size];
+            moves = new CompiledMove[size];
+            targets = new long[size];
+            order = new int[size];
+        }
+
+        long all() {
+            return size == 64 ? -1L : (1L << size) - 1;
+        }
+
+        long team(int team) {
+            long members = 0;
+            for (int i = 0; i < size; i++) {
+                if (teams[i] == team) {
+                    members |= 1L << i;
+                }
+            }
+            return members;
+        }
+
+        void act(int actor) {
+            var move = moves[actor];
+            var source = stats[actor];
+            for (long remaining = targets[actor]; remaining != 0; remaining &= remaining - 1) {
+                int target = Long.numberOfTrailingZeros(remaining);
+                switch (move.type()) {
+                    case DAMAGE -> {
+                        var targetStats = stats[target];
+                        int dealt = damage.damage(move, moves[target], source, targetStats, formula);
+                        targetStats[Health] = Math.max(targetStats[Health] - dealt, 0);
+                    }
+                    case BUFF -> TurnKernel.applyBuff(move, stats[target]);
+                    case DEBUFF -> TurnKernel.applyDebuff(move, stats[target]);
+                }
+            }
+            source[Energy] = Math.max(startEnergy[actor] - move.cost(), 0);
+        }
+    }
+
+    private static final class WaveTask extends RecursiveAction {
+        private final Battle battle;
+        private final int from;
+        private final int to;
+
+        WaveTask(Battle battle, int from, int to) {
+            this.battle = battle;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SplitThreshold) {
+                for (int k = from; k < to; k++) {
+                    battle.act(battle.order[k]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new WaveTask(battle, from, mid), new WaveTask(battle, mid, to));
+        }
+    }
+}
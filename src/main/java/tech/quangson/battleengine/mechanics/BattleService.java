@@ -0,0 +1,34 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+    N-party battles (/engine/battle). Waves of independent actions can share the batch endpoint's pool, but an action
+    costs well under a microsecond, so handing a wave over only pays off for very large waves; 0 keeps battles serial.
+ */
+@Service
+public class BattleService {
+
+    private final BattleKernel kernel;
+
+    // damage is computed in the same mode as /engine/turn
+    public BattleService(MoveCatalog catalog, @Qualifier("turnPool") ForkJoinPool pool,
+                         @Value("${engine.battle.parallel-threshold:0}") int parallelThreshold,
+                         DamageTable damageTable, DamageFormulas damageFormulas) {
+        this.kernel = parallelThreshold > 0
+                ? new BattleKernel(catalog, pool, parallelThreshold, damageTable, damageFormulas)
+                : new BattleKernel(catalog, null, Integer.MAX_VALUE, damageTable, damageFormulas);
+    }
+
+    public BattleState evaluate(BattleState battle) {
+        return kernel.evaluate(battle);
+    }
+
+    public String[] determineSequence(BattleState battle) {
+        return kernel.sequence(battle);
+    }
+}
@@ -0,0 +1,40 @@
+package tech.quangson.battleengine.mechanics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/*
+    One turn of a battle between 2 to BattleKernel.MaxCombatants combatants. Combatants without a team each fight
+    for themselves (free-for-all); target names the combatantId a Single or Team move is aimed at and may be left
+    out to aim at the first opponent. A two-player TurnState is the same battle with two teamless combatants.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BattleState(Combatant[] combatants, String[] sequence) {
+
+    public BattleState(Combatant[] combatants) {
+        this(combatants, null);
+    }
+
+    // moveId works as in PlayerState: a full move wins over it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Combatant(String combatantId, Integer team, GameMove move, Integer moveId,
+                            Map<String, Integer> stats, String targeting, String target) {
+
+        public Combatant(String combatantId, Integer team, GameMove move, Map<String, Integer> stats) {
+            this(combatantId, team, move, null, stats, null, null);
+        }
+
+        public Combatant withStats(Map<String, Integer> stats) {
+            return new Combatant(combatantId, team, move, moveId, stats, targeting, target);
+        }
+    }
+
+    public static BattleState of(TurnState turn) {
+        var p1 = turn.getPlayer1State();
+        var p2 = turn.getPlayer2State();
+        return new BattleState(new Combatant[]{
+                new Combatant(p1.playerId(), null, p1.move(), p1.moveId(), p1.stats(), null, null),
+                new Combatant(p2.playerId(), null, p2.move(), p2.moveId(), p2.stats(), null, null)});
+    }
+}
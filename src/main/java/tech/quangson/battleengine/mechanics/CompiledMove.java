@@ -0,0 +1,121 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.Map;
+
+/*
+    A GameMove resolved into the form TurnKernel works on: enum type and category, and buff/debuff percentages
+    already mapped to stat indexes. Only a Buff move's buffs and a Debuff move's debuffs are resolved, since
+    those are the only ones the engine ever applies.
+
+    Moves from the MoveCatalog are compiled once and never change. TurnKernel also keeps one reusable instance
+    per player in each TurnResult, refilled via load() for turns that still carry a full GameMove.
+ */
+public final class CompiledMove {
+
+    public static final int AdHoc = -1;
+
+    private int id;
+    private GameMove source;
+    private MoveType type;
+    private MoveCategory category;
+    private int basePower;
+    private int cost;
+    private int limit;
+    private int priority;
+    private final int[] modifierStats = new int[Stat.COUNT];
+    private final int[] modifierAmounts = new int[Stat.COUNT];
+    private int modifierCount;
+
+    CompiledMove() {}
+
+    public static CompiledMove compile(int id, GameMove move) {
+        var compiled = new CompiledMove();
+        compiled.load(move);
+        compiled.id = id;
+        return compiled;
+    }
+
+    // refills this instance from a GameMove without allocating
+    void load(GameMove move) {
+        if (move == null) {
+            throw new IllegalArgumentException("Missing move");
+        }
+        id = AdHoc;
+        source = move;
+        type = MoveType.of(move.type());
+        category = MoveCategory.of(move.category());
+        basePower = move.basePower();
+        cost = move.cost();
+        limit = move.limit();
+        priority = move.priority();
+        modifierCount = 0;
+        switch (type) {
+            case BUFF -> resolveModifiers(move.moveName(), move.buffs());
+            case DEBUFF -> resolveModifiers(move.moveName(), move.debuffs());
+        }
+    }
+
+    // one lookup per known stat, so modifiers land in Stat order and reloading a scratch move allocates nothing
+    private void resolveModifiers(String moveName, Map<String, Integer> modifiers) {
+        if (modifiers == null) {
+            throw new IllegalArgumentException("Move " + moveName + " has no stat modifiers");
+        }
+        for (int i = 0; i < Stat.COUNT; i++) {
+            var amount = modifiers.get(Stat.byIndex(i).key());
+            if (amount != null) {
+                modifierStats[modifierCount] = i;
+                modifierAmounts[modifierCount] = amount;
+                modifierCount++;
+            }
+        }
+        // a modifier naming a stat the engine does not know about is a bad request, not something to skip silently
+        if (modifierCount != modifiers.size()) {
+            throw new IllegalArgumentException("Unknown stat in modifiers of " + moveName + ": " + modifiers.keySet());
+        }
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public GameMove source() {
+        return source;
+    }
+
+    public MoveType type() {
+        return type;
+    }
+
+    public MoveCategory category() {
+        return category;
+    }
+
+    public int basePower() {
+        return basePower;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int priority() {
+        return priority;
+    }
+
+    // buffs for a Buff move, debuffs for a Debuff move, nothing otherwise
+    public int modifierCount() {
+        return modifierCount;
+    }
+
+    public int modifierStat(int i) {
+        return modifierStats[i];
+    }
+
+    public int modifierAmount(int i) {
+        return modifierAmounts[i];
+    }
+}
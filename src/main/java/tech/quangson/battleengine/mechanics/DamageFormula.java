@@ -0,0 +1,402 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Damage formulas written in a small expression language, parsed once and compiled to JVM bytecode. A
+    formula file is a list of definitions, one per line, with # starting a comment:
+
+        balance = 100
+        combat = (attacker.Energy / (defender.Energy + balance) * attacker.Force / defender.Reflex * power + 2) * 100
+
+    An expression combines numbers, earlier definitions, attacker.<Stat> and defender.<Stat> (stat keys as in
+    requests), power (the move's base power), + - * /, unary minus, parentheses, min(a, b) and max(a, b).
+    combat, magic and special must be defined; they give the damage before blocks for moves of that category.
+
+    Arithmetic is double precision in source order. Only operations on constants are folded, never reordered, so
+    the bundled damage.formulas reproduces TurnKernel.damageCalculation bit for bit. Blocks and the cast to int
+    are applied as in the kernel. Instances are immutable and safe to share between threads.
+
+    Definitions are inlined wherever they are used, so a chain of definitions that each use the previous one
+    twice doubles in size at every step. A definition may expand to at most MaxNodes nodes and nest at most
+    MaxNesting deep, which keeps the three categories within one method's bytecode limit and the parser's
+    recursion shallow; past that parse fails like any other bad formula.
+ */
+public final class DamageFormula {
+
+    // the compiled formulas; category is a MoveCategory ordinal, attacker and defender are indexed by Stat ordinal
+    interface Formulas {
+        double eval(int category, int[] attacker, int[] defender, double power);
+    }
+
+    private static final String CompiledName = Type.getInternalName(DamageFormula.class) + "$Compiled";
+    // at most 5 bytes of bytecode a node, so three categories stay well under the 64 KiB a method may hold
+    static final int MaxNodes = 3000;
+    static final int MaxNesting = 100;
+
+    private final Formulas formulas;
+
+    private DamageFormula(Formulas formulas) {
+        this.formulas = formulas;
+    }
+
+    public static DamageFormula parse(String text) {
+        var definitions = new HashMap<String, Expr>();
+        // inlined node count of every definition
+        var sizes = new HashMap<String, Long>();
+        var lines = text.split("\r?\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            var line = lines[i];
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                int equals = line.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("expected name = expression");
+                }
+                var name = line.substring(0, equals).strip();
+                if (!isName(name) || name.equals("power") || name.equals("min") || name.equals("max")) {
+                    throw new IllegalArgumentException("bad name '" + name + "'");
+                }
+                if (definitions.containsKey(name)) {
+                    throw new IllegalArgumentException(name + " is already defined");
+                }
+                var parser = new Parser(line, equals + 1, definitions, sizes);
+                definitions.put(name, parser.parse());
+                sizes.put(name, parser.nodes);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new DamageFormula(compile(category(definitions, "combat"), category(definitions, "magic"),
+                category(definitions, "special")));
+    }
+
+    private static Expr category(Map<String, Expr> definitions, String name) {
+        var expr = definitions.get(name);
+        if (expr == null) {
+            throw new IllegalArgumentException("Missing formula for " + name);
+        }
+        return expr;
+    }
+
+    // damage before blocks; 0 for moves outside the three damage categories
+    public double raw(CompiledMove attack, int[] sourceStats, int[] targetStats) {
+        return formulas.eval(attack.category().ordinal(), sourceStats, targetStats, attack.basePower());
+    }
+
+    public int damage(CompiledMove attack, CompiledMove defense, int[] sourceStats, int[] targetStats) {
+        double damage = raw(attack, sourceStats, targetStats);
+        boolean hasBlock = defense.type() == MoveType.BLOCK;
+        double blockPower = defense.basePower();
+        return (int) (!hasBlock ? damage : damage * (1-blockPower/100));
+    }
+
+    // parse tree; a definition is a shared subtree, emitted again wherever it is used
+    private sealed interface Expr permits Num, StatRef, Power, Neg, Binary, Call {}
+
+    private record Num(double value) implements Expr {}
+
+    private record StatRef(boolean attacker, int stat) implements Expr {}
+
+    private record Power() implements Expr {}
+
+    private record Neg(Expr operand) implements Expr {}
+
+    private record Binary(char op, Expr left, Expr right) implements Expr {}
+
+    private record Call(String function, Expr left, Expr right) implements Expr {}
+
+    private static Expr fold(Expr expr) {
+        if (expr instanceof Neg neg && neg.operand() instanceof Num num) {
+            return new Num(-num.value());
+        }
+        if (expr instanceof Binary binary && binary.left() instanceof Num l && binary.right() instanceof Num r) {
+            return new Num(apply(binary.op(), l.value(), r.value()));
+        }
+        if (expr instanceof Call call && call.left() instanceof Num l && call.right() instanceof Num r) {
+            return new Num(call.function().equals("min") ? Math.min(l.value(), r.value()) : Math.max(l.value(), r.value()));
+        }
+        return expr;
+    }
+
+    private static double apply(char op, double l, double r) {
+        return switch (op) {
+            case '+' -> l + r;
+            case '-' -> l - r;
+            case '*' -> l * r;
+            default -> l / r;
+        };
+    }
+
+    /*
+        The formulas become a hidden class whose eval switches on the category and runs that expression as
+        straight-line bytecode, so the JIT compiles it like the hand-written code. Hidden classes are unloaded
+        with the last DamageFormula that uses them.
+     */
+    private static Formulas compile(Expr combat, Expr magic, Expr special) {
+        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CompiledName, null, "java/lang/Object",
+                new String[]{Type.getInternalName(Formulas.class)});
+        var init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+        var eval = writer.visitMethod(Opcodes.ACC_PUBLIC, "eval", "(I[I[ID)D", null, null);
+        eval.visitCode();
+        var cases = new Label[]{new Label(), new Label(), new Label()};
+        var other = new Label();
+        eval.visitVarInsn(Opcodes.ILOAD, 1);
+        eval.visitTableSwitchInsn(MoveCategory.COMBAT.ordinal(), MoveCategory.SPECIAL.ordinal(), other, cases);
+        var exprs = new Expr[]{combat, magic, special};
+        for (int i = 0; i < cases.length; i++) {
+            eval.visitLabel(cases[i]);
+            emit(eval, exprs[i]);
+            eval.visitInsn(Opcodes.DRETURN);
+        }
+        eval.visitLabel(other);
+        eval.visitInsn(Opcodes.DCONST_0);
+        eval.visitInsn(Opcodes.DRETURN);
+        eval.visitMaxs(0, 0);
+        eval.visitEnd();
+        writer.visitEnd();
+        try {
+            var type = MethodHandles.lookup().defineHiddenClass(writer.toByteArray(), true).lookupClass();
+            return (Formulas) type.getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load compiled formulas", e);
+        }
+    }
+
+    // pushes the value of expr as a double; locals are this, category, attacker, defender and power
+    private static void emit(MethodVisitor method, Expr expr) {
+        if (expr instanceof Num num) {
+            method.visitLdcInsn(num.value());
+        }
+        else if (expr instanceof StatRef ref) {
+            method.visitVarInsn(Opcodes.ALOAD, ref.attacker() ? 2 : 3);
+            method.visitIntInsn(Opcodes.BIPUSH, ref.stat());
+            method.visitInsn(Opcodes.IALOAD);
+            method.visitInsn(Opcodes.I2D);
+        }
+        else if (expr instanceof Power) {
+            method.visitVarInsn(Opcodes.DLOAD, 4);
+        }
+        else if (expr instanceof Neg neg) {
+            emit(method, neg.operand());
+            method.visitInsn(Opcodes.DNEG);
+        }
+        else if (expr instanceof Call call) {
+            emit(method, call.left());
+            emit(method, call.right());
+            method.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", call.function(), "(DD)D", false);
+        }
+        else {
+            var binary = (Binary) expr;
+            emit(method, binary.left());
+            emit(method, binary.right());
+            method.visitInsn(switch (binary.op()) {
+                case '+' -> Opcodes.DADD;
+                case '-' -> Opcodes.DSUB;
+                case '*' -> Opcodes.DMUL;
+                default -> Opcodes.DDIV;
+            });
+        }
+    }
+
+    private static boolean isName(String name) {
+        if (name.isEmpty() || !Character.isLetter(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // recursive descent over one expression: sum := product (+|- product)*, product := unary (*|/ unary)*
+    private static final class Parser {
+        private final String text;
+        private final Map<String, Expr> definitions;
+        private final Map<String, Long> sizes;
+        private int pos;
+        private int nesting;
+        // nodes of the expression with every definition inlined, counted before folding
+        long nodes;
+
+        Parser(String text, int start, Map<String, Expr> definitions, Map<String, Long> sizes) {
+            this.text = text;
+            this.pos = start;
+            this.definitions = definitions;
+            this.sizes = sizes;
+        }
+
+        Expr parse() {
+            var expr = sum();
+            skipSpaces();
+            if (pos < text.length()) {
+                throw error("unexpected '" + text.charAt(pos) + "'");
+            }
+            if (nodes > MaxNodes) {
+                throw new IllegalArgumentException("expression expands to " + nodes + " nodes with its definitions"
+                        + " inlined, at most " + MaxNodes + " are allowed");
+            }
+            return expr;
+        }
+
+        private Expr sum() {
+            nest();
+            var expr = product();
+            while (peek('+') || peek('-')) {
+                char op = text.charAt(pos++);
+                expr = fold(new Binary(op, expr, product()));
+                nodes++;
+            }
+            nesting--;
+            return expr;
+        }
+
+        private Expr product() {
+            var expr = unary();
+            while (peek('*') || peek('/')) {
+                char op = text.charAt(pos++);
+                expr = fold(new Binary(op, expr, unary()));
+                nodes++;
+            }
+            return expr;
+        }
+
+        private Expr unary() {
+            if (peek('-')) {
+                pos++;
+                nest();
+                var expr = fold(new Neg(unary()));
+                nesting--;
+                nodes++;
+                return expr;
+            }
+            return primary();
+        }
+
+        private void nest() {
+            if (++nesting > MaxNesting) {
+                throw error("nested more than " + MaxNesting + " deep");
+            }
+        }
+
+        private Expr primary() {
+            skipSpaces();
+            if (pos == text.length()) {
+                throw error("expression ends early");
+            }
+            char c = text.charAt(pos);
+            if (c == '(') {
+                pos++;
+                var expr = sum();
+                expect(')');
+                return expr;
+            }
+            nodes++;
+            if (Character.isDigit(c) || c == '.') {
+                int start = pos;
+                while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                    pos++;
+                }
+                try {
+                    return new Num(Double.parseDouble(text.substring(start, pos)));
+                }
+                catch (NumberFormatException e) {
+                    throw error("bad number '" + text.substring(start, pos) + "'");
+                }
+            }
+            int start = pos;
+            var name = name();
+            switch (name) {
+                case "power":
+                    return new Power();
+                case "attacker":
+                case "defender":
+                    expect('.');
+                    var stat = Stat.fromKey(name());
+                    if (stat == null) {
+                        throw error("unknown stat after " + name, start);
+                    }
+                    return new StatRef(name.equals("attacker"), stat.ordinal());
+                case "min":
+                case "max":
+                    expect('(');
+                    var left = sum();
+                    expect(',');
+                    var right = sum();
+                    expect(')');
+                    return fold(new Call(name, left, right));
+                default:
+                    var defined = definitions.get(name);
+                    if (defined == null) {
+                        throw error("unknown name '" + name + "'", start);
+                    }
+                    nodes += sizes.get(name) - 1;
+                    return defined;
+            }
+        }
+
+        private String name() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error(pos < text.length() ? "unexpected '" + text.charAt(pos) + "'" : "expression ends early");
+            }
+            return text.substring(start, pos);
+        }
+
+        private boolean peek(char c) {
+            skipSpaces();
+            return pos < text.length() && text.charAt(pos) == c;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return error(message, pos);
+        }
+
+        private IllegalArgumentException error(String message, int at) {
+            return new IllegalArgumentException(message + " at column " + (at + 1));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    The damage formula TurnKernel uses in formula mode (engine.damage-formula.enabled), read from a file that is
+    checked for changes every reload interval. A new version is parsed and compiled off the turn path and then
+    published with one volatile write; a turn reads current() once, so it sees either the old formula or the new
+    one for both its actions and never waits for a reload.
+
+    Until the file exists the bundled formulas apply. A file that does not parse is reported once by the
+    scheduler, and the last good formula stays in place until the file changes again.
+ */
+public final class DamageFormulas {
+
+    // formula mode off; TurnKernel computes the built-in formula directly
+    public static final DamageFormulas NONE = new DamageFormulas();
+
+    private final Path file;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile DamageFormula current;
+    // modification time of the last version read, good or bad
+    private long modified = Long.MIN_VALUE;
+
+    private DamageFormulas() {
+        file = null;
+    }
+
+    // file may be null for a fixed formula
+    public DamageFormulas(DamageFormula initial, Path file) {
+        this.current = Objects.requireNonNull(initial);
+        this.file = file;
+    }
+
+    public boolean enabled() {
+        return this != NONE;
+    }
+
+    public DamageFormula current() {
+        return current;
+    }
+
+    public void swap(DamageFormula formula) {
+        if (!enabled()) {
+            throw new IllegalStateException("Damage formulas are disabled");
+        }
+        current = formula;
+        reloads.incrementAndGet();
+    }
+
+    public long reloads() {
+        return reloads.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    // true when a new version of the file was swapped in
+    @Scheduled(fixedDelayString = "${engine.damage-formula.reload-interval-ms:2000}")
+    public synchronized boolean reload() {
+        if (file == null) {
+            return false;
+        }
+        String text;
+        try {
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            if (lastModified == modified) {
+                return false;
+            }
+            modified = lastModified;
+            text = Files.readString(file);
+        }
+        catch (NoSuchFileException e) {
+            return false;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        DamageFormula formula;
+        try {
+            formula = DamageFormula.parse(text);
+        }
+        // compiling can fail too, for instance on formulas the parser let through but the class verifier rejects
+        catch (RuntimeException e) {
+            failures.incrementAndGet();
+            throw new IllegalArgumentException("Keeping the previous damage formula, " + file + " does not parse: "
+                    + e.getMessage(), e);
+        }
+        swap(formula);
+        return true;
+    }
+}
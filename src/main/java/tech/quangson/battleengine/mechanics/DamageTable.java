@@ -0,0 +1,210 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+    Approximate damage from precomputed tables, for TurnKernel's optional table mode. Combat and Magic damage is
+    (r1 * r2 * basePower + 2) * 100 with r1 = attacker energy / (defender energy + 100) and r2 = attacker force or
+    spirit / defender reflex or focus; Special damage only depends on one ratio. Each (category, base power) pair
+    gets a slice of buckets x buckets (or buckets) floats over ratios in [0, maxRatio), filled lazily with the
+    damage at each bucket's centre.
+
+    Slices for the catalog's damage moves are allocated up front, others on first use, as long as the total stays
+    within maxBytes. A ratio outside the table, a base power without a slice or a zero divisor is computed exactly
+    by TurnKernel.damageCalculation. Blocks are applied to the looked up value as in the kernel. Results differ
+    from the exact formula by up to one bucket width; see accuracy().
+ */
+public final class DamageTable {
+
+    // a disabled table; TurnKernel always computes exactly
+    public static final DamageTable NONE = new DamageTable();
+
+    public static final int MaxBasePower = 1023;
+
+    private static final int Energy = Stat.ENERGY.ordinal();
+    private static final int Force = Stat.FORCE.ordinal();
+    private static final int Focus = Stat.FOCUS.ordinal();
+    private static final int Reflex = Stat.REFLEX.ordinal();
+    private static final int Spirit = Stat.SPIRIT.ordinal();
+
+    private final int buckets;
+    private final double maxRatio;
+    private final double scale;
+    private final long maxBytes;
+    private final AtomicReferenceArray<float[]> slices;
+    private long bytes;
+
+    private DamageTable() {
+        buckets = 0;
+        maxRatio = 0;
+        scale = 0;
+        maxBytes = 0;
+        slices = new AtomicReferenceArray<>(0);
+    }
+
+    public DamageTable(MoveCatalog catalog, int buckets, double maxRatio, long maxBytes) {
+        if (buckets < 1 || maxRatio <= 0) {
+            throw new IllegalArgumentException("Damage table needs at least one bucket and a positive ratio range");
+        }
+        this.buckets = buckets;
+        this.maxRatio = maxRatio;
+        this.scale = buckets / maxRatio;
+        this.maxBytes = maxBytes;
+        this.slices = new AtomicReferenceArray<>(MoveCategory.values().length * (MaxBasePower + 1));
+        for (var entry : catalog.entries()) {
+            var move = catalog.get(entry.id());
+            if (move.type() == MoveType.DAMAGE) {
+                slice(move.category(), move.basePower());
+            }
+        }
+    }
+
+    public boolean enabled() {
+        return this != NONE;
+    }
+
+    // bytes taken by the slices allocated so far
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public int damage(CompiledMove attack, CompiledMove defense, int[] sourceStats, int[] targetStats) {
+        double damage = lookup(attack, sourceStats, targetStats);
+        if (Double.isNaN(damage)) {
+            return TurnKernel.damageCalculation(attack, defense, sourceStats, targetStats);
+        }
+        boolean hasBlock = defense.type() == MoveType.BLOCK;
+        double blockPower = defense.basePower();
+        return (int) (!hasBlock ? damage : damage * (1-blockPower/100));
+    }
+
+    // damage before blocks, or NaN when the table cannot answer
+    private double lookup(CompiledMove attack, int[] sourceStats, int[] targetStats) {
+        var category = attack.category();
+        if (category == MoveCategory.OTHER || attack.basePower() < 0 || attack.basePower() > MaxBasePower) {
+            return Double.NaN;
+        }
+        var slice = slice(category, attack.basePower());
+        if (slice == null) {
+            return Double.NaN;
+        }
+        double atkEnergy = sourceStats[Energy];
+        double defEnergy = targetStats[Energy];
+        if (category == MoveCategory.SPECIAL) {
+            double ratio = (sourceStats[Force] + sourceStats[Spirit] + atkEnergy) / ((double) targetStats[Reflex] + targetStats[Focus]);
+            if (!(ratio >= 0 && ratio < maxRatio)) {
+                return Double.NaN;
+            }
+            return cell(slice, bucket(ratio), 0, category, attack.basePower());
+        }
+        double r1 = atkEnergy / (defEnergy + 100);
+        double r2 = category == MoveCategory.COMBAT
+                ? (double) sourceStats[Force] / targetStats[Reflex]
+                : (double) sourceStats[Spirit] / targetStats[Focus];
+        if (!(r1 >= 0 && r1 < maxRatio && r2 >= 0 && r2 < maxRatio)) {
+            return Double.NaN;
+        }
+        return cell(slice, bucket(r1), bucket(r2), category, attack.basePower());
+    }
+
+    // ratio * scale can round up to buckets for a ratio just below maxRatio
+    int bucket(double ratio) {
+        return Math.min((int) (ratio * scale), buckets - 1);
+    }
+
+    private double cell(float[] slice, int i, int j, MoveCategory category, int basePower) {
+        int index = i * (category == MoveCategory.SPECIAL ? 1 : buckets) + j;
+        float value = slice[index];
+        if (Float.isNaN(value)) {
+            // racing writers store the same value
+            value = (float) centre(category, basePower, i, j);
+            slice[index] = value;
+        }
+        return value;
+    }
+
+    private double centre(MoveCategory category, int basePower, int i, int j) {
+        double r1 = (i + 0.5) / scale;
+        double r2 = (j + 0.5) / scale;
+        return category == MoveCategory.SPECIAL
+                ? (r1 * basePower + 2) * 100
+                : (r1 * r2 * basePower + 2) * 100;
+    }
+
+    // null once the memory budget is spent
+    private float[] slice(MoveCategory category, int basePower) {
+        int key = category.ordinal() * (MaxBasePower + 1) + basePower;
+        var slice = slices.get(key);
+        if (slice != null) {
+            return slice;
+        }
+        synchronized (this) {
+            slice = slices.get(key);
+            if (slice != null) {
+                return slice;
+            }
+            long cells = category == MoveCategory.SPECIAL ? buckets : (long) buckets * buckets;
+            if (bytes + cells * Float.BYTES > maxBytes) {
+                return null;
+            }
+            slice = new float[(int) cells];
+            Arrays.fill(slice, Float.NaN);
+            bytes += cells * Float.BYTES;
+            slices.set(key, slice);
+            return slice;
+        }
+    }
+
+    /*
+        Error of the table against the exact formula for the catalog's damage moves, with every stat drawn
+        uniformly from [lowStat, highStat). Fallbacks are turns the table left to the exact formula.
+     */
+    public Accuracy accuracy(MoveCatalog catalog, int lowStat, int highStat, int samples, long seed) {
+        var rng = new SplittableRandom(seed);
+        var attacks = catalog.entries().stream()
+                .map(entry -> catalog.get(entry.id()))
+                .filter(move -> move.type() == MoveType.DAMAGE)
+                .toArray(CompiledMove[]::new);
+        if (attacks.length == 0) {
+            throw new IllegalArgumentException("Catalog has no damage moves");
+        }
+        var none = new CompiledMove();
+        none.load(new GameMove("None", null, "None", 0, 0, 0, 0, null, null));
+        var source = new int[Stat.COUNT];
+        var target = new int[Stat.COUNT];
+        int exact = 0, fallbacks = 0, maxError = 0;
+        double totalError = 0, totalRelative = 0;
+        for (int n = 0; n < samples; n++) {
+            for (int stat = 0; stat < Stat.COUNT; stat++) {
+                source[stat] = rng.nextInt(lowStat, highStat);
+                target[stat] = rng.nextInt(lowStat, highStat);
+            }
+            var attack = attacks[rng.nextInt(attacks.length)];
+            int expected = TurnKernel.damageCalculation(attack, none, source, target);
+            if (Double.isNaN(lookup(attack, source, target))) {
+                fallbacks++;
+                exact++;
+                continue;
+            }
+            int error = Math.abs(damage(attack, none, source, target) - expected);
+            exact += error == 0 ? 1 : 0;
+            maxError = Math.max(maxError, error);
+            totalError += error;
+            totalRelative += expected == 0 ? 0 : (double) error / expected;
+        }
+        return new Accuracy(samples, exact, fallbacks, maxError, totalError / samples, totalRelative / samples, bytes());
+    }
+
+    public record Accuracy(int samples, int exact, int fallbacks, int maxError, double meanError,
+                           double meanRelativeError, long bytes) {
+
+        @Override
+        public String toString() {
+            return String.format("%d samples: %.1f%% exact, %.1f%% fallback, max error %d, mean error %.2f (%.3f%%), %d KiB of tables",
+                    samples, 100.0 * exact / samples, 100.0 * fallbacks / samples, maxError, meanError,
+                    100 * meanRelativeError, bytes / 1024);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package tech.quangson.battleengine.mechanics;
+
+/*
+    Count-min sketch of 4-bit counters, sixteen to a long, four probes per key. Counters are halved every
+    10 x capacity increments so the estimate follows recent popularity. Not thread safe.
+ */
+final class FrequencySketch {
+
+    private static final long[] Seeds = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+        table = new long[size];
+        mask = size - 1;
+        sampleSize = 10 * Math.max(capacity, 16);
+    }
+
+    int frequency(int hash) {
+        int frequency = 15;
+        for (int i = 0; i < 4; i++) {
+            int shift = counter(hash, i) << 2;
+            frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = index(hash, i);
+            int shift = counter(hash, i) << 2;
+            if (((table[index] >>> shift) & 0xF) != 0xF) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            }
+            additions >>>= 1;
+        }
+    }
+
+    private int index(int hash, int probe) {
+        long h = (hash + Seeds[probe]) * Seeds[probe];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int counter(int hash, int probe) {
+        return (hash >>> (probe << 3)) & 0xF;
+    }
+}
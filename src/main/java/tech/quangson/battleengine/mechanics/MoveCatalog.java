@@ -0,0 +1,73 @@
+package tech.quangson.battleengine.mechanics;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Moves known to the engine up front. Each move is compiled once and gets a compact id (its position in the
+    catalog file), so turns can send "moveId": 3 instead of the full move definition.
+ */
+public final class MoveCatalog {
+
+    public record Entry(int id, GameMove move) {}
+
+    private final CompiledMove[] moves;
+    private final Map<String, CompiledMove> byName;
+
+    private MoveCatalog(List<GameMove> definitions) {
+        moves = new CompiledMove[definitions.size()];
+        byName = new HashMap<>();
+        for (int id = 0; id < moves.length; id++) {
+            var move = CompiledMove.compile(id, definitions.get(id));
+            if (byName.putIfAbsent(move.source().moveName(), move) != null) {
+                throw new IllegalArgumentException("Duplicate move in catalog: " + move.source().moveName());
+            }
+            moves[id] = move;
+        }
+    }
+
+    public static MoveCatalog of(List<GameMove> definitions) {
+        return new MoveCatalog(definitions);
+    }
+
+    public static MoveCatalog empty() {
+        return new MoveCatalog(List.of());
+    }
+
+    // expects a JSON array of GameMove objects
+    public static MoveCatalog load(InputStream in, ObjectMapper mapper) throws IOException {
+        List<GameMove> definitions = mapper.readValue(in, new TypeReference<>() {});
+        return new MoveCatalog(definitions);
+    }
+
+    public CompiledMove get(int id) {
+        if (id < 0 || id >= moves.length) {
+            throw new IllegalArgumentException("Unknown move id: " + id);
+        }
+        return moves[id];
+    }
+
+    // null when the catalog has no move with this name
+    public CompiledMove byName(String moveName) {
+        return byName.get(moveName);
+    }
+
+    public int size() {
+        return moves.length;
+    }
+
+    public List<Entry> entries() {
+        var entries = new ArrayList<Entry>(moves.length);
+        for (var move : moves) {
+            entries.add(new Entry(move.id(), move.source()));
+        }
+        return entries;
+    }
+}
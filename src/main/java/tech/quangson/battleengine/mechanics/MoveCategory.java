@@ -0,0 +1,19 @@
+package tech.quangson.battleengine.mechanics;
+
+public enum MoveCategory {
+    COMBAT, MAGIC, SPECIAL,
+    // e.g. "Cover" on blocks; deals no damage
+    OTHER;
+
+    public static MoveCategory of(String category) {
+        if (category == null) {
+            return OTHER;
+        }
+        return switch (category) {
+            case TurnServiceImpl.CategoryCombat -> COMBAT;
+            case TurnServiceImpl.CategoryMagic -> MAGIC;
+            case TurnServiceImpl.CategorySpecial -> SPECIAL;
+            default -> OTHER;
+        };
+    }
+}
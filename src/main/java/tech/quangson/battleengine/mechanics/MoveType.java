@@ -0,0 +1,20 @@
+package tech.quangson.battleengine.mechanics;
+
+public enum MoveType {
+    DAMAGE, BUFF, DEBUFF, BLOCK,
+    // any other type string; the engine charges its cost and otherwise ignores it
+    OTHER;
+
+    public static MoveType of(String type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Missing move type");
+        }
+        return switch (type) {
+            case TurnServiceImpl.TypeDamage -> DAMAGE;
+            case TurnServiceImpl.TypeBuff -> BUFF;
+            case TurnServiceImpl.TypeDebuff -> DEBUFF;
+            case TurnServiceImpl.TypeBlock -> BLOCK;
+            default -> OTHER;
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package tech.quangson.battleengine.mechanics;
+
+public enum Stat {
+    FORCE(TurnServiceImpl.StatForce),
+    FOCUS(TurnServiceImpl.StatFocus),
+    REFLEX(TurnServiceImpl.StatReflex),
+    SPIRIT(TurnServiceImpl.StatSpirit),
+    HEALTH(TurnServiceImpl.StatHealth),
+    ENERGY(TurnServiceImpl.StatEnergy),
+    AGILITY(TurnServiceImpl.StatAgility);
+
+    public static final int COUNT = 7;
+
+    private static final Stat[] VALUES = values();
+
+    private final String key;
+
+    Stat(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Stat byIndex(int index) {
+        return VALUES[index];
+    }
+
+    // returns null for keys that are not engine stats so callers can decide how strict to be
+    public static Stat fromKey(String key) {
+        if (key == null) {
+            return null;
+        }
+        return switch (key) {
+            case TurnServiceImpl.StatForce -> FORCE;
+            case TurnServiceImpl.StatFocus -> FOCUS;
+            case TurnServiceImpl.StatReflex -> REFLEX;
+            case TurnServiceImpl.StatSpirit -> SPIRIT;
+            case TurnServiceImpl.StatHealth -> HEALTH;
+            case TurnServiceImpl.StatEnergy -> ENERGY;
+            case TurnServiceImpl.StatAgility -> AGILITY;
+            default -> null;
+        };
+    }
+
+    public static Stat require(String key) {
+        var stat = fromKey(key);
+        if (stat == null) {
+            throw new IllegalArgumentException("Unknown stat: " + key);
+        }
+        return stat;
+    }
+}
@@ -0,0 +1,155 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/*
+    Immutable stat block indexed by Stat ordinal. It is also a read-only Map<String, Integer> view so that
+    PlayerState keeps its JSON shape ({"Force": 75, ...}) while the engine reads and writes plain ints.
+ */
+public final class StatBlock extends AbstractMap<String, Integer> {
+
+    private final int[] values;
+
+    private StatBlock(int[] values) {
+        this.values = values;
+    }
+
+    public static StatBlock of(Map<String, Integer> stats) {
+        if (stats instanceof StatBlock block) {
+            return block;
+        }
+        var values = new int[Stat.COUNT];
+        read(stats, values);
+        return new StatBlock(values);
+    }
+
+    /*
+        Copies any stat map into dest without allocating when the map is already a StatBlock. Every Stat must be
+        present and nothing else: a StatBlock could not carry other keys through, so they are refused rather than
+        silently dropped from the turn's result.
+     */
+    public static void read(Map<String, Integer> stats, int[] dest) {
+        if (stats instanceof StatBlock block) {
+            block.copyInto(dest);
+            return;
+        }
+        if (stats == null) {
+            throw new IllegalArgumentException("Missing stats");
+        }
+        for (int i = 0; i < Stat.COUNT; i++) {
+            var stat = Stat.byIndex(i);
+            var value = stats.get(stat.key());
+            if (value == null) {
+                throw new IllegalArgumentException("Missing stat: " + stat.key());
+            }
+            dest[i] = value;
+        }
+        if (stats.size() > Stat.COUNT) {
+            for (var key : stats.keySet()) {
+                if (Stat.fromKey(key) == null) {
+                    throw new IllegalArgumentException("Unknown stat: " + key);
+                }
+            }
+        }
+    }
+
+    public static StatBlock copyOf(int[] values) {
+        if (values.length != Stat.COUNT) {
+            throw new IllegalArgumentException("Expected " + Stat.COUNT + " stats but got " + values.length);
+        }
+        return new StatBlock(values.clone());
+    }
+
+    public int get(Stat stat) {
+        return values[stat.ordinal()];
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public StatBlock with(Stat stat, int value) {
+        var copy = values.clone();
+        copy[stat.ordinal()] = value;
+        return new StatBlock(copy);
+    }
+
+    public void copyInto(int[] dest) {
+        System.arraycopy(values, 0, dest, 0, Stat.COUNT);
+    }
+
+    public int[] toArray() {
+        return values.clone();
+    }
+
+    public boolean matches(int[] other) {
+        return Arrays.equals(values, other);
+    }
+
+    @Override
+    public Integer get(Object key) {
+        var stat = key instanceof String s ? Stat.fromKey(s) : null;
+        return stat == null ? null : values[stat.ordinal()];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String s && Stat.fromKey(s) != null;
+    }
+
+    @Override
+    public int size() {
+        return Stat.COUNT;
+    }
+
+    @Override
+    public Set<Entry<String, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < Stat.COUNT;
+                    }
+
+                    @Override
+                    public Entry<String, Integer> next() {
+                        if (index >= Stat.COUNT) {
+                            throw new NoSuchElementException();
+                        }
+                        var entry = new SimpleImmutableEntry<>(Stat.byIndex(index).key(), values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Stat.COUNT;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof StatBlock other) {
+            return Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,155 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.Arrays;
+
+/*
+    Active timed effects on one combatant, as parallel int arrays in no particular order. An effect either holds
+    a stat change made when its move hit (the delta is taken back when it expires) or, for Health, re-applies its
+    percentage every turn (damage or healing over time). tick() only touches the stats of active effects and
+    removes expired ones by swapping in the last entry, so a turn costs O(active effects) regardless of how long
+    the match has been running.
+
+    Deltas are undone additively, so a stat returns to its base once every effect on it has expired, unless an
+    undo had to be clamped at zero on the way. Not thread safe; Match guards it with the match's monitor.
+ */
+public final class StatusEffects {
+
+    private static final int Health = Stat.HEALTH.ordinal();
+
+    private int[] sources = new int[4];
+    private int[] stats = new int[4];
+    private int[] amounts = new int[4];
+    private int[] deltas = new int[4];
+    private int[] remaining = new int[4];
+    private int count;
+
+    public int count() {
+        return count;
+    }
+
+    public int stacks(int source, int stat) {
+        int stacks = 0;
+        for (int i = 0; i < count; i++) {
+            if (sources[i] == source && stats[i] == stat) {
+                stacks++;
+            }
+        }
+        return stacks;
+    }
+
+    /*
+        Records an effect that has just been applied: amount is the signed percentage (negative for debuffs),
+        delta what it did to the stat and turns how many following turns it lasts. Once source already has
+        maxStacks effects on this stat, the one closest to expiring is renewed instead and false is returned;
+        the caller then undoes delta itself.
+     */
+    public boolean add(int source, int stat, int amount, int delta, int turns, int maxStacks) {
+        int stacks = 0;
+        int oldest = -1;
+        for (int i = 0; i < count; i++) {
+            if (sources[i] == source && stats[i] == stat) {
+                stacks++;
+                if (oldest < 0 || remaining[i] < remaining[oldest]) {
+                    oldest = i;
+                }
+            }
+        }
+        if (stacks >= maxStacks) {
+            if (oldest >= 0) {
+                remaining[oldest] = turns;
+            }
+            return false;
+        }
+        if (count == sources.length) {
+            grow();
+        }
+        sources[count] = source;
+        stats[count] = stat;
+        amounts[count] = amount;
+        deltas[count] = stat == Health ? 0 : delta;
+        remaining[count] = turns;
+        count++;
+        return true;
+    }
+
+    // advances every effect by one turn against target and returns a bit per stat that changed
+    public int tick(int[] target) {
+        int changed = 0;
+        int i = 0;
+        while (i < count) {
+            int stat = stats[i];
+            int before = target[stat];
+            if (stat == Health) {
+                target[stat] = Math.max((int) (before * (1 + amounts[i]/100.0)), 0);
+            }
+            if (--remaining[i] == 0) {
+                target[stat] = Math.max(target[stat] - deltas[i], 0);
+                remove(i);
+            }
+            else {
+                i++;
+            }
+            if (target[stat] != before) {
+                changed |= 1 << stat;
+            }
+        }
+        return changed;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // five ints per effect (source, stat, amount, delta, remaining turns), for moving a match to another node
+    public int[] toArray() {
+        var packed = new int[count * 5];
+        for (int i = 0; i < count; i++) {
+            packed[i * 5] = sources[i];
+            packed[i * 5 + 1] = stats[i];
+            packed[i * 5 + 2] = amounts[i];
+            packed[i * 5 + 3] = deltas[i];
+            packed[i * 5 + 4] = remaining[i];
+        }
+        return packed;
+    }
+
+    // replaces every effect with the ones from toArray()
+    public void load(int[] packed) {
+        if (packed.length % 5 != 0) {
+            throw new IllegalArgumentException("Effects come in groups of five ints");
+        }
+        count = 0;
+        for (int i = 0; i < packed.length; i += 5) {
+            if (packed[i + 1] < 0 || packed[i + 1] >= Stat.COUNT || packed[i + 4] <= 0) {
+                throw new IllegalArgumentException("Bad effect at " + i / 5);
+            }
+            if (count == sources.length) {
+                grow();
+            }
+            sources[count] = packed[i];
+            stats[count] = packed[i + 1];
+            amounts[count] = packed[i + 2];
+            deltas[count] = packed[i + 3];
+            remaining[count] = packed[i + 4];
+            count++;
+        }
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        sources[i] = sources[last];
+        stats[i] = stats[last];
+        amounts[i] = amounts[last];
+        deltas[i] = deltas[last];
+        remaining[i] = remaining[last];
+    }
+
+    private void grow() {
+        int capacity = sources.length * 2;
+        sources = Arrays.copyOf(sources, capacity);
+        stats = Arrays.copyOf(stats, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        deltas = Arrays.copyOf(deltas, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+    }
+}
@@ -0,0 +1,26 @@
+package tech.quangson.battleengine.mechanics;
+
+/*
+    Who a combatant's move lands on in a BattleState. For Damage and Debuff moves SINGLE is one opponent, TEAM is
+    every member of the target's team and ALL is everyone but the actor. For Buff moves SINGLE defaults to the
+    actor itself, TEAM is the actor's team (or the target's) and ALL is everyone.
+ */
+public enum Targeting {
+    SINGLE, TEAM, ALL;
+
+    public static final String Single = "Single";
+    public static final String Team = "Team";
+    public static final String All = "All";
+
+    public static Targeting of(String targeting) {
+        if (targeting == null) {
+            return SINGLE;
+        }
+        return switch (targeting) {
+            case Single -> SINGLE;
+            case Team -> TEAM;
+            case All -> ALL;
+            default -> throw new IllegalArgumentException("Unknown targeting " + targeting);
+        };
+    }
+}
@@ -0,0 +1,206 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Remembers kernel outcomes for turns whose moves both come from the MoveCatalog by id. The key is the two move
+    ids and both stat blocks as ints; player ids are not part of it, so two tutorial players with the same opening
+    share an entry. Turns with inline moves skip the cache.
+
+    Striped W-TinyLFU: each stripe has a small LRU window in front of an LRU main region. A key leaving the window
+    replaces the main region's LRU victim only if the stripe's FrequencySketch has seen it more often, so a burst
+    of one-off turns cannot flush the popular openings. Every entry has the same footprint (16 key ints, 29
+    outcome ints), so bounding the entry count bounds memory.
+ */
+public final class TinyLfuTurnCache implements TurnCache {
+
+    private static final int KeyLength = 2 + 2 * Stat.COUNT;
+    private static final int OutcomeLength = 1 + 4 * Stat.COUNT;
+
+    private final MoveCatalog catalog;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLfuTurnCache(MoveCatalog catalog, int maxEntries, int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Cache stripes must be a power of two");
+        }
+        this.catalog = catalog;
+        this.stripes = new Stripe[stripes];
+        int perStripe = Math.max(2, maxEntries / stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+        this.stripeMask = stripes - 1;
+    }
+
+    @Override
+    public void evaluate(TurnKernel kernel, TurnState.PlayerState player1, TurnState.PlayerState player2, TurnResult out) {
+        if (player1.move() != null || player1.moveId() == null || player2.move() != null || player2.moveId() == null) {
+            bypasses.increment();
+            kernel.evaluate(player1, player2, out);
+            return;
+        }
+        var p1Move = catalog.get(player1.moveId());
+        var p2Move = catalog.get(player2.moveId());
+        var p1Stats = out.stats(1, TurnResult.Player1);
+        var p2Stats = out.stats(1, TurnResult.Player2);
+        StatBlock.read(player1.stats(), p1Stats);
+        StatBlock.read(player2.stats(), p2Stats);
+
+        var key = new Key(p1Move.id(), p2Move.id(), p1Stats, p2Stats);
+        var stripe = stripes[(key.hash >>> 16) & stripeMask];
+        var outcome = stripe.get(key);
+        if (outcome != null) {
+            hits.increment();
+            restore(outcome, p1Move, p2Move, out);
+            return;
+        }
+        misses.increment();
+        kernel.evaluate(p1Move, p1Stats, p2Move, p2Stats, out);
+        evictions.add(stripe.put(key, snapshot(out)));
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    // turns that could not be cached because a move was sent inline
+    public long bypasses() {
+        return bypasses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long size() {
+        long size = 0;
+        for (var stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static int[] snapshot(TurnResult out) {
+        var outcome = new int[OutcomeLength];
+        outcome[0] = out.player1First() ? 1 : 0;
+        int offset = 1;
+        for (int round = 0; round < 2; round++) {
+            for (int player = TurnResult.Player1; player <= TurnResult.Player2; player++) {
+                System.arraycopy(out.stats(round, player), 0, outcome, offset, Stat.COUNT);
+                offset += Stat.COUNT;
+            }
+        }
+        return outcome;
+    }
+
+    private static void restore(int[] outcome, CompiledMove p1Move, CompiledMove p2Move, TurnResult out) {
+        boolean player1First = outcome[0] == 1;
+        out.player1First(player1First);
+        if (player1First) {
+            out.moves(p1Move, p2Move);
+        } else {
+            out.moves(p2Move, p1Move);
+        }
+        int offset = 1;
+        for (int round = 0; round < 2; round++) {
+            for (int player = TurnResult.Player1; player <= TurnResult.Player2; player++) {
+                System.arraycopy(outcome, offset, out.stats(round, player), 0, Stat.COUNT);
+                offset += Stat.COUNT;
+            }
+        }
+    }
+
+    private static final class Key {
+        private final int[] data = new int[KeyLength];
+        private final int hash;
+
+        Key(int p1Move, int p2Move, int[] p1Stats, int[] p2Stats) {
+            data[0] = p1Move;
+            data[1] = p2Move;
+            System.arraycopy(p1Stats, 0, data, 2, Stat.COUNT);
+            System.arraycopy(p2Stats, 0, data, 2 + Stat.COUNT, Stat.COUNT);
+            int h = 0x811C9DC5;
+            for (int value : data) {
+                h = (h ^ value) * 0x01000193;
+            }
+            // murmur3 finalizer so the stripe and sketch bits are well mixed
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && Arrays.equals(data, other.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<Key, int[]> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Key, int[]> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+        private final int windowCapacity;
+        private final int mainCapacity;
+
+        Stripe(int capacity) {
+            windowCapacity = Math.max(1, capacity / 100);
+            mainCapacity = Math.max(1, capacity - windowCapacity);
+            sketch = new FrequencySketch(capacity);
+        }
+
+        synchronized int[] get(Key key) {
+            sketch.increment(key.hash);
+            var outcome = window.get(key);
+            return outcome != null ? outcome : main.get(key);
+        }
+
+        // returns how many entries left the cache; a key that lost the race to another caller is ignored
+        synchronized int put(Key key, int[] outcome) {
+            if (window.containsKey(key) || main.containsKey(key)) {
+                return 0;
+            }
+            window.put(key, outcome);
+            if (window.size() <= windowCapacity) {
+                return 0;
+            }
+            var candidates = window.entrySet().iterator();
+            var candidate = candidates.next();
+            candidates.remove();
+            if (main.size() < mainCapacity) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return 0;
+            }
+            var victims = main.entrySet().iterator();
+            var victim = victims.next();
+            if (sketch.frequency(candidate.getKey().hash) > sketch.frequency(victim.getKey().hash)) {
+                victims.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+            return 1;
+        }
+
+        synchronized int size() {
+            return window.size() + main.size();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package tech.quangson.battleengine.mechanics;
+
+/*
+    N turns laid out as struct-of-arrays for TurnBatchEvaluator. Each player has one int[] per stat (indexed by
+    Stat ordinal, then lane) and one per move field; move type and category hold enum ordinals. The CompiledMove
+    per lane is only read for buff and debuff modifiers, so it must stay unchanged until the batch is evaluated.
+
+    Results are written into round(0) and round(1) with the same [player][stat][lane] layout as the inputs, plus
+    player1First per lane. Not thread safe; reuse one batch per thread.
+ */
+public final class TurnBatch {
+
+    private final int capacity;
+    private int size;
+
+    final int[][][] stats;
+    final int[][] type = new int[2][];
+    final int[][] category = new int[2][];
+    final int[][] basePower = new int[2][];
+    final int[][] cost = new int[2][];
+    final int[][] priority = new int[2][];
+    final CompiledMove[][] moves = new CompiledMove[2][];
+    final int[][][][] rounds;
+    final boolean[] player1First;
+    // per-lane damage of the current round and widened input columns, scratch for the vector path
+    final double[] damage;
+    double[][] wide;
+
+    public TurnBatch(int capacity) {
+        this.capacity = capacity;
+        stats = new int[2][Stat.COUNT][capacity];
+        rounds = new int[2][2][Stat.COUNT][capacity];
+        for (int player = 0; player < 2; player++) {
+            type[player] = new int[capacity];
+            category[player] = new int[capacity];
+            basePower[player] = new int[capacity];
+            cost[player] = new int[capacity];
+            priority[player] = new int[capacity];
+            moves[player] = new CompiledMove[capacity];
+        }
+        player1First = new boolean[capacity];
+        damage = new double[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // appends a turn and returns its lane; the stat arrays are copied
+    public int add(CompiledMove p1Move, int[] p1Stats, CompiledMove p2Move, int[] p2Stats) {
+        if (size == capacity) {
+            throw new IllegalStateException("Turn batch is full");
+        }
+        int lane = size++;
+        set(lane, TurnResult.Player1, p1Move, p1Stats);
+        set(lane, TurnResult.Player2, p2Move, p2Stats);
+        return lane;
+    }
+
+    private void set(int lane, int player, CompiledMove move, int[] playerStats) {
+        for (int stat = 0; stat < Stat.COUNT; stat++) {
+            stats[player][stat][lane] = playerStats[stat];
+        }
+        type[player][lane] = move.type().ordinal();
+        category[player][lane] = move.category().ordinal();
+        basePower[player][lane] = move.basePower();
+        cost[player][lane] = move.cost();
+        priority[player][lane] = move.priority();
+        moves[player][lane] = move;
+    }
+
+    public int stat(int round, int player, Stat stat, int lane) {
+        return rounds[round][player][stat.ordinal()][lane];
+    }
+
+    public boolean player1First(int lane) {
+        return player1First[lane];
+    }
+}
@@ -0,0 +1,155 @@
+package tech.quangson.battleengine.mechanics;
+
+/*
+    Evaluates a TurnBatch column by column with the same rules as TurnKernel, with the built-in damage formulas
+    only. This class is the scalar path; create() returns the Vector API subclass when it was built with the
+    vector profile and the JVM runs with --add-modules jdk.incubator.vector.
+
+    Each round is split into a pass that does sequencing, damage and energy (vectorizable) and a per-lane pass for
+    buff and debuff modifiers. The two never touch the same stat in the same round except a buff on the actor's own
+    Energy, which the kernel overwrites with the cost anyway, so the modifier pass skips it.
+ */
+public class TurnBatchEvaluator {
+
+    private static final int Health = Stat.HEALTH.ordinal();
+    private static final int Energy = Stat.ENERGY.ordinal();
+    private static final int Force = Stat.FORCE.ordinal();
+    private static final int Focus = Stat.FOCUS.ordinal();
+    private static final int Reflex = Stat.REFLEX.ordinal();
+    private static final int Spirit = Stat.SPIRIT.ordinal();
+    private static final int Agility = Stat.AGILITY.ordinal();
+
+    static final int Damage = MoveType.DAMAGE.ordinal();
+    static final int Buff = MoveType.BUFF.ordinal();
+    static final int Debuff = MoveType.DEBUFF.ordinal();
+    static final int Block = MoveType.BLOCK.ordinal();
+    static final int Combat = MoveCategory.COMBAT.ordinal();
+    static final int Magic = MoveCategory.MAGIC.ordinal();
+    static final int Special = MoveCategory.SPECIAL.ordinal();
+
+    public static TurnBatchEvaluator create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (TurnBatchEvaluator) Class.forName(TurnBatchEvaluator.class.getPackageName() + ".VectorTurnBatchEvaluator")
+                        .getDeclaredConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException | LinkageError e) {
+                // fall through to the scalar path
+            }
+        }
+        return scalar();
+    }
+
+    public static TurnBatchEvaluator scalar() {
+        return new TurnBatchEvaluator();
+    }
+
+    public String name() {
+        return "scalar";
+    }
+
+    public void evaluate(TurnBatch batch) {
+        int n = batch.size();
+        var working = batch.rounds[1];
+        for (int player = 0; player < 2; player++) {
+            for (int stat = 0; stat < Stat.COUNT; stat++) {
+                System.arraycopy(batch.stats[player][stat], 0, working[player][stat], 0, n);
+            }
+        }
+
+        var p1Agility = batch.stats[TurnResult.Player1][Agility];
+        var p2Agility = batch.stats[TurnResult.Player2][Agility];
+        for (int lane = sequence(batch, n); lane < n; lane++) {
+            batch.player1First[lane] = TurnKernel.player1GoesFirst(batch.priority[TurnResult.Player1][lane],
+                    batch.priority[TurnResult.Player2][lane], p1Agility[lane], p2Agility[lane],
+                    batch.type[TurnResult.Player1][lane] == Block, batch.type[TurnResult.Player2][lane] == Block);
+        }
+
+        act(batch, n, true);
+        // snapshot the first round before the second actor works on the same columns
+        for (int player = 0; player < 2; player++) {
+            for (int stat = 0; stat < Stat.COUNT; stat++) {
+                System.arraycopy(working[player][stat], 0, batch.rounds[0][player][stat], 0, n);
+            }
+        }
+        act(batch, n, false);
+    }
+
+    // fills player1First for lanes [0, k) and returns k
+    int sequence(TurnBatch batch, int n) {
+        return 0;
+    }
+
+    // damage and energy for lanes [0, k) of one round, returns k
+    int damageAndCost(TurnBatch batch, int n, boolean firstRound) {
+        return 0;
+    }
+
+    private void act(TurnBatch batch, int n, boolean firstRound) {
+        int done = damageAndCost(batch, n, firstRound);
+        for (int lane = 0; lane < done; lane++) {
+            boolean actorIsPlayer1 = batch.player1First[lane] == firstRound;
+            modifiers(batch, lane, actorIsPlayer1 ? TurnResult.Player1 : TurnResult.Player2);
+        }
+        for (int lane = done; lane < n; lane++) {
+            boolean actorIsPlayer1 = batch.player1First[lane] == firstRound;
+            step(batch, lane, actorIsPlayer1 ? TurnResult.Player1 : TurnResult.Player2);
+        }
+    }
+
+    // one actor's whole action on one lane, exactly as TurnKernel.act
+    private static void step(TurnBatch batch, int lane, int actor) {
+        int target = 1 - actor;
+        var working = batch.rounds[1];
+        int type = batch.type[actor][lane];
+        if (type == Damage) {
+            int damage = damage(batch.category[actor][lane], batch.basePower[actor][lane],
+                    batch.type[target][lane], batch.basePower[target][lane],
+                    working[actor][Energy][lane], working[actor][Force][lane], working[actor][Spirit][lane],
+                    working[target][Energy][lane], working[target][Reflex][lane], working[target][Focus][lane]);
+            working[target][Health][lane] = Math.max(working[target][Health][lane] - damage, 0);
+        }
+        else {
+            modifiers(batch, lane, actor);
+        }
+        working[actor][Energy][lane] = Math.max(batch.stats[actor][Energy][lane] - batch.cost[actor][lane], 0);
+    }
+
+    private static void modifiers(TurnBatch batch, int lane, int actor) {
+        int type = batch.type[actor][lane];
+        if (type != Buff && type != Debuff) {
+            return;
+        }
+        var move = batch.moves[actor][lane];
+        var updated = batch.rounds[1][type == Buff ? actor : 1 - actor];
+        for (int i = 0; i < move.modifierCount(); i++) {
+            int stat = move.modifierStat(i);
+            if (type == Buff && stat == Energy) {
+                continue; // replaced by the cost right after
+            }
+            double amount = move.modifierAmount(i);
+            updated[stat][lane] = type == Buff
+                    ? (int) (updated[stat][lane] * (1 + amount/100))
+                    : (int) (updated[stat][lane] * (1 - amount/100));
+        }
+    }
+
+    // TurnKernel.damageCalculation on primitives; the operation order is kept so results match bit for bit
+    static int damage(int category, int basePower, int defenseType, int defensePower,
+                      double atkEnergy, double atkForce, double atkSpirit,
+                      double defEnergy, double defReflex, double defFocus) {
+        double atkBasePower = basePower;
+        double damage;
+        if (category == Combat) {
+            damage = (atkEnergy/(defEnergy + 100) * atkForce / defReflex * atkBasePower + 2) * 100;
+        } else if (category == Magic) {
+            damage = (atkEnergy / (defEnergy + 100) * atkSpirit / defFocus * atkBasePower + 2) * 100;
+        } else if (category == Special) {
+            damage = ((atkForce + atkSpirit + atkEnergy) / (defReflex + defFocus) * atkBasePower + 2) * 100;
+        } else {
+            damage = 0;
+        }
+        double blockPower = defensePower;
+        return (int) (defenseType != Block ? damage : damage * (1-blockPower/100));
+    }
+}
@@ -0,0 +1,9 @@
+package tech.quangson.battleengine.mechanics;
+
+// evaluates a turn into out, possibly from a remembered outcome; NONE always runs the kernel
+public interface TurnCache {
+
+    TurnCache NONE = (kernel, player1, player2, out) -> kernel.evaluate(player1, player2, out);
+
+    void evaluate(TurnKernel kernel, TurnState.PlayerState player1, TurnState.PlayerState player2, TurnResult out);
+}
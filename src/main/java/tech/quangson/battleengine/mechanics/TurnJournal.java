@@ -0,0 +1,12 @@
+package tech.quangson.battleengine.mechanics;
+
+// hook for persisting evaluated turns; called on the request thread, so implementations must only hand the turn off
+public interface TurnJournal extends AutoCloseable {
+
+    TurnJournal NONE = (turn, result) -> {};
+
+    void append(TurnState turn, TurnState[] result);
+
+    @Override
+    default void close() {}
+}
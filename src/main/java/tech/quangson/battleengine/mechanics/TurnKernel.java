@@ -0,0 +1,196 @@
+package tech.quangson.battleengine.mechanics;
+
+/*
+    Allocation-free turn evaluation. Reads both players' stats into the caller's TurnResult, works on those
+    int arrays in place and never builds intermediate maps or TurnStates. The sequence is decided once per turn
+    and all dispatch is on CompiledMove enums rather than Strings.
+ */
+public final class TurnKernel {
+
+    private static final int Health = Stat.HEALTH.ordinal();
+    private static final int Energy = Stat.ENERGY.ordinal();
+    private static final int Force = Stat.FORCE.ordinal();
+    private static final int Focus = Stat.FOCUS.ordinal();
+    private static final int Reflex = Stat.REFLEX.ordinal();
+    private static final int Spirit = Stat.SPIRIT.ordinal();
+    private static final int Agility = Stat.AGILITY.ordinal();
+
+    private final MoveCatalog catalog;
+    // null unless damage comes from the approximate tables
+    private final DamageTable table;
+    // null unless damage comes from formulas that can be reloaded
+    private final DamageFormulas formulas;
+
+    public TurnKernel() {
+        this(MoveCatalog.empty());
+    }
+
+    public TurnKernel(MoveCatalog catalog) {
+        this(catalog, DamageTable.NONE);
+    }
+
+    public TurnKernel(MoveCatalog catalog, DamageTable table) {
+        this(catalog, table, DamageFormulas.NONE);
+    }
+
+    // the tables approximate the built-in formula only, so at most one of table and formulas may be enabled
+    public TurnKernel(MoveCatalog catalog, DamageTable table, DamageFormulas formulas) {
+        if (table.enabled() && formulas.enabled()) {
+            throw new IllegalArgumentException("Damage tables cannot be combined with damage formulas");
+        }
+        this.catalog = catalog;
+        this.table = table.enabled() ? table : null;
+        this.formulas = formulas.enabled() ? formulas : null;
+    }
+
+    public void evaluate(TurnState.PlayerState player1, TurnState.PlayerState player2, TurnResult out) {
+        var p1Move = resolve(player1, out.move(TurnResult.Player1));
+        var p2Move = resolve(player2, out.move(TurnResult.Player2));
+        StatBlock.read(player1.stats(), out.stats(1, TurnResult.Player1));
+        StatBlock.read(player2.stats(), out.stats(1, TurnResult.Player2));
+        evaluateLoaded(p1Move, p2Move, out);
+    }
+
+    public void evaluate(GameMove p1Move, int[] player1Stats, GameMove p2Move, int[] player2Stats, TurnResult out) {
+        var p1Compiled = out.move(TurnResult.Player1);
+        var p2Compiled = out.move(TurnResult.Player2);
+        p1Compiled.load(p1Move);
+        p2Compiled.load(p2Move);
+        evaluate(p1Compiled, player1Stats, p2Compiled, player2Stats, out);
+    }
+
+    // for callers that already keep stats as int[] indexed by Stat ordinal; the inputs are not modified
+    public void evaluate(CompiledMove p1Move, int[] player1Stats, CompiledMove p2Move, int[] player2Stats, TurnResult out) {
+        System.arraycopy(player1Stats, 0, out.stats(1, TurnResult.Player1), 0, Stat.COUNT);
+        System.arraycopy(player2Stats, 0, out.stats(1, TurnResult.Player2), 0, Stat.COUNT);
+        evaluateLoaded(p1Move, p2Move, out);
+    }
+
+    private void evaluateLoaded(CompiledMove p1Move, CompiledMove p2Move, TurnResult out) {
+        var p1Stats = out.stats(1, TurnResult.Player1);
+        var p2Stats = out.stats(1, TurnResult.Player2);
+        int p1StartEnergy = p1Stats[Energy];
+        int p2StartEnergy = p2Stats[Energy];
+
+        boolean player1First = player1GoesFirst(p1Move.priority(), p2Move.priority(), p1Stats[Agility], p2Stats[Agility],
+                p1Move.type() == MoveType.BLOCK, p2Move.type() == MoveType.BLOCK);
+        out.player1First(player1First);
+
+        CompiledMove firstMove, secondMove;
+        int[] firstStats, secondStats;
+        int firstStartEnergy, secondStartEnergy;
+        if (player1First) {
+            firstMove = p1Move; firstStats = p1Stats; firstStartEnergy = p1StartEnergy;
+            secondMove = p2Move; secondStats = p2Stats; secondStartEnergy = p2StartEnergy;
+        } else {
+            firstMove = p2Move; firstStats = p2Stats; firstStartEnergy = p2StartEnergy;
+            secondMove = p1Move; secondStats = p1Stats; secondStartEnergy = p1StartEnergy;
+        }
+        out.moves(firstMove, secondMove);
+
+        // one formula for the whole turn, even if a reload lands in between
+        var formula = formula();
+        act(firstMove, secondMove, firstStats, secondStats, firstStartEnergy, formula);
+        // snapshot the first round before the second player acts on the same arrays
+        System.arraycopy(p1Stats, 0, out.stats(0, TurnResult.Player1), 0, Stat.COUNT);
+        System.arraycopy(p2Stats, 0, out.stats(0, TurnResult.Player2), 0, Stat.COUNT);
+        act(secondMove, firstMove, secondStats, firstStats, secondStartEnergy, formula);
+    }
+
+    // a full move in the request wins over a moveId; scratch is only touched for full moves
+    CompiledMove resolve(TurnState.PlayerState player, CompiledMove scratch) {
+        if (player.move() == null && player.moveId() != null) {
+            return catalog.get(player.moveId());
+        }
+        scratch.load(player.move());
+        return scratch;
+    }
+
+    /*
+        The higher move priority goes first. At equal priority a lone blocker goes first, then the higher agility;
+        ties in agility go to player 2. This is BattleKernel's ordering for two combatants.
+     */
+    public static boolean player1GoesFirst(int p1Priority, int p2Priority, int p1Agility, int p2Agility,
+                                           boolean p1Block, boolean p2Block) {
+        if (p1Priority != p2Priority) {
+            return p1Priority > p2Priority;
+        }
+        if (p1Agility > p2Agility) {
+            return p1Block || !p2Block;
+        }
+        return p1Block && !p2Block;
+    }
+
+    // the reloadable formula to use for one turn, or null when the kernel is not in formula mode
+    DamageFormula formula() {
+        return formulas == null ? null : formulas.current();
+    }
+
+    // damage in whichever mode the kernel was built for: formula (as read by formula()), table or built-in
+    int damage(CompiledMove attack, CompiledMove defense, int[] sourceStats, int[] targetStats, DamageFormula formula) {
+        if (formula != null) {
+            return formula.damage(attack, defense, sourceStats, targetStats);
+        }
+        if (table != null) {
+            return table.damage(attack, defense, sourceStats, targetStats);
+        }
+        return damageCalculation(attack, defense, sourceStats, targetStats);
+    }
+
+    private void act(CompiledMove move, CompiledMove opposingMove, int[] sourceStats, int[] targetStats, int startEnergy,
+                     DamageFormula formula) {
+        switch (move.type()) {
+            case DAMAGE -> {
+                int damage = damage(move, opposingMove, sourceStats, targetStats, formula);
+                targetStats[Health] = Math.max(targetStats[Health] - damage, 0); // prevent negative health result
+            }
+            case BUFF -> applyBuff(move, sourceStats);
+            case DEBUFF -> applyDebuff(move, targetStats);
+        }
+        // cost is always charged against the energy the turn started with
+        sourceStats[Energy] = Math.max(startEnergy - move.cost(), 0); // prevent negative energy result
+    }
+
+    static int damageCalculation(CompiledMove attack, CompiledMove defense, int[] sourceStats, int[] targetStats) {
+        double atkBasePower = attack.basePower();
+        double damage;
+        // attacker stats
+        double atkEnergy = sourceStats[Energy];
+        double atkSpirit = sourceStats[Spirit];
+        double atkForce = sourceStats[Force];
+        // target stats
+        double defEnergy = targetStats[Energy];
+        double defReflex = targetStats[Reflex];
+        double defFocus = targetStats[Focus];
+
+        // damage formula constants
+        int balanceValue = 100;
+        int powerScale = 100;
+        switch (attack.category()) {
+            case COMBAT -> damage = (atkEnergy/(defEnergy + balanceValue) * atkForce / defReflex * atkBasePower + 2) * powerScale;
+            case MAGIC -> damage = (atkEnergy / (defEnergy + balanceValue) * atkSpirit / defFocus * atkBasePower + 2) * powerScale;
+            case SPECIAL -> damage = ((atkForce + atkSpirit + atkEnergy) / (defReflex + defFocus) * atkBasePower + 2) * powerScale;
+            default -> damage = 0;
+        }
+
+        boolean hasBlock = defense.type() == MoveType.BLOCK;
+        double blockPower = defense.basePower();
+        return (int) (!hasBlock ? damage : damage * (1-blockPower/100));
+    }
+
+    static void applyBuff(CompiledMove move, int[] updatedStats) {
+        for (int i = 0; i < move.modifierCount(); i++) {
+            int stat = move.modifierStat(i);
+            double buffAmt = move.modifierAmount(i);
+            updatedStats[stat] = (int) (updatedStats[stat] * (1 + buffAmt/100));
+        }
+    }
+
+    static void applyDebuff(CompiledMove move, int[] updatedStats) {
+        for (int i = 0; i < move.modifierCount(); i++) {
+            int stat = move.modifierStat(i);
+            double debuffAmt = move.modifierAmount(i);
+            updatedStats[stat] = (int) (updatedStats[stat] * (1 - debuffAmt/100));
+        }
+    }
+}
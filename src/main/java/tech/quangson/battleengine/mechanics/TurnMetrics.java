@@ -0,0 +1,23 @@
+package tech.quangson.battleengine.mechanics;
+
+// hook for timing turn evaluation; implementations are called on the hot path and must not allocate
+public interface TurnMetrics {
+
+    TurnMetrics NONE = new TurnMetrics() {
+        @Override
+        public void turnEvaluated(CompiledMove first, CompiledMove second, long nanos) {}
+
+        @Override
+        public void turnRejected(Exception e) {}
+
+        @Override
+        public void matchRequestFailed(String operation, Exception e) {}
+    };
+
+    void turnEvaluated(CompiledMove first, CompiledMove second, long nanos);
+
+    void turnRejected(Exception e);
+
+    // a match request that failed for another reason than a refused turn, such as an unknown match or a bad setup
+    void matchRequestFailed(String operation, Exception e);
+}
@@ -0,0 +1,17 @@
+package tech.quangson.battleengine.mechanics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// one entry of a batch response: either the evaluated rounds or the reason this turn was rejected
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TurnOutcome(TurnState[] result, String error) {
+
+    public static TurnOutcome of(TurnState[] result){
+        return new TurnOutcome(result, null);
+    }
+
+    public static TurnOutcome failed(Exception e){
+        var message = e.getLocalizedMessage();
+        return new TurnOutcome(null, message != null ? message : e.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,59 @@
+package tech.quangson.battleengine.mechanics;
+
+/*
+    Reusable output buffer for TurnKernel. Holds the stats of both players after each of the two rounds,
+    indexed by position (0 = player 1, 1 = player 2) rather than by sequence order.
+    Instances are not thread safe; give each thread (or each match loop) its own.
+ */
+public final class TurnResult {
+
+    public static final int Player1 = 0;
+    public static final int Player2 = 1;
+
+    private final int[][] firstRound = new int[2][Stat.COUNT];
+    private final int[][] secondRound = new int[2][Stat.COUNT];
+    private final CompiledMove[] moves = {new CompiledMove(), new CompiledMove()};
+    private boolean player1First;
+    private CompiledMove firstMove;
+    private CompiledMove secondMove;
+
+    public boolean player1First() {
+        return player1First;
+    }
+
+    void player1First(boolean player1First) {
+        this.player1First = player1First;
+    }
+
+    // the moves in the order they were played; only valid until the next evaluation into this buffer
+    public CompiledMove firstMove() {
+        return firstMove;
+    }
+
+    public CompiledMove secondMove() {
+        return secondMove;
+    }
+
+    void moves(CompiledMove first, CompiledMove second) {
+        this.firstMove = first;
+        this.secondMove = second;
+    }
+
+    // round is 0 for the first player's action and 1 for the second player's action
+    public int[] stats(int round, int player) {
+        return round == 0 ? firstRound[player] : secondRound[player];
+    }
+
+    public int stat(int round, int player, Stat stat) {
+        return stats(round, player)[stat.ordinal()];
+    }
+
+    public int[] finalStats(int player) {
+        return secondRound[player];
+    }
+
+    // scratch slots TurnKernel refills when a turn arrives with full GameMoves
+    CompiledMove move(int player) {
+        return moves[player];
+    }
+}
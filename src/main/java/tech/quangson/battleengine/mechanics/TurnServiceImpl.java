@@ -1,10 +1,8 @@
 package tech.quangson.battleengine.mechanics;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Service
 public class TurnServiceImpl implements TurnService{
 
@@ -25,156 +23,91 @@ public class TurnServiceImpl implements TurnService{
     public static final String StatEnergy = "Energy";
     public static final String StatAgility = "Agility";
 
-    @Override
-    public TurnState[] evaluateTurn(TurnState turn) {
-        var result = new TurnState[2];
-        var playerSequence = determineSequence(turn);
-        var first = derivePlayerState(turn, playerSequence[0]);
-        var second = derivePlayerState(turn, playerSequence[1]);
-        var firstMoveType = first.move().type();
-        var firstUpdatedStats = new HashMap<>(first.stats());
-        var secondMoveType = second.move().type();
-        var secondUpdatedStats = new HashMap<>(second.stats());
-
-        switch (firstMoveType) {
-            case TypeDamage -> applyDamage(first, second, firstUpdatedStats, secondUpdatedStats);
-            case TypeBuff -> applyBuff(first, firstUpdatedStats);
-            case TypeDebuff -> applyDebuff(first, secondUpdatedStats);
-        }
-        applyCost(first, firstUpdatedStats);
-        var firstRoundResult = buildTurnState(turn, Map.copyOf(firstUpdatedStats), Map.copyOf(secondUpdatedStats));
-        result[0] = firstRoundResult;
-
-        switch(secondMoveType){
-            case TypeDamage -> applyDamage(second, first, secondUpdatedStats, firstUpdatedStats);
-            case TypeBuff -> applyBuff(second, secondUpdatedStats);
-            case TypeDebuff -> applyDebuff(second, firstUpdatedStats);
-        }
-        applyCost(second, secondUpdatedStats);
+    private static final ThreadLocal<TurnResult> scratch = ThreadLocal.withInitial(TurnResult::new);
 
-        var secondRoundResult =  buildTurnState(turn, Map.copyOf(firstUpdatedStats), Map.copyOf(secondUpdatedStats));
-        result[1] = secondRoundResult;
-        return result;
+    private final TurnKernel kernel;
+    private final TurnMetrics metrics;
+    private final TurnJournal journal;
+    private final TurnCache cache;
+
+    public TurnServiceImpl() {
+        this(MoveCatalog.empty());
     }
 
-    @Override
-    public String[] determineSequence(TurnState turn){
-        Integer p1Agility = turn.getPlayer1State().getStat(StatAgility);
-        Integer p2Agility = turn.getPlayer2State().getStat(StatAgility);
-        boolean p1Block = turn.getPlayer1State().move().type().equals(TypeBlock);
-        boolean p2Block = turn.getPlayer2State().move().type().equals(TypeBlock);
-        String[] sequence;
-
-        String player1 = turn.getPlayer1State().playerId();
-        String player2 = turn.getPlayer2State().playerId();
-        if(p1Agility > p2Agility){
-            if(!p1Block && p2Block){
-                sequence = new String[]{player2, player1};
-            }
-            else{
-                sequence = new String[]{player1, player2};
-            }
-        }
-        else {
-            if(p1Block && !p2Block){
-                sequence = new String[]{player1, player2};
-            }
-            else{
-                sequence = new String[]{player2, player1};
-            }
-        }
-        return sequence;
+    public TurnServiceImpl(MoveCatalog catalog) {
+        this(catalog, TurnMetrics.NONE);
     }
 
-    private TurnState.PlayerState derivePlayerState(TurnState turn, String playerId){
-        var p1Id = turn.getPlayer1State().playerId();
+    public TurnServiceImpl(MoveCatalog catalog, TurnMetrics metrics) {
+        this(catalog, metrics, TurnJournal.NONE);
+    }
 
-        return playerId.equals(p1Id) ? turn.getPlayer1State() : turn.getPlayer2State();
+    public TurnServiceImpl(MoveCatalog catalog, TurnMetrics metrics, TurnJournal journal) {
+        this(catalog, metrics, journal, TurnCache.NONE);
     }
 
-    private int damageCalculation(TurnState.PlayerState attacker, TurnState.PlayerState defender,
-                                  Map<String, Integer> sourceStats, Map<String, Integer> targetStats){
-        String attackCategory = attacker.move().category();
-        double atkBasePower = attacker.move().basePower();
-        double damage;
-        // attacker stats
-        double atkEnergy = sourceStats.get(StatEnergy);
-        double atkSpirit = sourceStats.get(StatSpirit);
-        double atkForce = sourceStats.get(StatForce);
-        // target stats
-        double defEnergy = targetStats.get(StatEnergy);
-        double defReflex = targetStats.get(StatReflex);
-        double defFocus = targetStats.get(StatFocus);
-
-        // damage formula constants
-        int balanceValue = 100;
-        int powerScale = 100;
-        switch (attackCategory) {
-            case CategoryCombat -> damage = (atkEnergy/(defEnergy + balanceValue) * atkForce / defReflex * atkBasePower + 2) * powerScale;
-            case CategoryMagic -> damage = (atkEnergy / (defEnergy + balanceValue) * atkSpirit / defFocus * atkBasePower + 2) * powerScale;
-            case CategorySpecial -> damage = ((atkForce + atkSpirit + atkEnergy) / (defReflex + defFocus) * atkBasePower + 2) * powerScale;
-            default -> damage = 0;
-        }
+    public TurnServiceImpl(MoveCatalog catalog, TurnMetrics metrics, TurnJournal journal, TurnCache cache) {
+        this(catalog, metrics, journal, cache, DamageTable.NONE);
+    }
 
-        boolean hasBlock = defender.move().type().equals(TypeBlock);
-        double blockPower = defender.move().basePower();
-        return (int) (!hasBlock ? damage : damage * (1-blockPower/100));
+    public TurnServiceImpl(MoveCatalog catalog, TurnMetrics metrics, TurnJournal journal, TurnCache cache,
+                           DamageTable damageTable) {
+        this(catalog, metrics, journal, cache, damageTable, DamageFormulas.NONE);
     }
 
-    private void applyBuff(TurnState.PlayerState target, Map<String, Integer> updatedStats){
-        var buffs = target.move().buffs();
-        for(String buff : buffs.keySet()){
-            double buffAmt = buffs.get(buff);
-            double newAmt = updatedStats.get(buff) * (1 + buffAmt/100);
-            updatedStats.put(buff, (int) newAmt);
+    @Autowired
+    public TurnServiceImpl(MoveCatalog catalog, TurnMetrics metrics, TurnJournal journal, TurnCache cache,
+                           DamageTable damageTable, DamageFormulas damageFormulas) {
+        // cached outcomes are keyed by moves and stats only and would outlive a formula reload
+        if (cache != TurnCache.NONE && damageFormulas.enabled()) {
+            throw new IllegalArgumentException("The turn cache cannot be combined with damage formulas");
         }
+        this.kernel = new TurnKernel(catalog, damageTable, damageFormulas);
+        this.metrics = metrics;
+        this.journal = journal;
+        this.cache = cache;
     }
 
-    private void applyDebuff(TurnState.PlayerState target, Map<String, Integer> updatedStats){
-        var debuffs = target.move().debuffs();
-        for(String debuff : debuffs.keySet()){
-            double debuffAmt = debuffs.get(debuff);
-            double newAmt = updatedStats.get(debuff)  * (1 - debuffAmt/100);
-            updatedStats.put(debuff, (int) newAmt);
-        }
+    @Override
+    public TurnState[] evaluateTurn(TurnState turn) {
+        var player1 = turn.getPlayer1State();
+        var player2 = turn.getPlayer2State();
+        var out = scratch.get();
+        long start = System.nanoTime();
+        cache.evaluate(kernel, player1, player2, out);
+        metrics.turnEvaluated(out.firstMove(), out.secondMove(), System.nanoTime() - start);
+
+        var result = new TurnState[2];
+        result[0] = buildTurnState(player1, player2, out, 0);
+        result[1] = buildTurnState(player1, player2, out, 1);
+        journal.append(turn, result);
+        return result;
     }
 
-    private void applyDamage(TurnState.PlayerState source, TurnState.PlayerState target,
-                             Map<String, Integer> sourceStats, Map<String, Integer> targetStats){
-        var prevHealth = targetStats.get(StatHealth);
-        var damage = damageCalculation(source, target, sourceStats, targetStats);
-        var updatedHealth = Math.max(prevHealth - damage, 0); // prevent negative health result
-        targetStats.put(StatHealth, updatedHealth);
+    @Override
+    public String[] determineSequence(TurnState turn){
+        int p1Agility = turn.getPlayer1State().getStat(Stat.AGILITY);
+        int p2Agility = turn.getPlayer2State().getStat(Stat.AGILITY);
+        var out = scratch.get();
+        var p1Move = kernel.resolve(turn.getPlayer1State(), out.move(TurnResult.Player1));
+        var p2Move = kernel.resolve(turn.getPlayer2State(), out.move(TurnResult.Player2));
+
+        return sequence(turn.getPlayer1State(), turn.getPlayer2State(),
+                TurnKernel.player1GoesFirst(p1Move.priority(), p2Move.priority(), p1Agility, p2Agility,
+                        p1Move.type() == MoveType.BLOCK, p2Move.type() == MoveType.BLOCK));
     }
 
-    private void applyCost(TurnState.PlayerState target, Map<String, Integer> updatedStats){
-        var oldStats = target.stats();
-        var cost = target.move().cost();
-        var prevEnergy = oldStats.get(StatEnergy);
-        var updatedEnergy = Math.max(prevEnergy - cost, 0); // prevent negative energy result
-        updatedStats.put(StatEnergy, updatedEnergy);
+    private static String[] sequence(TurnState.PlayerState player1, TurnState.PlayerState player2, boolean player1First){
+        String p1 = player1.playerId();
+        String p2 = player2.playerId();
+        return player1First ? new String[]{p1, p2} : new String[]{p2, p1};
     }
 
-    private TurnState buildTurnState(TurnState turn, Map<String, Integer> firstUpdatedStats, Map<String, Integer> secondUpdatedStats) {
-        var player1Id = turn.getPlayer1State().playerId();
-        var player2Id = turn.getPlayer2State().playerId();
-        var player1Move = turn.getPlayer1State().move();
-        var player2Move = turn.getPlayer2State().move();
-
-        var playerSequence = determineSequence(turn);
-        var firstId = playerSequence[0];
-
-        boolean player1IsFirst = player1Id.equals(firstId);
-        TurnState.PlayerState player1;
-        TurnState.PlayerState player2;
-        if(player1IsFirst){
-            player1 = new TurnState.PlayerState(player1Id, player1Move, firstUpdatedStats);
-            player2 = new TurnState.PlayerState(player2Id, player2Move, secondUpdatedStats);
-        }
-        else {
-            player1 = new TurnState.PlayerState(player1Id, player1Move, secondUpdatedStats);
-            player2 = new TurnState.PlayerState(player2Id, player2Move, firstUpdatedStats);
-        }
-        return new TurnState(player1, player2, playerSequence);
+    private TurnState buildTurnState(TurnState.PlayerState player1, TurnState.PlayerState player2, TurnResult out, int round) {
+        var p1 = new TurnState.PlayerState(player1.playerId(), player1.move(),
+                StatBlock.copyOf(out.stats(round, TurnResult.Player1)), player1.moveId());
+        var p2 = new TurnState.PlayerState(player2.playerId(), player2.move(),
+                StatBlock.copyOf(out.stats(round, TurnResult.Player2)), player2.moveId());
+        return new TurnState(p1, p2, sequence(player1, player2, out.player1First()));
     }
 }
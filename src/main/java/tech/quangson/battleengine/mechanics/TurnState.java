@@ -1,5 +1,7 @@
 package tech.quangson.battleengine.mechanics;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Map;
 
 public class TurnState {
@@ -22,11 +24,28 @@ public class TurnState {
         this.sequence = sequence;
     }
 
+    // a player either sends the full move or just the moveId of a move in the MoveCatalog
     public record PlayerState(String playerId, GameMove move,
-                               Map<String, Integer> stats) {
+                               Map<String, Integer> stats,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) Integer moveId) {
+        public PlayerState(String playerId, GameMove move, Map<String, Integer> stats){
+            this(playerId, move, stats, null);
+        }
+
         public Integer getStat(String stat){
             return stats.get(stat);
         }
+
+        public int getStat(Stat stat){
+            if(stats instanceof StatBlock block){
+                return block.get(stat);
+            }
+            return stats.get(stat.key());
+        }
+
+        public StatBlock statBlock(){
+            return StatBlock.of(stats);
+        }
     }
 
     public PlayerState getPlayer1State() {
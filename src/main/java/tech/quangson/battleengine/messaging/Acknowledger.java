@@ -0,0 +1,28 @@
+package tech.quangson.battleengine.messaging;
+
+import com.rabbitmq.client.Channel;
+
+import java.io.IOException;
+
+// settles consumed turn messages by delivery tag; the consumer's channel in production, a list in tests
+public interface Acknowledger {
+
+    void ack(long deliveryTag) throws IOException;
+
+    // returns this delivery and every earlier one not yet settled to the queue
+    void requeueUpTo(long deliveryTag) throws IOException;
+
+    static Acknowledger of(Channel channel) {
+        return new Acknowledger() {
+            @Override
+            public void ack(long deliveryTag) throws IOException {
+                channel.basicAck(deliveryTag, false);
+            }
+
+            @Override
+            public void requeueUpTo(long deliveryTag) throws IOException {
+                channel.basicNack(deliveryTag, true, true);
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package tech.quangson.battleengine.messaging;
+
+import org.springframework.amqp.core.Message;
+
+// where evaluated turns are published; RabbitTemplate::send in production, an in-memory list in tests
+@FunctionalInterface
+public interface ResultSink {
+
+    void send(String exchange, String routingKey, Message message);
+}
@@ -0,0 +1,93 @@
+package tech.quangson.battleengine.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.TurnOutcome;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/*
+    Evaluates one consumer batch of turn messages. Turns are evaluated in parallel, but results are published in
+    the order the messages arrived, so turns of the same match come out in the order they went in.
+
+    A result goes back to the message's reply-to queue when it has one, otherwise to the result exchange with the
+    match id as routing key. Either way it carries the request's correlation id. Each message is acked right after
+    its result is published, so when publishing fails partway only the messages without a published result go
+    back to the queue, and nothing is published twice.
+ */
+public class TurnMessageProcessor {
+
+    private final BatchTurnService batch;
+    private final ObjectMapper mapper;
+    private final ObjectReader turnReader;
+    private final ResultSink sink;
+
+    public TurnMessageProcessor(BatchTurnService batch, ObjectMapper mapper, ResultSink sink) {
+        this.batch = batch;
+        this.mapper = mapper;
+        this.turnReader = mapper.readerFor(TurnState.class);
+        this.sink = sink;
+    }
+
+    public void process(List<Message> messages, Acknowledger acknowledger) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        var outcomes = batch.evaluateAll(messages, this::readTurn);
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                var request = messages.get(i).getMessageProperties();
+                publish(request, outcomes.get(i));
+                acknowledger.ack(request.getDeliveryTag());
+            }
+        }
+        catch (RuntimeException | IOException e) {
+            acknowledger.requeueUpTo(messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag());
+            throw e;
+        }
+    }
+
+    private void publish(MessageProperties request, TurnOutcome outcome) {
+        String matchId = request.getHeader(TurnShards.MatchIdHeader);
+        var result = MessageBuilder.withBody(write(outcome))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setCorrelationId(request.getCorrelationId())
+                .setHeader(TurnShards.MatchIdHeader, matchId)
+                .build();
+        if (request.getReplyTo() != null) {
+            sink.send("", request.getReplyTo(), result);
+        }
+        else {
+            sink.send(TurnShards.ResultExchange, matchId != null ? matchId : "", result);
+        }
+    }
+
+    private byte[] write(TurnOutcome outcome) {
+        try {
+            return mapper.writeValueAsBytes(outcome);
+        }
+        catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TurnState readTurn(Message message) {
+        try {
+            return turnReader.readValue(message.getBody());
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed turn: " + e.getOriginalMessage(), e);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable turn", e);
+        }
+    }
+}
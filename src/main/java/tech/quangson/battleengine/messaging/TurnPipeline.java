@@ -0,0 +1,78 @@
+package tech.quangson.battleengine.messaging;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    One listener container per shard queue. Shards run in parallel; with a single consumer per shard, batches of a
+    shard are handled one after another, so more shards means more parallelism without giving up per-match order.
+    More consumers per shard also raise parallelism, but then a match's turns can be evaluated out of order.
+    Messages are acked one by one as their results go out (see TurnMessageProcessor).
+ */
+public class TurnPipeline implements SmartLifecycle {
+
+    private final List<SimpleMessageListenerContainer> containers = new ArrayList<>();
+    private volatile boolean running;
+
+    public TurnPipeline(ConnectionFactory connectionFactory, TurnMessageProcessor processor,
+                        int shards, int consumersPerShard, int prefetch, int batchSize) {
+        if (consumersPerShard < 1) {
+            throw new IllegalArgumentException("A shard needs at least one consumer");
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            var container = new SimpleMessageListenerContainer(connectionFactory);
+            container.setQueueNames(TurnShards.queueName(shard));
+            container.setConcurrentConsumers(consumersPerShard);
+            container.setExclusive(consumersPerShard == 1);
+            container.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            container.setPrefetchCount(prefetch);
+            container.setConsumerBatchEnabled(true);
+            container.setBatchSize(batchSize);
+            container.setDeBatchingEnabled(true);
+            container.setMessageListener((ChannelAwareBatchMessageListener) (messages, channel) -> {
+                try {
+                    processor.process(messages, Acknowledger.of(channel));
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            container.setAutoStartup(false);
+            container.afterPropertiesSet();
+            containers.add(container);
+        }
+    }
+
+    @Override
+    public void start() {
+        for (var container : containers) {
+            container.start();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        for (var container : containers) {
+            container.stop();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    int shards() {
+        return containers.size();
+    }
+}
@@ -0,0 +1,30 @@
+package tech.quangson.battleengine.messaging;
+
+/*
+    Naming and routing for the sharded turn queues. Publishers route a turn with shardOf(matchId) so every turn of
+    a match lands on the same queue, and each queue has exactly one consumer, which keeps a match's turns in order.
+ */
+public final class TurnShards {
+
+    public static final String TurnExchange = "engine.turns";
+    public static final String ResultExchange = "engine.turn-results";
+    public static final String MatchIdHeader = "matchId";
+
+    private TurnShards() {}
+
+    public static int shardOf(String matchId, int shards) {
+        if (matchId == null) {
+            return 0;
+        }
+        int h = matchId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards);
+    }
+
+    public static String routingKey(int shard) {
+        return String.valueOf(shard);
+    }
+
+    public static String queueName(int shard) {
+        return TurnExchange + ".shard-" + shard;
+    }
+}
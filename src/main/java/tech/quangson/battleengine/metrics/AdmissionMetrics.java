@@ -0,0 +1,52 @@
+package tech.quangson.battleengine.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import tech.quangson.battleengine.admission.AdmissionFilter;
+
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+// requests turned away with 429 by reason, plus the current concurrency limit; binds nothing when admission is off
+@Component
+public class AdmissionMetrics implements MeterBinder {
+
+    private final Optional<AdmissionFilter> admission;
+
+    public AdmissionMetrics(Optional<AdmissionFilter> admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (admission.isEmpty()) {
+            return;
+        }
+        var filter = admission.get();
+        rejected(registry, filter, "rate", AdmissionFilter::rateLimited);
+        rejected(registry, filter, "capacity", AdmissionFilter::shed);
+        Gauge.builder("engine.admission.limit", filter, f -> f.limiter().limit())
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("engine.admission.inflight", filter, f -> f.limiter().inflight())
+                .description("Admitted requests in progress")
+                .register(registry);
+        Gauge.builder("engine.admission.queued", filter, f -> f.limiter().queued())
+                .description("Requests waiting for a slot")
+                .register(registry);
+        Gauge.builder("engine.admission.clients", filter, f -> f.buckets().clients())
+                .description("Clients with a token bucket")
+                .register(registry);
+    }
+
+    private static void rejected(MeterRegistry registry, AdmissionFilter filter, String reason,
+                                 ToDoubleFunction<AdmissionFilter> count) {
+        FunctionCounter.builder("engine.admission.rejected", filter, count)
+                .description("Requests answered with 429 by reason")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,103 @@
+package tech.quangson.battleengine.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.MoveCategory;
+import tech.quangson.battleengine.mechanics.MoveType;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Turn latency as a percentile histogram per (first move, second move) type and category, plus rejected turns
+    by exception class and other failed match requests by operation and exception class. Meters are looked up
+    by array index, class or operation name, so recording allocates nothing once its combination has been seen.
+ */
+@Component
+public class MicrometerTurnMetrics implements TurnMetrics {
+
+    private static final MoveType[] types = MoveType.values();
+    private static final MoveCategory[] categories = MoveCategory.values();
+    private static final int Kinds = types.length * categories.length;
+
+    private final MeterRegistry registry;
+    // filled lazily; a racing first use registers the same meter twice, which the registry de-duplicates
+    private final Timer[] turnTimers = new Timer[Kinds * Kinds];
+    private final ConcurrentHashMap<Class<?>, Counter> rejections = new ConcurrentHashMap<>();
+    // by operation, then exception class
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Class<?>, Counter>> matchFailures =
+            new ConcurrentHashMap<>();
+
+    public MicrometerTurnMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void turnEvaluated(CompiledMove first, CompiledMove second, long nanos) {
+        int firstKind = kind(first);
+        int secondKind = kind(second);
+        int index = firstKind * Kinds + secondKind;
+        var timer = turnTimers[index];
+        if (timer == null) {
+            timer = turnTimer(firstKind, secondKind);
+            turnTimers[index] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void turnRejected(Exception e) {
+        var counter = rejections.get(e.getClass());
+        if (counter == null) {
+            counter = rejections.computeIfAbsent(e.getClass(), type -> Counter.builder("engine.turn.rejected")
+                    .description("Turns the engine refused to evaluate")
+                    .tag("exception", type.getSimpleName())
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void matchRequestFailed(String operation, Exception e) {
+        var byType = matchFailures.get(operation);
+        if (byType == null) {
+            byType = matchFailures.computeIfAbsent(operation, key -> new ConcurrentHashMap<>());
+        }
+        var counter = byType.get(e.getClass());
+        if (counter == null) {
+            counter = byType.computeIfAbsent(e.getClass(), type -> Counter.builder("engine.match.failed")
+                    .description("Match requests that failed for another reason than a refused turn")
+                    .tag("operation", operation)
+                    .tag("exception", type.getSimpleName())
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    private static int kind(CompiledMove move) {
+        return move.type().ordinal() * categories.length + move.category().ordinal();
+    }
+
+    private Timer turnTimer(int firstKind, int secondKind) {
+        return Timer.builder("engine.turn.evaluation")
+                .description("Time spent evaluating one turn")
+                .tag("first_type", name(types[firstKind / categories.length]))
+                .tag("first_category", name(categories[firstKind % categories.length]))
+                .tag("second_type", name(types[secondKind / categories.length]))
+                .tag("second_category", name(categories[secondKind % categories.length]))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100))
+                .maximumExpectedValue(Duration.ofMillis(10))
+                .register(registry);
+    }
+
+    private static String name(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,138 @@
+package tech.quangson.battleengine.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+// request and response body sizes for the /engine API, tagged by the matched route
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PayloadSizeFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, DistributionSummary> requestSizes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DistributionSummary> responseSizes = new ConcurrentHashMap<>();
+
+    public PayloadSizeFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // spectator streams never end on the request thread
+        return !request.getRequestURI().startsWith("/engine") || request.getRequestURI().startsWith("/engine/spectate");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var counting = new CountingResponse(response);
+        try {
+            chain.doFilter(request, counting);
+        }
+        finally {
+            counting.flushWriter();
+            var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            var uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            long requestBytes = request.getContentLengthLong();
+            if (requestBytes >= 0) {
+                requestSizes.computeIfAbsent(uri, route -> summary("request", route)).record(requestBytes);
+            }
+            responseSizes.computeIfAbsent(uri, route -> summary("response", route)).record(counting.bytes);
+        }
+    }
+
+    private DistributionSummary summary(String direction, String uri) {
+        return DistributionSummary.builder("engine.payload.size")
+                .description("Body size of /engine requests and responses")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private long bytes;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                var delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                var encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.ISO_8859_1.name();
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), encoding));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        // pushes buffered characters through the counter without committing the response
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+    }
+}
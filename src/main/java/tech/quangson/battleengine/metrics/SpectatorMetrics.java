@@ -0,0 +1,35 @@
+package tech.quangson.battleengine.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import tech.quangson.battleengine.spectate.SpectatorFeeds;
+
+// open spectator streams and how many turn frames slow spectators skipped
+@Component
+public class SpectatorMetrics implements MeterBinder {
+
+    private final SpectatorFeeds feeds;
+
+    public SpectatorMetrics(SpectatorFeeds feeds) {
+        this.feeds = feeds;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("engine.spectate.streams", feeds, SpectatorFeeds::spectators)
+                .description("Open spectator streams")
+                .register(registry);
+        Gauge.builder("engine.spectate.matches", feeds, SpectatorFeeds::matches)
+                .description("Matches with at least one spectator")
+                .register(registry);
+        FunctionCounter.builder("engine.spectate.frames", feeds, SpectatorFeeds::frames)
+                .description("Turn frames encoded for spectators")
+                .register(registry);
+        FunctionCounter.builder("engine.spectate.dropped", feeds, SpectatorFeeds::droppedFrames)
+                .description("Turn frames skipped by spectators that fell behind")
+                .register(registry);
+    }
+}
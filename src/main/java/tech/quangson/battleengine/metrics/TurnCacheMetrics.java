@@ -0,0 +1,46 @@
+package tech.quangson.battleengine.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import tech.quangson.battleengine.mechanics.TinyLfuTurnCache;
+import tech.quangson.battleengine.mechanics.TurnCache;
+
+import java.util.function.ToDoubleFunction;
+
+// hit, miss and bypass counts, evictions and size of the turn cache; binds nothing when the cache is off
+@Component
+public class TurnCacheMetrics implements MeterBinder {
+
+    private final TurnCache cache;
+
+    public TurnCacheMetrics(TurnCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(cache instanceof TinyLfuTurnCache tinyLfu)) {
+            return;
+        }
+        gets(registry, tinyLfu, "hit", TinyLfuTurnCache::hits);
+        gets(registry, tinyLfu, "miss", TinyLfuTurnCache::misses);
+        gets(registry, tinyLfu, "bypass", TinyLfuTurnCache::bypasses);
+        FunctionCounter.builder("engine.turn.cache.evictions", tinyLfu, TinyLfuTurnCache::evictions)
+                .description("Turn outcomes dropped from the cache or refused admission")
+                .register(registry);
+        Gauge.builder("engine.turn.cache.size", tinyLfu, TinyLfuTurnCache::size)
+                .description("Turn outcomes held in the cache")
+                .register(registry);
+    }
+
+    private static void gets(MeterRegistry registry, TinyLfuTurnCache cache, String result,
+                             ToDoubleFunction<TinyLfuTurnCache> count) {
+        FunctionCounter.builder("engine.turn.cache.gets", cache, count)
+                .description("Turn cache lookups by result")
+                .tag("result", result)
+                .register(registry);
+    }
+}
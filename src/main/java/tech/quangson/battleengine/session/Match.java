@@ -0,0 +1,173 @@
+package tech.quangson.battleengine.session;
+
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+import tech.quangson.battleengine.mechanics.StatusEffects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Authoritative state of one match. Stats are kept as int[] so a turn can run through TurnKernel without
+    rebuilding maps. All mutation happens while holding the match's monitor (see MatchService).
+ */
+public final class Match {
+
+    static final int NoMove = -1;
+
+    private final String matchId;
+    private final String[] playerIds = new String[2];
+    private final int[][] stats = new int[2][Stat.COUNT];
+    private final CompiledMove[][] movesets = new CompiledMove[2][];
+    private final int[] pendingMoves = {NoMove, NoMove};
+    private final StatusEffects[] effects = {new StatusEffects(), new StatusEffects()};
+    private int turn;
+    private boolean finished;
+    private boolean released;
+    // one more for every picked move and every turn played
+    private long version;
+    private volatile long lastAccessNanos;
+
+    Match(String matchId, MatchSetup setup, MoveCatalog catalog, long nowNanos) {
+        this.matchId = matchId;
+        load(0, setup.player1(), catalog);
+        load(1, setup.player2(), catalog);
+        this.lastAccessNanos = nowNanos;
+    }
+
+    Match(MatchSnapshot snapshot, MoveCatalog catalog, long nowNanos) {
+        this(snapshot.matchId(), snapshot.setup(), catalog, nowNanos);
+        var pending = snapshot.pendingMoves();
+        for (int i = 0; i < 2; i++) {
+            if (pending[i] != NoMove) {
+                move(i, pending[i]);
+            }
+            pendingMoves[i] = pending[i];
+            effects[i].load(snapshot.effects()[i]);
+        }
+        this.turn = snapshot.turn();
+        this.finished = snapshot.finished();
+        this.version = snapshot.version();
+    }
+
+    private void load(int index, MatchSetup.Combatant combatant, MoveCatalog catalog) {
+        if (combatant == null || combatant.playerId() == null) {
+            throw new IllegalArgumentException("Missing player " + (index + 1));
+        }
+        var moves = combatant.moves() != null ? combatant.moves() : List.<GameMove>of();
+        var moveIds = combatant.moveIds() != null ? combatant.moveIds() : List.<Integer>of();
+        if (moves.isEmpty() && moveIds.isEmpty()) {
+            throw new IllegalArgumentException("Player " + combatant.playerId() + " has no moves");
+        }
+        playerIds[index] = combatant.playerId();
+        StatBlock.read(combatant.stats(), stats[index]);
+        var moveset = new CompiledMove[moves.size() + moveIds.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            moveset[i] = CompiledMove.compile(CompiledMove.AdHoc, moves.get(i));
+        }
+        for (int i = 0; i < moveIds.size(); i++) {
+            moveset[moves.size() + i] = catalog.get(moveIds.get(i));
+        }
+        movesets[index] = moveset;
+    }
+
+    public String matchId() {
+        return matchId;
+    }
+
+    String playerId(int index) {
+        return playerIds[index];
+    }
+
+    int indexOf(String playerId) {
+        if (playerIds[0].equals(playerId)) {
+            return 0;
+        }
+        if (playerIds[1].equals(playerId)) {
+            return 1;
+        }
+        throw new IllegalArgumentException("Player " + playerId + " is not in match " + matchId);
+    }
+
+    int[] stats(int index) {
+        return stats[index];
+    }
+
+    CompiledMove move(int index, int moveId) {
+        var moves = movesets[index];
+        if (moveId < 0 || moveId >= moves.length) {
+            throw new IllegalArgumentException("Unknown move " + moveId + " for player " + playerIds[index]);
+        }
+        return moves[moveId];
+    }
+
+    StatusEffects effects(int index) {
+        return effects[index];
+    }
+
+    int pendingMove(int index) {
+        return pendingMoves[index];
+    }
+
+    void pendingMove(int index, int moveId) {
+        pendingMoves[index] = moveId;
+        version++;
+    }
+
+    int turn() {
+        return turn;
+    }
+
+    void nextTurn() {
+        turn++;
+        version++;
+        pendingMoves[0] = NoMove;
+        pendingMoves[1] = NoMove;
+        finished = stats[0][Stat.HEALTH.ordinal()] == 0 || stats[1][Stat.HEALTH.ordinal()] == 0;
+    }
+
+    boolean finished() {
+        return finished;
+    }
+
+    long version() {
+        return version;
+    }
+
+    // set once the match has been handed to another node; the caller holds the monitor
+    boolean released() {
+        return released;
+    }
+
+    MatchSnapshot release() {
+        released = true;
+        return new MatchSnapshot(matchId, new MatchSetup(combatant(0), combatant(1)), turn, finished,
+                pendingMoves.clone(), new int[][]{effects[0].toArray(), effects[1].toArray()}, version);
+    }
+
+    // ad hoc moves always come first in a moveset, so they split cleanly from the catalog ids
+    private MatchSetup.Combatant combatant(int index) {
+        var moves = new ArrayList<GameMove>();
+        var moveIds = new ArrayList<Integer>();
+        for (var move : movesets[index]) {
+            if (move.id() == CompiledMove.AdHoc) {
+                moves.add(move.source());
+            }
+            else {
+                moveIds.add(move.id());
+            }
+        }
+        return new MatchSetup.Combatant(playerIds[index], StatBlock.copyOf(stats[index]), moves, moveIds);
+    }
+
+    void touch(long nowNanos) {
+        lastAccessNanos = nowNanos;
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+}
@@ -0,0 +1,12 @@
+package tech.quangson.battleengine.session;
+
+// what happens to matches, for whoever streams them; turns are reported under the match's monitor, so keep it short
+public interface MatchEvents {
+
+    MatchEvents NONE = new MatchEvents() {};
+
+    default void turnPlayed(String matchId, TurnDelta delta) {}
+
+    // the match ended, moved to another node or was evicted
+    default void closed(String matchId) {}
+}
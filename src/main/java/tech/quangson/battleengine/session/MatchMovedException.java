@@ -0,0 +1,9 @@
+package tech.quangson.battleengine.session;
+
+// the match was handed to another node while this request waited for it
+public class MatchMovedException extends RuntimeException {
+
+    public MatchMovedException(String matchId) {
+        super("Match " + matchId + " moved to another node");
+    }
+}
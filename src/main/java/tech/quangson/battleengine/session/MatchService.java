@@ -0,0 +1,306 @@
+package tech.quangson.battleengine.session;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.MoveType;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+    Server-side matches: the client creates a match once and afterwards only says which move each player picked.
+    A turn is evaluated when both players have submitted, and the caller gets back just the stats that changed.
+
+    Buff and Debuff moves with a limit are timed here: their stat changes last for limit more turns and are then
+    undone, while Health modifiers apply again every turn. Energy modifiers stay permanent, because the turn's cost
+    already overwrites the actor's energy. A move stacks at most maxEffectStacks times on one stat of a player.
+ */
+@Service
+public class MatchService {
+
+    private static final ThreadLocal<TurnResult> scratch = ThreadLocal.withInitial(TurnResult::new);
+    private static final ThreadLocal<int[][]> startStats = ThreadLocal.withInitial(() -> new int[2][Stat.COUNT]);
+    private static final int Energy = Stat.ENERGY.ordinal();
+
+    private final MatchStore store;
+    private final MoveCatalog catalog;
+    private final TurnMetrics metrics;
+    private final MatchEvents events;
+    private final int maxEffectStacks;
+    private final TurnKernel kernel;
+
+    public MatchService(MatchStore store, MoveCatalog catalog) {
+        this(store, catalog, TurnMetrics.NONE, 5);
+    }
+
+    public MatchService(MatchStore store, MoveCatalog catalog, TurnMetrics metrics, int maxEffectStacks) {
+        this(store, catalog, metrics, MatchEvents.NONE, maxEffectStacks);
+    }
+
+    public MatchService(MatchStore store, MoveCatalog catalog, TurnMetrics metrics, MatchEvents events,
+                        int maxEffectStacks) {
+        this(store, catalog, metrics, events, maxEffectStacks, DamageTable.NONE, DamageFormulas.NONE);
+    }
+
+    // damage comes from the same table or formulas as stateless turns
+    @Autowired
+    public MatchService(MatchStore store, MoveCatalog catalog, TurnMetrics metrics, MatchEvents events,
+                        @Value("${engine.session.max-effect-stacks:5}") int maxEffectStacks,
+                        DamageTable damageTable, DamageFormulas damageFormulas) {
+        this.kernel = new TurnKernel(catalog, damageTable, damageFormulas);
+        this.store = store;
+        this.catalog = catalog;
+        this.metrics = metrics;
+        this.events = events;
+        this.maxEffectStacks = maxEffectStacks;
+        store.onEvict(events::closed);
+    }
+
+    public String create(MatchSetup setup) {
+        return create(UUID.randomUUID().toString(), setup);
+    }
+
+    public String create(String matchId, MatchSetup setup) {
+        if (setup == null) {
+            throw new IllegalArgumentException("Missing match setup");
+        }
+        var match = new Match(matchId, setup, catalog, store.now());
+        if (match.playerId(0).equals(match.playerId(1))) {
+            throw new IllegalArgumentException("Players need distinct ids");
+        }
+        store.put(match);
+        return match.matchId();
+    }
+
+    public MatchView view(String matchId) {
+        var match = find(matchId);
+        synchronized (match) {
+            checkHere(match);
+            var stats = new LinkedHashMap<String, Map<String, Integer>>();
+            stats.put(match.playerId(0), StatBlock.copyOf(match.stats(0)));
+            stats.put(match.playerId(1), StatBlock.copyOf(match.stats(1)));
+            String awaiting = null;
+            if (!match.finished()) {
+                if (match.pendingMove(0) == Match.NoMove) {
+                    awaiting = match.playerId(0);
+                } else if (match.pendingMove(1) == Match.NoMove) {
+                    awaiting = match.playerId(1);
+                }
+            }
+            return new MatchView(match.matchId(), match.turn(), stats, awaiting, match.finished());
+        }
+    }
+
+    // empty while the opponent has not picked a move yet
+    public Optional<TurnDelta> submit(String matchId, MoveSubmission submission) {
+        var match = find(matchId);
+        synchronized (match) {
+            checkHere(match);
+            if (match.finished()) {
+                throw new IllegalStateException("Match " + matchId + " is over");
+            }
+            int player = match.indexOf(submission.player());
+            match.move(player, submission.moveId()); // validate before recording
+            if (match.pendingMove(player) != Match.NoMove) {
+                throw new IllegalStateException("Player " + submission.player() + " already picked a move this turn");
+            }
+            match.pendingMove(player, submission.moveId());
+            if (match.pendingMove(1 - player) == Match.NoMove) {
+                return Optional.empty();
+            }
+            var delta = playTurn(match);
+            events.turnPlayed(matchId, delta);
+            return Optional.of(delta);
+        }
+    }
+
+    public boolean end(String matchId) {
+        if (!store.remove(matchId)) {
+            return false;
+        }
+        events.closed(matchId);
+        return true;
+    }
+
+    public List<String> matchIds() {
+        return store.ids();
+    }
+
+    /*
+        Takes a match out of this node for a hand-off. Requests already waiting for the match fail with
+        MatchMovedException once they get hold of it, so nothing is applied to the copy left behind.
+     */
+    public Optional<MatchSnapshot> release(String matchId) {
+        var match = store.get(matchId);
+        if (match == null) {
+            return Optional.empty();
+        }
+        synchronized (match) {
+            if (match.released()) {
+                return Optional.empty();
+            }
+            store.remove(matchId);
+            events.closed(matchId);
+            return Optional.of(match.release());
+        }
+    }
+
+    /*
+        Takes over a match from another node. A copy this node holds at an older version is replaced, one at the
+        same version is kept, so pushing the same snapshot twice is harmless. A snapshot older than the copy held
+        here is refused with IllegalStateException.
+     */
+    public void restore(MatchSnapshot snapshot) {
+        if (snapshot == null || snapshot.matchId() == null || snapshot.setup() == null
+                || snapshot.pendingMoves() == null || snapshot.pendingMoves().length != 2
+                || snapshot.effects() == null || snapshot.effects().length != 2) {
+            throw new IllegalArgumentException("Incomplete match snapshot");
+        }
+        var restored = new Match(snapshot, catalog, store.now());
+        var held = store.get(snapshot.matchId());
+        if (held == null) {
+            store.put(restored);
+            return;
+        }
+        synchronized (held) {
+            if (!held.released() && store.holds(held)) {
+                if (held.version() > snapshot.version()) {
+                    throw new IllegalStateException("Match " + snapshot.matchId() + " is already at version "
+                            + held.version() + ", snapshot is at " + snapshot.version());
+                }
+                if (held.version() == snapshot.version()) {
+                    return;
+                }
+            }
+            store.put(restored);
+        }
+    }
+
+    // called under the match's lock: it may have been handed off, evicted, ended or replaced since find()
+    private void checkHere(Match match) {
+        if (match.released()) {
+            throw new MatchMovedException(match.matchId());
+        }
+        if (!store.holds(match)) {
+            throw new NoSuchElementException("Unknown match " + match.matchId());
+        }
+    }
+
+    private TurnDelta playTurn(Match match) {
+        var out = scratch.get();
+        var p1Stats = match.stats(0);
+        var p2Stats = match.stats(1);
+        long start = System.nanoTime();
+        kernel.evaluate(match.move(0, match.pendingMove(0)), p1Stats,
+                match.move(1, match.pendingMove(1)), p2Stats, out);
+        metrics.turnEvaluated(out.firstMove(), out.secondMove(), System.nanoTime() - start);
+
+        var sequence = out.player1First()
+                ? new String[]{match.playerId(0), match.playerId(1)}
+                : new String[]{match.playerId(1), match.playerId(0)};
+        var firstRound = changes(match, p1Stats, p2Stats, out, 0);
+        var secondRound = changes(match, out.stats(0, TurnResult.Player1), out.stats(0, TurnResult.Player2), out, 1);
+
+        var turnStart = startStats.get();
+        System.arraycopy(p1Stats, 0, turnStart[0], 0, Stat.COUNT);
+        System.arraycopy(p2Stats, 0, turnStart[1], 0, Stat.COUNT);
+        System.arraycopy(out.finalStats(TurnResult.Player1), 0, p1Stats, 0, Stat.COUNT);
+        System.arraycopy(out.finalStats(TurnResult.Player2), 0, p2Stats, 0, Stat.COUNT);
+
+        // effects from earlier turns tick first, so the ones cast this turn start counting next turn
+        int[] changed = {match.effects(0).tick(p1Stats), match.effects(1).tick(p2Stats)};
+        addEffects(match, out, 0, turnStart, changed);
+        addEffects(match, out, 1, turnStart, changed);
+        var effects = new LinkedHashMap<String, Map<String, Integer>>(4);
+        for (int player = 0; player < 2; player++) {
+            if (changed[player] != 0) {
+                effects.put(match.playerId(player), pick(match.stats(player), changed[player]));
+            }
+        }
+
+        match.nextTurn();
+        return new TurnDelta(match.turn(), sequence, List.of(firstRound, secondRound), effects, match.finished());
+    }
+
+    // records the timed modifiers of the move played in round, measured against the stats before that round
+    private void addEffects(Match match, TurnResult out, int round, int[][] start, int[] changed) {
+        int actor = out.player1First() == (round == 0) ? 0 : 1;
+        int moveId = match.pendingMove(actor);
+        var move = match.move(actor, moveId);
+        if (move.limit() <= 0 || (move.type() != MoveType.BUFF && move.type() != MoveType.DEBUFF)) {
+            return;
+        }
+        int target = move.type() == MoveType.BUFF ? actor : 1 - actor;
+        var before = round == 0 ? start[target] : out.stats(0, target);
+        var after = out.stats(round, target);
+        var effects = match.effects(target);
+        int source = actor << 16 | moveId;
+        for (int i = 0; i < move.modifierCount(); i++) {
+            int stat = move.modifierStat(i);
+            if (stat == Energy) {
+                continue;
+            }
+            int amount = move.type() == MoveType.BUFF ? move.modifierAmount(i) : -move.modifierAmount(i);
+            int delta = after[stat] - before[stat];
+            if (!effects.add(source, stat, amount, delta, move.limit(), maxEffectStacks) && delta != 0) {
+                var stats = match.stats(target);
+                stats[stat] = Math.max(stats[stat] - delta, 0);
+                changed[target] |= 1 << stat;
+            }
+        }
+    }
+
+    private static Map<String, Integer> pick(int[] stats, int mask) {
+        var picked = new LinkedHashMap<String, Integer>(4);
+        for (int i = 0; i < Stat.COUNT; i++) {
+            if ((mask & 1 << i) != 0) {
+                picked.put(Stat.byIndex(i).key(), stats[i]);
+            }
+        }
+        return picked;
+    }
+
+    private static Map<String, Map<String, Integer>> changes(Match match, int[] p1Before, int[] p2Before,
+                                                             TurnResult out, int round) {
+        var changes = new LinkedHashMap<String, Map<String, Integer>>(4);
+        diff(match.playerId(0), p1Before, out.stats(round, TurnResult.Player1), changes);
+        diff(match.playerId(1), p2Before, out.stats(round, TurnResult.Player2), changes);
+        return changes;
+    }
+
+    private static void diff(String playerId, int[] before, int[] after, Map<String, Map<String, Integer>> changes) {
+        Map<String, Integer> changed = null;
+        for (int i = 0; i < Stat.COUNT; i++) {
+            if (before[i] != after[i]) {
+                if (changed == null) {
+                    changed = new LinkedHashMap<>(4);
+                }
+                changed.put(Stat.byIndex(i).key(), after[i]);
+            }
+        }
+        if (changed != null) {
+            changes.put(playerId, changed);
+        }
+    }
+
+    private Match find(String matchId) {
+        var match = store.get(matchId);
+        if (match == null) {
+            throw new NoSuchElementException("Unknown match " + matchId);
+        }
+        return match;
+    }
+}
@@ -0,0 +1,19 @@
+package tech.quangson.battleengine.session;
+
+import tech.quangson.battleengine.mechanics.GameMove;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+    Sent once when a match is created; afterwards turns only reference moves by their index in the moveset.
+    A moveset is the player's full moves followed by any moves picked from the MoveCatalog by id.
+ */
+public record MatchSetup(Combatant player1, Combatant player2) {
+
+    public record Combatant(String playerId, Map<String, Integer> stats, List<GameMove> moves, List<Integer> moveIds) {
+        public Combatant(String playerId, Map<String, Integer> stats, List<GameMove> moves){
+            this(playerId, stats, moves, null);
+        }
+    }
+}
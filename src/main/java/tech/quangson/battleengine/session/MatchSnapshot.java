@@ -0,0 +1,10 @@
+package tech.quangson.battleengine.session;
+
+/*
+    A match in transit between engine nodes. Players carry their current stats, and their moves and moveIds
+    rebuild the moveset in its original order, so both nodes need the same moves file. effects holds each
+    player's StatusEffects.toArray(). version counts the changes made to the match, so a node can tell a stale
+    copy from the one it holds.
+ */
+public record MatchSnapshot(String matchId, MatchSetup setup, int turn, boolean finished, int[] pendingMoves,
+                            int[][] effects, long version) {}
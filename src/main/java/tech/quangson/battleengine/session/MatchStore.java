@@ -0,0 +1,120 @@
+package tech.quangson.battleengine.session;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/*
+    In-memory home of all live matches. Matches are spread over independent shards so the idle sweep walks one
+    shard at a time and never holds up lookups on the others. A match that sees no traffic for the idle timeout
+    is dropped.
+ */
+@Component
+public class MatchStore {
+
+    private final ConcurrentHashMap<String, Match>[] shards;
+    private final int shardMask;
+    private final long idleTimeoutNanos;
+    private final LongSupplier clock;
+    private volatile Consumer<String> evictionListener = matchId -> {};
+
+    @Autowired
+    public MatchStore(@Value("${engine.session.shards:16}") int shards,
+                      @Value("${engine.session.idle-timeout:PT10M}") Duration idleTimeout) {
+        this(shards, idleTimeout, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    MatchStore(int shards, Duration idleTimeout, LongSupplier clock) {
+        int count = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1; // round up to a power of two
+        this.shards = new ConcurrentHashMap[count];
+        for (int i = 0; i < count; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = count - 1;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.clock = clock;
+    }
+
+    // told the id of every match the idle sweep drops
+    void onEvict(Consumer<String> listener) {
+        evictionListener = listener;
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    void put(Match match) {
+        shard(match.matchId()).put(match.matchId(), match);
+    }
+
+    // returns null for unknown or evicted matches; a hit counts as activity
+    Match get(String matchId) {
+        var match = shard(matchId).get(matchId);
+        if (match != null) {
+            match.touch(now());
+        }
+        return match;
+    }
+
+    // whether match is still the live copy under its id, rather than evicted, ended or replaced
+    boolean holds(Match match) {
+        return shard(match.matchId()).get(match.matchId()) == match;
+    }
+
+    boolean remove(String matchId) {
+        return shard(matchId).remove(matchId) != null;
+    }
+
+    // the ids of all live matches, read shard by shard
+    List<String> ids() {
+        var ids = new ArrayList<String>(size());
+        for (var shard : shards) {
+            ids.addAll(shard.keySet());
+        }
+        return ids;
+    }
+
+    public int size() {
+        int size = 0;
+        for (var shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    // a match is dropped under its own lock, so a turn in progress finishes before its match goes
+    @Scheduled(fixedDelayString = "${engine.session.sweep-interval-ms:30000}")
+    public int evictIdle() {
+        long cutoff = now() - idleTimeoutNanos;
+        int evicted = 0;
+        for (var shard : shards) {
+            for (var match : shard.values()) {
+                if (match.lastAccessNanos() - cutoff >= 0) {
+                    continue;
+                }
+                synchronized (match) {
+                    if (match.lastAccessNanos() - cutoff < 0 && shard.remove(match.matchId(), match)) {
+                        evictionListener.accept(match.matchId());
+                        evicted++;
+                    }
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private ConcurrentHashMap<String, Match> shard(String matchId) {
+        int h = matchId.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+}
@@ -0,0 +1,6 @@
+package tech.quangson.battleengine.session;
+
+import java.util.Map;
+
+public record MatchView(String matchId, int turn, Map<String, Map<String, Integer>> stats,
+                        String awaiting, boolean finished) {}
@@ -0,0 +1,3 @@
+package tech.quangson.battleengine.session;
+
+public record MoveSubmission(String player, int moveId) {}
@@ -0,0 +1,15 @@
+package tech.quangson.battleengine.session;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+    What a session turn returns instead of two full TurnStates: the sequence and, for each round, only the stats
+    that changed keyed by player id. A player whose stats did not change in a round is left out of that round.
+    effects holds what timed effects changed after both rounds: ticks, expiries and stacks over the cap.
+ */
+public record TurnDelta(int turn, String[] sequence, List<Map<String, Map<String, Integer>>> rounds,
+                        @JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, Map<String, Integer>> effects,
+                        boolean finished) {}
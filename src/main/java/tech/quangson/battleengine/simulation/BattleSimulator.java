@@ -0,0 +1,130 @@
+package tech.quangson.battleengine.simulation;
+
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/*
+    Runs a SimulationSpec on a work-stealing pool and writes one CSV row per pairing. Each pairing is cut into
+    fixed-size chunks whose seeds derive only from (seed, pairing, chunk), so scheduling never changes results.
+ */
+public final class BattleSimulator {
+
+    static final int ChunkSize = 4096;
+
+    static final String Header = "build_a,build_b,matches,wins_a,wins_b,draws,win_rate_a,avg_turns,"
+            + "avg_damage_a,avg_damage_b,damage_a_p50,damage_a_p90,damage_b_p50,damage_b_p90";
+
+    private final ForkJoinPool pool;
+    private final MoveCatalog catalog;
+
+    public BattleSimulator(ForkJoinPool pool, MoveCatalog catalog) {
+        this.pool = pool;
+        this.catalog = catalog;
+    }
+
+    // returns the number of matches played
+    public long run(SimulationSpec spec, Writer csv) throws IOException {
+        var builds = new ArrayList<Build.Compiled>(spec.builds().size());
+        for (var build : spec.builds()) {
+            builds.add(build.compile(catalog));
+        }
+        var policy = MovePolicy.named(spec.policy());
+
+        var pairings = new ArrayList<ForkJoinTask<MatchupStats>>();
+        int pairing = 0;
+        for (int a = 0; a < builds.size(); a++) {
+            for (int b = a + 1; b < builds.size(); b++) {
+                var task = new PairingTask(builds.get(a), builds.get(b), policy, spec, pairing++, 0, chunks(spec));
+                pairings.add(pool.submit(task));
+            }
+        }
+
+        csv.write(Header);
+        csv.write('\n');
+        long played = 0;
+        int index = 0;
+        for (int a = 0; a < builds.size(); a++) {
+            for (int b = a + 1; b < builds.size(); b++) {
+                // rows are written in pairing order as soon as each pairing finishes, then released
+                var stats = pairings.get(index).join();
+                pairings.set(index++, null);
+                writeRow(csv, builds.get(a).name(), builds.get(b).name(), stats);
+                played += stats.matches;
+            }
+        }
+        csv.flush();
+        return played;
+    }
+
+    private static long chunks(SimulationSpec spec) {
+        return (spec.matchesPerPairing() + ChunkSize - 1) / ChunkSize;
+    }
+
+    private static void writeRow(Writer csv, String a, String b, MatchupStats stats) throws IOException {
+        csv.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.4f,%.2f,%.1f,%.1f,%d,%d,%d,%d%n",
+                a, b, stats.matches, stats.winsA, stats.winsB, stats.draws, stats.winRateA(), stats.averageTurns(),
+                stats.averageDamageA(), stats.averageDamageB(),
+                MatchupStats.percentile(stats.damageHistogramA, stats.matches, 0.5),
+                MatchupStats.percentile(stats.damageHistogramA, stats.matches, 0.9),
+                MatchupStats.percentile(stats.damageHistogramB, stats.matches, 0.5),
+                MatchupStats.percentile(stats.damageHistogramB, stats.matches, 0.9)));
+    }
+
+    // SplitMix64 finalizer; spreads (seed, pairing, chunk) into an independent stream seed
+    static long chunkSeed(long seed, int pairing, long chunk) {
+        long z = seed + 0x9E3779B97F4A7C15L * (pairing + 1) + 0xBF58476D1CE4E5B9L * (chunk + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class PairingTask extends RecursiveTask<MatchupStats> {
+        private final Build.Compiled a;
+        private final Build.Compiled b;
+        private final MovePolicy policy;
+        private final SimulationSpec spec;
+        private final int pairing;
+        private final long fromChunk;
+        private final long toChunk;
+
+        PairingTask(Build.Compiled a, Build.Compiled b, MovePolicy policy, SimulationSpec spec,
+                    int pairing, long fromChunk, long toChunk) {
+            this.a = a;
+            this.b = b;
+            this.policy = policy;
+            this.spec = spec;
+            this.pairing = pairing;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected MatchupStats compute() {
+            if (toChunk - fromChunk > 1) {
+                long mid = (fromChunk + toChunk) >>> 1;
+                var left = new PairingTask(a, b, policy, spec, pairing, fromChunk, mid);
+                left.fork();
+                var stats = new PairingTask(a, b, policy, spec, pairing, mid, toChunk).compute();
+                stats.merge(left.join());
+                return stats;
+            }
+            var stats = new MatchupStats();
+            var rng = new SplittableRandom(chunkSeed(spec.seed(), pairing, fromChunk));
+            var runner = MatchRunner.forThread(spec.maxTurns());
+            long first = fromChunk * ChunkSize;
+            long last = Math.min(first + ChunkSize, spec.matchesPerPairing());
+            for (long match = first; match < last; match++) {
+                runner.play(a, b, (int) (match & 1), policy, rng, stats);
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package tech.quangson.battleengine.simulation;
+
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+
+import java.util.List;
+import java.util.Map;
+
+// a stat spread plus a moveset; moves are either given in full or picked from the MoveCatalog by id
+public record Build(String name, Map<String, Integer> stats, List<GameMove> moves, List<Integer> moveIds) {
+
+    record Compiled(String name, int[] stats, CompiledMove[] moves) {}
+
+    Compiled compile(MoveCatalog catalog) {
+        var full = moves != null ? moves : List.<GameMove>of();
+        var ids = moveIds != null ? moveIds : List.<Integer>of();
+        if (full.isEmpty() && ids.isEmpty()) {
+            throw new IllegalArgumentException("Build " + name + " has no moves");
+        }
+        var compiled = new CompiledMove[full.size() + ids.size()];
+        for (int i = 0; i < full.size(); i++) {
+            compiled[i] = CompiledMove.compile(CompiledMove.AdHoc, full.get(i));
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            compiled[full.size() + i] = catalog.get(ids.get(i));
+        }
+        var values = new int[Stat.COUNT];
+        StatBlock.read(stats, values);
+        return new Compiled(name, values, compiled);
+    }
+}
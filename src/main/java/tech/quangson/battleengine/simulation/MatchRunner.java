@@ -0,0 +1,110 @@
+package tech.quangson.battleengine.simulation;
+
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnKernel;
+import tech.quangson.battleengine.mechanics.TurnResult;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/*
+    Plays whole matches between two compiled builds on the TurnKernel that backs TurnServiceImpl. A match ends
+    when a player's Health reaches 0, when a player runs out of Energy, or after maxTurns; outside of a knockout
+    the player with more Health left wins. One runner per thread; it reuses its buffers across matches.
+    The simulators run outside the engine node and balance builds against the built-in damage formula only;
+    engine.damage-table and engine.damage-formula do not apply to them.
+ */
+final class MatchRunner {
+
+    // one bracket match: winner is 0 for a, 1 for b and -1 for a draw; timedOut when the deadline decided it
+    record Duel(int winner, int turns, boolean timedOut) {}
+
+    private static final int Health = Stat.HEALTH.ordinal();
+    private static final int Energy = Stat.ENERGY.ordinal();
+    // turns between two looks at the clock
+    private static final int CheckMask = 15;
+
+    private static final ThreadLocal<MatchRunner> runners = new ThreadLocal<>();
+
+    private final TurnKernel kernel = new TurnKernel();
+    private final TurnResult out = new TurnResult();
+    private final int[][] stats = new int[2][Stat.COUNT];
+    private final int maxTurns;
+    private boolean timedOut;
+
+    MatchRunner(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    // the calling thread's runner
+    static MatchRunner forThread(int maxTurns) {
+        var runner = runners.get();
+        if (runner == null || runner.maxTurns() != maxTurns) {
+            runner = new MatchRunner(maxTurns);
+            runners.set(runner);
+        }
+        return runner;
+    }
+
+    int maxTurns() {
+        return maxTurns;
+    }
+
+    // aSide is the position (0 or 1) build A plays from, so a pairing can alternate who gets the tie-break
+    void play(Build.Compiled a, Build.Compiled b, int aSide, MovePolicy policy, SplittableRandom rng, MatchupStats into) {
+        var players = aSide == 0 ? new Build.Compiled[]{a, b} : new Build.Compiled[]{b, a};
+        int turn = loop(players, policy, rng, 0, null);
+        int startHealthA = players[aSide].stats()[Health];
+        int startHealthB = players[1 - aSide].stats()[Health];
+
+        int healthA = stats[aSide][Health];
+        int healthB = stats[1 - aSide][Health];
+        int winner = healthA > healthB ? 0 : healthB > healthA ? 1 : -1;
+        // net Health lost, since a Health buff can offset damage taken
+        into.record(winner, turn, Math.max(startHealthB - healthB, 0), Math.max(startHealthA - healthA, 0));
+    }
+
+    /*
+        Plays a as player 1 against b. Past the deadline the match is decided on Health as after maxTurns; once
+        cancelled says so it stops with a CancellationException. Both are checked every CheckMask + 1 turns.
+     */
+    Duel duel(Build.Compiled a, Build.Compiled b, MovePolicy policy, SplittableRandom rng, long deadline,
+              BooleanSupplier cancelled) {
+        int turn = loop(new Build.Compiled[]{a, b}, policy, rng, deadline, cancelled);
+        int healthA = stats[0][Health];
+        int healthB = stats[1][Health];
+        return new Duel(healthA > healthB ? 0 : healthB > healthA ? 1 : -1, turn, timedOut);
+    }
+
+    // returns the number of turns played; the clock is only read when cancelled is set
+    private int loop(Build.Compiled[] players, MovePolicy policy, SplittableRandom rng, long deadline,
+                     BooleanSupplier cancelled) {
+        System.arraycopy(players[0].stats(), 0, stats[0], 0, Stat.COUNT);
+        System.arraycopy(players[1].stats(), 0, stats[1], 0, Stat.COUNT);
+        timedOut = false;
+        int turn = 0;
+        while (turn < maxTurns && !over()) {
+            if (cancelled != null && (turn & CheckMask) == CheckMask) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Match cancelled");
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    timedOut = true;
+                    break;
+                }
+            }
+            var p1Move = players[0].moves()[policy.choose(players[0].moves(), stats[0], stats[1], rng)];
+            var p2Move = players[1].moves()[policy.choose(players[1].moves(), stats[1], stats[0], rng)];
+            kernel.evaluate(p1Move, stats[0], p2Move, stats[1], out);
+            System.arraycopy(out.finalStats(TurnResult.Player1), 0, stats[0], 0, Stat.COUNT);
+            System.arraycopy(out.finalStats(TurnResult.Player2), 0, stats[1], 0, Stat.COUNT);
+            turn++;
+        }
+        return turn;
+    }
+
+    private boolean over() {
+        return stats[0][Health] == 0 || stats[1][Health] == 0 || stats[0][Energy] == 0 || stats[1][Energy] == 0;
+    }
+}
@@ -0,0 +1,85 @@
+package tech.quangson.battleengine.simulation;
+
+/*
+    Running totals for one pairing of builds. Per-match results are folded in as they happen so a pairing costs
+    the same memory whether it plays a hundred matches or a hundred million.
+ */
+final class MatchupStats {
+
+    static final int DamageBucketWidth = 500;
+    static final int DamageBuckets = 64; // the last bucket also takes everything above it
+
+    long matches;
+    long winsA;
+    long winsB;
+    long draws;
+    long turns;
+    long damageA;
+    long damageB;
+    final long[] damageHistogramA = new long[DamageBuckets];
+    final long[] damageHistogramB = new long[DamageBuckets];
+
+    // winner: 0 for build A, 1 for build B, -1 for a draw
+    void record(int winner, int turnCount, int dealtByA, int dealtByB) {
+        matches++;
+        if (winner == 0) {
+            winsA++;
+        } else if (winner == 1) {
+            winsB++;
+        } else {
+            draws++;
+        }
+        turns += turnCount;
+        damageA += dealtByA;
+        damageB += dealtByB;
+        damageHistogramA[bucket(dealtByA)]++;
+        damageHistogramB[bucket(dealtByB)]++;
+    }
+
+    void merge(MatchupStats other) {
+        matches += other.matches;
+        winsA += other.winsA;
+        winsB += other.winsB;
+        draws += other.draws;
+        turns += other.turns;
+        damageA += other.damageA;
+        damageB += other.damageB;
+        for (int i = 0; i < DamageBuckets; i++) {
+            damageHistogramA[i] += other.damageHistogramA[i];
+            damageHistogramB[i] += other.damageHistogramB[i];
+        }
+    }
+
+    double winRateA() {
+        return matches == 0 ? 0 : (double) winsA / matches;
+    }
+
+    double averageTurns() {
+        return matches == 0 ? 0 : (double) turns / matches;
+    }
+
+    double averageDamageA() {
+        return matches == 0 ? 0 : (double) damageA / matches;
+    }
+
+    double averageDamageB() {
+        return matches == 0 ? 0 : (double) damageB / matches;
+    }
+
+    // upper edge of the bucket holding the given percentile, so it never under-reports
+    static int percentile(long[] histogram, long total, double p) {
+        long rank = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0) {
+                return (i + 1) * DamageBucketWidth;
+            }
+        }
+        return DamageBuckets * DamageBucketWidth;
+    }
+
+    private static int bucket(int damage) {
+        return Math.min(damage / DamageBucketWidth, DamageBuckets - 1);
+    }
+}
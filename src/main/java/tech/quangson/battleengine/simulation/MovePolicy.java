@@ -0,0 +1,57 @@
+package tech.quangson.battleengine.simulation;
+
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.MoveType;
+import tech.quangson.battleengine.mechanics.Stat;
+
+import java.util.SplittableRandom;
+
+// picks the index of the move a simulated player uses this turn; implementations must be stateless
+@FunctionalInterface
+public interface MovePolicy {
+
+    int choose(CompiledMove[] moves, int[] self, int[] opponent, SplittableRandom rng);
+
+    static MovePolicy named(String name) {
+        return switch (name) {
+            case "random" -> MovePolicy::random;
+            case "greedy" -> MovePolicy::greedy;
+            default -> throw new IllegalArgumentException("Unknown move policy: " + name);
+        };
+    }
+
+    // uniform over the moves the player can still pay for, or over all moves when none are affordable
+    static int random(CompiledMove[] moves, int[] self, int[] opponent, SplittableRandom rng) {
+        int energy = self[Stat.ENERGY.ordinal()];
+        int affordable = 0;
+        for (var move : moves) {
+            if (move.cost() <= energy) {
+                affordable++;
+            }
+        }
+        if (affordable == 0) {
+            return rng.nextInt(moves.length);
+        }
+        int pick = rng.nextInt(affordable);
+        for (int i = 0; i < moves.length; i++) {
+            if (moves[i].cost() <= energy && pick-- == 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    // strongest affordable damage move, random otherwise
+    static int greedy(CompiledMove[] moves, int[] self, int[] opponent, SplittableRandom rng) {
+        int energy = self[Stat.ENERGY.ordinal()];
+        int best = -1;
+        for (int i = 0; i < moves.length; i++) {
+            var move = moves[i];
+            if (move.type() == MoveType.DAMAGE && move.cost() <= energy
+                    && (best < 0 || move.basePower() > moves[best].basePower())) {
+                best = i;
+            }
+        }
+        return best >= 0 ? best : random(moves, self, opponent, rng);
+    }
+}
@@ -0,0 +1,25 @@
+package tech.quangson.battleengine.simulation;
+
+import java.util.List;
+
+/*
+    Everything a simulation run needs, usually read from a JSON file. Every pair of distinct builds plays
+    matchesPerPairing matches; the same seed always produces the same results, whatever the thread count.
+ */
+public record SimulationSpec(List<Build> builds, long matchesPerPairing, long seed, int maxTurns, String policy) {
+
+    public SimulationSpec {
+        if (builds == null || builds.size() < 2) {
+            throw new IllegalArgumentException("A simulation needs at least two builds");
+        }
+        if (matchesPerPairing <= 0) {
+            throw new IllegalArgumentException("matchesPerPairing must be positive");
+        }
+        if (maxTurns <= 0) {
+            maxTurns = 100;
+        }
+        if (policy == null) {
+            policy = "random";
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package tech.quangson.battleengine.simulation;
+
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+    Runs a TournamentSpec as a single-elimination bracket on a fork-join pool. The bracket is a dependency graph
+    rather than a sequence of rounds: a match is submitted as soon as both of its feeder matches have finished,
+    so later rounds start while earlier ones are still being played elsewhere. Entrants are seeded so the top
+    seeds meet last; byes go to the top seeds when the field is not a power of two, and a draw goes to the
+    higher seed.
+
+    Each match plays on one worker with its own per-match seed and stops at the spec's time limit. run() owns
+    every task it starts: it returns only once none is left running, whether the bracket finished, cancel()
+    was called or a match failed, and a failure cancels the matches still running. With a checkpoint file,
+    finished matches are appended to it and a later run of the same tournament resumes from it.
+ */
+public final class Tournament {
+
+    public record Round(int round, int matches, int played, int restored, int byes, int timedOut, long nanos,
+                        long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+        /*
+            Matches played this run over the time from the first start to the last finish in the round. Rounds
+            overlap, so a late round's window also holds matches of other rounds.
+         */
+        public double matchesPerSecond() {
+            return nanos == 0 ? 0 : played * 1e9 / nanos;
+        }
+    }
+
+    public record Result(int champion, String championName, List<Round> rounds, long played, long restored,
+                         long nanos) {
+
+        public double matchesPerSecond() {
+            return nanos == 0 ? 0 : played * 1e9 / nanos;
+        }
+    }
+
+    private static final byte Pending = 0;
+    private static final byte Played = 1;
+    private static final byte Restored = 2;
+    private static final byte Bye = 3;
+
+    private final ForkJoinPool pool;
+    private final MoveCatalog catalog;
+    // the bracket run() is playing, and a cancel() that came before it was built; guarded by this
+    private Bracket current;
+    private boolean cancelPending;
+
+    public Tournament(ForkJoinPool pool, MoveCatalog catalog) {
+        this.pool = pool;
+        this.catalog = catalog;
+    }
+
+    /*
+        Stops the running bracket; run() then throws CancellationException once every match has stopped. Called
+        while no bracket is running yet, it stops the next run() before its first match.
+     */
+    public synchronized void cancel() {
+        if (current != null) {
+            current.cancelled = true;
+        }
+        else {
+            cancelPending = true;
+        }
+    }
+
+    // checkpoint may be null to keep progress in memory only
+    public Result run(TournamentSpec spec, Path checkpoint) throws IOException {
+        var builds = new ArrayList<Build.Compiled>(spec.builds().size());
+        for (var build : spec.builds()) {
+            builds.add(build.compile(catalog));
+        }
+        var file = checkpoint == null ? null : TournamentCheckpoint.open(checkpoint, spec.fingerprint());
+        var bracket = new Bracket(spec, builds, MovePolicy.named(spec.policy()), file);
+        synchronized (this) {
+            bracket.cancelled = cancelPending;
+            cancelPending = false;
+            current = bracket;
+        }
+        try {
+            return bracket.run();
+        }
+        finally {
+            synchronized (this) {
+                current = null;
+            }
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+
+    // the order in which entrants fill the first round so that seeds 0 and 1 can only meet in the final
+    static int[] seeding(int size) {
+        var order = new int[]{0};
+        while (order.length < size) {
+            var next = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = next.length - 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /*
+        One run's state. Matches are numbered round by round, round r starting at size - (size >> r), and the
+        winner of match i of a round fills slot i % 2 of match i / 2 of the next. Per-match results live in
+        plain arrays: each is written by the one task that plays the match and published to the next round
+        through waiting, and to run() through the monitor it waits on.
+     */
+    private final class Bracket {
+        final TournamentSpec spec;
+        final List<Build.Compiled> builds;
+        final MovePolicy policy;
+        final TournamentCheckpoint checkpoint;
+        final long timeoutNanos;
+        final int size;
+        final int rounds;
+        final int[] a;
+        final int[] b;
+        final AtomicIntegerArray waiting;
+        final int[] winners;
+        final byte[] kinds;
+        final boolean[] timedOut;
+        final long[] started;
+        final long[] nanos;
+        final TournamentCheckpoint.Entry[] restored;
+        int outstanding = 1;
+        volatile boolean cancelled;
+        volatile Throwable failure;
+
+        Bracket(TournamentSpec spec, List<Build.Compiled> builds, MovePolicy policy, TournamentCheckpoint checkpoint) {
+            this.spec = spec;
+            this.builds = builds;
+            this.policy = policy;
+            this.checkpoint = checkpoint;
+            this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(spec.matchTimeoutMs());
+            this.size = Integer.highestOneBit(spec.entrants() - 1) << 1;
+            this.rounds = Integer.numberOfTrailingZeros(size);
+            int matches = size - 1;
+            a = new int[matches];
+            b = new int[matches];
+            Arrays.fill(a, -1);
+            Arrays.fill(b, -1);
+            waiting = new AtomicIntegerArray(matches);
+            for (int id = size / 2; id < matches; id++) {
+                waiting.set(id, 2);
+            }
+            winners = new int[matches];
+            kinds = new byte[matches];
+            timedOut = new boolean[matches];
+            started = new long[matches];
+            nanos = new long[matches];
+            restored = new TournamentCheckpoint.Entry[matches];
+            if (checkpoint != null) {
+                for (var entry : checkpoint.restored()) {
+                    restored[id(entry.round(), entry.match())] = entry;
+                }
+            }
+        }
+
+        Result run() throws IOException {
+            long start = System.nanoTime();
+            var order = seeding(size);
+            try {
+                for (int i = 0; i < size / 2; i++) {
+                    a[i] = order[2 * i] < spec.entrants() ? order[2 * i] : -1;
+                    b[i] = order[2 * i + 1] < spec.entrants() ? order[2 * i + 1] : -1;
+                    ready(i);
+                }
+            }
+            catch (RuntimeException e) {
+                fail(e);
+            }
+            finally {
+                finished();
+            }
+            boolean interrupted = false;
+            synchronized (this) {
+                while (outstanding > 0) {
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        // still wait for the running matches, which stop at their next check
+                        cancelled = true;
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+            if (failure instanceof CancellationException || (failure == null && kinds[size - 2] == Pending)) {
+                throw new CancellationException("Tournament cancelled");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("A tournament match failed", failure);
+            }
+            return result(System.nanoTime() - start);
+        }
+
+        int id(int round, int match) {
+            if (round < 0 || round >= rounds || match < 0 || match >= size >> (round + 1)) {
+                throw new IllegalArgumentException("No match " + match + " in round " + round);
+            }
+            return size - (size >> round) + match;
+        }
+
+        int round(int id) {
+            int round = 0;
+            while (id >= size - (size >> (round + 1))) {
+                round++;
+            }
+            return round;
+        }
+
+        int index(int id) {
+            return id - (size - (size >> round(id)));
+        }
+
+        // both entrants of match id are known
+        void ready(int id) {
+            var entry = restored[id];
+            if (entry != null) {
+                if (entry.a() != a[id] || entry.b() != b[id] || (entry.winner() != a[id] && entry.winner() != b[id])) {
+                    throw new IllegalStateException("Checkpoint disagrees with the bracket at round " + entry.round()
+                            + " match " + entry.match());
+                }
+                timedOut[id] = entry.timedOut();
+                nanos[id] = entry.nanos();
+                complete(id, entry.winner(), Restored);
+            }
+            else if (a[id] < 0 || b[id] < 0) {
+                complete(id, Math.max(a[id], b[id]), Bye);
+            }
+            else if (!stopped()) {
+                synchronized (this) {
+                    outstanding++;
+                }
+                pool.execute(() -> play(id));
+            }
+        }
+
+        void play(int id) {
+            try {
+                if (stopped()) {
+                    return;
+                }
+                var runner = MatchRunner.forThread(spec.maxTurns());
+                var rng = new SplittableRandom(BattleSimulator.chunkSeed(spec.seed(), round(id), index(id)));
+                int first = a[id];
+                int second = b[id];
+                long start = System.nanoTime();
+                var duel = runner.duel(builds.get(first % builds.size()), builds.get(second % builds.size()), policy,
+                        rng, start + timeoutNanos, this::stopped);
+                long end = System.nanoTime();
+                int winner = duel.winner() == 0 ? first : duel.winner() == 1 ? second : Math.min(first, second);
+                started[id] = start;
+                nanos[id] = end - start;
+                timedOut[id] = duel.timedOut();
+                if (checkpoint != null) {
+                    checkpoint.append(new TournamentCheckpoint.Entry(round(id), index(id), first, second, winner,
+                            duel.turns(), duel.timedOut(), end - start));
+                }
+                complete(id, winner, Played);
+            }
+            catch (Throwable e) {
+                fail(e);
+            }
+            finally {
+                finished();
+            }
+        }
+
+        void complete(int id, int winner, byte kind) {
+            winners[id] = winner;
+            kinds[id] = kind;
+            int round = round(id);
+            if (round == rounds - 1) {
+                return;
+            }
+            int index = index(id);
+            int parent = id(round + 1, index / 2);
+            if (index % 2 == 0) {
+                a[parent] = winner;
+            }
+            else {
+                b[parent] = winner;
+            }
+            if (waiting.decrementAndGet(parent) == 0) {
+                ready(parent);
+            }
+        }
+
+        boolean stopped() {
+            return cancelled || failure != null;
+        }
+
+        synchronized void fail(Throwable e) {
+            if (failure == null) {
+                failure = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e;
+            }
+        }
+
+        synchronized void finished() {
+            if (--outstanding == 0) {
+                notifyAll();
+            }
+        }
+
+        Result result(long elapsed) {
+            var reports = new ArrayList<Round>(rounds);
+            long played = 0, restoredCount = 0;
+            for (int round = 0; round < rounds; round++) {
+                int from = id(round, 0);
+                int to = from + (size >> (round + 1));
+                var latencies = new long[to - from];
+                int count = 0, restoredHere = 0, byes = 0, timeouts = 0;
+                long first = Long.MAX_VALUE, last = Long.MIN_VALUE;
+                for (int id = from; id < to; id++) {
+                    switch (kinds[id]) {
+                        case Played -> {
+                            latencies[count++] = nanos[id];
+                            first = Math.min(first, started[id]);
+                            last = Math.max(last, started[id] + nanos[id]);
+                        }
+                        case Restored -> restoredHere++;
+                        case Bye -> byes++;
+                        case Pending -> throw new IllegalStateException("Match " + id + " never finished");
+                    }
+                    timeouts += timedOut[id] ? 1 : 0;
+                }
+                Arrays.sort(latencies, 0, count);
+                reports.add(new Round(round, to - from, count, restoredHere, byes, timeouts,
+                        count == 0 ? 0 : last - first, percentile(latencies, count, 0.5),
+                        percentile(latencies, count, 0.99), percentile(latencies, count, 0.999),
+                        count == 0 ? 0 : latencies[count - 1]));
+                played += count;
+                restoredCount += restoredHere;
+            }
+            int champion = winners[size - 2];
+            return new Result(champion, spec.entrantName(champion), reports, played, restoredCount, elapsed);
+        }
+    }
+
+    // nearest rank over the first count sorted values
+    private static long percentile(long[] sorted, int count, double p) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(count * p);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
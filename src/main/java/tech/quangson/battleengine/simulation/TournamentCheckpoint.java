@@ -0,0 +1,102 @@
+package tech.quangson.battleengine.simulation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Bracket progress on local disk, doubling as the tournament's results: a line naming the tournament, a CSV
+    header, then one line per finished match in the order matches finished. Lines are flushed every FlushEvery
+    matches and on close. A crash loses at most the unflushed tail and a torn last line, which open() cuts off;
+    those matches are played again, with the same result unless they timed out.
+ */
+final class TournamentCheckpoint implements Closeable {
+
+    static final String Header = "round,match,a,b,winner,turns,timed_out,nanos";
+
+    private static final int FlushEvery = 64;
+
+    // a and b are entrant indexes; nanos is the time the match took when it was played
+    record Entry(int round, int match, int a, int b, int winner, int turns, boolean timedOut, long nanos) {
+
+        static Entry parse(String line) {
+            var columns = line.split(",");
+            if (columns.length != 8) {
+                throw new IllegalArgumentException("Bad checkpoint line: " + line);
+            }
+            return new Entry(Integer.parseInt(columns[0]), Integer.parseInt(columns[1]), Integer.parseInt(columns[2]),
+                    Integer.parseInt(columns[3]), Integer.parseInt(columns[4]), Integer.parseInt(columns[5]),
+                    Boolean.parseBoolean(columns[6]), Long.parseLong(columns[7]));
+        }
+
+        String line() {
+            return round + "," + match + "," + a + "," + b + "," + winner + "," + turns + "," + timedOut + "," + nanos;
+        }
+    }
+
+    private final BufferedWriter out;
+    private final List<Entry> restored;
+    private int unflushed;
+
+    private TournamentCheckpoint(BufferedWriter out, List<Entry> restored) {
+        this.out = out;
+        this.restored = restored;
+    }
+
+    // resumes from file when it holds the same tournament, starts it otherwise
+    static TournamentCheckpoint open(Path file, String fingerprint) throws IOException {
+        var title = "# tournament " + fingerprint;
+        var restored = new ArrayList<Entry>();
+        if (Files.exists(file) && Files.size(file) > 0) {
+            var text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            var lines = text.split("\n", -1);
+            if (lines.length < 3 || !lines[0].equals(title) || !lines[1].equals(Header)) {
+                throw new IllegalArgumentException(file + " is not a checkpoint of this tournament (" + fingerprint + ")");
+            }
+            // the last element is whatever follows the last newline: empty, or a line torn by a crash
+            for (int i = 2; i < lines.length - 1; i++) {
+                restored.add(Entry.parse(lines[i]));
+            }
+            int torn = lines[lines.length - 1].getBytes(StandardCharsets.UTF_8).length;
+            if (torn > 0) {
+                try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(Files.size(file) - torn);
+                }
+            }
+            return new TournamentCheckpoint(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND), restored);
+        }
+        var out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        out.write(title);
+        out.write('\n');
+        out.write(Header);
+        out.write('\n');
+        out.flush();
+        return new TournamentCheckpoint(out, restored);
+    }
+
+    List<Entry> restored() {
+        return restored;
+    }
+
+    synchronized void append(Entry entry) throws IOException {
+        out.write(entry.line());
+        out.write('\n');
+        if (++unflushed == FlushEvery) {
+            out.flush();
+            unflushed = 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
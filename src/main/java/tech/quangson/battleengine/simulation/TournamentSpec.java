@@ -0,0 +1,45 @@
+package tech.quangson.battleengine.simulation;
+
+import java.util.List;
+
+/*
+    A single-elimination bot tournament, usually read from a JSON file. Entrant i plays build i % builds.size(),
+    so a few builds can fill a bracket of any size; entrants are seeded in that order. A match that is still
+    running after matchTimeoutMs is decided on Health at that point. Without timeouts the same seed always
+    produces the same bracket, whatever the thread count.
+ */
+public record TournamentSpec(List<Build> builds, int entrants, long seed, int maxTurns, String policy,
+                             long matchTimeoutMs) {
+
+    public TournamentSpec {
+        if (builds == null || builds.isEmpty()) {
+            throw new IllegalArgumentException("A tournament needs at least one build");
+        }
+        if (entrants <= 0) {
+            entrants = builds.size();
+        }
+        if (entrants < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two entrants");
+        }
+        if (maxTurns <= 0) {
+            maxTurns = 100;
+        }
+        if (policy == null) {
+            policy = "random";
+        }
+        if (matchTimeoutMs <= 0) {
+            matchTimeoutMs = 1000;
+        }
+    }
+
+    String entrantName(int entrant) {
+        var name = builds.get(entrant % builds.size()).name();
+        return entrants > builds.size() ? name + "#" + entrant : name;
+    }
+
+    // what a checkpoint has to agree on before its results can be reused
+    String fingerprint() {
+        return String.format("entrants=%d seed=%d maxTurns=%d policy=%s builds=%08x",
+                entrants, seed, maxTurns, policy, builds.hashCode());
+    }
+}
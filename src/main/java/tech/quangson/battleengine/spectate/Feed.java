@@ -0,0 +1,51 @@
+package tech.quangson.battleengine.spectate;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+    The last capacity frames of one match in a ring that every spectator reads with its own cursor, so a turn is
+    encoded and stored once however many are watching. Spectators read without locking; one that falls a full
+    ring behind finds its next frame overwritten and has to resync.
+ */
+final class Feed {
+
+    final CopyOnWriteArrayList<Spectator> spectators = new CopyOnWriteArrayList<>();
+    private final AtomicReferenceArray<Frame> frames;
+    private final int capacity;
+    private volatile long head;
+    private volatile boolean closed;
+
+    Feed(int capacity) {
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.frames = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    // sequence number of the next frame
+    long head() {
+        return head;
+    }
+
+    boolean closed() {
+        return closed;
+    }
+
+    // the turn thread appends; a match ending at the same time may close concurrently
+    synchronized void append(Frame frame) {
+        long next = head;
+        frames.set((int) next & (capacity - 1), frame);
+        head = next + 1;
+    }
+
+    // the last frame; spectators finish once they have written it
+    synchronized void close(Frame frame) {
+        append(frame);
+        closed = true;
+    }
+
+    // null once the slot has been, or is about to be, reused by a newer frame
+    Frame get(long sequence) {
+        var frame = frames.get((int) sequence & (capacity - 1));
+        return head - sequence < capacity ? frame : null;
+    }
+}
@@ -0,0 +1,4 @@
+package tech.quangson.battleengine.spectate;
+
+// one server-sent event, encoded once and written as is to every spectator; turn orders frames against snapshots
+public record Frame(int turn, byte[] bytes) {}
@@ -0,0 +1,111 @@
+package tech.quangson.battleengine.spectate;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+    One open stream. A transport only says whether its connection can take another frame right now and how to
+    write, flush and finish; drain() then copies frames from the feed while it can. A transport never buffers
+    more than it can write, so a slow consumer simply stops draining and, once the ring has moved past it, gets a
+    fresh snapshot from resync instead of the turns it missed. Frames not newer than the last snapshot are skipped.
+ */
+public abstract class Spectator {
+
+    private final Supplier<Frame> resync;
+    private Feed feed;
+    private Runnable detach;
+    private LongAdder droppedFrames;
+    private long cursor;
+    private int lastTurn = -1;
+    private boolean stale = true;
+    private boolean done;
+
+    protected Spectator(Supplier<Frame> resync) {
+        this.resync = resync;
+    }
+
+    // whether the connection takes another frame without blocking or buffering
+    protected abstract boolean ready();
+
+    protected abstract void write(byte[] frame) throws Exception;
+
+    // nothing left to write for now
+    protected abstract void flush() throws Exception;
+
+    // the match is over; end the stream
+    protected abstract void finish();
+
+    // the connection failed or the client went away
+    protected abstract void abort(Exception e);
+
+    synchronized void attach(Feed feed, Runnable detach, LongAdder droppedFrames) {
+        this.feed = feed;
+        this.detach = detach;
+        this.droppedFrames = droppedFrames;
+    }
+
+    public final synchronized void drain() {
+        if (done || feed == null) {
+            return;
+        }
+        try {
+            while (ready()) {
+                var frame = next();
+                if (frame == null) {
+                    if (feed.closed() && cursor == feed.head()) {
+                        close();
+                        finish();
+                    }
+                    else {
+                        flush();
+                    }
+                    return;
+                }
+                write(frame);
+            }
+        }
+        catch (Exception e) {
+            close();
+            abort(e);
+        }
+    }
+
+    // stops delivery, for transports whose client has gone away
+    public final synchronized void close() {
+        if (done) {
+            return;
+        }
+        done = true;
+        if (detach != null) {
+            detach.run();
+        }
+    }
+
+    private byte[] next() {
+        if (stale) {
+            return snapshot();
+        }
+        while (cursor < feed.head()) {
+            var frame = feed.get(cursor);
+            if (frame == null) {
+                droppedFrames.add(feed.head() - cursor);
+                return snapshot();
+            }
+            cursor++;
+            if (frame.turn() > lastTurn) {
+                lastTurn = frame.turn();
+                return frame.bytes();
+            }
+        }
+        return null;
+    }
+
+    // the current state, then whatever the feed gets after it
+    private byte[] snapshot() {
+        stale = false;
+        cursor = feed.head();
+        var frame = resync.get();
+        lastTurn = frame.turn();
+        return frame.bytes();
+    }
+}
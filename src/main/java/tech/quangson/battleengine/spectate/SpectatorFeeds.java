@@ -0,0 +1,172 @@
+package tech.quangson.battleengine.spectate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tech.quangson.battleengine.session.MatchEvents;
+import tech.quangson.battleengine.session.MatchView;
+import tech.quangson.battleengine.session.TurnDelta;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Live turn streams for spectators (Server-Sent Events). Each turn of a watched match is encoded once into an
+    SSE frame holding its TurnDelta, appended to the match's Feed and then pushed to every spectator by the writer
+    pool, in chunks so a match with thousands of spectators spreads over all writers. Matches nobody watches cost
+    one map lookup per turn.
+
+    Streams start with an "event: match" frame holding the MatchView, continue with one "event: turn" frame per
+    turn and end with "event: closed" when the match is over, ended, moved to another node or evicted. A
+    spectator that cannot keep up misses turns and gets a new "match" frame instead.
+ */
+@Component
+public class SpectatorFeeds implements MatchEvents {
+
+    private static final int WakeChunk = 256;
+    private static final Frame Closed = new Frame(Integer.MAX_VALUE, bytes("event: closed\ndata: {}\n\n"));
+    private static final byte[] TurnEvent = bytes("event: turn\ndata: ");
+    private static final byte[] MatchEvent = bytes("event: match\ndata: ");
+    private static final byte[] EventEnd = bytes("\n\n");
+
+    private final ConcurrentHashMap<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final ObjectWriter deltas;
+    private final ObjectWriter views;
+    private final int buffer;
+    private final int maxPerMatch;
+    private final Executor writers;
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
+
+    @Autowired
+    public SpectatorFeeds(ObjectMapper mapper, @Qualifier("spectatorWriters") ExecutorService writers,
+                          @Value("${engine.spectate.buffer:64}") int buffer,
+                          @Value("${engine.spectate.max-per-match:10000}") int maxPerMatch) {
+        this(mapper, (Executor) writers, buffer, maxPerMatch);
+    }
+
+    SpectatorFeeds(ObjectMapper mapper, Executor writers, int buffer, int maxPerMatch) {
+        this.deltas = mapper.writerFor(TurnDelta.class);
+        this.views = mapper.writerFor(MatchView.class);
+        this.writers = writers;
+        this.buffer = buffer;
+        this.maxPerMatch = maxPerMatch;
+    }
+
+    // false when the match already has maxPerMatch spectators
+    public boolean subscribe(String matchId, Spectator spectator) {
+        boolean[] added = {false};
+        var feed = feeds.compute(matchId, (id, existing) -> {
+            var target = existing != null ? existing : new Feed(buffer);
+            if (target.spectators.size() < maxPerMatch) {
+                target.spectators.add(spectator);
+                added[0] = true;
+            }
+            return target;
+        });
+        if (!added[0]) {
+            return false;
+        }
+        spectator.attach(feed, () -> detach(matchId, feed, spectator), droppedFrames);
+        writers.execute(spectator::drain);
+        return true;
+    }
+
+    public Frame snapshot(MatchView view) {
+        return new Frame(view.turn(), encode(MatchEvent, views, view));
+    }
+
+    @Override
+    public void turnPlayed(String matchId, TurnDelta delta) {
+        var feed = feeds.get(matchId);
+        if (feed == null) {
+            return;
+        }
+        feed.append(new Frame(delta.turn(), encode(TurnEvent, deltas, delta)));
+        frames.increment();
+        if (delta.finished()) {
+            close(matchId);
+            return;
+        }
+        wake(feed);
+    }
+
+    @Override
+    public void closed(String matchId) {
+        close(matchId);
+    }
+
+    public int matches() {
+        return feeds.size();
+    }
+
+    public int spectators() {
+        int spectators = 0;
+        for (var feed : feeds.values()) {
+            spectators += feed.spectators.size();
+        }
+        return spectators;
+    }
+
+    // turn frames published to at least one spectator
+    public long frames() {
+        return frames.sum();
+    }
+
+    // turn frames spectators skipped because they fell behind
+    public long droppedFrames() {
+        return droppedFrames.sum();
+    }
+
+    private void close(String matchId) {
+        var feed = feeds.remove(matchId);
+        if (feed != null) {
+            feed.close(Closed);
+            wake(feed);
+        }
+    }
+
+    private void detach(String matchId, Feed feed, Spectator spectator) {
+        feed.spectators.remove(spectator);
+        feeds.computeIfPresent(matchId, (id, current) -> current == feed && current.spectators.isEmpty() ? null : current);
+    }
+
+    private void wake(Feed feed) {
+        var spectators = feed.spectators.toArray(new Spectator[0]);
+        for (int start = 0; start < spectators.length; start += WakeChunk) {
+            int from = start;
+            int to = Math.min(start + WakeChunk, spectators.length);
+            writers.execute(() -> {
+                for (int i = from; i < to; i++) {
+                    spectators[i].drain();
+                }
+            });
+        }
+    }
+
+    private static byte[] encode(byte[] event, ObjectWriter writer, Object value) {
+        var out = new ByteArrayOutputStream(256);
+        try {
+            out.write(event);
+            writer.writeValue(out, value);
+            out.write(EventEnd);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,35 @@
+package tech.quangson.battleengine.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.quangson.battleengine.mechanics.BattleService;
+import tech.quangson.battleengine.mechanics.BattleState;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+
+@RestController
+@RequestMapping("/engine/battle")
+public class BattleController {
+
+    private final BattleService battles;
+    private final TurnMetrics metrics;
+
+    public BattleController(BattleService battles, TurnMetrics metrics) {
+        this.battles = battles;
+        this.metrics = metrics;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> processBattle(@RequestBody BattleState battle){
+        try {
+            return new ResponseEntity<>(battles.evaluate(battle), HttpStatus.OK);
+        }
+        catch(Exception e) {
+            metrics.turnRejected(e);
+            return new ResponseEntity<>(e.getLocalizedMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
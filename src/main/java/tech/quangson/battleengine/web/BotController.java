@@ -0,0 +1,32 @@
+package tech.quangson.battleengine.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.quangson.battleengine.bot.BotRequest;
+import tech.quangson.battleengine.bot.BotService;
+
+@RestController
+@RequestMapping("/engine/bot")
+public class BotController {
+
+    private final BotService bots;
+
+    public BotController(BotService bots) {
+        this.bots = bots;
+    }
+
+    // a request the bot cannot answer is 400; a failed or interrupted search is the server's fault and stays a 500
+    @PostMapping("/move")
+    public ResponseEntity<?> chooseMove(@RequestBody BotRequest request){
+        try {
+            return new ResponseEntity<>(bots.decide(request), HttpStatus.OK);
+        }
+        catch(IllegalArgumentException | NullPointerException e) {
+            return new ResponseEntity<>(e.getLocalizedMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
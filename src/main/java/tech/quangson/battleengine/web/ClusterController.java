@@ -0,0 +1,57 @@
+package tech.quangson.battleengine.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.quangson.battleengine.cluster.ClusterRouter;
+import tech.quangson.battleengine.cluster.PeerClient;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.session.MatchSnapshot;
+
+import java.util.Map;
+
+// node-to-node endpoints of cluster mode; keep /internal off the public load balancer as well
+@RestController
+@RequestMapping("/internal/cluster")
+public class ClusterController {
+
+    private final ClusterRouter cluster;
+    private final MatchService matches;
+
+    public ClusterController(ClusterRouter cluster, MatchService matches) {
+        this.cluster = cluster;
+        this.matches = matches;
+    }
+
+    @GetMapping
+    public Map<String, Object> describe(){
+        return Map.of("enabled", cluster.enabled(), "self", cluster.self(), "members", cluster.ring().members(),
+                "matches", matches.matchIds().size(), "handedOff", cluster.handedOff());
+    }
+
+    @PostMapping("/matches")
+    public ResponseEntity<?> takeOver(@RequestBody MatchSnapshot snapshot,
+                                      @RequestHeader(value = PeerClient.SecretHeader, required = false) String secret){
+        if (!cluster.enabled()) {
+            return new ResponseEntity<>("Cluster mode is off", HttpStatus.NOT_FOUND);
+        }
+        if (!cluster.trusted(secret)) {
+            return new ResponseEntity<>("Not a cluster member", HttpStatus.FORBIDDEN);
+        }
+        try {
+            matches.restore(snapshot);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+        catch(IllegalStateException e) {
+            return new ResponseEntity<>(e.getLocalizedMessage(), HttpStatus.CONFLICT);
+        }
+        catch(Exception e) {
+            return new ResponseEntity<>(e.getLocalizedMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package tech.quangson.battleengine.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.quangson.battleengine.cluster.ClusterRouter;
+import tech.quangson.battleengine.cluster.PeerClient;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.session.MatchMovedException;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.session.MatchSetup;
+import tech.quangson.battleengine.session.MoveSubmission;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/engine/matches")
+public class MatchController {
+
+    private static final String Matches = "/engine/matches";
+
+    // operation tags of failed requests; only refused moves in Turn count as rejected turns
+    private static final String Create = "create";
+    private static final String View = "view";
+    private static final String Turn = "turn";
+    private static final String End = "end";
+
+    private final MatchService matches;
+    private final ClusterRouter cluster;
+    private final TurnMetrics metrics;
+
+    public MatchController(MatchService matches, ClusterRouter cluster, TurnMetrics metrics) {
+        this.matches = matches;
+        this.cluster = cluster;
+        this.metrics = metrics;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createMatch(@RequestBody MatchSetup setup,
+                                         @RequestHeader(value = PeerClient.HopHeader, required = false) String hop){
+        try {
+            var matchId = cluster.newMatchId();
+            if (matchId == null) {
+                if (hop != null) {
+                    throw new IllegalStateException("Not a cluster member");
+                }
+                return forward(cluster.anyMember(), "POST", Matches, setup);
+            }
+            return new ResponseEntity<>(Map.of("matchId", matches.create(matchId, setup)), HttpStatus.CREATED);
+        }
+        catch(Exception e) {
+            return error(Create, e);
+        }
+    }
+
+    @GetMapping("/{matchId}")
+    public ResponseEntity<?> getMatch(@PathVariable String matchId,
+                                      @RequestHeader(value = PeerClient.HopHeader, required = false) String hop){
+        return route(View, matchId, hop, "GET", "", null,
+                () -> new ResponseEntity<>(matches.view(matchId), HttpStatus.OK));
+    }
+
+    // 202 until both players have picked a move, then 200 with the turn's changes
+    @PostMapping("/{matchId}/turn")
+    public ResponseEntity<?> submitMove(@PathVariable String matchId, @RequestBody MoveSubmission submission,
+                                        @RequestHeader(value = PeerClient.HopHeader, required = false) String hop){
+        return route(Turn, matchId, hop, "POST", "/turn", submission,
+                () -> matches.submit(matchId, submission)
+                        .<ResponseEntity<?>>map(delta -> new ResponseEntity<>(delta, HttpStatus.OK))
+                        .orElseGet(() -> new ResponseEntity<>(HttpStatus.ACCEPTED)));
+    }
+
+    @DeleteMapping("/{matchId}")
+    public ResponseEntity<?> endMatch(@PathVariable String matchId,
+                                      @RequestHeader(value = PeerClient.HopHeader, required = false) String hop){
+        return route(End, matchId, hop, "DELETE", "", null,
+                () -> new ResponseEntity<>(matches.end(matchId) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND));
+    }
+
+    /*
+        Serves the request here when this node owns the match, or when it was forwarded by another node and the
+        match is still here. Otherwise it goes to the owner, or during a hand-off to the owner before the last
+        membership change. A forwarded request for a match still in transit to this node gets 503 and Retry-After.
+     */
+    private ResponseEntity<?> route(String operation, String matchId, String hop, String method, String suffix, Object body,
+                                    Supplier<ResponseEntity<?>> local){
+        try {
+            var owner = cluster.remoteOwner(matchId);
+            if (hop == null && owner != null) {
+                return forward(owner, method, Matches + "/" + matchId + suffix, body);
+            }
+            try {
+                var response = local.get();
+                var previous = cluster.previousOwner(matchId);
+                if (response.getStatusCode() != HttpStatus.NOT_FOUND || previous == null) {
+                    return response;
+                }
+                if (hop != null) {
+                    return cluster.inTransit(matchId) ? retry("Match " + matchId + " is on its way here") : response;
+                }
+                return forward(previous, method, Matches + "/" + matchId + suffix, body);
+            }
+            catch(NoSuchElementException e) {
+                var previous = cluster.previousOwner(matchId);
+                if (hop != null && cluster.inTransit(matchId)) {
+                    return retry("Match " + matchId + " is on its way here");
+                }
+                if (hop != null || previous == null) {
+                    throw e;
+                }
+                return forward(previous, method, Matches + "/" + matchId + suffix, body);
+            }
+            catch(MatchMovedException e) {
+                var moved = cluster.remoteOwner(matchId);
+                if (hop != null || moved == null) {
+                    return retry(e.getLocalizedMessage());
+                }
+                return forward(moved, method, Matches + "/" + matchId + suffix, body);
+            }
+        }
+        catch(Exception e) {
+            return error(operation, e);
+        }
+    }
+
+    private ResponseEntity<?> forward(String member, String method, String path, Object body) throws IOException {
+        if (member == null) {
+            throw new IllegalStateException("Cluster has no members");
+        }
+        return cluster.peers().forward(member, method, path, body);
+    }
+
+    // the match is on its way between nodes; the client can try again right away
+    private ResponseEntity<?> retry(String message){
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+        return new ResponseEntity<>(message, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private ResponseEntity<?> error(String operation, Exception e){
+        if (operation.equals(Turn) && !(e instanceof NoSuchElementException) && !(e instanceof IOException)) {
+            metrics.turnRejected(e);
+        }
+        else {
+            metrics.matchRequestFailed(operation, e);
+        }
+        var status = e instanceof NoSuchElementException ? HttpStatus.NOT_FOUND
+                : e instanceof IllegalStateException ? HttpStatus.CONFLICT
+                : e instanceof IOException ? HttpStatus.BAD_GATEWAY
+                : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(e.getLocalizedMessage(), status);
+    }
+}
@@ -0,0 +1,105 @@
+package tech.quangson.battleengine.web;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import tech.quangson.battleengine.cluster.ClusterRouter;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.spectate.Frame;
+import tech.quangson.battleengine.spectate.Spectator;
+import tech.quangson.battleengine.spectate.SpectatorFeeds;
+
+import java.net.URI;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// SpectatorServlet for the reactive mode; Netty's demand plays the part of the servlet's isReady()
+public class ReactiveSpectatorHandler {
+
+    private final SpectatorFeeds feeds;
+    private final MatchService matches;
+    private final ClusterRouter cluster;
+    private final DataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+
+    public ReactiveSpectatorHandler(SpectatorFeeds feeds, MatchService matches, ClusterRouter cluster) {
+        this.feeds = feeds;
+        this.matches = matches;
+        this.cluster = cluster;
+    }
+
+    public Mono<ServerResponse> spectate(ServerRequest request) {
+        var matchId = request.pathVariable("matchId");
+        var owner = cluster.remoteOwner(matchId);
+        if (owner != null) {
+            return ServerResponse.temporaryRedirect(URI.create(owner + request.path())).build();
+        }
+        try {
+            matches.view(matchId);
+        }
+        catch (NoSuchElementException e) {
+            return ServerResponse.notFound().build();
+        }
+        Flux<DataBuffer> stream = Flux.create(sink -> {
+            var spectator = new FluxSpectator(sink, buffers, () -> feeds.snapshot(matches.view(matchId)));
+            sink.onRequest(spectator::request);
+            sink.onDispose(spectator::close);
+            if (!feeds.subscribe(matchId, spectator)) {
+                sink.error(new IllegalStateException("Too many spectators"));
+            }
+        });
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header("Cache-Control", "no-cache")
+                .body(BodyInserters.fromDataBuffers(stream));
+    }
+
+    private static final class FluxSpectator extends Spectator {
+        private final FluxSink<DataBuffer> sink;
+        private final DataBufferFactory buffers;
+        private final AtomicLong demand = new AtomicLong();
+
+        FluxSpectator(FluxSink<DataBuffer> sink, DataBufferFactory buffers, Supplier<Frame> resync) {
+            super(resync);
+            this.sink = sink;
+            this.buffers = buffers;
+        }
+
+        void request(long n) {
+            demand.getAndAccumulate(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+            drain();
+        }
+
+        @Override
+        protected boolean ready() {
+            return demand.get() > 0;
+        }
+
+        // wraps the shared frame without copying; the buffer is only read
+        @Override
+        protected void write(byte[] frame) {
+            demand.decrementAndGet();
+            sink.next(buffers.wrap(frame));
+        }
+
+        @Override
+        protected void flush() {}
+
+        @Override
+        protected void finish() {
+            sink.complete();
+        }
+
+        @Override
+        protected void abort(Exception e) {
+            sink.error(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package tech.quangson.battleengine.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnOutcome;
+import tech.quangson.battleengine.mechanics.TurnService;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+    Non-blocking counterparts of TurnController's endpoints for the reactive (Netty) mode. A single turn is cheap
+    enough to evaluate on the event loop; batches move to the turn pool so they never hold up other connections.
+    Errors are a JSON TurnOutcome, as in servlet mode.
+ */
+public class ReactiveTurnHandler {
+
+    private final TurnService ts;
+    private final BatchTurnService batch;
+    private final MoveCatalog catalog;
+    private final TurnMetrics metrics;
+    private final ObjectReader turnReader;
+    private final Scheduler turnScheduler;
+    private final int maxBatchSize;
+    private final int streamChunkSize;
+
+    public ReactiveTurnHandler(TurnService ts, BatchTurnService batch, MoveCatalog catalog, TurnMetrics metrics,
+                               ObjectMapper mapper, ForkJoinPool turnPool, int maxBatchSize, int streamChunkSize) {
+        this.ts = ts;
+        this.batch = batch;
+        this.catalog = catalog;
+        this.metrics = metrics;
+        this.turnReader = mapper.readerFor(TurnState.class);
+        this.turnScheduler = Schedulers.fromExecutor(turnPool);
+        this.maxBatchSize = maxBatchSize;
+        this.streamChunkSize = streamChunkSize;
+    }
+
+    public Mono<ServerResponse> processTurn(ServerRequest request) {
+        return request.bodyToMono(TurnState.class)
+                .flatMap(turn -> {
+                    try {
+                        return ServerResponse.ok().bodyValue(ts.evaluateTurn(turn));
+                    }
+                    catch (Exception e) {
+                        metrics.turnRejected(e);
+                        return rejected(e);
+                    }
+                })
+                .onErrorResume(ReactiveTurnHandler::malformed, e -> {
+                    var unreadable = new IllegalArgumentException("Malformed turn: " + reason(e), e);
+                    metrics.turnRejected(unreadable);
+                    return rejected(unreadable);
+                });
+    }
+
+    public Mono<ServerResponse> listMoves(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(catalog.entries());
+    }
+
+    // the array is decoded element by element and the body is cancelled one element past the limit
+    public Mono<ServerResponse> processTurns(ServerRequest request) {
+        return request.bodyToFlux(JsonNode.class)
+                .take(maxBatchSize + 1L)
+                .collectList()
+                .flatMap(items -> {
+                    if (items.size() > maxBatchSize) {
+                        return rejected(new IllegalArgumentException(
+                                "Batch exceeds the limit of " + maxBatchSize + " turns"));
+                    }
+                    return Mono.fromCallable(() -> batch.evaluateAll(items, this::readTurn))
+                            .subscribeOn(turnScheduler)
+                            .flatMap(outcomes -> ServerResponse.ok().bodyValue(outcomes));
+                })
+                .onErrorResume(ReactiveTurnHandler::malformed,
+                        e -> rejected(new IllegalArgumentException("Malformed batch: " + reason(e), e)));
+    }
+
+    // lines are decoded on the turn pool as part of each chunk, so a malformed line only fails its own slot
+    public Mono<ServerResponse> processTurnStream(ServerRequest request) {
+        Flux<TurnOutcome> outcomes = request.bodyToFlux(String.class)
+                .filter(line -> !line.isBlank())
+                .buffer(streamChunkSize)
+                .concatMap(chunk -> Mono.fromCallable(() -> batch.evaluateAll(chunk, this::readTurn))
+                        .subscribeOn(turnScheduler))
+                .concatMapIterable(chunk -> chunk);
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(outcomes, TurnOutcome.class);
+    }
+
+    private static Mono<ServerResponse> rejected(Exception e) {
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(TurnOutcome.failed(e));
+    }
+
+    // WebFlux reports a body that does not decode as ServerWebInputException wrapping the DecodingException
+    private static boolean malformed(Throwable e) {
+        return e instanceof DecodingException || e instanceof ServerWebInputException;
+    }
+
+    private static String reason(Throwable e) {
+        var cause = e instanceof ServerWebInputException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
+    }
+
+    private TurnState readTurn(String line) {
+        try {
+            return turnReader.readValue(line);
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed turn: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private TurnState readTurn(JsonNode item) {
+        try {
+            return turnReader.readValue(item);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("Malformed turn: " + (e instanceof JsonProcessingException json
+                    ? json.getOriginalMessage() : e.getMessage()), e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package tech.quangson.battleengine.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import tech.quangson.battleengine.cluster.ClusterRouter;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.spectate.Frame;
+import tech.quangson.battleengine.spectate.Spectator;
+import tech.quangson.battleengine.spectate.SpectatorFeeds;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/*
+    GET /engine/spectate/{matchId} as a Server-Sent Events stream (see SpectatorFeeds). A plain async servlet
+    rather than a controller so it can use non-blocking writes: a stream only takes frames while Tomcat says the
+    socket can take them, and no thread ever waits on a slow spectator. In cluster mode spectators are
+    redirected to the node that owns the match.
+ */
+public class SpectatorServlet extends HttpServlet {
+
+    private final SpectatorFeeds feeds;
+    private final MatchService matches;
+    private final ClusterRouter cluster;
+
+    public SpectatorServlet(SpectatorFeeds feeds, MatchService matches, ClusterRouter cluster) {
+        this.feeds = feeds;
+        this.matches = matches;
+        this.cluster = cluster;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var path = request.getPathInfo();
+        var matchId = path == null ? "" : path.substring(1);
+        if (matchId.isEmpty() || matchId.contains("/")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        var owner = cluster.remoteOwner(matchId);
+        if (owner != null) {
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            response.setHeader(HttpHeaders.LOCATION, owner + request.getRequestURI());
+            return;
+        }
+        try {
+            matches.view(matchId);
+        }
+        catch (NoSuchElementException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getLocalizedMessage());
+            return;
+        }
+
+        var async = request.startAsync();
+        async.setTimeout(0);
+        var spectator = new ServletSpectator(async, response.getOutputStream(),
+                () -> feeds.snapshot(matches.view(matchId)));
+        if (!feeds.subscribe(matchId, spectator)) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many spectators");
+            async.complete();
+            return;
+        }
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "http://localhost:4200");
+        async.addListener(spectator);
+        response.getOutputStream().setWriteListener(spectator);
+    }
+
+    private static final class ServletSpectator extends Spectator implements WriteListener, AsyncListener {
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private volatile boolean listening;
+
+        ServletSpectator(AsyncContext async, ServletOutputStream out, Supplier<Frame> resync) {
+            super(resync);
+            this.async = async;
+            this.out = out;
+        }
+
+        // writes may only start once Tomcat has switched the stream to non-blocking mode
+        @Override
+        protected boolean ready() {
+            return listening && out.isReady();
+        }
+
+        @Override
+        protected void write(byte[] frame) throws IOException {
+            out.write(frame);
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            if (out.isReady()) {
+                out.flush();
+            }
+        }
+
+        @Override
+        protected void finish() {
+            async.complete();
+        }
+
+        @Override
+        protected void abort(Exception e) {
+            try {
+                async.complete();
+            }
+            catch (IllegalStateException ignored) {
+                // already completed by the container
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            listening = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+    }
+}
@@ -1,22 +1,68 @@
 package tech.quangson.battleengine.web;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tech.quangson.battleengine.codec.PayloadTooLargeException;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnOutcome;
 import tech.quangson.battleengine.mechanics.TurnService;
 import tech.quangson.battleengine.mechanics.TurnState;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/engine")
 public class TurnController {
 
     private final TurnService ts;
+    private final BatchTurnService batch;
+    private final MoveCatalog catalog;
+    private final TurnMetrics metrics;
+    private final ObjectReader turnReader;
+    private final ObjectMapper mapper;
+    private final int maxBatchSize;
+    private final int streamChunkSize;
+    private final int maxLineLength;
 
-    public TurnController(TurnService ts) {
+    public TurnController(TurnService ts, BatchTurnService batch, MoveCatalog catalog, TurnMetrics metrics, ObjectMapper mapper,
+                          @Value("${engine.batch.max-size:10000}") int maxBatchSize,
+                          @Value("${engine.batch.stream-chunk-size:1024}") int streamChunkSize,
+                          @Value("${engine.batch.max-line-length:65536}") int maxLineLength) {
         this.ts = ts;
+        this.batch = batch;
+        this.catalog = catalog;
+        this.metrics = metrics;
+        this.mapper = mapper;
+        this.turnReader = mapper.readerFor(TurnState.class);
+        this.maxBatchSize = maxBatchSize;
+        this.streamChunkSize = streamChunkSize;
+        this.maxLineLength = maxLineLength;
     }
 
     @PostMapping("/turn")
@@ -26,7 +72,145 @@ public class TurnController {
             return new ResponseEntity<>(resultState, HttpStatus.OK);
         }
         catch(Exception e) {
-            return new ResponseEntity<>(e.getLocalizedMessage(),HttpStatus.BAD_REQUEST);
+            metrics.turnRejected(e);
+            return rejected(e);
+        }
+    }
+
+    // a body the JSON or binary converter could not read, or a binary one over engine.codec.max-bytes
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> unreadable(HttpMessageNotReadableException e){
+        metrics.turnRejected(e);
+        if (e instanceof PayloadTooLargeException) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).contentType(MediaType.APPLICATION_JSON)
+                    .body(TurnOutcome.failed(e));
+        }
+        return rejected(e);
+    }
+
+    /*
+        Errors are always JSON, like the error of a batch item, and the content type is set here so it wins over
+        an Accept of application/x-battle-turn, which has no error frame. The batch endpoints reject a whole
+        batch the same way.
+     */
+    private static ResponseEntity<?> rejected(Exception e){
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(TurnOutcome.failed(e));
+    }
+
+    @GetMapping("/moves")
+    public List<MoveCatalog.Entry> listMoves(){
+        return catalog.entries();
+    }
+
+    /*
+        The array is read element by element, so an oversized batch is rejected as soon as it passes the limit
+        rather than after the whole body has been bound. Elements stay JSON trees until the pool decodes them,
+        and one that does not bind to a TurnState only fails its own slot, as a malformed NDJSON line does.
+     */
+    @PostMapping(value = "/turns", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> processTurns(InputStream body) throws IOException {
+        var items = new ArrayList<JsonNode>();
+        try(var parser = mapper.getFactory().createParser(body)){
+            if(parser.nextToken() != JsonToken.START_ARRAY){
+                return rejected(new IllegalArgumentException("Expected a JSON array of turns"));
+            }
+            while(parser.nextToken() != JsonToken.END_ARRAY){
+                if(items.size() == maxBatchSize){
+                    return rejected(new IllegalArgumentException("Batch exceeds the limit of " + maxBatchSize
+                            + " turns"));
+                }
+                items.add(parser.readValueAsTree());
+            }
+        }
+        catch(JsonProcessingException e){
+            return rejected(new IllegalArgumentException("Malformed batch: " + e.getOriginalMessage(), e));
+        }
+        return new ResponseEntity<>(batch.evaluateAll(items, this::readTurn), HttpStatus.OK);
+    }
+
+    /*
+        One TurnState per line in, one TurnOutcome per line out, in the same order. The body is consumed in chunks
+        so the batch size is unbounded while memory stays proportional to the chunk size. A line longer than
+        maxLineLength is skipped without being buffered and fails its own slot.
+     */
+    @PostMapping(value = "/turns", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void processTurnStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        var out = response.getOutputStream();
+        var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        var chunk = new ArrayList<String>(streamChunkSize);
+        var buffer = new StringBuilder();
+        int length;
+        while((length = readLine(reader, buffer)) >= 0){
+            if(length > maxLineLength){
+                // null stands for the skipped line; readTurn fails it
+                chunk.add(null);
+            }
+            else if(!buffer.toString().isBlank()){
+                chunk.add(buffer.toString());
+            }
+            else {
+                continue;
+            }
+            if(chunk.size() == streamChunkSize){
+                writeLines(batch.evaluateAll(chunk, this::readTurn), out);
+                chunk.clear();
+            }
+        }
+        writeLines(batch.evaluateAll(chunk, this::readTurn), out);
+        out.flush();
+    }
+
+    /*
+        Reads up to the next newline into line, without the line break, and returns the line's length, or -1 at
+        the end of the body. Past maxLineLength characters the rest of the line is read and dropped.
+     */
+    private int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        // one character more than the limit, which may be the \r of a \r\n line break
+        while((c = reader.read()) != -1 && c != '\n'){
+            if(++length <= maxLineLength + 1){
+                line.append((char) c);
+            }
+        }
+        if(c == -1 && length == 0){
+            return -1;
+        }
+        if(length <= maxLineLength + 1 && line.length() > 0 && line.charAt(line.length() - 1) == '\r'){
+            line.setLength(line.length() - 1);
+            length--;
+        }
+        return length;
+    }
+
+    private TurnState readTurn(String line){
+        if(line == null){
+            throw new IllegalArgumentException("Turn line exceeds " + maxLineLength + " characters");
+        }
+        try {
+            return turnReader.readValue(line);
+        }
+        catch(JsonProcessingException e){
+            throw new IllegalArgumentException("Malformed turn: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private TurnState readTurn(JsonNode item){
+        try {
+            return turnReader.readValue(item);
+        }
+        catch(IOException e){
+            throw new IllegalArgumentException("Malformed turn: " + (e instanceof JsonProcessingException json
+                    ? json.getOriginalMessage() : e.getMessage()), e);
+        }
+    }
+
+    private void writeLines(List<TurnOutcome> outcomes, OutputStream out) throws IOException {
+        for(var outcome : outcomes){
+            out.write(mapper.writeValueAsBytes(outcome));
+            out.write('\n');
         }
     }
 }
@@ -0,0 +1,71 @@
+package tech.quangson.battleengine.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveLimiterTests {
+
+    private static final long Target = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private long now = 0;
+
+    @Test
+    void testFastRequestsGrowTheLimitAndSlowOnesCutIt() throws InterruptedException {
+        var limiter = new AdaptiveLimiter(10, 2, 100, Target, 0, 0, () -> now);
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertTrue(limiter.acquire());
+            limiter.release(Target / 2);
+        }
+        int grown = limiter.limit();
+        Assertions.assertTrue(grown > 10, "limit " + grown);
+
+        // a burst of slow completions within one target window is a single cut
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(limiter.acquire());
+            limiter.release(Target * 10);
+        }
+        Assertions.assertEquals((int) (grown * 0.9), limiter.limit(), 1);
+        now += Target;
+        Assertions.assertTrue(limiter.acquire());
+        limiter.release(Target * 10);
+        Assertions.assertTrue(limiter.limit() < (int) (grown * 0.9));
+    }
+
+    @Test
+    void testRejectsOverLimitWhenQueueIsFull() throws InterruptedException {
+        var limiter = new AdaptiveLimiter(2, 2, 2, Target, 0, 0, () -> now);
+        Assertions.assertTrue(limiter.acquire());
+        Assertions.assertTrue(limiter.acquire());
+        Assertions.assertFalse(limiter.acquire());
+        limiter.release(0);
+        Assertions.assertTrue(limiter.acquire());
+    }
+
+    @Test
+    void testQueuedRequestGetsReleasedSlot() throws InterruptedException {
+        var limiter = new AdaptiveLimiter(1, 1, 1, Target, 1, TimeUnit.SECONDS.toNanos(10));
+        Assertions.assertTrue(limiter.acquire());
+        var admitted = new CountDownLatch(1);
+        var waiter = new Thread(() -> {
+            try {
+                if (limiter.acquire()) {
+                    admitted.countDown();
+                }
+            }
+            catch (InterruptedException ignored) {
+            }
+        });
+        waiter.start();
+        while (limiter.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        // the queue holds one request, so another one is turned away at once
+        Assertions.assertFalse(limiter.acquire());
+        limiter.release(0);
+        Assertions.assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+}
@@ -0,0 +1,80 @@
+package tech.quangson.battleengine.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Set;
+
+public class AdmissionFilterTests {
+
+    private static final String Proxy = "10.0.0.1";
+
+    private static MockHttpServletResponse post(AdmissionFilter filter, String client) throws ServletException, IOException {
+        return post(filter, Proxy, client);
+    }
+
+    private static MockHttpServletResponse post(AdmissionFilter filter, String address, String client)
+            throws ServletException, IOException {
+        var request = new MockHttpServletRequest("POST", "/engine/turn");
+        request.setRemoteAddr(address);
+        request.addHeader("X-Client-Id", client);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void testRateLimitedClientGets429WithRetryAfter() throws ServletException, IOException {
+        var filter = new AdmissionFilter("X-Client-Id", Set.of(Proxy), new TokenBuckets(0.5, 2, 100),
+                new AdaptiveLimiter(8, 8, 8, 1_000_000_000L, 0, 0));
+        Assertions.assertEquals(200, post(filter, "fleet-1").getStatus());
+        Assertions.assertEquals(200, post(filter, "fleet-1").getStatus());
+        var rejected = post(filter, "fleet-1");
+        Assertions.assertEquals(429, rejected.getStatus());
+        Assertions.assertEquals("2", rejected.getHeader("Retry-After"));
+        Assertions.assertEquals(200, post(filter, "fleet-2").getStatus());
+        Assertions.assertEquals(1, filter.rateLimited());
+    }
+
+    @Test
+    void testClientHeaderIsOnlyTrustedFromProxies() throws ServletException, IOException {
+        var filter = new AdmissionFilter("X-Client-Id", AdmissionFilter.addresses(" 10.0.0.1, 10.0.0.2,"),
+                new TokenBuckets(0.5, 1, 100), new AdaptiveLimiter(8, 8, 8, 1_000_000_000L, 0, 0));
+        Assertions.assertEquals(200, post(filter, "192.0.2.7", "fresh-1").getStatus());
+        Assertions.assertEquals(429, post(filter, "192.0.2.7", "fresh-2").getStatus());
+        Assertions.assertEquals(200, post(filter, "10.0.0.2", "fleet-1").getStatus());
+        Assertions.assertEquals(200, post(filter, "10.0.0.2", "fleet-2").getStatus());
+        Assertions.assertEquals(3, filter.buckets().clients());
+    }
+
+    @Test
+    void testShedsWhenAtCapacity() throws ServletException, IOException, InterruptedException {
+        var limiter = new AdaptiveLimiter(1, 1, 1, 1_000_000_000L, 0, 0);
+        var filter = new AdmissionFilter("X-Client-Id", Set.of(Proxy), new TokenBuckets(1000, 1000, 100), limiter);
+        Assertions.assertTrue(limiter.acquire()); // another request holding the only slot
+        var rejected = post(filter, "fleet-1");
+        Assertions.assertEquals(429, rejected.getStatus());
+        Assertions.assertEquals("1", rejected.getHeader("Retry-After"));
+        Assertions.assertEquals(1, filter.shed());
+
+        limiter.release(0);
+        Assertions.assertEquals(200, post(filter, "fleet-1").getStatus());
+        Assertions.assertEquals(0, limiter.inflight());
+    }
+
+    @Test
+    void testOnlyPostsUnderEngineAreFiltered() throws ServletException, IOException {
+        var filter = new AdmissionFilter("X-Client-Id", Set.of(Proxy), new TokenBuckets(0.001, 1, 100),
+                new AdaptiveLimiter(1, 1, 1, 1_000_000_000L, 0, 0));
+        for (int i = 0; i < 3; i++) {
+            var response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/engine/moves"), response, new MockFilterChain());
+            Assertions.assertEquals(200, response.getStatus());
+        }
+    }
+}
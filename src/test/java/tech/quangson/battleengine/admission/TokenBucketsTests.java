@@ -0,0 +1,41 @@
+package tech.quangson.battleengine.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketsTests {
+
+    private long now = 1_000_000_000L;
+
+    @Test
+    void testBurstThenRate(){
+        var buckets = new TokenBuckets(10, 3, 100, () -> now);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, buckets.tryAcquire("a"));
+        }
+        long wait = buckets.tryAcquire("a");
+        Assertions.assertEquals(100_000_000L, wait);
+        // other clients have their own bucket
+        Assertions.assertEquals(0, buckets.tryAcquire("b"));
+
+        now += wait;
+        Assertions.assertEquals(0, buckets.tryAcquire("a"));
+        Assertions.assertTrue(buckets.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void testIdleBucketsMakeRoomForNewClients(){
+        var buckets = new TokenBuckets(10, 2, 2, () -> now);
+        buckets.tryAcquire("a");
+        buckets.tryAcquire("b");
+        // a third client shares the overflow bucket, and nothing is idle yet
+        buckets.tryAcquire("c");
+        Assertions.assertEquals(2, buckets.clients());
+        Assertions.assertEquals(0, buckets.evictIdle());
+
+        now += 1_000_000_000L;
+        Assertions.assertEquals(2, buckets.evictIdle());
+        Assertions.assertEquals(0, buckets.tryAcquire("c"));
+        Assertions.assertEquals(1, buckets.clients());
+    }
+}
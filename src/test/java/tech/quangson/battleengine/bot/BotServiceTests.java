@@ -0,0 +1,44 @@
+package tech.quangson.battleengine.bot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.List;
+import java.util.Map;
+
+public class BotServiceTests {
+
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(
+            new GameMove("Wait", "Other", "Rest", 0, 0, 10, 1, null, null),
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null),
+            new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null)));
+
+    private final BotService bots = new BotService(catalog, null, 20, 30, 2, 40, 16, DamageTable.NONE,
+            DamageFormulas.NONE);
+
+    private static BotRequest request(List<Integer> botMoves, Integer budgetMs) {
+        var stats = Map.of("Health", 1_000_000_000, "Energy", 500, "Force", 50, "Focus", 50, "Reflex", 50,
+                "Spirit", 50, "Agility", 50);
+        var turn = new TurnState(new TurnState.PlayerState("bot", null, stats, 0),
+                new TurnState.PlayerState("human", null, stats, 0));
+        return new BotRequest(turn, "bot", botMoves, List.of(1, 2), budgetMs, null);
+    }
+
+    @Test
+    void testBudgetIsCappedAtTheConfiguredMaximum(){
+        var move = bots.decide(request(List.of(1, 2), 60_000));
+        Assertions.assertTrue(move.micros() < 30_000 + 500_000, move.micros() + " us");
+        Assertions.assertTrue(move.depth() >= 1 && move.depth() < 40, "depth " + move.depth());
+    }
+
+    @Test
+    void testRejectsTooManyCandidatesAndNegativeBudgets(){
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bots.decide(request(List.of(0, 1, 2), null)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bots.decide(request(List.of(1, 2), -5)));
+    }
+}
@@ -0,0 +1,124 @@
+package tech.quangson.battleengine.bot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.quangson.battleengine.mechanics.CompiledMove;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.StatBlock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class MoveSearchTests {
+
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(
+            new GameMove("Wait", "Other", "Rest", 0, 0, 10, 1, null, null),
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null),
+            new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null),
+            new GameMove("Rally", "Special", "Buff", 0, 20, 3, 0, Map.of("Force", 10, "Energy", 50), null),
+            new GameMove("Hex", "Magic", "Debuff", 0, 30, 3, 1, null, Map.of("Reflex", 25))));
+    private static final CompiledMove[] moves = catalog.entries().stream()
+            .map(entry -> catalog.get(entry.id()))
+            .toArray(CompiledMove[]::new);
+
+    private static int[] stats(int health, int energy) {
+        return StatBlock.of(Map.of("Health", health, "Energy", energy, "Force", 50, "Focus", 50, "Reflex", 50,
+                "Spirit", 50, "Agility", 50)).toArray();
+    }
+
+    @Test
+    void testTakesTheKnockout(){
+        var search = new MoveSearch(null, 10, 4);
+        var decision = search.decide(moves, stats(1_000_000, 100), moves, stats(50, 100), 1,
+                MoveSearch.Opponent.UNIFORM, TimeUnit.SECONDS.toNanos(5));
+
+        Assertions.assertEquals(1, decision.move());
+        Assertions.assertEquals(1.0, decision.value());
+        Assertions.assertEquals(1, decision.depth());
+    }
+
+    @Test
+    void testSkipsUnaffordableMoves(){
+        var search = new MoveSearch(null, 10, 2);
+        // Slash would knock the opponent out but costs more energy than the bot has
+        var decision = search.decide(moves, stats(1_000_000, 40), moves, stats(50, 100), 0,
+                MoveSearch.Opponent.WORST_CASE, TimeUnit.SECONDS.toNanos(5));
+
+        Assertions.assertNotEquals(1, decision.move());
+    }
+
+    @Test
+    void testStaysWithinBudget(){
+        var search = new MoveSearch(null, 16, 40);
+        long budget = TimeUnit.MILLISECONDS.toNanos(20);
+        var decision = search.decide(moves, stats(1_000_000_000, 500), moves, stats(1_000_000_000, 500), 0,
+                MoveSearch.Opponent.UNIFORM, budget);
+
+        Assertions.assertTrue(decision.depth() >= 1 && decision.depth() < 40, "depth " + decision.depth());
+        Assertions.assertTrue(decision.nanos() < budget + TimeUnit.MILLISECONDS.toNanos(200), decision.nanos() + " ns");
+        Assertions.assertTrue(decision.nodes() > 0);
+    }
+
+    @Test
+    void testDepthOneKeepsTheDeadline(){
+        var search = new MoveSearch(null, 10, 4);
+        // Slash is unaffordable, so the first candidate is Wait
+        var decision = search.decide(moves, stats(1_000_000, 40), moves, stats(50, 100), 0,
+                MoveSearch.Opponent.UNIFORM, 0);
+
+        Assertions.assertEquals(0, decision.depth());
+        Assertions.assertEquals(0, decision.nodes());
+        Assertions.assertEquals(0, decision.move());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> search.decide(moves, stats(100, 40), moves,
+                stats(50, 100), 0, MoveSearch.Opponent.UNIFORM, -1));
+        // a budget near Long.MAX_VALUE must not wrap the deadline into the past
+        Assertions.assertEquals(1, search.decide(moves, stats(1_000_000, 100), moves, stats(50, 100), 1,
+                MoveSearch.Opponent.UNIFORM, Long.MAX_VALUE).depth());
+    }
+
+    @Test
+    void testParallelRootMatchesSerial(){
+        var pool = new ForkJoinPool(4);
+        try {
+            var rng = new SplittableRandom(11);
+            var serial = new MoveSearch(null, 14, 3);
+            var parallel = new MoveSearch(pool, 14, 3);
+            for (int round = 0; round < 20; round++) {
+                var bot = stats(rng.nextInt(100, 20_000), rng.nextInt(0, 200));
+                var opponent = stats(rng.nextInt(100, 20_000), rng.nextInt(0, 200));
+                for (var model : MoveSearch.Opponent.values()) {
+                    var expected = serial.decide(moves, bot, moves, opponent, round % 2, model, TimeUnit.SECONDS.toNanos(60));
+                    var actual = parallel.decide(moves, bot, moves, opponent, round % 2, model, TimeUnit.SECONDS.toNanos(60));
+
+                    Assertions.assertEquals(expected.depth(), actual.depth(), "round " + round);
+                    Assertions.assertEquals(expected.value(), actual.value(), 1e-6, "round " + round);
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testIncrementalHashMatchesFullHash(){
+        var rng = new SplittableRandom(7);
+        var player1 = new int[Stat.COUNT];
+        var player2 = new int[Stat.COUNT];
+        long hash = Zobrist.hash(player1, player2);
+        for (int i = 0; i < 10_000; i++) {
+            var before = rng.nextBoolean() ? player1 : player2;
+            var after = before.clone();
+            after[rng.nextInt(Stat.COUNT)] = rng.nextInt();
+            hash = Zobrist.update(hash, before == player1 ? 0 : 1, before, after);
+            System.arraycopy(after, 0, before, 0, Stat.COUNT);
+
+            Assertions.assertEquals(Zobrist.hash(player1, player2), hash);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package tech.quangson.battleengine.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.session.MatchSetup;
+import tech.quangson.battleengine.session.MatchSnapshot;
+import tech.quangson.battleengine.session.MatchStore;
+import tech.quangson.battleengine.session.MoveSubmission;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class ClusterRouterTests {
+
+    private static final String A = "http://localhost:8181";
+    private static final String B = "http://localhost:8182";
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null)));
+    private static final GameMove poison = new GameMove("Poison", "Magic", "Debuff", 0, 0, 3, 1, null, Map.of("Health", 10));
+
+    private final Map<String, MatchService> nodes = new HashMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // delivers hand-offs in process, through JSON like the real hop
+    private final PeerClient peers = new PeerClient(mapper, Duration.ofSeconds(1), "secret") {
+        @Override
+        public boolean push(String member, MatchSnapshot snapshot) throws IOException {
+            var node = nodes.get(member);
+            if (node == null) {
+                throw new IOException(member + " is down");
+            }
+            try {
+                node.restore(mapper.readValue(mapper.writeValueAsBytes(snapshot), MatchSnapshot.class));
+                return true;
+            }
+            catch (IllegalStateException e) {
+                return false;
+            }
+        }
+    };
+
+    private MatchService node(String member) {
+        return nodes.computeIfAbsent(member, m -> new MatchService(new MatchStore(4, Duration.ofMinutes(1)), catalog));
+    }
+
+    @Test
+    void testScaleUpHandsMatchesToTheNewOwner(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("members");
+        Files.writeString(file, A + "\n# " + B + " joins later\n");
+        var a = node(A);
+        var router = new ClusterRouter(a, peers, true, A, "", file, 64, Duration.ofSeconds(30));
+        var ids = new String[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = a.create(router.newMatchId(), setup());
+            a.submit(ids[i], new MoveSubmission("knight", 1));
+            a.submit(ids[i], new MoveSubmission("mage", 0));
+            a.submit(ids[i], new MoveSubmission("knight", 0));
+        }
+        var before = new HashMap<String, Object>();
+        for (var id : ids) {
+            before.put(id, a.view(id));
+        }
+
+        node(B);
+        Files.writeString(file, A + ", " + B + "\n");
+        int moved = router.refresh();
+
+        Assertions.assertTrue(moved > 50 && moved < 150, "moved " + moved);
+        Assertions.assertEquals(ids.length, a.matchIds().size() + node(B).matchIds().size());
+        for (var id : ids) {
+            var owner = router.remoteOwner(id) == null ? A : B;
+            Assertions.assertEquals(before.get(id), nodes.get(owner).view(id));
+            if (owner.equals(B)) {
+                Assertions.assertNull(router.previousOwner(id));
+                // the knight's pick and the mage's poison came along
+                var delta = nodes.get(B).submit(id, new MoveSubmission("mage", 1)).orElseThrow();
+                Assertions.assertFalse(delta.effects().isEmpty());
+            }
+        }
+        Assertions.assertEquals(0, router.refresh());
+    }
+
+    @Test
+    void testFailedHandOffKeepsTheMatchAndRetries(){
+        var a = node(A);
+        var router = new ClusterRouter(a, peers, true, A, A, null, 64, Duration.ofSeconds(30));
+        var id = a.create(setup());
+        router.update(List.of(B));
+
+        Assertions.assertEquals(0, router.handOff());
+        Assertions.assertEquals(List.of(id), a.matchIds());
+
+        node(B);
+        Assertions.assertEquals(1, router.handOff());
+        Assertions.assertEquals(0, a.matchIds().size());
+        Assertions.assertEquals(List.of(id), node(B).matchIds());
+    }
+
+    @Test
+    void testRestoreRefusesOlderSnapshots(){
+        var a = node(A);
+        var b = node(B);
+        var id = a.create(setup());
+        var snapshot = a.release(id).orElseThrow();
+        b.restore(snapshot);
+        // the same hand-off delivered twice changes nothing
+        b.restore(snapshot);
+        b.submit(id, new MoveSubmission("knight", 0));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> b.restore(snapshot));
+        // the knight's pick made after the hand-off survives
+        Assertions.assertEquals(0, b.release(id).orElseThrow().pendingMoves()[0]);
+    }
+
+    @Test
+    void testStaleHandOffIsDropped(){
+        var a = node(A);
+        var b = node(B);
+        var id = a.create(setup());
+        var snapshot = a.release(id).orElseThrow();
+        b.restore(snapshot);
+        b.submit(id, new MoveSubmission("knight", 0));
+        a.restore(snapshot);
+        var router = new ClusterRouter(a, peers, true, A, A, null, 64, Duration.ofSeconds(30));
+        router.update(List.of(B));
+
+        Assertions.assertEquals(0, router.handOff());
+        Assertions.assertEquals(0, a.matchIds().size());
+        Assertions.assertEquals(0, b.release(id).orElseThrow().pendingMoves()[0]);
+    }
+
+    @Test
+    void testNewOwnerReportsMatchesInTransit(){
+        var router = new ClusterRouter(node(A), peers, true, A, B, null, 64, Duration.ofSeconds(30));
+        router.update(List.of(A));
+        Assertions.assertTrue(router.inTransit("any"));
+
+        var settled = new ClusterRouter(node(A), peers, true, A, B, null, 64, Duration.ZERO);
+        settled.update(List.of(A));
+        Assertions.assertFalse(settled.inTransit("any"));
+    }
+
+    @Test
+    void testOnlyTheSharedSecretIsTrusted(){
+        Assertions.assertTrue(peers.trusted("secret"));
+        Assertions.assertFalse(peers.trusted("secreT"));
+        Assertions.assertFalse(peers.trusted(null));
+        Assertions.assertFalse(new PeerClient(mapper, Duration.ofSeconds(1), "").trusted(""));
+    }
+
+    @Test
+    void testReleasedMatchRejectsLateRequests(){
+        var a = node(A);
+        var id = a.create(setup());
+        a.submit(id, new MoveSubmission("knight", 0));
+        var snapshot = a.release(id).orElseThrow();
+
+        Assertions.assertTrue(a.release(id).isEmpty());
+        Assertions.assertEquals(0, snapshot.pendingMoves()[0]);
+        Assertions.assertThrows(NoSuchElementException.class, () -> a.view(id));
+    }
+
+    @Test
+    void testDisabledRouterKeepsEverythingLocal(){
+        var router = new ClusterRouter(node(A), peers, false, A, B, null, 64, Duration.ofSeconds(30));
+        Assertions.assertNull(router.remoteOwner("any"));
+        Assertions.assertNotNull(router.newMatchId());
+        Assertions.assertEquals(0, router.refresh());
+    }
+
+    private static MatchSetup setup(){
+        var stats = Map.of("Force", 75, "Focus", 75, "Reflex", 75, "Spirit", 75, "Health", 9000, "Energy", 150,
+                "Agility", 80);
+        return new MatchSetup(
+                new MatchSetup.Combatant("knight", stats, List.of(poison), List.of(0)),
+                new MatchSetup.Combatant("mage", stats, List.of(poison), List.of(0)));
+    }
+}
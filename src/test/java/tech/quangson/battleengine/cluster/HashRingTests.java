@@ -0,0 +1,60 @@
+package tech.quangson.battleengine.cluster;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+public class HashRingTests {
+
+    private static final List<String> members = List.of(
+            "http://localhost:8181", "http://localhost:8182", "http://localhost:8183", "http://localhost:8184");
+
+    @Test
+    void testVirtualNodesSpreadKeysEvenly(){
+        var ring = new HashRing(members, 128);
+        var counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(ring.owner(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        Assertions.assertEquals(members.size(), counts.size());
+        for (var count : counts.values()) {
+            Assertions.assertTrue(count > 25_000 * 0.8 && count < 25_000 * 1.2, counts.toString());
+        }
+    }
+
+    @Test
+    void testAddingAMemberOnlyMovesKeysToIt(){
+        var before = new HashRing(members, 128);
+        var joined = new ArrayList<>(members);
+        joined.add("http://localhost:8185");
+        var after = new HashRing(joined, 128);
+        int moved = 0;
+        for (int i = 0; i < 100_000; i++) {
+            var key = "match-" + i;
+            var owner = after.owner(key);
+            if (!owner.equals(before.owner(key))) {
+                Assertions.assertEquals("http://localhost:8185", owner);
+                moved++;
+            }
+        }
+        // about a fifth of the keys move
+        Assertions.assertTrue(moved > 15_000 && moved < 25_000, "moved " + moved);
+    }
+
+    @Test
+    void testOrderOfMembersDoesNotMatter(){
+        var ring = new HashRing(members, 16);
+        var shuffled = new ArrayList<>(members);
+        Collections.reverse(shuffled);
+        var reversed = new HashRing(shuffled, 16);
+        for (int i = 0; i < 1_000; i++) {
+            Assertions.assertEquals(ring.owner("m" + i), reversed.owner("m" + i));
+        }
+        Assertions.assertNull(HashRing.EMPTY.owner("m"));
+    }
+}
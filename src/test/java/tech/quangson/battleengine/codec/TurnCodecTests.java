@@ -0,0 +1,112 @@
+package tech.quangson.battleengine.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpInputMessage;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class TurnCodecTests {
+
+    private static final GameMove Slash = new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null);
+    private static final GameMove Rally = new GameMove("Rally", "Special", "Buff", 0, 20, 3, 0, Map.of("Force", 10), Map.of());
+
+    private final TurnCodec codec = new TurnCodec(MoveCatalog.of(List.of(Slash)));
+
+    private static Map<String, Integer> stats(int health) {
+        return Map.of("Force", 75, "Focus", 70, "Reflex", 65, "Spirit", 60, "Health", health, "Energy", 150, "Agility", 90);
+    }
+
+    @Test
+    void testRoundTripKeepsInlineMovesStatsAndSequence() {
+        var turn = new TurnState(new TurnState.PlayerState("p1", Rally, stats(9000)),
+                new TurnState.PlayerState("p2", null, stats(8000), 3), new String[]{"p2", "p1"});
+        var buffer = ByteBuffer.allocate(512);
+        codec.writeTurn(turn, buffer);
+
+        var decoded = codec.readTurn(buffer.flip());
+        Assertions.assertFalse(buffer.hasRemaining());
+        Assertions.assertEquals(Rally, decoded.getPlayer1State().move());
+        Assertions.assertEquals(stats(9000), decoded.getPlayer1State().stats());
+        Assertions.assertNull(decoded.getPlayer2State().move());
+        Assertions.assertEquals(3, decoded.getPlayer2State().moveId());
+        Assertions.assertEquals(stats(8000), decoded.getPlayer2State().stats());
+        Assertions.assertArrayEquals(new String[]{"p2", "p1"}, decoded.getSequence());
+    }
+
+    @Test
+    void testCatalogMovesAreWrittenAsIdsAndBeatJson() throws Exception {
+        var turn = new TurnState(new TurnState.PlayerState("p1", Slash, stats(9000)),
+                new TurnState.PlayerState("p2", Slash, stats(9000)));
+        var buffer = ByteBuffer.allocate(512);
+        codec.writeTurn(turn, buffer);
+        int binarySize = buffer.position();
+
+        var decoded = codec.readTurn(buffer.flip());
+        Assertions.assertNull(decoded.getPlayer1State().move());
+        Assertions.assertEquals(0, decoded.getPlayer1State().moveId());
+        Assertions.assertTrue(binarySize * 4 < new ObjectMapper().writeValueAsBytes(turn).length);
+    }
+
+    @Test
+    void testTruncatedOrForeignPayloadIsRejected() {
+        var buffer = ByteBuffer.allocate(512);
+        codec.writeTurn(new TurnState(new TurnState.PlayerState("p1", Slash, stats(1)),
+                new TurnState.PlayerState("p2", Slash, stats(1))), buffer);
+        buffer.flip().limit(buffer.limit() - 3);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.readTurn(buffer));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.readTurn(ByteBuffer.wrap("{}".getBytes())));
+    }
+
+    @Test
+    void testTrailingBytesAreRejected() {
+        var buffer = ByteBuffer.allocate(512);
+        codec.writeTurn(new TurnState(new TurnState.PlayerState("p1", Slash, stats(1)),
+                new TurnState.PlayerState("p2", Slash, stats(1))), buffer);
+        buffer.put((byte) 0).flip();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.readTurn(buffer.duplicate()));
+        Assertions.assertNotNull(codec.readNextTurn(buffer));
+        Assertions.assertEquals(1, buffer.remaining());
+    }
+
+    @Test
+    void testConverterRefusesBodiesOverTheLimit() {
+        var payload = ByteBuffer.allocate(512);
+        codec.writeTurn(new TurnState(new TurnState.PlayerState("p1", Rally, stats(9000)),
+                new TurnState.PlayerState("p2", Rally, stats(8000))), payload);
+        var pool = new ByteBufferPool(1, 16);
+        var pooled = pool.acquire();
+        pool.release(pooled);
+
+        var converter = new BinaryTurnMessageConverter(codec, pool, payload.position() - 1);
+        var input = new MockHttpInputMessage(Arrays.copyOf(payload.array(), payload.position()));
+        Assertions.assertThrows(PayloadTooLargeException.class, () -> converter.read(TurnState.class, input));
+        Assertions.assertSame(pooled, pool.acquire());
+    }
+
+    @Test
+    void testConverterReturnsOutgrownBufferToPool() throws Exception {
+        var turn = new TurnState(new TurnState.PlayerState("p1", Rally, stats(9000)),
+                new TurnState.PlayerState("p2", Rally, stats(8000)));
+        var payload = ByteBuffer.allocate(512);
+        codec.writeTurn(turn, payload);
+        var pool = new ByteBufferPool(1, 16);
+        var pooled = pool.acquire();
+        pool.release(pooled);
+
+        var converter = new BinaryTurnMessageConverter(codec, pool, 1 << 20);
+        var input = new MockHttpInputMessage(Arrays.copyOf(payload.array(), payload.position()));
+        var decoded = (TurnState) converter.read(TurnState.class, input);
+        Assertions.assertEquals(Rally, decoded.getPlayer2State().move());
+        Assertions.assertSame(pooled, pool.acquire());
+    }
+}
@@ -0,0 +1,138 @@
+package tech.quangson.battleengine.journal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+public class MappedJournalTests {
+
+    private static final GameMove Slash = new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null);
+    private static final GameMove Bolt = new GameMove("Bolt", "Magic", "Damage", 70, 30, 10, 1, null, null);
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(Slash));
+
+    @TempDir
+    Path directory;
+
+    private static TurnState turn(int i) {
+        var stats = Map.of("Force", 75, "Focus", 75, "Reflex", 75, "Spirit", 75, "Health", 9000 + i, "Energy", 150, "Agility", 80 + i % 20);
+        return new TurnState(new TurnState.PlayerState("p1-" + i, Slash, stats),
+                new TurnState.PlayerState("p2-" + i, Bolt, stats));
+    }
+
+    @Test
+    void testConcurrentTurnsAreJournaledAndReplayIdentically() throws IOException {
+        var journal = new MappedJournal(directory, 1 << 20, 1024, new TurnCodec(catalog));
+        var ts = new TurnServiceImpl(catalog, TurnMetrics.NONE, journal);
+        IntStream.range(0, 10_000).parallel().forEach(i -> ts.evaluateTurn(turn(i)));
+        journal.close();
+
+        var reader = new JournalReader(new TurnCodec(catalog));
+        var replayed = new TurnServiceImpl(catalog);
+        long turns = 0;
+        for (var segment : JournalReader.segments(directory)) {
+            var report = reader.replay(segment, replayed);
+            Assertions.assertEquals(0, report.diverged());
+            turns += report.turns();
+        }
+        Assertions.assertEquals(10_000, turns);
+        Assertions.assertTrue(JournalReader.segments(directory).size() > 1);
+        Assertions.assertEquals(0, journal.dropped());
+    }
+
+    @Test
+    void testReplayFlagsChangedOutcomes() throws IOException {
+        var journal = new MappedJournal(directory, 1 << 16, 64, new TurnCodec(catalog));
+        var ts = new TurnServiceImpl(catalog, TurnMetrics.NONE, journal);
+        ts.evaluateTurn(turn(1));
+        journal.close();
+
+        var stronger = new GameMove("Slash", "Combat", "Damage", 90, 50, 10, 1, null, null);
+        var reader = new JournalReader(new TurnCodec(catalog));
+        var segment = JournalReader.segments(directory).get(0);
+        var report = reader.replay(segment, new TurnServiceImpl(MoveCatalog.of(List.of(stronger))));
+        Assertions.assertEquals(1, report.turns());
+        Assertions.assertEquals(1, report.diverged());
+    }
+
+    @Test
+    void testReopenedJournalAppendsANewSegment() throws IOException {
+        for (int run = 0; run < 2; run++) {
+            var journal = new MappedJournal(directory, 1 << 16, 64, new TurnCodec(catalog));
+            new TurnServiceImpl(catalog, TurnMetrics.NONE, journal).evaluateTurn(turn(run));
+            journal.close();
+        }
+
+        var entries = new ArrayList<JournalEntry>();
+        new JournalReader(new TurnCodec(catalog)).read(directory, entries::add);
+        Assertions.assertEquals(2, JournalReader.segments(directory).size());
+        Assertions.assertEquals(List.of("p1-0", "p1-1"), entries.stream().map(e -> e.turn().getPlayer1State().playerId()).toList());
+        Assertions.assertEquals(0, entries.get(0).turn().getPlayer1State().moveId());
+        Assertions.assertEquals(Bolt, entries.get(0).turn().getPlayer2State().move());
+    }
+
+    @Test
+    void testCallerMayChangeItsTurnOnceAppended() throws IOException {
+        var journal = new MappedJournal(directory, 1 << 16, 64, new TurnCodec(catalog));
+        var stats = new HashMap<>(turn(1).getPlayer1State().stats());
+        var turn = new TurnState(new TurnState.PlayerState("p1", Slash, stats),
+                new TurnState.PlayerState("p2", Bolt, turn(0).getPlayer2State().stats()));
+        var result = new TurnServiceImpl(catalog).evaluateTurn(turn);
+        journal.append(turn, result);
+        stats.put("Health", 1);
+        result[0].setSequence(new String[]{"p2", "p1"});
+        journal.close();
+
+        var entries = new ArrayList<JournalEntry>();
+        new JournalReader(new TurnCodec(catalog)).read(directory, entries::add);
+        Assertions.assertEquals(9001, entries.get(0).turn().getPlayer1State().getStat("Health"));
+        Assertions.assertEquals("p1", entries.get(0).result()[1].getSequence()[0]);
+    }
+
+    @Test
+    void testTurnThatCannotBeJournaledIsDroppedAndTheWriterGoesOn() throws IOException {
+        var journal = new MappedJournal(directory, 1 << 16, 64, new TurnCodec(catalog));
+        var result = new TurnServiceImpl(catalog).evaluateTurn(turn(1));
+        var modifiers = new HashMap<String, Integer>();
+        modifiers.put("Force", null);
+        var hollow = new GameMove("Hollow", "Magic", "Buff", 0, 30, 10, 1, modifiers, null);
+        var broken = new TurnState(new TurnState.PlayerState("p1-1", Slash, turn(1).getPlayer1State().stats()),
+                new TurnState.PlayerState("p2-1", hollow, turn(1).getPlayer2State().stats()));
+        journal.append(broken, result);
+        journal.append(turn(1), result);
+        journal.close();
+
+        var entries = new ArrayList<JournalEntry>();
+        new JournalReader(new TurnCodec(catalog)).read(directory, entries::add);
+        Assertions.assertEquals(1, entries.size());
+        Assertions.assertEquals(1, journal.dropped());
+        Assertions.assertNull(journal.failure());
+    }
+
+    @Test
+    void testAbandonedRingStopsBlockingProducers() throws IOException {
+        var ring = new JournalRing(2);
+        var result = new TurnServiceImpl(catalog).evaluateTurn(turn(1));
+        Assertions.assertTrue(ring.publish(turn(1), result));
+        Assertions.assertTrue(ring.publish(turn(2), result));
+        var blocked = CompletableFuture.supplyAsync(() -> ring.publish(turn(3), result));
+        ring.abandon();
+        Assertions.assertFalse(blocked.join());
+        Assertions.assertFalse(ring.publish(turn(4), result));
+        Assertions.assertEquals(2, ring.discard());
+    }
+}
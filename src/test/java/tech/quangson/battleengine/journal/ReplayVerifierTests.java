@@ -0,0 +1,138 @@
+package tech.quangson.battleengine.journal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.DamageFormula;
+import tech.quangson.battleengine.mechanics.DamageFormulas;
+import tech.quangson.battleengine.mechanics.DamageTable;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.Stat;
+import tech.quangson.battleengine.mechanics.TurnCache;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class ReplayVerifierTests {
+
+    private static final GameMove Slash = new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null);
+    private static final GameMove Guard = new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null);
+    private static final int Turns = 3 * ReplayVerifier.ChunkSize + 17;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void record() throws IOException {
+        var catalog = MoveCatalog.of(List.of(Slash, Guard));
+        var journal = new MappedJournal(directory, 1 << 20, 1024, new TurnCodec(catalog));
+        record(new TurnServiceImpl(catalog, TurnMetrics.NONE, journal), Turns);
+        journal.close();
+    }
+
+    private static void record(TurnServiceImpl ts, int turns) {
+        for (int i = 0; i < turns; i++) {
+            var stats = Map.of("Force", 75, "Focus", 75, "Reflex", 75, "Spirit", 75, "Health", 9000, "Energy", 150, "Agility", 60 + i % 40);
+            ts.evaluateTurn(new TurnState(new TurnState.PlayerState("a", null, stats, 0),
+                    new TurnState.PlayerState("b", null, stats, i % 2)));
+        }
+    }
+
+    private ReplayVerifier.Report verify(GameMove slash, StatTolerances tolerances, StringWriter csv) throws IOException {
+        var pool = new ForkJoinPool(4);
+        try {
+            return new ReplayVerifier(pool, MoveCatalog.of(List.of(slash, Guard)), tolerances)
+                    .verify(JournalReader.segments(directory), csv);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUnchangedEngineReplaysWithoutDivergence() throws IOException {
+        var csv = new StringWriter();
+        var report = verify(Slash, StatTolerances.exact(), csv);
+        Assertions.assertTrue(JournalReader.segments(directory).size() > 1);
+        Assertions.assertEquals(Turns, report.turns());
+        Assertions.assertEquals(0, report.diverged());
+        Assertions.assertEquals(ReplayVerifier.Header + "\n", csv.toString());
+    }
+
+    @Test
+    void testChangedDamageIsReportedPerStatInJournalOrder() throws IOException {
+        var stronger = new GameMove("Slash", "Combat", "Damage", 90, 50, 10, 1, null, null);
+        var csv = new StringWriter();
+        var report = verify(stronger, StatTolerances.exact(), csv);
+        Assertions.assertEquals(Turns, report.turns());
+        Assertions.assertEquals(Turns, report.diverged());
+
+        var rows = csv.toString().split("\n");
+        Assertions.assertEquals("journal-000000.seg,0,0,1,Health", rows[1].substring(0, rows[1].lastIndexOf(',', rows[1].lastIndexOf(',') - 1)));
+        long previous = -1;
+        String segment = "";
+        for (int i = 1; i < rows.length; i++) {
+            var columns = rows[i].split(",");
+            Assertions.assertEquals(Stat.HEALTH.key(), columns[4]);
+            if (!columns[0].equals(segment)) {
+                Assertions.assertTrue(columns[0].compareTo(segment) > 0);
+                segment = columns[0];
+                previous = -1;
+            }
+            Assertions.assertTrue(Long.parseLong(columns[1]) >= previous);
+            previous = Long.parseLong(columns[1]);
+        }
+
+        var tolerant = verify(stronger, StatTolerances.parse("Health=10000"), new StringWriter());
+        Assertions.assertEquals(0, tolerant.diverged());
+    }
+
+    @Test
+    void testSegmentsAreOnlyReplayedInTheDamageModeTheyWereWrittenIn(@TempDir Path other) throws IOException {
+        var catalog = MoveCatalog.of(List.of(Slash, Guard));
+        var formula = DamageFormula.parse("combat = power * 100\nmagic = power\nspecial = power");
+        var formulas = new DamageFormulas(formula, null);
+        var formulaJournal = new MappedJournal(other, 1 << 20, 1024, new TurnCodec(catalog),
+                DamageMode.of(DamageTable.NONE, formulas));
+        record(new TurnServiceImpl(catalog, TurnMetrics.NONE, formulaJournal, TurnCache.NONE, DamageTable.NONE, formulas), 100);
+        formulaJournal.close();
+        var segments = new ArrayList<>(JournalReader.segments(directory));
+        segments.addAll(JournalReader.segments(other));
+        Assertions.assertEquals(DamageMode.FORMULA, JournalReader.damageMode(segments.get(segments.size() - 1)));
+
+        var pool = new ForkJoinPool(2);
+        try {
+            var exact = new ReplayVerifier(pool, catalog, StatTolerances.exact()).verify(segments, new StringWriter());
+            Assertions.assertEquals(Turns, exact.turns());
+            Assertions.assertEquals(0, exact.diverged());
+            Assertions.assertEquals(100, exact.skipped());
+
+            var replayed = new ReplayVerifier(pool, catalog, StatTolerances.exact(), formula).verify(segments, new StringWriter());
+            Assertions.assertEquals(100, replayed.turns());
+            Assertions.assertEquals(0, replayed.diverged());
+            Assertions.assertEquals(Turns, replayed.skipped());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMalformedTolerancesAreRejected() {
+        Assertions.assertEquals(5, StatTolerances.parse("Health=5, Energy=1").of(Stat.HEALTH));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StatTolerances.parse("Luck=5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StatTolerances.parse("Health"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StatTolerances.parse("Health=-1"));
+    }
+}
@@ -0,0 +1,75 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatchTurnServiceTests {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final TurnService ts = new TurnServiceImpl();
+    private final BatchTurnService batch = new BatchTurnService(ts, pool);
+
+    @AfterEach
+    void shutdown(){
+        pool.shutdown();
+    }
+
+    @Test
+    void testResultsKeepInputOrder(){
+        var turns = new ArrayList<TurnState>();
+        for(int i = 0; i < 1000; i++){
+            turns.add(turn("p" + i, 50 + i % 100));
+        }
+        var outcomes = batch.evaluateAll(turns);
+
+        Assertions.assertEquals(turns.size(), outcomes.size());
+        for(int i = 0; i < turns.size(); i++){
+            var expected = ts.evaluateTurn(turns.get(i));
+            var actual = outcomes.get(i).result();
+            Assertions.assertNull(outcomes.get(i).error());
+            Assertions.assertArrayEquals(expected[1].getSequence(), actual[1].getSequence());
+            Assertions.assertEquals(expected[1].getPlayer1State(), actual[1].getPlayer1State());
+            Assertions.assertEquals(expected[1].getPlayer2State(), actual[1].getPlayer2State());
+        }
+    }
+
+    @Test
+    void testBadTurnOnlyFailsItsOwnSlot(){
+        var broken = turn("broken", 75);
+        broken.getPlayer1State().stats().remove("Energy");
+        var turns = new ArrayList<TurnState>();
+        turns.add(turn("ok", 75));
+        turns.add(broken);
+        turns.add(null);
+        var outcomes = batch.evaluateAll(turns);
+
+        Assertions.assertNotNull(outcomes.get(0).result());
+        Assertions.assertEquals("Missing stat: Energy", outcomes.get(1).error());
+        Assertions.assertEquals("Missing turn", outcomes.get(2).error());
+    }
+
+    private static TurnState turn(String id, int agility){
+        var move = new GameMove("Basic Move", "Combat", "Damage", 60, 50, 10, 1, null, null);
+        var p1 = new TurnState.PlayerState(id, move, stats(75));
+        var p2 = new TurnState.PlayerState(id + "-opponent", move, stats(agility));
+        return new TurnState(p1, p2);
+    }
+
+    private static Map<String, Integer> stats(int agility){
+        return new HashMap<>(Map.of(
+                "Force", 75,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 75,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", agility
+        ));
+    }
+}
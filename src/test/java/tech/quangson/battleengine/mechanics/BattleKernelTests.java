@@ -0,0 +1,143 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+public class BattleKernelTests {
+
+    private static final List<GameMove> moves = TestTurns.moves;
+    private static final MoveCatalog catalog = TestTurns.catalog;
+
+    private final BattleKernel kernel = new BattleKernel(catalog, null, Integer.MAX_VALUE);
+
+    private static StatBlock stats(SplittableRandom rng) {
+        return StatBlock.copyOf(TestTurns.stats(rng));
+    }
+
+    private static BattleState.Combatant combatant(String id, Integer team, int moveId, Map<String, Integer> stats,
+                                                   String targeting, String target) {
+        return new BattleState.Combatant(id, team, null, moveId, stats, targeting, target);
+    }
+
+    private static int health(BattleState state, int combatant) {
+        return state.combatants()[combatant].stats().get("Health");
+    }
+
+    @Test
+    void testTwoCombatantsMatchTurnKernel(){
+        assertTwoCombatantsMatchTurnKernel(DamageTable.NONE, DamageFormulas.NONE);
+    }
+
+    @Test
+    void testTwoCombatantsMatchTurnKernelWithTablesAndFormulas(){
+        assertTwoCombatantsMatchTurnKernel(new DamageTable(catalog, 64, 4.0, 1 << 20), DamageFormulas.NONE);
+        var formula = DamageFormula.parse("combat = attacker.Force * power\nmagic = attacker.Spirit * power\nspecial = power");
+        assertTwoCombatantsMatchTurnKernel(DamageTable.NONE, new DamageFormulas(formula, null));
+    }
+
+    private static void assertTwoCombatantsMatchTurnKernel(DamageTable table, DamageFormulas formulas){
+        var rng = new SplittableRandom(5);
+        var turns = new TurnKernel(catalog, table, formulas);
+        var kernel = new BattleKernel(catalog, null, Integer.MAX_VALUE, table, formulas);
+        var out = new TurnResult();
+        for (int i = 0; i < 2_000; i++) {
+            var p1 = new TurnState.PlayerState("p1", null, stats(rng), rng.nextInt(moves.size()));
+            var p2 = new TurnState.PlayerState("p2", null, stats(rng), rng.nextInt(moves.size()));
+            turns.evaluate(p1, p2, out);
+            var result = kernel.evaluate(BattleState.of(new TurnState(p1, p2)));
+
+            Assertions.assertArrayEquals(out.player1First() ? new String[]{"p1", "p2"} : new String[]{"p2", "p1"},
+                    result.sequence(), "turn " + i);
+            Assertions.assertTrue(StatBlock.of(result.combatants()[0].stats()).matches(out.finalStats(TurnResult.Player1)));
+            Assertions.assertTrue(StatBlock.of(result.combatants()[1].stats()).matches(out.finalStats(TurnResult.Player2)));
+        }
+    }
+
+    @Test
+    void testPriorityThenBlockThenAgility(){
+        var slow = Map.of("Health", 500, "Energy", 100, "Force", 50, "Focus", 50, "Reflex", 50, "Spirit", 50, "Agility", 10);
+        var fast = Map.of("Health", 500, "Energy", 100, "Force", 50, "Focus", 50, "Reflex", 50, "Spirit", 50, "Agility", 90);
+        var battle = new BattleState(new BattleState.Combatant[]{
+                combatant("a", null, 0, fast, null, null),
+                combatant("b", null, 4, slow, null, null),
+                combatant("c", null, 3, slow, null, null),
+                combatant("d", null, 0, slow, null, null),
+                combatant("e", null, 5, fast, null, null)});
+
+        Assertions.assertArrayEquals(new String[]{"c", "b", "a", "d", "e"}, kernel.sequence(battle));
+        Assertions.assertArrayEquals(kernel.sequence(battle), kernel.evaluate(battle).sequence());
+    }
+
+    @Test
+    void testTeamAndAllTargeting(){
+        var base = Map.of("Health", 1000, "Energy", 100, "Force", 50, "Focus", 50, "Reflex", 50, "Spirit", 50, "Agility", 50);
+        var battle = new BattleState(new BattleState.Combatant[]{
+                combatant("a1", 0, 0, base, Targeting.Team, "b2"),
+                combatant("a2", 0, 7, base, null, null),
+                combatant("a3", 0, 5, base, Targeting.Team, null),
+                combatant("b1", 1, 7, base, null, null),
+                combatant("b2", 1, 7, base, null, null),
+                combatant("b3", 1, 1, base, Targeting.All, null)});
+        var result = kernel.evaluate(battle);
+
+        // a1 hits every member of b2's team, b3's bolt hits everyone else
+        for (int i = 3; i < 5; i++) {
+            Assertions.assertTrue(health(result, i) < 1000 - 100, "combatant " + i);
+        }
+        Assertions.assertTrue(health(result, 5) < 1000);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(health(result, i) < 1000, "combatant " + i);
+        }
+        // a3 rallies its own team only
+        Assertions.assertEquals(55, result.combatants()[0].stats().get("Force"));
+        Assertions.assertEquals(55, result.combatants()[1].stats().get("Force"));
+        Assertions.assertEquals(50, result.combatants()[3].stats().get("Force"));
+    }
+
+    @Test
+    void testParallelWavesMatchSerialOrder(){
+        var rng = new SplittableRandom(17);
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallel = new BattleKernel(catalog, pool, 1);
+            for (int round = 0; round < 200; round++) {
+                var combatants = new BattleState.Combatant[BattleKernel.MaxCombatants];
+                for (int i = 0; i < combatants.length; i++) {
+                    var targeting = rng.nextInt(8) == 0 ? Targeting.Team : null;
+                    var target = "c" + rng.nextInt(combatants.length);
+                    combatants[i] = combatant("c" + i, i % 8, rng.nextInt(moves.size()), stats(rng), targeting, target);
+                }
+                var battle = new BattleState(combatants);
+                var expected = kernel.evaluate(battle);
+                var actual = parallel.evaluate(battle);
+
+                Assertions.assertArrayEquals(expected.sequence(), actual.sequence());
+                for (int i = 0; i < combatants.length; i++) {
+                    Assertions.assertEquals(expected.combatants()[i].stats(), actual.combatants()[i].stats(), "combatant " + i);
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRejectsBadBattles(){
+        var base = Map.of("Health", 100, "Energy", 100, "Force", 50, "Focus", 50, "Reflex", 50, "Spirit", 50, "Agility", 50);
+        var tooMany = new BattleState.Combatant[BattleKernel.MaxCombatants + 1];
+        for (int i = 0; i < tooMany.length; i++) {
+            tooMany[i] = combatant("c" + i, null, 0, base, null, null);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> kernel.evaluate(new BattleState(tooMany)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> kernel.evaluate(new BattleState(new BattleState.Combatant[]{
+                combatant("a", null, 0, base, null, "nobody"), combatant("b", null, 0, base, null, null)})));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> kernel.evaluate(new BattleState(new BattleState.Combatant[]{
+                combatant("a", 1, 0, base, null, null), combatant("b", 1, 0, base, null, null)})));
+    }
+}
@@ -0,0 +1,157 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class DamageFormulaTests {
+
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null),
+            new GameMove("Bolt", "Magic", "Damage", 70, 40, 10, 1, null, null),
+            new GameMove("Burst", "Special", "Damage", 50, 60, 10, 1, null, null),
+            new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null),
+            new GameMove("Wait", "Other", "Rest", 0, 0, 10, 1, null, null)));
+
+    private static final String flat = """
+            # every category deals the same
+            hit = max(power * 10, 0) - -1
+            combat = hit
+            magic = hit
+            special = min(hit, 1000)
+            """;
+
+    private static DamageFormula bundled() throws IOException {
+        try (var in = DamageFormulaTests.class.getResourceAsStream("/damage.formulas")) {
+            return DamageFormula.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static int[] stats(SplittableRandom rng) {
+        var stats = new int[Stat.COUNT];
+        for (int i = 0; i < Stat.COUNT; i++) {
+            stats[i] = rng.nextInt(0, 300);
+        }
+        stats[Stat.HEALTH.ordinal()] = 1_000_000;
+        return stats;
+    }
+
+    @Test
+    void testBundledFormulasMatchKernel() throws IOException {
+        var formula = bundled();
+        var rng = new SplittableRandom(11);
+        for (int i = 0; i < 100_000; i++) {
+            var attack = catalog.get(rng.nextInt(catalog.size()));
+            var defense = catalog.get(rng.nextInt(catalog.size()));
+            var source = stats(rng);
+            var target = stats(rng);
+            Assertions.assertEquals(TurnKernel.damageCalculation(attack, defense, source, target),
+                    formula.damage(attack, defense, source, target), "sample " + i);
+        }
+    }
+
+    @Test
+    void testFoldsConstantsAndCallsFunctions(){
+        var formula = DamageFormula.parse(flat);
+        var source = stats(new SplittableRandom(1));
+        Assertions.assertEquals(601, formula.damage(catalog.get(0), catalog.get(4), source, source));
+        Assertions.assertEquals(350, formula.damage(catalog.get(1), catalog.get(3), source, source));
+        Assertions.assertEquals(501, formula.damage(catalog.get(2), catalog.get(4), source, source));
+        Assertions.assertEquals(0, formula.damage(catalog.get(3), catalog.get(4), source, source));
+    }
+
+    @Test
+    void testReportsWhereParsingFailed(){
+        var unknown = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DamageFormula.parse("\ncombat = power * bonus\n"));
+        Assertions.assertEquals("Line 2: unknown name 'bonus' at column 18", unknown.getMessage());
+        var stat = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DamageFormula.parse("combat = attacker.Luck"));
+        Assertions.assertTrue(stat.getMessage().startsWith("Line 1: unknown stat"), stat.getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DamageFormula.parse("combat = (power + 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DamageFormula.parse("combat = power power"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DamageFormula.parse("power = 1"));
+        var missing = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DamageFormula.parse("combat = 1\nmagic = 1"));
+        Assertions.assertEquals("Missing formula for special", missing.getMessage());
+    }
+
+    @Test
+    void testReloadSwapsGoodFilesOnly(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("damage.formulas");
+        var formulas = new DamageFormulas(bundled(), file);
+        var kernel = new TurnKernel(catalog, DamageTable.NONE, formulas);
+        var source = stats(new SplittableRandom(2));
+        var out = new TurnResult();
+        Assertions.assertFalse(formulas.reload());
+
+        Files.writeString(file, flat);
+        Assertions.assertTrue(formulas.reload());
+        Assertions.assertFalse(formulas.reload());
+        kernel.evaluate(catalog.get(0), source, catalog.get(4), source, out);
+        Assertions.assertEquals(1_000_000 - 601, out.stat(1, TurnResult.Player2, Stat.HEALTH));
+
+        Files.writeString(file, "combat = ");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        Assertions.assertThrows(IllegalArgumentException.class, formulas::reload);
+        Assertions.assertFalse(formulas.reload());
+        kernel.evaluate(catalog.get(0), source, catalog.get(4), source, out);
+        Assertions.assertEquals(1_000_000 - 601, out.stat(1, TurnResult.Player2, Stat.HEALTH));
+        Assertions.assertEquals(1, formulas.reloads());
+        Assertions.assertEquals(1, formulas.failures());
+    }
+
+    @Test
+    void testOversizedFormulasFailToParse(@TempDir Path directory) throws IOException {
+        // each definition doubles the previous one once inlined
+        var chain = new StringBuilder("a0 = power\n");
+        for (int i = 1; i <= 30; i++) {
+            chain.append('a').append(i).append(" = a").append(i - 1).append(" + a").append(i - 1).append('\n');
+        }
+        var doubling = chain + "combat = a30\nmagic = 1\nspecial = 1\n";
+        var error = Assertions.assertThrows(IllegalArgumentException.class, () -> DamageFormula.parse(doubling));
+        Assertions.assertTrue(error.getMessage().contains("nodes"), error.getMessage());
+
+        var nested = "combat = " + "(".repeat(10_000) + "1" + ")".repeat(10_000) + "\nmagic = 1\nspecial = 1\n";
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DamageFormula.parse(nested));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DamageFormula.parse("combat = " + "-".repeat(10_000) + "1\nmagic = 1\nspecial = 1\n"));
+
+        // the largest allowed expressions still fit one method in all three categories
+        var widest = String.join(" + ", Collections.nCopies((DamageFormula.MaxNodes + 1) / 2,
+                "attacker.Force"));
+        Assertions.assertNotNull(DamageFormula.parse("combat = " + widest + "\nmagic = " + widest
+                + "\nspecial = " + widest + "\n"));
+
+        var file = directory.resolve("damage.formulas");
+        var formulas = new DamageFormulas(bundled(), file);
+        Files.writeString(file, doubling);
+        Assertions.assertThrows(IllegalArgumentException.class, formulas::reload);
+        Assertions.assertEquals(1, formulas.failures());
+        Assertions.assertEquals(0, formulas.reloads());
+    }
+
+    @Test
+    void testTablesAndFormulasAreExclusive() throws IOException {
+        var formulas = new DamageFormulas(bundled(), null);
+        var table = new DamageTable(catalog, 8, 4.0, 1 << 20);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TurnKernel(catalog, table, formulas));
+    }
+
+    @Test
+    void testTheTurnCacheAndFormulasAreExclusive() throws IOException {
+        var formulas = new DamageFormulas(bundled(), null);
+        var cache = new TinyLfuTurnCache(catalog, 64, 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TurnServiceImpl(catalog, TurnMetrics.NONE,
+                TurnJournal.NONE, cache, DamageTable.NONE, formulas));
+    }
+}
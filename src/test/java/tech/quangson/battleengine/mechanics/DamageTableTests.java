@@ -0,0 +1,88 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class DamageTableTests {
+
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null),
+            new GameMove("Bolt", "Magic", "Damage", 70, 40, 10, 1, null, null),
+            new GameMove("Burst", "Special", "Damage", 50, 60, 10, 1, null, null),
+            new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null)));
+
+    private static int[] stats(int energy, int force, int focus, int reflex, int spirit) {
+        var stats = new int[Stat.COUNT];
+        stats[Stat.HEALTH.ordinal()] = 100_000;
+        stats[Stat.ENERGY.ordinal()] = energy;
+        stats[Stat.FORCE.ordinal()] = force;
+        stats[Stat.FOCUS.ordinal()] = focus;
+        stats[Stat.REFLEX.ordinal()] = reflex;
+        stats[Stat.SPIRIT.ordinal()] = spirit;
+        return stats;
+    }
+
+    @Test
+    void testCatalogSlicesAreAllocatedUpFront(){
+        var table = new DamageTable(catalog, 256, 4.0, 1 << 20);
+        Assertions.assertEquals(2L * 256 * 256 * Float.BYTES + 256 * Float.BYTES, table.bytes());
+    }
+
+    @Test
+    void testErrorStaysWithinABucket(){
+        var table = new DamageTable(catalog, 512, 4.0, 1 << 24);
+        var accuracy = table.accuracy(catalog, 50, 150, 100_000, 7);
+        // centres are half a bucket (2/512) off in each ratio; r1 < 1, r2 < 3 and basePower <= 70 bound the error
+        Assertions.assertTrue(accuracy.maxError() <= 100 * 70 * (1 + 3) * 2.0 / 512 + 1, accuracy.toString());
+        Assertions.assertTrue(accuracy.meanRelativeError() < 0.01, accuracy.toString());
+    }
+
+    @Test
+    void testOutOfRangeFallsBackToExact(){
+        var table = new DamageTable(catalog, 64, 1.0, 1 << 20);
+        var block = catalog.get(3);
+        var slash = catalog.get(0);
+        var strong = stats(500, 300, 50, 10, 50);
+        var zeroReflex = stats(100, 50, 50, 0, 50);
+        var target = stats(100, 50, 50, 50, 50);
+        Assertions.assertEquals(TurnKernel.damageCalculation(slash, block, strong, target), table.damage(slash, block, strong, target));
+        Assertions.assertEquals(TurnKernel.damageCalculation(slash, block, target, zeroReflex), table.damage(slash, block, target, zeroReflex));
+    }
+
+    @Test
+    void testRatioJustBelowTheRangeStaysInTheLastBucket(){
+        // 7 / 6.1 * nextDown(6.1) rounds to 7.0
+        var table = new DamageTable(catalog, 7, 6.1, 1 << 20);
+        Assertions.assertEquals(6, table.bucket(Math.nextDown(6.1)));
+        Assertions.assertEquals(0, table.bucket(0));
+    }
+
+    @Test
+    void testExhaustedBudgetComputesExactly(){
+        var table = new DamageTable(catalog, 512, 4.0, 1024);
+        Assertions.assertEquals(0, table.bytes());
+        var accuracy = table.accuracy(catalog, 50, 150, 10_000, 3);
+        Assertions.assertEquals(accuracy.samples(), accuracy.fallbacks());
+        Assertions.assertEquals(accuracy.samples(), accuracy.exact());
+    }
+
+    @Test
+    void testKernelUsesTable(){
+        var table = new DamageTable(catalog, 8, 4.0, 1 << 20);
+        var exact = new TurnKernel(catalog);
+        var approximate = new TurnKernel(catalog, table);
+        var p1 = stats(100, 60, 50, 50, 50);
+        var p2 = stats(100, 50, 50, 70, 50);
+        var expected = new TurnResult();
+        var actual = new TurnResult();
+        exact.evaluate(catalog.get(0), p1, catalog.get(0), p2, expected);
+        approximate.evaluate(catalog.get(0), p1, catalog.get(0), p2, actual);
+
+        int exactHealth = expected.stat(1, TurnResult.Player2, Stat.HEALTH);
+        int tableHealth = actual.stat(1, TurnResult.Player2, Stat.HEALTH);
+        Assertions.assertNotEquals(exactHealth, tableHealth);
+        Assertions.assertEquals(exactHealth, tableHealth, 100 * 60 * (0.5 + 0.86) * 0.25 + 1);
+    }
+}
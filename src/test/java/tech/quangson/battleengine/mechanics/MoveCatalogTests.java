@@ -0,0 +1,79 @@
+package tech.quangson.battleengine.mechanics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class MoveCatalogTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testBundledCatalogCompiles() throws IOException {
+        var catalog = bundled();
+        var warCry = catalog.byName("War Cry");
+        Assertions.assertEquals(MoveType.BUFF, warCry.type());
+        Assertions.assertEquals(MoveCategory.COMBAT, warCry.category());
+        Assertions.assertEquals(1, warCry.modifierCount());
+        Assertions.assertEquals(Stat.FORCE.ordinal(), warCry.modifierStat(0));
+        Assertions.assertEquals(20, warCry.modifierAmount(0));
+        Assertions.assertSame(warCry, catalog.get(warCry.id()));
+    }
+
+    @Test
+    void testUnknownStatIsRejected(){
+        var move = new GameMove("Luck Up", "Magic", "Buff", 0, 10, 5, 1, Map.of("Luck", 10), null);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MoveCatalog.of(List.of(move)));
+    }
+
+    @Test
+    void testTurnByMoveIdMatchesFullMove() throws IOException {
+        var catalog = bundled();
+        var ts = new TurnServiceImpl(catalog);
+        var bolt = catalog.byName("Arcane Bolt");
+        var guard = catalog.byName("Guard");
+
+        var byId = ts.evaluateTurn(new TurnState(
+                new TurnState.PlayerState("p1", null, stats(), bolt.id()),
+                new TurnState.PlayerState("p2", null, stats(), guard.id())));
+        var byMove = ts.evaluateTurn(new TurnState(
+                new TurnState.PlayerState("p1", bolt.source(), stats()),
+                new TurnState.PlayerState("p2", guard.source(), stats())));
+
+        Assertions.assertArrayEquals(new String[]{"p2", "p1"}, byId[1].getSequence());
+        Assertions.assertEquals(byMove[1].getPlayer1State().stats(), byId[1].getPlayer1State().stats());
+        Assertions.assertEquals(byMove[1].getPlayer2State().stats(), byId[1].getPlayer2State().stats());
+        Assertions.assertEquals(bolt.id(), byId[1].getPlayer1State().moveId());
+    }
+
+    @Test
+    void testPlayerStateJsonAcceptsMoveId() throws IOException {
+        var json = "{\"playerId\":\"p1\",\"moveId\":4,\"stats\":{\"Agility\":75}}";
+        var player = mapper.readValue(json, TurnState.PlayerState.class);
+        Assertions.assertEquals(4, player.moveId());
+        Assertions.assertNull(player.move());
+        Assertions.assertFalse(mapper.writeValueAsString(new TurnState.PlayerState("p1", null, Map.of()))
+                .contains("moveId"));
+    }
+
+    private MoveCatalog bundled() throws IOException {
+        try (var in = getClass().getResourceAsStream("/moves.json")) {
+            return MoveCatalog.load(in, mapper);
+        }
+    }
+
+    private static Map<String, Integer> stats(){
+        return Map.of(
+                "Force", 75,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 75,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", 75);
+    }
+}
@@ -0,0 +1,73 @@
+package tech.quangson.battleengine.mechanics;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StatBlockTests {
+
+    @Test
+    void testOfReadsEveryStat(){
+        var block = StatBlock.of(basicStats());
+        Assertions.assertEquals(80, block.get(Stat.FORCE));
+        Assertions.assertEquals(9000, block.get(Stat.HEALTH));
+        Assertions.assertEquals(9000, block.get("Health"));
+        Assertions.assertNull(block.get("Luck"));
+    }
+
+    @Test
+    void testMissingStatIsRejected(){
+        var stats = basicStats();
+        stats.remove("Agility");
+        var e = Assertions.assertThrows(IllegalArgumentException.class, () -> StatBlock.of(stats));
+        Assertions.assertEquals("Missing stat: Agility", e.getMessage());
+    }
+
+    @Test
+    void testUnknownStatIsRejected(){
+        var stats = basicStats();
+        stats.put("Luck", 5);
+        var e = Assertions.assertThrows(IllegalArgumentException.class, () -> StatBlock.of(stats));
+        Assertions.assertEquals("Unknown stat: Luck", e.getMessage());
+    }
+
+    @Test
+    void testEqualsPlainMap(){
+        var block = StatBlock.of(basicStats());
+        Assertions.assertEquals(basicStats(), block);
+        Assertions.assertEquals(block, basicStats());
+        Assertions.assertEquals(basicStats().hashCode(), block.hashCode());
+    }
+
+    @Test
+    void testWithLeavesOriginalUntouched(){
+        var block = StatBlock.of(basicStats());
+        var updated = block.with(Stat.ENERGY, 10);
+        Assertions.assertEquals(150, block.get(Stat.ENERGY));
+        Assertions.assertEquals(10, updated.get(Stat.ENERGY));
+    }
+
+    @Test
+    void testJsonShapeIsUnchanged() throws Exception {
+        var mapper = new ObjectMapper();
+        var json = mapper.writeValueAsString(StatBlock.of(basicStats()));
+        Map<String, Integer> parsed = mapper.readValue(json, new TypeReference<>() {});
+        Assertions.assertEquals(basicStats(), parsed);
+    }
+
+    private static Map<String, Integer> basicStats(){
+        return new HashMap<>(Map.of(
+                "Force", 80,
+                "Focus", 75,
+                "Reflex", 70,
+                "Spirit", 65,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", 75
+        ));
+    }
+}
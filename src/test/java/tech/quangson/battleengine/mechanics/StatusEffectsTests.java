@@ -0,0 +1,75 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StatusEffectsTests {
+
+    private static final int Force = Stat.FORCE.ordinal();
+    private static final int Health = Stat.HEALTH.ordinal();
+
+    @Test
+    void testOverlappingEffectsRestoreBase(){
+        var stats = new int[Stat.COUNT];
+        stats[Force] = 100;
+        var effects = new StatusEffects();
+        // +20% for 1 turn, then -25% for 2 turns, as the kernel would have applied them
+        stats[Force] = 120;
+        effects.add(1, Force, 20, 20, 1, 5);
+        stats[Force] = 90;
+        effects.add(2, Force, -25, -30, 2, 5);
+
+        Assertions.assertEquals(1 << Force, effects.tick(stats));
+        Assertions.assertEquals(70, stats[Force]);
+        Assertions.assertEquals(1, effects.count());
+        effects.tick(stats);
+        Assertions.assertEquals(100, stats[Force]);
+        Assertions.assertEquals(0, effects.count());
+        Assertions.assertEquals(0, effects.tick(stats));
+    }
+
+    @Test
+    void testHealthEffectsRepeatAndStay(){
+        var stats = new int[Stat.COUNT];
+        stats[Health] = 900;
+        var effects = new StatusEffects();
+        effects.add(1, Health, -10, -100, 2, 5);
+        effects.tick(stats);
+        Assertions.assertEquals(810, stats[Health]);
+        effects.tick(stats);
+        Assertions.assertEquals(729, stats[Health]);
+        Assertions.assertEquals(0, effects.count());
+    }
+
+    @Test
+    void testStackCapRenewsOldest(){
+        var effects = new StatusEffects();
+        Assertions.assertTrue(effects.add(1, Force, 10, 5, 1, 2));
+        Assertions.assertTrue(effects.add(1, Force, 10, 5, 3, 2));
+        Assertions.assertFalse(effects.add(1, Force, 10, 5, 4, 2));
+        Assertions.assertTrue(effects.add(2, Force, 10, 5, 1, 2));
+        Assertions.assertEquals(2, effects.stacks(1, Force));
+
+        var stats = new int[Stat.COUNT];
+        stats[Force] = 100;
+        effects.tick(stats);
+        // only the other source's effect expired; the renewed stack is still there
+        Assertions.assertEquals(2, effects.stacks(1, Force));
+        Assertions.assertEquals(95, stats[Force]);
+    }
+
+    @Test
+    void testManyEffectsGrowAndDrain(){
+        var stats = new int[Stat.COUNT];
+        var effects = new StatusEffects();
+        for (int i = 0; i < 500; i++) {
+            stats[i % Stat.COUNT] += 1;
+            effects.add(i, i % Stat.COUNT == Health ? Force : i % Stat.COUNT, 1, 1, 1 + i % 10, 1);
+        }
+        Assertions.assertEquals(500, effects.count());
+        for (int turn = 0; turn < 10; turn++) {
+            effects.tick(stats);
+        }
+        Assertions.assertEquals(0, effects.count());
+    }
+}
@@ -0,0 +1,35 @@
+package tech.quangson.battleengine.mechanics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// moves and random stats shared by the tests that check a kernel against TurnKernel
+final class TestTurns {
+
+    static final List<GameMove> moves = List.of(
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null),
+            new GameMove("Bolt", "Magic", "Damage", 70, 40, 10, 1, null, null),
+            new GameMove("Burst", "Special", "Damage", 50, 60, 10, 1, null, null),
+            new GameMove("Quick", "Combat", "Damage", 30, 10, 10, 2, null, null),
+            new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null),
+            new GameMove("Rally", "Special", "Buff", 0, 20, 3, 0, Map.of("Force", 10, "Energy", 50, "Agility", 15), null),
+            new GameMove("Hex", "Magic", "Debuff", 0, 30, 3, 1, null, Map.of("Reflex", 25, "Energy", 20)),
+            new GameMove("Wait", "Other", "Rest", 0, 0, 10, 1, null, null),
+            new GameMove("Poke", "Other", "Damage", 40, 10, 10, 1, null, null),
+            new GameMove("Wall", "Cover", "Block", 100, 30, 10, 1, null, null));
+    static final MoveCatalog catalog = MoveCatalog.of(moves);
+
+    private TestTurns() {}
+
+    // one stat in ten is zero, so divisions by zero are covered too
+    static int[] stats(SplittableRandom rng) {
+        var stats = new int[Stat.COUNT];
+        for (int i = 0; i < Stat.COUNT; i++) {
+            stats[i] = rng.nextInt(10) == 0 ? 0 : rng.nextInt(1, 200);
+        }
+        stats[Stat.HEALTH.ordinal()] = rng.nextInt(0, 10_000);
+        stats[Stat.AGILITY.ordinal()] = rng.nextInt(60, 70);
+        return stats;
+    }
+}
@@ -0,0 +1,74 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class TinyLfuTurnCacheTests {
+
+    private static final MoveCatalog catalog = MoveCatalog.of(List.of(
+            new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null),
+            new GameMove("Bolt", "Magic", "Damage", 70, 40, 10, 1, null, null),
+            new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null),
+            new GameMove("Rally", "Special", "Buff", 0, 20, 3, 0, Map.of("Force", 10), null)));
+
+    private static TurnState turn(int p1Move, int p2Move, int agility, int health) {
+        var p1 = Map.of("Force", 75, "Focus", 70, "Reflex", 65, "Spirit", 60, "Health", health, "Energy", 150, "Agility", agility);
+        var p2 = Map.of("Force", 70, "Focus", 75, "Reflex", 60, "Spirit", 65, "Health", 9000, "Energy", 150, "Agility", 80);
+        return new TurnState(new TurnState.PlayerState("p1", null, p1, p1Move),
+                new TurnState.PlayerState("p2", null, p2, p2Move));
+    }
+
+    @Test
+    void testCachedOutcomesMatchTheKernel() {
+        var cache = new TinyLfuTurnCache(catalog, 256, 4);
+        var cached = new TurnServiceImpl(catalog, TurnMetrics.NONE, TurnJournal.NONE, cache);
+        var plain = new TurnServiceImpl(catalog);
+        var rng = new SplittableRandom(3);
+        for (int i = 0; i < 5_000; i++) {
+            var turn = turn(rng.nextInt(4), rng.nextInt(4), 70 + rng.nextInt(4), 9000 - rng.nextInt(3) * 100);
+            var expected = plain.evaluateTurn(turn);
+            var actual = cached.evaluateTurn(turn);
+            for (int round = 0; round < 2; round++) {
+                Assertions.assertArrayEquals(expected[round].getSequence(), actual[round].getSequence());
+                Assertions.assertEquals(expected[round].getPlayer1State().stats(), actual[round].getPlayer1State().stats());
+                Assertions.assertEquals(expected[round].getPlayer2State().stats(), actual[round].getPlayer2State().stats());
+            }
+        }
+        Assertions.assertTrue(cache.hits() > cache.misses());
+        Assertions.assertTrue(cache.size() <= 256);
+        Assertions.assertEquals(cache.misses(), cache.size() + cache.evictions());
+    }
+
+    @Test
+    void testInlineMovesBypassTheCache() {
+        var cache = new TinyLfuTurnCache(catalog, 64, 1);
+        var ts = new TurnServiceImpl(catalog, TurnMetrics.NONE, TurnJournal.NONE, cache);
+        var turn = turn(0, 1, 90, 9000);
+        var inline = new TurnState(new TurnState.PlayerState("p1", catalog.get(0).source(), turn.getPlayer1State().stats()),
+                turn.getPlayer2State());
+        ts.evaluateTurn(inline);
+        ts.evaluateTurn(inline);
+        Assertions.assertEquals(2, cache.bypasses());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPopularTurnsSurviveAScanOfOneOffs() {
+        var cache = new TinyLfuTurnCache(catalog, 100, 1);
+        var ts = new TurnServiceImpl(catalog, TurnMetrics.NONE, TurnJournal.NONE, cache);
+        var popular = turn(0, 1, 90, 9000);
+        for (int i = 0; i < 20; i++) {
+            ts.evaluateTurn(popular);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            ts.evaluateTurn(turn(2, 3, 85, 1000 + i));
+        }
+        long hits = cache.hits();
+        ts.evaluateTurn(popular);
+        Assertions.assertEquals(hits + 1, cache.hits());
+    }
+}
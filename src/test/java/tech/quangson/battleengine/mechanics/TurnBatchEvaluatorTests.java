@@ -0,0 +1,88 @@
+package tech.quangson.battleengine.mechanics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class TurnBatchEvaluatorTests {
+
+    private static final List<GameMove> moves = TestTurns.moves;
+    private static final MoveCatalog catalog = TestTurns.catalog;
+
+    private static void assertMatchesKernel(TurnBatchEvaluator evaluator) {
+        var rng = new SplittableRandom(11);
+        var kernel = new TurnKernel(catalog);
+        var expected = new TurnResult();
+        var batch = new TurnBatch(1_003); // not a multiple of any vector length
+        var inputs = new int[batch.capacity()][][];
+        var moveIds = new int[batch.capacity()][];
+        for (int lane = 0; lane < batch.capacity(); lane++) {
+            inputs[lane] = new int[][]{TestTurns.stats(rng), TestTurns.stats(rng)};
+            moveIds[lane] = new int[]{rng.nextInt(moves.size()), rng.nextInt(moves.size())};
+            batch.add(catalog.get(moveIds[lane][0]), inputs[lane][0], catalog.get(moveIds[lane][1]), inputs[lane][1]);
+        }
+        evaluator.evaluate(batch);
+
+        for (int lane = 0; lane < batch.size(); lane++) {
+            kernel.evaluate(catalog.get(moveIds[lane][0]), inputs[lane][0], catalog.get(moveIds[lane][1]), inputs[lane][1], expected);
+            Assertions.assertEquals(expected.player1First(), batch.player1First(lane), "lane " + lane);
+            for (int round = 0; round < 2; round++) {
+                for (int player = 0; player < 2; player++) {
+                    for (var stat : Stat.values()) {
+                        Assertions.assertEquals(expected.stat(round, player, stat), batch.stat(round, player, stat, lane),
+                                "lane " + lane + " round " + round + " player " + player + " " + stat);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testScalarPathMatchesKernel() {
+        assertMatchesKernel(TurnBatchEvaluator.scalar());
+    }
+
+    @Test
+    void testVectorPathMatchesKernel() {
+        Assumptions.assumeTrue(TurnBatchEvaluator.class.getResource("VectorTurnBatchEvaluator.class") != null,
+                "built without the vector profile");
+        var evaluator = TurnBatchEvaluator.create();
+        Assertions.assertTrue(evaluator.name().startsWith("vector"), evaluator.name());
+        assertMatchesKernel(evaluator);
+    }
+
+    @Test
+    void testPriorityIsTakenWhenTheTurnIsAdded() {
+        var quick = new GameMove("Jab", "Combat", "Damage", 10, 0, 10, 5, null, null);
+        var slow = new GameMove("Haymaker", "Combat", "Damage", 10, 0, 10, 0, null, null);
+        var stats = new int[]{75, 75, 75, 75, 9000, 150, 80};
+        // player 2 is faster, so only the priority of player 1's move puts them first
+        var faster = new int[]{75, 75, 75, 75, 9000, 150, 90};
+        var batch = new TurnBatch(1);
+        var scratch = new CompiledMove();
+        var other = new CompiledMove();
+        scratch.load(quick);
+        other.load(slow);
+        batch.add(scratch, stats, other, faster);
+        // a caller that reuses its scratch move for the next lane
+        scratch.load(slow);
+
+        TurnBatchEvaluator.scalar().evaluate(batch);
+        Assertions.assertTrue(batch.player1First(0));
+    }
+
+    @Test
+    void testBatchIsReusableAfterClear() {
+        var batch = new TurnBatch(1);
+        var stats = new int[]{75, 75, 75, 75, 9000, 150, 80};
+        batch.add(catalog.get(0), stats, catalog.get(1), stats);
+        Assertions.assertThrows(IllegalStateException.class, () -> batch.add(catalog.get(0), stats, catalog.get(1), stats));
+        batch.clear();
+        batch.add(catalog.get(0), stats, catalog.get(1), stats);
+        TurnBatchEvaluator.create().evaluate(batch);
+        Assertions.assertEquals(100, batch.stat(1, TurnResult.Player1, Stat.ENERGY, 0));
+    }
+}
@@ -0,0 +1,86 @@
+package tech.quangson.battleengine.mechanics;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+public class TurnKernelTests {
+
+    private final TurnKernel kernel = new TurnKernel();
+    private final TurnService ts = new TurnServiceImpl();
+
+    @Test
+    void testKernelMatchesService(){
+        var p1 = player("p1", move("Combat", "Damage", null, null), 75, 80);
+        var p2 = player("p2", move("Magic", "Debuff", null, Map.of("Reflex", 30, "Energy", 10)), 90, 75);
+        var out = new TurnResult();
+        kernel.evaluate(p1, p2, out);
+        var expected = ts.evaluateTurn(new TurnState(p1, p2));
+
+        Assertions.assertFalse(out.player1First());
+        for (int round = 0; round < 2; round++) {
+            Assertions.assertTrue(StatBlock.of(expected[round].getPlayer1State().stats())
+                    .matches(out.stats(round, TurnResult.Player1)));
+            Assertions.assertTrue(StatBlock.of(expected[round].getPlayer2State().stats())
+                    .matches(out.stats(round, TurnResult.Player2)));
+        }
+    }
+
+    @Test
+    void testResultBufferIsReusable(){
+        var out = new TurnResult();
+        var attacker = player("p1", move("Combat", "Damage", null, null), 120, 75);
+        var buffer = player("p2", move("Combat", "Buff", Map.of("Force", 50), null), 75, 75);
+        kernel.evaluate(attacker, buffer, out);
+        Assertions.assertTrue(out.player1First());
+        Assertions.assertEquals(112, out.stat(1, TurnResult.Player2, Stat.FORCE));
+
+        kernel.evaluate(buffer, attacker, out);
+        Assertions.assertFalse(out.player1First());
+        Assertions.assertEquals(112, out.stat(1, TurnResult.Player1, Stat.FORCE));
+        Assertions.assertEquals(75, out.stat(1, TurnResult.Player2, Stat.FORCE));
+    }
+
+    @Test
+    void testSteadyStateDoesNotAllocate(){
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+        var mx = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(mx.isThreadAllocatedMemorySupported() && mx.isThreadAllocatedMemoryEnabled());
+        var p1 = player("p1", move("Special", "Damage", null, null), 75, 80);
+        var p2 = player("p2", move("Magic", "Buff", Map.of("Spirit", 10), null), 90, 75);
+        var p1Block = new TurnState.PlayerState("p1", p1.move(), StatBlock.of(p1.stats()));
+        var p2Block = new TurnState.PlayerState("p2", p2.move(), StatBlock.of(p2.stats()));
+        var out = new TurnResult();
+        for (int i = 0; i < 20_000; i++) {
+            kernel.evaluate(p1Block, p2Block, out);
+        }
+        var threadId = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            kernel.evaluate(p1Block, p2Block, out);
+        }
+        long allocated = mx.getThreadAllocatedBytes(threadId) - before;
+        // allow for the measurement call itself, but nothing proportional to the number of turns
+        Assertions.assertTrue(allocated < 16_384, "allocated " + allocated + " bytes over 100k turns");
+    }
+
+    private static TurnState.PlayerState player(String id, GameMove move, int agility, int force){
+        var stats = Map.of(
+                "Force", force,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 75,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", agility);
+        return new TurnState.PlayerState(id, move, stats);
+    }
+
+    private static GameMove move(String category, String type, Map<String, Integer> buffs, Map<String, Integer> debuffs){
+        return new GameMove("Test Move", category, type, 60, 50, 10, 1, buffs, debuffs);
+    }
+}
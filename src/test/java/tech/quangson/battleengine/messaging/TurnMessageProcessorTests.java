@@ -0,0 +1,136 @@
+package tech.quangson.battleengine.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class TurnMessageProcessorTests {
+
+    private record Sent(String exchange, String routingKey, Message message) {}
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Sent> sent = new ArrayList<>();
+    private final List<Long> acked = new ArrayList<>();
+    private final List<Long> requeued = new ArrayList<>();
+    private final Acknowledger acknowledger = new Acknowledger() {
+        @Override
+        public void ack(long deliveryTag) {
+            acked.add(deliveryTag);
+        }
+
+        @Override
+        public void requeueUpTo(long deliveryTag) {
+            requeued.add(deliveryTag);
+        }
+    };
+    private final TurnMessageProcessor processor = new TurnMessageProcessor(
+            new BatchTurnService(new TurnServiceImpl(), pool), mapper,
+            (exchange, routingKey, message) -> sent.add(new Sent(exchange, routingKey, message)));
+
+    @AfterEach
+    void shutdown(){
+        pool.shutdown();
+    }
+
+    @Test
+    void testResultsKeepOrderAndCorrelation() throws Exception {
+        var messages = new ArrayList<Message>();
+        for (int i = 0; i < 200; i++) {
+            messages.add(message("match-" + (i % 3), "c" + i, turn(60 + i % 40), i + 1));
+        }
+        processor.process(messages, acknowledger);
+
+        Assertions.assertEquals(200, sent.size());
+        for (int i = 0; i < 200; i++) {
+            var result = sent.get(i);
+            Assertions.assertEquals(TurnShards.ResultExchange, result.exchange());
+            Assertions.assertEquals("match-" + (i % 3), result.routingKey());
+            Assertions.assertEquals("c" + i, result.message().getMessageProperties().getCorrelationId());
+            Assertions.assertTrue(new String(result.message().getBody()).startsWith("{\"result\":"));
+            Assertions.assertEquals(i + 1, acked.get(i));
+        }
+        Assertions.assertTrue(requeued.isEmpty());
+    }
+
+    @Test
+    void testFailedPublishRequeuesOnlyUnpublishedMessages() throws Exception {
+        var failing = new TurnMessageProcessor(new BatchTurnService(new TurnServiceImpl(), pool), mapper,
+                (exchange, routingKey, message) -> {
+                    if (sent.size() == 3) {
+                        throw new IllegalStateException("channel closed");
+                    }
+                    sent.add(new Sent(exchange, routingKey, message));
+                });
+        var messages = new ArrayList<Message>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(message("match-" + i, "c" + i, turn(80), 10 + i));
+        }
+        Assertions.assertThrows(IllegalStateException.class, () -> failing.process(messages, acknowledger));
+
+        Assertions.assertEquals(3, sent.size());
+        Assertions.assertEquals(List.of(10L, 11L, 12L), acked);
+        Assertions.assertEquals(List.of(14L), requeued);
+    }
+
+    @Test
+    void testReplyToAndPerMessageErrors() throws Exception {
+        var broken = MessageBuilder.withBody("{oops".getBytes()).setCorrelationId("bad").build();
+        var direct = MessageBuilder.withBody(mapper.writeValueAsBytes(turn(80)))
+                .setCorrelationId("rpc").setReplyTo("client-42").build();
+        processor.process(List.of(broken, direct), acknowledger);
+
+        Assertions.assertEquals("", sent.get(0).routingKey());
+        Assertions.assertTrue(new String(sent.get(0).message().getBody()).startsWith("{\"error\":\"Malformed turn"));
+        Assertions.assertEquals("", sent.get(1).exchange());
+        Assertions.assertEquals("client-42", sent.get(1).routingKey());
+        Assertions.assertEquals("rpc", sent.get(1).message().getMessageProperties().getCorrelationId());
+    }
+
+    @Test
+    void testSameMatchAlwaysSameShard(){
+        for (int i = 0; i < 100; i++) {
+            var matchId = "match-" + i;
+            int shard = TurnShards.shardOf(matchId, 8);
+            Assertions.assertTrue(shard >= 0 && shard < 8);
+            Assertions.assertEquals(shard, TurnShards.shardOf(matchId, 8));
+        }
+    }
+
+    private Message message(String matchId, String correlationId, TurnState turn, long deliveryTag) throws Exception {
+        return MessageBuilder.withBody(mapper.writeValueAsBytes(turn))
+                .setCorrelationId(correlationId)
+                .setDeliveryTag(deliveryTag)
+                .setHeader(TurnShards.MatchIdHeader, matchId)
+                .build();
+    }
+
+    private static TurnState turn(int agility){
+        var move = new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null);
+        return new TurnState(new TurnState.PlayerState("p1", move, stats(75)),
+                new TurnState.PlayerState("p2", move, stats(agility)));
+    }
+
+    private static Map<String, Integer> stats(int agility){
+        return Map.of(
+                "Force", 75,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 75,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", agility);
+    }
+}
@@ -0,0 +1,68 @@
+package tech.quangson.battleengine.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class MicrometerTurnMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerTurnMetrics metrics = new MicrometerTurnMetrics(registry);
+    private final TurnServiceImpl ts = new TurnServiceImpl(MoveCatalog.empty(), metrics);
+
+    @Test
+    void testTurnsAreTimedByMoveKind(){
+        var bolt = new GameMove("Bolt", "Magic", "Damage", 70, 50, 10, 1, null, null);
+        var guard = new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null);
+        var turn = new TurnState(new TurnState.PlayerState("p1", bolt, stats()), new TurnState.PlayerState("p2", guard, stats()));
+        ts.evaluateTurn(turn);
+        ts.evaluateTurn(turn);
+
+        var timer = registry.get("engine.turn.evaluation")
+                .tag("first_type", "block").tag("first_category", "other")
+                .tag("second_type", "damage").tag("second_category", "magic")
+                .timer();
+        Assertions.assertEquals(2, timer.count());
+        Assertions.assertEquals(1, registry.find("engine.turn.evaluation").timers().size());
+    }
+
+    @Test
+    void testRejectionsAreCountedByException(){
+        metrics.turnRejected(new IllegalArgumentException("bad"));
+        metrics.turnRejected(new IllegalArgumentException("worse"));
+        metrics.turnRejected(new NullPointerException());
+
+        Assertions.assertEquals(2, registry.get("engine.turn.rejected").tag("exception", "IllegalArgumentException").counter().count());
+        Assertions.assertEquals(1, registry.get("engine.turn.rejected").tag("exception", "NullPointerException").counter().count());
+    }
+
+    @Test
+    void testMatchFailuresAreCountedApartFromRejectedTurns(){
+        metrics.matchRequestFailed("view", new NoSuchElementException("Unknown match m"));
+        metrics.matchRequestFailed("view", new NoSuchElementException("Unknown match n"));
+        metrics.matchRequestFailed("create", new IllegalArgumentException("Missing match setup"));
+
+        Assertions.assertEquals(2, registry.get("engine.match.failed").tag("operation", "view")
+                .tag("exception", "NoSuchElementException").counter().count());
+        Assertions.assertEquals(1, registry.get("engine.match.failed").tag("operation", "create").counter().count());
+        Assertions.assertNull(registry.find("engine.turn.rejected").counter());
+    }
+
+    private static Map<String, Integer> stats(){
+        return Map.of(
+                "Force", 75,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 75,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", 75);
+    }
+}
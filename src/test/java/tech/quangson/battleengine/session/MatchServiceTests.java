@@ -0,0 +1,172 @@
+package tech.quangson.battleengine.session;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MatchServiceTests {
+
+    private static final GameMove slash = new GameMove("Slash", "Combat", "Damage", 60, 50, 10, 1, null, null);
+    private static final GameMove focus = new GameMove("Focus", "Magic", "Buff", 0, 20, 5, 1, Map.of("Force", 20), null);
+    private static final GameMove rage = new GameMove("Rage", "Combat", "Buff", 0, 0, 2, 1, Map.of("Force", 20), null);
+    private static final GameMove poison = new GameMove("Poison", "Magic", "Debuff", 0, 0, 2, 1, null, Map.of("Health", 10));
+    private static final GameMove rest = new GameMove("Rest", "Other", "Rest", 0, 0, 0, 1, null, null);
+
+    private long now = 0;
+    private final MatchStore store = new MatchStore(4, Duration.ofSeconds(60), () -> now);
+    private final MatchService matches = new MatchService(store, MoveCatalog.empty());
+
+    @Test
+    void testTurnWaitsForBothPlayers(){
+        var matchId = matches.create(setup());
+        Assertions.assertTrue(matches.submit(matchId, new MoveSubmission("knight", 0)).isEmpty());
+        Assertions.assertEquals("mage", matches.view(matchId).awaiting());
+
+        var delta = matches.submit(matchId, new MoveSubmission("mage", 1)).orElseThrow();
+        Assertions.assertEquals(1, delta.turn());
+        Assertions.assertArrayEquals(new String[]{"knight", "mage"}, delta.sequence());
+    }
+
+    @Test
+    void testDeltaMatchesStatelessEngine(){
+        var matchId = matches.create(setup());
+        matches.submit(matchId, new MoveSubmission("knight", 0));
+        var delta = matches.submit(matchId, new MoveSubmission("mage", 1)).orElseThrow();
+
+        var expected = new TurnServiceImpl().evaluateTurn(new TurnState(
+                new TurnState.PlayerState("knight", slash, stats(90)),
+                new TurnState.PlayerState("mage", focus, stats(75))));
+        // round 1: knight hits the mage and pays for the move
+        Assertions.assertEquals(Map.of(
+                "knight", Map.of("Energy", expected[0].getPlayer1State().getStat("Energy")),
+                "mage", Map.of("Health", expected[0].getPlayer2State().getStat("Health"))), delta.rounds().get(0));
+        // round 2: the mage buffs and pays; the knight is untouched and left out
+        Assertions.assertEquals(Map.of(
+                "mage", Map.of("Force", expected[1].getPlayer2State().getStat("Force"),
+                        "Energy", expected[1].getPlayer2State().getStat("Energy"))), delta.rounds().get(1));
+        Assertions.assertEquals(expected[1].getPlayer2State().stats(), matches.view(matchId).stats().get("mage"));
+    }
+
+    @Test
+    void testRejectsSecondPickAndUnknownMove(){
+        var matchId = matches.create(setup());
+        matches.submit(matchId, new MoveSubmission("knight", 0));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> matches.submit(matchId, new MoveSubmission("knight", 0)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> matches.submit(matchId, new MoveSubmission("mage", 7)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> matches.submit(matchId, new MoveSubmission("rogue", 0)));
+    }
+
+    @Test
+    void testIdleMatchesAreEvicted(){
+        var idle = matches.create(setup());
+        var active = matches.create(setup());
+        now += Duration.ofSeconds(45).toNanos();
+        matches.view(active);
+        now += Duration.ofSeconds(30).toNanos();
+
+        Assertions.assertEquals(1, store.evictIdle());
+        Assertions.assertThrows(NoSuchElementException.class, () -> matches.view(idle));
+        Assertions.assertEquals(0, matches.view(active).turn());
+    }
+
+    @Test
+    void testTurnIsNotAppliedToAMatchDroppedWhileWaitingForIt() throws Exception {
+        var matchId = matches.create(setup());
+        matches.submit(matchId, new MoveSubmission("knight", 0));
+        var match = store.get(matchId);
+        var failure = new AtomicReference<Throwable>();
+        Thread submitter;
+        synchronized (match) {
+            submitter = new Thread(() -> {
+                try {
+                    matches.submit(matchId, new MoveSubmission("mage", 1));
+                }
+                catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            submitter.start();
+            // the submitter has found the match and waits for its lock
+            while (submitter.getState() != Thread.State.BLOCKED) {
+                Thread.onSpinWait();
+            }
+            Assertions.assertTrue(matches.end(matchId));
+        }
+        submitter.join();
+        Assertions.assertInstanceOf(NoSuchElementException.class, failure.get());
+        Assertions.assertEquals(0, match.turn());
+    }
+
+    @Test
+    void testTimedEffectsTickAndExpire(){
+        var matchId = matches.create(effectSetup());
+        var first = play(matches, matchId, 0, 1);
+        Assertions.assertEquals(Map.of("Force", 90), first.rounds().get(0).get("knight"));
+        Assertions.assertEquals(Map.of("Health", 8100), first.rounds().get(1).get("knight"));
+        Assertions.assertTrue(first.effects().isEmpty());
+
+        // the mage's poison hits again every turn, the knight's rage holds
+        var second = play(matches, matchId, 2, 2);
+        Assertions.assertEquals(Map.of("knight", Map.of("Health", 7290)), second.effects());
+
+        // both run out: poison ticks a last time and rage is undone
+        var third = play(matches, matchId, 2, 2);
+        Assertions.assertEquals(Map.of("knight", Map.of("Health", 6561, "Force", 75)), third.effects());
+        Assertions.assertTrue(play(matches, matchId, 2, 2).effects().isEmpty());
+    }
+
+    @Test
+    void testStacksAboveCapAreUndone(){
+        var capped = new MatchService(store, MoveCatalog.empty(), TurnMetrics.NONE, 1);
+        var matchId = capped.create(effectSetup());
+        play(capped, matchId, 0, 2);
+        var second = play(capped, matchId, 0, 2);
+        Assertions.assertEquals(Map.of("Force", 108), second.rounds().get(0).get("knight"));
+        Assertions.assertEquals(Map.of("knight", Map.of("Force", 90)), second.effects());
+
+        // the renewed stack lasts two more turns from the second cast
+        Assertions.assertTrue(play(capped, matchId, 2, 2).effects().isEmpty());
+        Assertions.assertEquals(Map.of("knight", Map.of("Force", 75)), play(capped, matchId, 2, 2).effects());
+    }
+
+    private static TurnDelta play(MatchService service, String matchId, int knightMove, int mageMove){
+        service.submit(matchId, new MoveSubmission("knight", knightMove));
+        return service.submit(matchId, new MoveSubmission("mage", mageMove)).orElseThrow();
+    }
+
+    private static MatchSetup effectSetup(){
+        return new MatchSetup(
+                new MatchSetup.Combatant("knight", stats(90), List.of(rage, poison, rest)),
+                new MatchSetup.Combatant("mage", stats(75), List.of(rage, poison, rest)));
+    }
+
+    private static MatchSetup setup(){
+        return new MatchSetup(
+                new MatchSetup.Combatant("knight", stats(90), List.of(slash, focus)),
+                new MatchSetup.Combatant("mage", stats(75), List.of(slash, focus)));
+    }
+
+    private static Map<String, Integer> stats(int agility){
+        return Map.of(
+                "Force", 75,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 75,
+                "Health", 9000,
+                "Energy", 150,
+                "Agility", agility);
+    }
+}
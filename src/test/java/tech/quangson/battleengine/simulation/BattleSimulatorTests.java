@@ -0,0 +1,78 @@
+package tech.quangson.battleengine.simulation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class BattleSimulatorTests {
+
+    private static final GameMove slash = new GameMove("Slash", "Combat", "Damage", 60, 40, 10, 1, null, null);
+    private static final GameMove bolt = new GameMove("Bolt", "Magic", "Damage", 70, 50, 10, 1, null, null);
+    private static final GameMove guard = new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null);
+
+    @Test
+    void testSameSeedSameResultsOnAnyThreadCount() throws IOException {
+        var spec = spec(10_000, 7);
+        Assertions.assertEquals(simulate(spec, 1), simulate(spec, 4));
+        Assertions.assertNotEquals(simulate(spec, 4), simulate(spec(10_000, 8), 4));
+    }
+
+    @Test
+    void testOneRowPerPairing() throws IOException {
+        var lines = simulate(spec(100, 1), 2).split("\n");
+        Assertions.assertEquals(BattleSimulator.Header, lines[0]);
+        Assertions.assertEquals(4, lines.length); // three builds make three pairings
+        for (int i = 1; i < lines.length; i++) {
+            var columns = lines[i].split(",");
+            long matches = Long.parseLong(columns[2]);
+            long decided = Long.parseLong(columns[3]) + Long.parseLong(columns[4]) + Long.parseLong(columns[5]);
+            Assertions.assertEquals(100, matches);
+            Assertions.assertEquals(matches, decided);
+        }
+    }
+
+    @Test
+    void testStrongerBuildWinsMore() throws IOException {
+        var row = simulate(spec(2_000, 3), 2).split("\n")[1].split(",");
+        Assertions.assertEquals("brute", row[0]);
+        Assertions.assertTrue(Double.parseDouble(row[6]) > 0.5, "brute should beat the weakling: " + String.join(",", row));
+    }
+
+    private static String simulate(SimulationSpec spec, int threads) throws IOException {
+        var pool = new ForkJoinPool(threads);
+        try {
+            var csv = new StringWriter();
+            new BattleSimulator(pool, MoveCatalog.empty()).run(spec, csv);
+            return csv.toString();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static SimulationSpec spec(long matches, long seed){
+        return new SimulationSpec(List.of(
+                new Build("brute", stats(110, 75), List.of(slash, guard), null),
+                new Build("weakling", stats(50, 75), List.of(slash, guard), null),
+                new Build("mage", stats(75, 90), List.of(bolt, guard), null)),
+                matches, seed, 50, "random");
+    }
+
+    private static Map<String, Integer> stats(int force, int agility){
+        return Map.of(
+                "Force", force,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 90,
+                "Health", 9000,
+                "Energy", 400,
+                "Agility", agility);
+    }
+}
@@ -0,0 +1,152 @@
+package tech.quangson.battleengine.simulation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class TournamentTests {
+
+    private static final GameMove slash = new GameMove("Slash", "Combat", "Damage", 60, 40, 10, 1, null, null);
+    private static final GameMove bolt = new GameMove("Bolt", "Magic", "Damage", 70, 50, 10, 1, null, null);
+    private static final GameMove guard = new GameMove("Guard", "Cover", "Block", 50, 10, 10, 1, null, null);
+    private static final GameMove wait = new GameMove("Wait", "Other", "Rest", 0, 0, 10, 1, null, null);
+
+    @Test
+    void testSeedingKeepsTopSeedsApart(){
+        Assertions.assertArrayEquals(new int[]{0, 7, 3, 4, 1, 6, 2, 5}, Tournament.seeding(8));
+    }
+
+    @Test
+    void testSameChampionOnAnyThreadCount() throws IOException {
+        var spec = spec(100, 7, 50, 0);
+        var serial = run(spec, 1, null);
+        var parallel = run(spec, 4, null);
+        Assertions.assertEquals(serial.champion(), parallel.champion());
+        Assertions.assertEquals(99, parallel.played());
+        Assertions.assertEquals(7, parallel.rounds().size());
+        Assertions.assertEquals(64, parallel.rounds().get(0).matches());
+        Assertions.assertEquals(28, parallel.rounds().get(0).byes());
+        Assertions.assertEquals(36, parallel.rounds().get(0).played());
+        Assertions.assertEquals(1, parallel.rounds().get(6).played());
+        Assertions.assertTrue(parallel.rounds().get(0).p99Nanos() >= parallel.rounds().get(0).p50Nanos());
+    }
+
+    @Test
+    void testResumesFromCheckpoint(@TempDir Path directory) throws IOException {
+        var spec = spec(200, 3, 50, 0);
+        var file = directory.resolve("bracket.csv");
+        var full = run(spec, 2, file);
+        var lines = Files.readAllLines(file);
+        Assertions.assertEquals(2 + full.played(), lines.size());
+
+        // keep the header and 80 results, then a line torn by a crash
+        Files.writeString(file, String.join("\n", lines.subList(0, 82)) + "\n" + lines.get(82).substring(0, 5));
+        var resumed = run(spec, 2, file);
+        Assertions.assertEquals(full.champion(), resumed.champion());
+        Assertions.assertEquals(80, resumed.restored());
+        Assertions.assertEquals(full.played() - 80, resumed.played());
+        Assertions.assertEquals(lines.size(), Files.readAllLines(file).size());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> run(spec(200, 4, 50, 0), 2, file));
+    }
+
+    @Test
+    void testTimeLimitDecidesLongMatches() throws IOException {
+        var result = run(stalling(16, 1), 2, null);
+        for (var round : result.rounds()) {
+            Assertions.assertEquals(round.played(), round.timedOut());
+        }
+        // every match is a draw on Health, which goes to the higher seed
+        Assertions.assertEquals(0, result.champion());
+    }
+
+    @Test
+    void testCancelStopsRunningMatches() throws InterruptedException {
+        var pool = new ForkJoinPool(2);
+        try {
+            var tournament = new Tournament(pool, MoveCatalog.empty());
+            var canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                tournament.cancel();
+            });
+            canceller.start();
+            long start = System.nanoTime();
+            Assertions.assertThrows(CancellationException.class, () -> tournament.run(stalling(8, 60_000), null));
+            Assertions.assertTrue(System.nanoTime() - start < 10_000_000_000L);
+            // a worker may still be on its way back to the pool after its last match
+            Assertions.assertTrue(pool.awaitQuiescence(5, TimeUnit.SECONDS));
+            canceller.join();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCancelBeforeRunIsKept() throws IOException {
+        var pool = new ForkJoinPool(2);
+        try {
+            var tournament = new Tournament(pool, MoveCatalog.empty());
+            tournament.cancel();
+            long start = System.nanoTime();
+            Assertions.assertThrows(CancellationException.class, () -> tournament.run(stalling(8, 60_000), null));
+            Assertions.assertTrue(System.nanoTime() - start < 10_000_000_000L);
+            // the cancel was used up by that run
+            Assertions.assertEquals(0, tournament.run(stalling(2, 1), null).champion());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Tournament.Result run(TournamentSpec spec, int threads, Path checkpoint) throws IOException {
+        var pool = new ForkJoinPool(threads);
+        try {
+            return new Tournament(pool, MoveCatalog.empty()).run(spec, checkpoint);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static TournamentSpec spec(int entrants, long seed, int maxTurns, long timeoutMs){
+        return new TournamentSpec(List.of(
+                new Build("brute", stats(110, 75), List.of(slash, guard), null),
+                new Build("weakling", stats(50, 75), List.of(slash, guard), null),
+                new Build("mage", stats(75, 90), List.of(bolt, guard), null)),
+                entrants, seed, maxTurns, "random", timeoutMs);
+    }
+
+    // nobody ever attacks, so only the time limit ends a match
+    private static TournamentSpec stalling(int entrants, long timeoutMs){
+        return new TournamentSpec(List.of(new Build("idle", stats(75, 75), List.of(wait), null)),
+                entrants, 1, Integer.MAX_VALUE, "random", timeoutMs);
+    }
+
+    private static Map<String, Integer> stats(int force, int agility){
+        return Map.of(
+                "Force", force,
+                "Focus", 75,
+                "Reflex", 75,
+                "Spirit", 90,
+                "Health", 9000,
+                "Energy", 400,
+                "Agility", agility);
+    }
+}
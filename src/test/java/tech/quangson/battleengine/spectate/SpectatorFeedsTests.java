@@ -0,0 +1,152 @@
+package tech.quangson.battleengine.spectate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tech.quangson.battleengine.mechanics.GameMove;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.session.MatchService;
+import tech.quangson.battleengine.session.MatchSetup;
+import tech.quangson.battleengine.session.MatchStore;
+import tech.quangson.battleengine.session.MoveSubmission;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SpectatorFeedsTests {
+
+    private static final GameMove slash = new GameMove("Slash", "Combat", "Damage", 60, 0, 10, 1, null, null);
+
+    private final SpectatorFeeds feeds = new SpectatorFeeds(new ObjectMapper(), Runnable::run, 4, 3);
+    private final MatchService matches = new MatchService(new MatchStore(4, Duration.ofMinutes(1)), MoveCatalog.empty(),
+            TurnMetrics.NONE, feeds, 5);
+
+    // takes frames only while open, like a socket with room in its buffer
+    private static final class Recorder extends Spectator {
+        final List<byte[]> frames = new ArrayList<>();
+        boolean open = true;
+        boolean finished;
+
+        Recorder(SpectatorFeeds feeds, MatchService matches, String matchId) {
+            super(() -> feeds.snapshot(matches.view(matchId)));
+        }
+
+        @Override
+        protected boolean ready() {
+            return open && !finished;
+        }
+
+        @Override
+        protected void write(byte[] frame) {
+            frames.add(frame);
+        }
+
+        @Override
+        protected void flush() {}
+
+        @Override
+        protected void finish() {
+            finished = true;
+        }
+
+        @Override
+        protected void abort(Exception e) {
+            throw new AssertionError(e);
+        }
+
+        List<String> events() {
+            return frames.stream()
+                    .map(frame -> new String(frame, StandardCharsets.UTF_8).lines().findFirst().orElseThrow())
+                    .toList();
+        }
+    }
+
+    @Test
+    void testSpectatorsShareEncodedFrames(){
+        var matchId = matches.create(setup(9000));
+        var first = new Recorder(feeds, matches, matchId);
+        var second = new Recorder(feeds, matches, matchId);
+        Assertions.assertTrue(feeds.subscribe(matchId, first));
+        Assertions.assertTrue(feeds.subscribe(matchId, second));
+        play(matchId);
+        play(matchId);
+
+        Assertions.assertEquals(List.of("event: match", "event: turn", "event: turn"), first.events());
+        Assertions.assertSame(first.frames.get(1), second.frames.get(1));
+        Assertions.assertTrue(new String(first.frames.get(2), StandardCharsets.UTF_8).contains("\"turn\":2"));
+        Assertions.assertEquals(2, feeds.frames());
+    }
+
+    @Test
+    void testSlowSpectatorResyncsInsteadOfQueueing(){
+        var matchId = matches.create(setup(90_000));
+        var slow = new Recorder(feeds, matches, matchId);
+        var fast = new Recorder(feeds, matches, matchId);
+        feeds.subscribe(matchId, slow);
+        feeds.subscribe(matchId, fast);
+        slow.open = false;
+        for (int i = 0; i < 10; i++) {
+            play(matchId);
+        }
+        slow.open = true;
+        slow.drain();
+
+        Assertions.assertEquals(11, fast.frames.size());
+        // ten turns went by with room for four: a snapshot at turn 10 replaces them all
+        Assertions.assertEquals(List.of("event: match", "event: match"), slow.events());
+        Assertions.assertTrue(new String(slow.frames.get(1), StandardCharsets.UTF_8).contains("\"turn\":10"));
+        Assertions.assertTrue(feeds.droppedFrames() > 0);
+
+        play(matchId);
+        Assertions.assertEquals("event: turn", slow.events().get(2));
+    }
+
+    @Test
+    void testStreamsCloseWithTheMatch(){
+        var finished = matches.create(setup(1));
+        var ended = matches.create(setup(9000));
+        var watcher = new Recorder(feeds, matches, finished);
+        var other = new Recorder(feeds, matches, ended);
+        feeds.subscribe(finished, watcher);
+        feeds.subscribe(ended, other);
+        play(finished);
+        matches.end(ended);
+
+        Assertions.assertEquals(List.of("event: match", "event: turn", "event: closed"), watcher.events());
+        Assertions.assertTrue(watcher.finished);
+        Assertions.assertEquals(List.of("event: match", "event: closed"), other.events());
+        Assertions.assertEquals(0, feeds.matches());
+    }
+
+    @Test
+    void testCapsSpectatorsPerMatch(){
+        var matchId = matches.create(setup(9000));
+        var recorders = new ArrayList<Recorder>();
+        for (int i = 0; i < 3; i++) {
+            recorders.add(new Recorder(feeds, matches, matchId));
+            Assertions.assertTrue(feeds.subscribe(matchId, recorders.get(i)));
+        }
+        Assertions.assertFalse(feeds.subscribe(matchId, new Recorder(feeds, matches, matchId)));
+
+        recorders.forEach(Spectator::close);
+        Assertions.assertEquals(0, feeds.spectators());
+        Assertions.assertEquals(0, feeds.matches());
+    }
+
+    private void play(String matchId){
+        matches.submit(matchId, new MoveSubmission("knight", 0));
+        matches.submit(matchId, new MoveSubmission("mage", 0));
+    }
+
+    private static MatchSetup setup(int health){
+        var stats = Map.of("Force", 75, "Focus", 75, "Reflex", 75, "Spirit", 75, "Health", health, "Energy", 150,
+                "Agility", 80);
+        return new MatchSetup(
+                new MatchSetup.Combatant("knight", stats, List.of(slash)),
+                new MatchSetup.Combatant("mage", stats, List.of(slash)));
+    }
+}
@@ -0,0 +1,109 @@
+package tech.quangson.battleengine.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tech.quangson.battleengine.configuration.ReactiveConfiguration;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+public class ReactiveTurnHandlerTests {
+
+    private static final String Turn = "{\"player1State\":{\"playerId\":\"p1\",\"moveId\":0,"
+            + "\"stats\":{\"Force\":75,\"Focus\":75,\"Reflex\":75,\"Spirit\":75,\"Health\":9000,\"Energy\":150,\"Agility\":90}},"
+            + "\"player2State\":{\"playerId\":\"p2\",\"moveId\":0,"
+            + "\"stats\":{\"Force\":75,\"Focus\":75,\"Reflex\":75,\"Spirit\":75,\"Health\":9000,\"Energy\":150,\"Agility\":75}}}";
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final WebTestClient client;
+
+    ReactiveTurnHandlerTests() throws Exception {
+        var mapper = new ObjectMapper();
+        MoveCatalog catalog;
+        try (var in = getClass().getResourceAsStream("/moves.json")) {
+            catalog = MoveCatalog.load(in, mapper);
+        }
+        var ts = new TurnServiceImpl(catalog);
+        var handler = new ReactiveTurnHandler(ts, new BatchTurnService(ts, pool), catalog, TurnMetrics.NONE,
+                mapper, pool, 10, 2);
+        client = WebTestClient.bindToRouterFunction(new ReactiveConfiguration().turnRoutes(handler)).build();
+    }
+
+    @AfterEach
+    void shutdown(){
+        pool.shutdown();
+    }
+
+    @Test
+    void testSingleTurn(){
+        client.post().uri("/engine/turn").contentType(MediaType.APPLICATION_JSON).bodyValue(Turn)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[1].sequence[0]").isEqualTo("p1")
+                .jsonPath("$[1].player2State.stats.Health").isEqualTo(5200);
+    }
+
+    @Test
+    void testNdjsonStreamKeepsOrderAcrossChunks(){
+        var body = Turn + "\nnope\n" + Turn + "\n" + Turn + "\n";
+        var response = client.post().uri("/engine/turns").contentType(MediaType.APPLICATION_NDJSON).bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        var lines = response.split("\n");
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"result\":"));
+        Assertions.assertTrue(lines[1].startsWith("{\"error\":\"Malformed turn"));
+        Assertions.assertTrue(lines[2].startsWith("{\"result\":"));
+        Assertions.assertTrue(lines[3].startsWith("{\"result\":"));
+    }
+
+    @Test
+    void testJsonBatchReportsErrorsPerItem(){
+        client.post().uri("/engine/turns").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[" + Turn + ", null, {\"player1State\": 7}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].result[1].player2State.stats.Health").isEqualTo(5200)
+                .jsonPath("$[1].error").isEqualTo("Missing turn")
+                .jsonPath("$[2].error").value(error -> Assertions.assertTrue(((String) error).startsWith("Malformed turn")));
+    }
+
+    @Test
+    void testOversizedBatchIsRejected(){
+        var body = "[" + String.join(",", Collections.nCopies(11, Turn)) + "]";
+        client.post().uri("/engine/turns").contentType(MediaType.APPLICATION_JSON).bodyValue(body)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Batch exceeds the limit of 10 turns");
+    }
+
+    @Test
+    void testTurnErrorsAreJson(){
+        client.post().uri("/engine/turn").contentType(MediaType.APPLICATION_JSON).bodyValue("{\"player1State\": 7}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").value(error -> Assertions.assertTrue(((String) error).startsWith("Malformed turn")));
+        client.post().uri("/engine/turns").contentType(MediaType.APPLICATION_JSON).bodyValue("[{not json")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").value(error -> Assertions.assertTrue(((String) error).startsWith("Malformed batch")));
+    }
+}
@@ -0,0 +1,167 @@
+package tech.quangson.battleengine.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import tech.quangson.battleengine.codec.BinaryTurnMessageConverter;
+import tech.quangson.battleengine.codec.TurnCodec;
+import tech.quangson.battleengine.mechanics.BatchTurnService;
+import tech.quangson.battleengine.mechanics.MoveCatalog;
+import tech.quangson.battleengine.mechanics.TurnMetrics;
+import tech.quangson.battleengine.mechanics.TurnOutcome;
+import tech.quangson.battleengine.mechanics.TurnServiceImpl;
+import tech.quangson.battleengine.mechanics.TurnState;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TurnControllerTests {
+
+    private static final String Turn = """
+            {"player1State":{"playerId":"p1","move":{"moveName":"Slash","category":"Combat","type":"Damage","basePower":60,"cost":50,"limit":10,"priority":1},
+              "stats":{"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Health":9000,"Energy":150,"Agility":90}},
+             "player2State":{"playerId":"p2","move":{"moveName":"Slash","category":"Combat","type":"Damage","basePower":60,"cost":50,"limit":10,"priority":1},
+              "stats":{"Force":75,"Focus":75,"Reflex":75,"Spirit":75,"Health":9000,"Energy":150,"Agility":75}}}""";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MoveCatalog catalog;
+
+    @Test
+    void testJsonBatchReportsErrorsPerItem() throws Exception {
+        mvc.perform(post("/engine/turns").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + Turn + ", null, {\"player1State\": 7}, " + Turn + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result[1].sequence[0]").value("p1"))
+                .andExpect(jsonPath("$[0].result[1].player2State.stats.Health").value(5200))
+                .andExpect(jsonPath("$[1].error").value("Missing turn"))
+                .andExpect(jsonPath("$[2].error").value(startsWith("Malformed turn")))
+                .andExpect(jsonPath("$[3].result[1].player2State.stats.Health").value(5200));
+    }
+
+    @Test
+    void testJsonBatchStopsReadingPastTheLimit() throws Exception {
+        var ts = new TurnServiceImpl(catalog);
+        var controller = new TurnController(ts, new BatchTurnService(ts, ForkJoinPool.commonPool()), catalog,
+                TurnMetrics.NONE, mapper, 2, 16, 1 << 16);
+        // the third element is never parsed, so the garbage after it is never reached
+        var body = "[" + Turn + "," + Turn + "," + Turn + ", {not json";
+        var response = controller.processTurns(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertEquals("Batch exceeds the limit of 2 turns", ((TurnOutcome) response.getBody()).error());
+
+        mvc.perform(post("/engine/turns").contentType(MediaType.APPLICATION_JSON).content("{\"not\": \"an array\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Expected a JSON array of turns"));
+    }
+
+    @Test
+    void testNdjsonBatchStreamsOneLinePerTurn() throws Exception {
+        var body = Turn.replace("\n", "") + "\n{not json\n\n" + Turn.replace("\n", "") + "\n";
+        var response = mvc.perform(post("/engine/turns").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = response.split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"result\":"));
+        Assertions.assertTrue(lines[1].startsWith("{\"error\":\"Malformed turn"));
+        Assertions.assertTrue(lines[2].startsWith("{\"result\":"));
+    }
+
+    @Test
+    void testNdjsonLineOverTheLimitFailsItsSlot() throws Exception {
+        var line = Turn.replace("\n", "");
+        var ts = new TurnServiceImpl(catalog);
+        var controller = new TurnController(ts, new BatchTurnService(ts, ForkJoinPool.commonPool()), catalog,
+                TurnMetrics.NONE, mapper, 2, 16, line.length());
+        var body = line + "\r\n" + "x".repeat(100_000) + "\n" + line;
+        var response = new MockHttpServletResponse();
+        controller.processTurnStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+
+        var lines = response.getContentAsString().split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"result\":"));
+        Assertions.assertTrue(lines[1].startsWith("{\"error\":\"Turn line exceeds"));
+        Assertions.assertTrue(lines[2].startsWith("{\"result\":"));
+    }
+
+    @Test
+    void testBinaryTurnIsNegotiatedByContentTypeAndAccept() throws Exception {
+        var codec = new TurnCodec(catalog);
+        var request = ByteBuffer.allocate(512);
+        codec.writeTurn(mapper.readValue(Turn, TurnState.class), request);
+
+        var response = mvc.perform(post("/engine/turn")
+                        .contentType(BinaryTurnMessageConverter.Binary)
+                        .accept(BinaryTurnMessageConverter.Binary)
+                        .content(Arrays.copyOf(request.array(), request.position())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryTurnMessageConverter.Binary))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var result = codec.readTurns(ByteBuffer.wrap(response));
+        Assertions.assertEquals(2, result.length);
+        Assertions.assertEquals("p1", result[1].getSequence()[0]);
+        Assertions.assertEquals(5200, result[1].getPlayer2State().getStat("Health"));
+    }
+
+    @Test
+    void testBinaryErrorsAreSentAsJson() throws Exception {
+        mvc.perform(post("/engine/turn")
+                        .contentType(BinaryTurnMessageConverter.Binary)
+                        .accept(BinaryTurnMessageConverter.Binary)
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").exists());
+
+        var codec = new TurnCodec(catalog);
+        var request = ByteBuffer.allocate(512);
+        var turn = mapper.readValue(Turn, TurnState.class);
+        // a move id the catalog does not have
+        codec.writeTurn(new TurnState(new TurnState.PlayerState("p1", null, turn.getPlayer1State().stats(), 9999),
+                turn.getPlayer2State()), request);
+        mvc.perform(post("/engine/turn")
+                        .contentType(BinaryTurnMessageConverter.Binary)
+                        .accept(BinaryTurnMessageConverter.Binary)
+                        .content(Arrays.copyOf(request.array(), request.position())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testUnknownStatIsRejected() throws Exception {
+        mvc.perform(post("/engine/turn").contentType(MediaType.APPLICATION_JSON)
+                        .content(Turn.replace("\"Agility\":75}", "\"Agility\":75,\"Luck\":5}")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("Unknown stat: Luck")));
+    }
+}
@@ -0,0 +1,126 @@
+package tech.quangson.battleengine.mechanics;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+    Vector API path of TurnBatchEvaluator; only loaded by create() when jdk.incubator.vector is present.
+
+    The damage inputs of the acting and defending player are first gathered into double columns by one scalar pass,
+    because JDK 17 does not intrinsify int/double vector conversions and would box every vector. All three damage
+    formulas are then computed per vector and the one for the lane's category is kept; division and multiplication
+    are IEEE per lane, as in the kernel. The double to int cast of the damage and sequencing stay scalar for the
+    same reason.
+ */
+final class VectorTurnBatchEvaluator extends TurnBatchEvaluator {
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_256;
+    private static final VectorSpecies<Integer> I = IntVector.SPECIES_256;
+    private static final int Step = Math.max(D.length(), I.length());
+
+    private static final int Health = Stat.HEALTH.ordinal();
+    private static final int Energy = Stat.ENERGY.ordinal();
+    private static final int Force = Stat.FORCE.ordinal();
+    private static final int Focus = Stat.FOCUS.ordinal();
+    private static final int Reflex = Stat.REFLEX.ordinal();
+    private static final int Spirit = Stat.SPIRIT.ordinal();
+
+    // gathered double columns in TurnBatch.wide, from the acting and defending player of each lane
+    private static final int AtkEnergy = 0;
+    private static final int AtkForce = 1;
+    private static final int AtkSpirit = 2;
+    private static final int AtkCategory = 3;
+    private static final int AtkPower = 4;
+    private static final int DefEnergy = 5;
+    private static final int DefReflex = 6;
+    private static final int DefFocus = 7;
+    private static final int DefType = 8;
+    private static final int DefPower = 9;
+    private static final int WideColumns = 10;
+
+    @Override
+    public String name() {
+        return "vector-" + D.length() + "x";
+    }
+
+    @Override
+    int damageAndCost(TurnBatch batch, int n, boolean firstRound) {
+        int upper = n - n % Step;
+        if (upper == 0) {
+            return 0;
+        }
+        var wide = gather(batch, upper, firstRound);
+        var working = batch.rounds[1];
+        int p1 = TurnResult.Player1;
+        int p2 = TurnResult.Player2;
+
+        for (int i = 0; i < upper; i += D.length()) {
+            var atkEnergy = DoubleVector.fromArray(D, wide[AtkEnergy], i);
+            var atkForce = DoubleVector.fromArray(D, wide[AtkForce], i);
+            var atkSpirit = DoubleVector.fromArray(D, wide[AtkSpirit], i);
+            var atkCategory = DoubleVector.fromArray(D, wide[AtkCategory], i);
+            var basePower = DoubleVector.fromArray(D, wide[AtkPower], i);
+            var defEnergy = DoubleVector.fromArray(D, wide[DefEnergy], i);
+            var defReflex = DoubleVector.fromArray(D, wide[DefReflex], i);
+            var defFocus = DoubleVector.fromArray(D, wide[DefFocus], i);
+            var defType = DoubleVector.fromArray(D, wide[DefType], i);
+            var defPower = DoubleVector.fromArray(D, wide[DefPower], i);
+
+            var combat = atkEnergy.div(defEnergy.add(100)).mul(atkForce).div(defReflex).mul(basePower).add(2).mul(100);
+            var magic = atkEnergy.div(defEnergy.add(100)).mul(atkSpirit).div(defFocus).mul(basePower).add(2).mul(100);
+            var special = atkForce.add(atkSpirit).add(atkEnergy).div(defReflex.add(defFocus)).mul(basePower).add(2).mul(100);
+            var damage = DoubleVector.zero(D)
+                    .blend(combat, atkCategory.eq(Combat))
+                    .blend(magic, atkCategory.eq(Magic))
+                    .blend(special, atkCategory.eq(Special));
+            var blocked = damage.mul(DoubleVector.broadcast(D, 1).sub(defPower.div(100)));
+            damage.blend(blocked, defType.eq(Block)).intoArray(batch.damage, i);
+        }
+
+        var roundI = VectorMask.fromLong(I, firstRound ? -1L : 0L);
+        for (int i = 0; i < upper; i += I.length()) {
+            var p1Acts = VectorMask.fromArray(I, batch.player1First, i).eq(roundI);
+            var cost = IntVector.fromArray(I, batch.cost[p2], i).blend(IntVector.fromArray(I, batch.cost[p1], i), p1Acts);
+            var startEnergy = IntVector.fromArray(I, batch.stats[p2][Energy], i)
+                    .blend(IntVector.fromArray(I, batch.stats[p1][Energy], i), p1Acts);
+            var energy = startEnergy.sub(cost).max(0);
+            IntVector.fromArray(I, working[p1][Energy], i).blend(energy, p1Acts).intoArray(working[p1][Energy], i);
+            IntVector.fromArray(I, working[p2][Energy], i).blend(energy, p1Acts.not()).intoArray(working[p2][Energy], i);
+        }
+
+        for (int lane = 0; lane < upper; lane++) {
+            int actor = batch.player1First[lane] == firstRound ? p1 : p2;
+            if (batch.type[actor][lane] == Damage) {
+                var health = working[1 - actor][Health];
+                health[lane] = Math.max(health[lane] - (int) batch.damage[lane], 0);
+            }
+        }
+        return upper;
+    }
+
+    // one scalar pass picks and widens the damage inputs of each lane; JDK 17 has no intrinsic for the conversion
+    private static double[][] gather(TurnBatch batch, int upper, boolean firstRound) {
+        var wide = batch.wide;
+        if (wide == null) {
+            wide = batch.wide = new double[WideColumns][batch.capacity()];
+        }
+        var working = batch.rounds[1];
+        for (int lane = 0; lane < upper; lane++) {
+            int atk = batch.player1First[lane] == firstRound ? TurnResult.Player1 : TurnResult.Player2;
+            int def = 1 - atk;
+            wide[AtkEnergy][lane] = working[atk][Energy][lane];
+            wide[AtkForce][lane] = working[atk][Force][lane];
+            wide[AtkSpirit][lane] = working[atk][Spirit][lane];
+            wide[AtkCategory][lane] = batch.category[atk][lane];
+            wide[AtkPower][lane] = batch.basePower[atk][lane];
+            wide[DefEnergy][lane] = working[def][Energy][lane];
+            wide[DefReflex][lane] = working[def][Reflex][lane];
+            wide[DefFocus][lane] = working[def][Focus][lane];
+            wide[DefType][lane] = batch.type[def][lane];
+            wide[DefPower][lane] = batch.basePower[def][lane];
+        }
+        return wide;
+    }
+}